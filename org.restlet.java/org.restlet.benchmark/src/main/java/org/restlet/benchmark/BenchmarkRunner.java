@@ -0,0 +1,72 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks. It accepts the usual JMH command line options, for
+ * example a regular expression selecting the benchmarks or "-f 1 -wi 3 -i 5"
+ * for shorter runs, and writes the results in JSON to the
+ * "benchmark-results.json" file unless the "-rf" option is given. The "-l"
+ * option lists the benchmarks.<br>
+ * <br>
+ * The JSON results of two releases can be compared with the usual JMH tools,
+ * as the benchmark names and parameters are stable.
+ * 
+ * @author Jerome Louvel
+ */
+public class BenchmarkRunner {
+
+	/** The default results file. */
+	public static final String DEFAULT_RESULTS_FILE = "benchmark-results.json";
+
+	/**
+	 * Main method.
+	 * 
+	 * @param args The JMH command line options.
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions commandLineOptions;
+
+		try {
+			commandLineOptions = new CommandLineOptions(args);
+		} catch (CommandLineOptionException e) {
+			System.err.println("Error parsing the command line: " + e.getMessage());
+			System.exit(1);
+			return;
+		}
+
+		if (commandLineOptions.shouldHelp()) {
+			commandLineOptions.showHelp();
+		} else if (commandLineOptions.shouldList()) {
+			new Runner(commandLineOptions).list();
+		} else {
+			OptionsBuilder options = new OptionsBuilder();
+			options.parent(commandLineOptions);
+
+			if (!commandLineOptions.getResultFormat().hasValue()) {
+				options.resultFormat(ResultFormatType.JSON);
+
+				if (!commandLineOptions.getResult().hasValue()) {
+					options.result(DEFAULT_RESULTS_FILE);
+				}
+			}
+
+			new Runner(options.build()).run();
+		}
+	}
+
+}
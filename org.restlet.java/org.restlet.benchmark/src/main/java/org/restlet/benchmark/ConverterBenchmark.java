@@ -0,0 +1,270 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.data.MediaType;
+import org.restlet.engine.Engine;
+import org.restlet.engine.converter.ConverterHelper;
+import org.restlet.ext.jackson.JacksonConverter;
+import org.restlet.representation.Representation;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.representation.Variant;
+import org.restlet.service.ConverterService;
+
+/**
+ * Benchmarks the conversions between beans and JSON representations by the
+ * converter service, backed by the Jackson extension.
+ * 
+ * @author Jerome Louvel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConverterBenchmark {
+
+	/**
+	 * Order bean.
+	 */
+	public static class Order {
+
+		/** The identifier. */
+		private String id;
+
+		/** The items. */
+		private List<OrderItem> items = new ArrayList<OrderItem>();
+
+		/** The status. */
+		private String status;
+
+		/**
+		 * Returns the identifier.
+		 * 
+		 * @return The identifier.
+		 */
+		public String getId() {
+			return this.id;
+		}
+
+		/**
+		 * Returns the items.
+		 * 
+		 * @return The items.
+		 */
+		public List<OrderItem> getItems() {
+			return this.items;
+		}
+
+		/**
+		 * Returns the status.
+		 * 
+		 * @return The status.
+		 */
+		public String getStatus() {
+			return this.status;
+		}
+
+		/**
+		 * Sets the identifier.
+		 * 
+		 * @param id The identifier.
+		 */
+		public void setId(String id) {
+			this.id = id;
+		}
+
+		/**
+		 * Sets the items.
+		 * 
+		 * @param items The items.
+		 */
+		public void setItems(List<OrderItem> items) {
+			this.items = items;
+		}
+
+		/**
+		 * Sets the status.
+		 * 
+		 * @param status The status.
+		 */
+		public void setStatus(String status) {
+			this.status = status;
+		}
+	}
+
+	/**
+	 * Order item bean.
+	 */
+	public static class OrderItem {
+
+		/** The unit price. */
+		private double price;
+
+		/** The product name. */
+		private String product;
+
+		/** The quantity. */
+		private int quantity;
+
+		/**
+		 * Returns the unit price.
+		 * 
+		 * @return The unit price.
+		 */
+		public double getPrice() {
+			return this.price;
+		}
+
+		/**
+		 * Returns the product name.
+		 * 
+		 * @return The product name.
+		 */
+		public String getProduct() {
+			return this.product;
+		}
+
+		/**
+		 * Returns the quantity.
+		 * 
+		 * @return The quantity.
+		 */
+		public int getQuantity() {
+			return this.quantity;
+		}
+
+		/**
+		 * Sets the unit price.
+		 * 
+		 * @param price The unit price.
+		 */
+		public void setPrice(double price) {
+			this.price = price;
+		}
+
+		/**
+		 * Sets the product name.
+		 * 
+		 * @param product The product name.
+		 */
+		public void setProduct(String product) {
+			this.product = product;
+		}
+
+		/**
+		 * Sets the quantity.
+		 * 
+		 * @param quantity The quantity.
+		 */
+		public void setQuantity(int quantity) {
+			this.quantity = quantity;
+		}
+	}
+
+	/** The converter service. */
+	private ConverterService converterService;
+
+	/** The JSON serialization of the order. */
+	private String json;
+
+	/** The order to convert. */
+	private Order order;
+
+	/** The target variant. */
+	private Variant variant;
+
+	/**
+	 * Benchmarks the conversion of a JSON representation into a bean.
+	 * 
+	 * @return The order.
+	 * @throws IOException
+	 */
+	@Benchmark
+	public Order fromJson() throws IOException {
+		return this.converterService.toObject(new StringRepresentation(this.json, MediaType.APPLICATION_JSON),
+				Order.class, null);
+	}
+
+	/**
+	 * Benchmarks the conversion of a bean into a JSON representation and back.
+	 * 
+	 * @return The order.
+	 * @throws IOException
+	 */
+	@Benchmark
+	public Order roundTrip() throws IOException {
+		Representation representation = this.converterService.toRepresentation(this.order, this.variant);
+		return this.converterService.toObject(
+				new StringRepresentation(representation.getText(), MediaType.APPLICATION_JSON), Order.class, null);
+	}
+
+	/**
+	 * Creates the order and checks that the Jackson converter is registered.
+	 * 
+	 * @throws IOException
+	 */
+	@Setup
+	public void setUp() throws IOException {
+		boolean jackson = false;
+
+		for (ConverterHelper converter : Engine.getInstance().getRegisteredConverters()) {
+			jackson = jackson || (converter instanceof JacksonConverter);
+		}
+
+		if (!jackson) {
+			throw new IllegalStateException("The Jackson converter isn't registered");
+		}
+
+		this.converterService = new ConverterService();
+		this.variant = new Variant(MediaType.APPLICATION_JSON);
+		this.order = new Order();
+		this.order.setId("2024-0042");
+		this.order.setStatus("shipped");
+
+		for (int i = 0; i < 5; i++) {
+			OrderItem item = new OrderItem();
+			item.setProduct("Product " + i);
+			item.setPrice(9.99 + i);
+			item.setQuantity(i + 1);
+			this.order.getItems().add(item);
+		}
+
+		this.json = this.converterService.toRepresentation(this.order, this.variant).getText();
+	}
+
+	/**
+	 * Benchmarks the conversion of a bean into a JSON representation.
+	 * 
+	 * @return The JSON text.
+	 * @throws IOException
+	 */
+	@Benchmark
+	public String toJson() throws IOException {
+		return this.converterService.toRepresentation(this.order, this.variant).getText();
+	}
+
+}
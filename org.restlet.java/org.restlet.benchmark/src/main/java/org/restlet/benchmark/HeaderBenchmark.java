@@ -0,0 +1,116 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.data.ClientInfo;
+import org.restlet.data.Encoding;
+import org.restlet.data.Header;
+import org.restlet.data.Language;
+import org.restlet.data.MediaType;
+import org.restlet.data.Preference;
+import org.restlet.engine.header.HeaderReader;
+import org.restlet.engine.header.PreferenceReader;
+
+/**
+ * Benchmarks the parsing of realistic headers, as sent by current browsers,
+ * with the {@link HeaderReader} and {@link PreferenceReader} classes.
+ * 
+ * @author Jerome Louvel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HeaderBenchmark {
+
+	/** A browser "Accept" header. */
+	private static final String ACCEPT = "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,"
+			+ "image/webp,image/apng,*/*;q=0.8,application/signed-exchange;v=b3;q=0.7";
+
+	/** A browser "Accept-Encoding" header. */
+	private static final String ACCEPT_ENCODING = "gzip, deflate, br, zstd";
+
+	/** A browser "Accept-Language" header. */
+	private static final String ACCEPT_LANGUAGE = "en-US,en;q=0.9,fr-FR;q=0.8,fr;q=0.7,de;q=0.6";
+
+	/** A raw header line. */
+	private static final String HEADER_LINE = "Cache-Control: no-cache, no-store, must-revalidate, max-age=0";
+
+	/**
+	 * Benchmarks the parsing of all the preference headers into a client info.
+	 * 
+	 * @return The updated client info.
+	 */
+	@Benchmark
+	public ClientInfo readClientInfo() {
+		ClientInfo result = new ClientInfo();
+		PreferenceReader.addMediaTypes(ACCEPT, result);
+		PreferenceReader.addEncodings(ACCEPT_ENCODING, result);
+		PreferenceReader.addLanguages(ACCEPT_LANGUAGE, result);
+		return result;
+	}
+
+	/**
+	 * Benchmarks the parsing of a raw header line.
+	 * 
+	 * @return The parsed header.
+	 * @throws IOException
+	 */
+	@Benchmark
+	public Header readHeader() throws IOException {
+		return HeaderReader.readHeader(HEADER_LINE);
+	}
+
+	/**
+	 * Benchmarks the parsing of the "Accept" header.
+	 * 
+	 * @return The media type preferences.
+	 */
+	@Benchmark
+	public List<Preference<MediaType>> readMediaTypes() {
+		return new PreferenceReader<MediaType>(PreferenceReader.TYPE_MEDIA_TYPE, ACCEPT).readValues();
+	}
+
+	/**
+	 * Benchmarks the parsing of the "Accept-Encoding" header.
+	 * 
+	 * @return The encoding preferences.
+	 */
+	@Benchmark
+	public List<Preference<Encoding>> readEncodings() {
+		return new PreferenceReader<Encoding>(PreferenceReader.TYPE_ENCODING, ACCEPT_ENCODING).readValues();
+	}
+
+	/**
+	 * Benchmarks the parsing of the "Accept-Language" header.
+	 * 
+	 * @return The language preferences.
+	 */
+	@Benchmark
+	public List<Preference<Language>> readLanguages() {
+		return new PreferenceReader<Language>(PreferenceReader.TYPE_LANGUAGE, ACCEPT_LANGUAGE).readValues();
+	}
+
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.restlet.data.Form;
+import org.restlet.data.Reference;
+
+/**
+ * Benchmarks the parsing of references into their components, their
+ * normalization and their resolution against a base reference.
+ * 
+ * @author Jerome Louvel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReferenceBenchmark {
+
+	/** A base reference. */
+	private static final String BASE_URI = "https://api.example.com:8443/v1/catalog/";
+
+	/** A reference to normalize. */
+	private static final String DENORMALIZED_URI = "HTTPS://API.Example.com:443/v1/./catalog/products/../items/%7Ejdoe/";
+
+	/** A reference with all components. */
+	private static final String FULL_URI = "https://jdoe@api.example.com:8443/v1/catalog/products/1234"
+			+ "?fields=name,price&sort=-price&page=2#reviews";
+
+	/**
+	 * Benchmarks the normalization of a reference.
+	 * 
+	 * @return The normalized reference.
+	 */
+	@Benchmark
+	public Reference normalize() {
+		return new Reference(DENORMALIZED_URI).normalize();
+	}
+
+	/**
+	 * Benchmarks the parsing of a reference into its components.
+	 * 
+	 * @param blackhole The blackhole consuming the components.
+	 */
+	@Benchmark
+	public void parse(Blackhole blackhole) {
+		Reference reference = new Reference(FULL_URI);
+		blackhole.consume(reference.getScheme());
+		blackhole.consume(reference.getUserInfo());
+		blackhole.consume(reference.getHostDomain());
+		blackhole.consume(reference.getHostPort());
+		blackhole.consume(reference.getPath());
+		blackhole.consume(reference.getQuery());
+		blackhole.consume(reference.getFragment());
+	}
+
+	/**
+	 * Benchmarks the parsing of the query of a reference into a form.
+	 * 
+	 * @return The query form.
+	 */
+	@Benchmark
+	public Form parseQuery() {
+		return new Reference(FULL_URI).getQueryAsForm();
+	}
+
+	/**
+	 * Benchmarks the resolution of a relative reference against a base
+	 * reference.
+	 * 
+	 * @return The resolved reference.
+	 */
+	@Benchmark
+	public Reference resolve() {
+		return new Reference(new Reference(BASE_URI), "../orders/42?expand=items").getTargetRef();
+	}
+
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.Application;
+import org.restlet.Component;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import org.restlet.resource.Get;
+import org.restlet.resource.ServerResource;
+import org.restlet.routing.Router;
+
+/**
+ * Benchmarks end-to-end in-process calls with the RIAP pseudo-protocol,
+ * through the component's services, the internal router, the application's
+ * services and router, down to a Restlet or a server resource.
+ * 
+ * @author Jerome Louvel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RiapBenchmark {
+
+	/**
+	 * Server resource returning a short text.
+	 */
+	public static class HelloResource extends ServerResource {
+
+		/**
+		 * Returns a greeting.
+		 * 
+		 * @return A greeting.
+		 */
+		@Get("txt")
+		public String hello() {
+			return "Hello " + getAttribute("name");
+		}
+	}
+
+	/** The component hosting the application. */
+	private Component component;
+
+	/**
+	 * Invokes the application.
+	 * 
+	 * @param uri The target URI.
+	 * @return The response.
+	 */
+	private Response call(String uri) {
+		Request request = new Request(Method.GET, uri);
+		Response response = new Response(request);
+		this.component.getContext().getClientDispatcher().handle(request, response);
+		return response;
+	}
+
+	/**
+	 * Benchmarks a call handled by a Restlet.
+	 * 
+	 * @return The response.
+	 */
+	@Benchmark
+	public Response callRestlet() {
+		return call("riap://component/app/restlet");
+	}
+
+	/**
+	 * Benchmarks a call handled by a server resource, including the content
+	 * negotiation and the conversion of the result.
+	 * 
+	 * @return The response.
+	 */
+	@Benchmark
+	public Response callServerResource() {
+		return call("riap://component/app/hello/world");
+	}
+
+	/**
+	 * Starts the component with the application attached to its internal router.
+	 * 
+	 * @throws Exception
+	 */
+	@Setup
+	public void setUp() throws Exception {
+		this.component = new Component();
+		this.component.getClients().add(Protocol.RIAP);
+		this.component.getLogService().setEnabled(false);
+		this.component.getInternalRouter().attach("/app", new Application() {
+			@Override
+			public Restlet createInboundRoot() {
+				Router router = new Router(getContext());
+				router.attach("/restlet", new Restlet() {
+					@Override
+					public void handle(Request request, Response response) {
+						response.setEntity("Hello", MediaType.TEXT_PLAIN);
+					}
+				});
+				router.attach("/hello/{name}", HelloResource.class);
+				return router;
+			}
+		});
+		this.component.start();
+
+		Response response = call("riap://component/app/hello/world");
+
+		if (!response.getStatus().isSuccess()) {
+			throw new IllegalStateException("Unexpected status: " + response.getStatus());
+		}
+	}
+
+	/**
+	 * Stops the component.
+	 * 
+	 * @throws Exception
+	 */
+	@TearDown
+	public void tearDown() throws Exception {
+		this.component.stop();
+	}
+
+}
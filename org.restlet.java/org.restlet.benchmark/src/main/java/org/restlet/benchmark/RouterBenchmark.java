@@ -0,0 +1,137 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.data.Method;
+import org.restlet.data.Reference;
+import org.restlet.routing.Router;
+
+/**
+ * Benchmarks the selection of the next Restlet by a router with many routes.
+ * The requests target the first route, the last route, or no route at all,
+ * with each routing mode.
+ * 
+ * @author Jerome Louvel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouterBenchmark {
+
+	/** The routing mode. */
+	@Param({ "FIRST", "BEST" })
+	public String mode;
+
+	/** The number of routes. */
+	@Param({ "10", "100" })
+	public int routes;
+
+	/** The base reference of the requests. */
+	private Reference baseRef;
+
+	/** The router to benchmark. */
+	private Router router;
+
+	/** The URI of the first route. */
+	private String firstUri;
+
+	/** The URI of the last route. */
+	private String lastUri;
+
+	/** The URI matching no route. */
+	private String missingUri;
+
+	/**
+	 * Routes a request to a URI.
+	 * 
+	 * @param uri The URI of the request.
+	 * @return The next Restlet.
+	 */
+	private Restlet route(String uri) {
+		Request request = new Request(Method.GET, uri);
+		request.getResourceRef().setBaseRef(this.baseRef);
+		return this.router.getNext(request, new Response(request));
+	}
+
+	/**
+	 * Benchmarks the routing to the first route.
+	 * 
+	 * @return The next Restlet.
+	 */
+	@Benchmark
+	public Restlet routeFirst() {
+		return route(this.firstUri);
+	}
+
+	/**
+	 * Benchmarks the routing to the last route.
+	 * 
+	 * @return The next Restlet.
+	 */
+	@Benchmark
+	public Restlet routeLast() {
+		return route(this.lastUri);
+	}
+
+	/**
+	 * Benchmarks the routing of a request matching no route.
+	 * 
+	 * @return The next Restlet, i.e. null.
+	 */
+	@Benchmark
+	public Restlet routeMissing() {
+		return route(this.missingUri);
+	}
+
+	/**
+	 * Creates the router with its routes.
+	 */
+	@Setup
+	public void setUp() {
+		this.router = new Router(new Context());
+		this.router.setRoutingMode("BEST".equals(this.mode) ? Router.MODE_BEST_MATCH : Router.MODE_FIRST_MATCH);
+		Restlet target = new Restlet() {
+			@Override
+			public void handle(Request request, Response response) {
+				// Never invoked
+			}
+		};
+
+		for (int i = 0; i < this.routes; i++) {
+			this.router.attach("/resources" + i + "/{id}/items/{item}", target);
+		}
+
+		this.baseRef = new Reference("http://localhost");
+		this.firstUri = "http://localhost/resources0/1234/items/abc";
+		this.lastUri = "http://localhost/resources" + (this.routes - 1) + "/1234/items/abc";
+		this.missingUri = "http://localhost/unknown/1234";
+	}
+
+}
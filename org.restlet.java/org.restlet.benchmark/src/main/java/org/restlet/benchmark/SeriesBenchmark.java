@@ -0,0 +1,112 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.data.Form;
+import org.restlet.data.Header;
+import org.restlet.util.Series;
+
+/**
+ * Benchmarks the lookups in series, using the headers of a typical browser
+ * request and the parameters of a query.
+ * 
+ * @author Jerome Louvel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeriesBenchmark {
+
+	/** The parameters of a query. */
+	private Form form;
+
+	/** The headers of a browser request. */
+	private Series<Header> headers;
+
+	/**
+	 * Benchmarks the case insensitive lookup of the last header.
+	 * 
+	 * @return The header value.
+	 */
+	@Benchmark
+	public String getHeaderIgnoreCase() {
+		return this.headers.getFirstValue("user-agent", true);
+	}
+
+	/**
+	 * Benchmarks the lookup of a missing header.
+	 * 
+	 * @return The header value, i.e. null.
+	 */
+	@Benchmark
+	public String getMissingHeader() {
+		return this.headers.getFirstValue("If-None-Match", true);
+	}
+
+	/**
+	 * Benchmarks the case sensitive lookup of a parameter.
+	 * 
+	 * @return The parameter value.
+	 */
+	@Benchmark
+	public String getParameter() {
+		return this.form.getFirstValue("sort");
+	}
+
+	/**
+	 * Benchmarks the lookup of all the values of a repeated parameter.
+	 * 
+	 * @return The parameter values.
+	 */
+	@Benchmark
+	public String[] getParameterValues() {
+		return this.form.getValuesArray("tag");
+	}
+
+	/**
+	 * Creates the series.
+	 */
+	@Setup
+	public void setUp() {
+		this.headers = new Series<Header>(Header.class);
+		this.headers.add("Host", "api.example.com");
+		this.headers.add("Connection", "keep-alive");
+		this.headers.add("Cache-Control", "max-age=0");
+		this.headers.add("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
+		this.headers.add("Accept-Encoding", "gzip, deflate, br, zstd");
+		this.headers.add("Accept-Language", "en-US,en;q=0.9,fr;q=0.8");
+		this.headers.add("Cookie", "session=4f2c9a1e; theme=dark");
+		this.headers.add("Referer", "https://www.example.com/catalog");
+		this.headers.add("Sec-Fetch-Dest", "document");
+		this.headers.add("Sec-Fetch-Mode", "navigate");
+		this.headers.add("Sec-Fetch-Site", "same-origin");
+		this.headers.add("Upgrade-Insecure-Requests", "1");
+		this.headers.add("User-Agent",
+				"Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/126.0 Safari/537.36");
+
+		this.form = new Form("q=restlet&page=2&size=50&tag=java&tag=rest&tag=http&sort=-date&fields=id,name");
+	}
+
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.routing.Template;
+
+/**
+ * Benchmarks the parsing of URIs with URI templates, both for matching only
+ * and for the extraction of the variables.
+ * 
+ * @author Jerome Louvel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemplateBenchmark {
+
+	/** The template with a single variable. */
+	private Template simpleTemplate;
+
+	/** The template with several variables and a query. */
+	private Template complexTemplate;
+
+	/**
+	 * Benchmarks the matching of a URI with several variables, without the
+	 * extraction of the variables.
+	 * 
+	 * @return The number of matched characters.
+	 */
+	@Benchmark
+	public int matchComplex() {
+		return this.complexTemplate.match("/users/jdoe/orders/2024-0042/items/17?format=json&lang=en");
+	}
+
+	/**
+	 * Benchmarks the parsing of a URI with several variables.
+	 * 
+	 * @return The extracted variables.
+	 */
+	@Benchmark
+	public Map<String, Object> parseComplex() {
+		Map<String, Object> result = new HashMap<String, Object>();
+		this.complexTemplate.parse("/users/jdoe/orders/2024-0042/items/17?format=json&lang=en", result);
+		return result;
+	}
+
+	/**
+	 * Benchmarks the parsing of a URI with a single variable.
+	 * 
+	 * @return The extracted variables.
+	 */
+	@Benchmark
+	public Map<String, Object> parseSimple() {
+		Map<String, Object> result = new HashMap<String, Object>();
+		this.simpleTemplate.parse("/users/jdoe", result);
+		return result;
+	}
+
+	/**
+	 * Creates the templates.
+	 */
+	@Setup
+	public void setUp() {
+		this.simpleTemplate = new Template("/users/{user}");
+		this.complexTemplate = new Template("/users/{user}/orders/{order}/items/{item}?format={format}&lang={lang}");
+	}
+
+}
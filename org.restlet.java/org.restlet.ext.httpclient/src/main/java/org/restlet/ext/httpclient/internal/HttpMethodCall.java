@@ -346,7 +346,11 @@ public class HttpMethodCall extends ClientCall {
     @Override
     public void sendRequest(Request request, Response response, Uniform callback)
             throws Exception {
-        sendRequest(request);
+        Status status = sendRequest(request);
+
+        if ((status != null) && status.isConnectorError()) {
+            response.setStatus(status);
+        }
 
         if (request.getOnSent() != null) {
             request.getOnSent().handle(request, response);
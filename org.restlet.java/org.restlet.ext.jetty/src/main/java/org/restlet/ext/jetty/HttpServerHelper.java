@@ -16,7 +16,9 @@ import org.restlet.Server;
 import org.restlet.data.Protocol;
 
 /**
- * Jetty HTTP server connector.
+ * Jetty HTTP server connector. When the "http2.enabled" parameter is set,
+ * clients can also use HTTP/2 over cleartext connections (h2c), either by
+ * upgrading an HTTP/1.1 connection or directly with prior knowledge.
  * 
  * @author Jerome Louvel
  * @author Tal Liron
@@ -37,6 +39,13 @@ public class HttpServerHelper extends JettyServerHelper {
     @Override
     protected ConnectionFactory[] createConnectionFactories(final HttpConfiguration configuration) {
         // Create and configure the Jetty HTTP connector
-        return new ConnectionFactory[]{new HttpConnectionFactory(configuration) };
+        final HttpConnectionFactory http11 = new HttpConnectionFactory(configuration);
+
+        if (isHttp2Enabled()) {
+            return new ConnectionFactory[] { http11,
+                    createHttp2ConnectionFactory(configuration, false) };
+        }
+
+        return new ConnectionFactory[]{ http11 };
     }
 }
@@ -11,6 +11,8 @@ package org.restlet.ext.jetty;
 
 import java.util.logging.Level;
 
+import org.eclipse.jetty.alpn.server.ALPNServerConnectionFactory;
+import org.eclipse.jetty.http2.HTTP2Cipher;
 import org.eclipse.jetty.server.AbstractConnectionFactory;
 import org.eclipse.jetty.server.ConnectionFactory;
 import org.eclipse.jetty.server.HttpConfiguration;
@@ -43,7 +45,11 @@ import org.restlet.ext.jetty.internal.RestletSslContextFactory;
  * </tr>
  * </table>
  * For the default SSL parameters see the Javadocs of the
- * {@link DefaultSslContextFactory} class.
+ * {@link DefaultSslContextFactory} class.<br>
+ * <br>
+ * When the "http2.enabled" parameter is set, HTTP/2 is negotiated with the
+ * clients supporting it using ALPN, which requires Java 9 or later or a recent
+ * Java 8 update. HTTP/1.1 is used otherwise.
  * 
  * @see <a href="https://eclipse.dev/jetty/documentation/jetty-9/index.html#configuring-ssl">How to
  *      configure SSL for Jetty</a>
@@ -76,8 +82,28 @@ public class HttpsServerHelper extends JettyServerHelper {
         try {
             org.eclipse.jetty.util.ssl.SslContextFactory sslContextFactory = new RestletSslContextFactory(
                     org.restlet.engine.ssl.SslUtils.getSslContextFactory(this));
-            return  AbstractConnectionFactory.getFactories(sslContextFactory,
-                    new HttpConnectionFactory(configuration));
+            HttpConnectionFactory http11 = new HttpConnectionFactory(
+                    configuration);
+
+            if (isHttp2Enabled()) {
+                try {
+                    ConnectionFactory h2 = createHttp2ConnectionFactory(
+                            configuration, true);
+                    ALPNServerConnectionFactory alpn = new ALPNServerConnectionFactory(
+                            h2.getProtocol(), http11.getProtocol());
+                    alpn.setDefaultProtocol(http11.getProtocol());
+                    sslContextFactory.setCipherComparator(HTTP2Cipher.COMPARATOR);
+                    sslContextFactory.setUseCipherSuitesOrder(true);
+                    return AbstractConnectionFactory.getFactories(
+                            sslContextFactory, alpn, h2, http11);
+                } catch (IllegalStateException e) {
+                    getLogger().log(Level.WARNING,
+                            "ALPN isn't supported by the JVM, HTTP/2 is disabled", e);
+                }
+            }
+
+            return AbstractConnectionFactory.getFactories(sslContextFactory,
+                    http11);
         } catch (Exception e) {
             getLogger().log(Level.WARNING,
                     "Unable to create the Jetty SSL context factory", e);
@@ -13,9 +13,13 @@ import java.io.IOException;
 import java.net.Socket;
 import java.util.Arrays;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
 
 import javax.servlet.ServletException;
 
+import org.eclipse.jetty.http2.server.AbstractHTTP2ServerConnectionFactory;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.http2.server.HTTP2ServerConnectionFactory;
 import org.eclipse.jetty.io.ArrayByteBufferPool;
 import org.eclipse.jetty.io.ByteBufferPool;
 import org.eclipse.jetty.server.ConnectionFactory;
@@ -29,6 +33,7 @@ import org.eclipse.jetty.util.thread.ScheduledExecutorScheduler;
 import org.eclipse.jetty.util.thread.Scheduler;
 import org.eclipse.jetty.util.thread.ThreadPool;
 import org.restlet.Server;
+import org.restlet.engine.util.ThreadUtils;
 import org.restlet.ext.jetty.internal.JettyServerCall;
 
 /**
@@ -51,7 +56,7 @@ import org.restlet.ext.jetty.internal.JettyServerCall;
  * <tr>
  * <td>threadPool.maxThreads</td>
  * <td>int</td>
- * <td>200</td>
+ * <td>200 (10000 with virtual threads)</td>
  * <td>Thread pool max threads</td>
  * </tr>
  * <tr>
@@ -142,6 +147,38 @@ import org.restlet.ext.jetty.internal.JettyServerCall;
  * processing the content</td>
  * </tr>
  * <tr>
+ * <td>http2.enabled</td>
+ * <td>boolean</td>
+ * <td>false</td>
+ * <td>Indicates if HTTP/2 is supported in addition to HTTP/1.1; over TLS, the protocol is negotiated with ALPN, otherwise
+ * clients can upgrade their connections to h2c or directly use it with prior knowledge</td>
+ * </tr>
+ * <tr>
+ * <td>http2.initialSessionRecvWindow</td>
+ * <td>int</td>
+ * <td>1024*1024</td>
+ * <td>HTTP/2 initial flow control window in bytes for the whole connection</td>
+ * </tr>
+ * <tr>
+ * <td>http2.initialStreamRecvWindow</td>
+ * <td>int</td>
+ * <td>512*1024</td>
+ * <td>HTTP/2 initial flow control window in bytes for each stream; the window is only enlarged again as the request
+ * entity is consumed, so slow consumers throttle their clients</td>
+ * </tr>
+ * <tr>
+ * <td>http2.maxConcurrentStreams</td>
+ * <td>int</td>
+ * <td>128</td>
+ * <td>HTTP/2 maximum number of concurrent streams, i.e. of multiplexed requests, per connection</td>
+ * </tr>
+ * <tr>
+ * <td>http2.streamIdleTimeout</td>
+ * <td>long</td>
+ * <td>0</td>
+ * <td>HTTP/2 stream idle timeout in milliseconds; when 0, the connector idle timeout applies</td>
+ * </tr>
+ * <tr>
  * <td>lowResource.period</td>
  * <td>int</td>
  * <td>1000</td>
@@ -178,6 +215,15 @@ import org.restlet.ext.jetty.internal.JettyServerCall;
  * <td>30000</td>
  * <td>Low resource monitor stop timeout in milliseconds; the maximum time allowed for the service to shutdown</td>
  * </tr>
+ * <tr>
+ * <td>virtualThreads</td>
+ * <td>boolean</td>
+ * <td>false</td>
+ * <td>Indicates if the thread pool should create virtual threads instead of
+ * platform threads. Requires Java 21 or later, otherwise platform threads are
+ * used. The default value can be changed via the
+ * "org.restlet.engine.virtualThreads" system property.</td>
+ * </tr>
  * </table>
  * 
  * @see <a href="https://eclipse.dev/jetty/documentation/jetty-9/index.html">Jetty SPDY and NPN page</a>
@@ -278,6 +324,29 @@ public abstract class JettyServerHelper extends org.restlet.engine.adapter.HttpS
     protected abstract ConnectionFactory[] createConnectionFactories(
             HttpConfiguration configuration);
 
+    /**
+     * Creates a Jetty HTTP/2 connection factory. Note that server push isn't
+     * supported as Restlet doesn't initiate it.
+     * 
+     * @param configuration
+     *            The HTTP configuration.
+     * @param secure
+     *            True if the connection factory is used over TLS, false for
+     *            h2c.
+     * @return A new Jetty HTTP/2 connection factory.
+     */
+    protected AbstractHTTP2ServerConnectionFactory createHttp2ConnectionFactory(
+            HttpConfiguration configuration, boolean secure) {
+        final AbstractHTTP2ServerConnectionFactory result = secure ? new HTTP2ServerConnectionFactory(
+                configuration) : new HTTP2CServerConnectionFactory(
+                configuration);
+        result.setMaxConcurrentStreams(getHttp2MaxConcurrentStreams());
+        result.setInitialSessionRecvWindow(getHttp2InitialSessionRecvWindow());
+        result.setInitialStreamRecvWindow(getHttp2InitialStreamRecvWindow());
+        result.setStreamIdleTimeout(getHttp2StreamIdleTimeout());
+        return result;
+    }
+
     /**
      * Creates a Jetty connector.
      * 
@@ -373,7 +442,23 @@ public abstract class JettyServerHelper extends org.restlet.engine.adapter.HttpS
      * @return A Jetty thread pool.
      */
     private ThreadPool createThreadPool() {
-        final QueuedThreadPool threadPool = new QueuedThreadPool();
+        final ThreadFactory threadFactory = isVirtualThreads() ? ThreadUtils
+                .createVirtualThreadFactory("restlet-jetty-") : null;
+        final QueuedThreadPool threadPool;
+
+        if (threadFactory != null) {
+            threadPool = new QueuedThreadPool(getThreadPoolMaxThreads(),
+                    getThreadPoolMinThreads(), getThreadPoolIdleTimeout(), -1,
+                    null, null, threadFactory);
+        } else {
+            if (isVirtualThreads()) {
+                getLogger().warning(
+                        "Virtual threads aren't supported by the JVM, using platform threads");
+            }
+
+            threadPool = new QueuedThreadPool();
+        }
+
         threadPool.setMinThreads(getThreadPoolMinThreads());
         threadPool.setMaxThreads(getThreadPoolMaxThreads());
         threadPool.setThreadsPriority(getThreadPoolThreadsPriority());
@@ -534,6 +619,50 @@ public abstract class JettyServerHelper extends org.restlet.engine.adapter.HttpS
                 "http.responseHeaderSize", "8192"));
     }
 
+    /**
+     * Returns the HTTP/2 initial flow control window in bytes for the whole
+     * connection. Defaults to 1048576.
+     * 
+     * @return The HTTP/2 initial flow control window for the connection.
+     */
+    public int getHttp2InitialSessionRecvWindow() {
+        return Integer.parseInt(getHelpedParameters().getFirstValue(
+                "http2.initialSessionRecvWindow", "1048576"));
+    }
+
+    /**
+     * Returns the HTTP/2 initial flow control window in bytes for each stream.
+     * Defaults to 524288.
+     * 
+     * @return The HTTP/2 initial flow control window for each stream.
+     */
+    public int getHttp2InitialStreamRecvWindow() {
+        return Integer.parseInt(getHelpedParameters().getFirstValue(
+                "http2.initialStreamRecvWindow", "524288"));
+    }
+
+    /**
+     * Returns the HTTP/2 maximum number of concurrent streams per connection.
+     * Defaults to 128.
+     * 
+     * @return The HTTP/2 maximum number of concurrent streams.
+     */
+    public int getHttp2MaxConcurrentStreams() {
+        return Integer.parseInt(getHelpedParameters().getFirstValue(
+                "http2.maxConcurrentStreams", "128"));
+    }
+
+    /**
+     * Returns the HTTP/2 stream idle timeout in milliseconds. Defaults to 0,
+     * meaning that the connector idle timeout applies.
+     * 
+     * @return The HTTP/2 stream idle timeout.
+     */
+    public long getHttp2StreamIdleTimeout() {
+        return Long.parseLong(getHelpedParameters().getFirstValue(
+                "http2.streamIdleTimeout", "0"));
+    }
+
     /**
      * Low resource monitor idle timeout in milliseconds. Defaults to 1000.
      * <p>
@@ -617,13 +746,14 @@ public abstract class JettyServerHelper extends org.restlet.engine.adapter.HttpS
     }
 
     /**
-     * Thread pool maximum threads. Defaults to 200.
+     * Thread pool maximum threads. Defaults to 200, or 10000 with virtual
+     * threads.
      * 
      * @return Thread pool maximum threads.
      */
     public int getThreadPoolMaxThreads() {
         return Integer.parseInt(getHelpedParameters().getFirstValue(
-                "threadPool.maxThreads", "200"));
+                "threadPool.maxThreads", isVirtualThreads() ? "10000" : "200"));
     }
 
     /**
@@ -670,6 +800,30 @@ public abstract class JettyServerHelper extends org.restlet.engine.adapter.HttpS
         return this.wrappedServer;
     }
 
+    /**
+     * Indicates if HTTP/2 is supported in addition to HTTP/1.1. Defaults to
+     * false.
+     * 
+     * @return True if HTTP/2 is supported.
+     */
+    public boolean isHttp2Enabled() {
+        return Boolean.parseBoolean(getHelpedParameters().getFirstValue(
+                "http2.enabled", "false"));
+    }
+
+    /**
+     * Indicates if the thread pool creates virtual threads when supported by
+     * the JVM. Defaults to false, unless the
+     * "org.restlet.engine.virtualThreads" system property is set to "true".
+     * 
+     * @return True if the thread pool creates virtual threads.
+     */
+    public boolean isVirtualThreads() {
+        return Boolean.parseBoolean(getHelpedParameters().getFirstValue(
+                "virtualThreads",
+                Boolean.toString(ThreadUtils.isVirtualThreadsDefault())));
+    }
+
     /**
      * Sets the wrapped Jetty server.
      * 
@@ -15,11 +15,14 @@ import java.io.OutputStream;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 
 import org.eclipse.jetty.client.HttpRequest;
+import org.eclipse.jetty.client.api.Result;
 import org.eclipse.jetty.client.util.InputStreamContentProvider;
 import org.eclipse.jetty.client.util.InputStreamResponseListener;
 import org.eclipse.jetty.http.HttpField;
@@ -98,6 +101,33 @@ public class JettyClientCall extends ClientCall {
         }
     }
 
+    /**
+     * Invokes the callback at most once, using the executor of the Jetty
+     * client. The network threads of the client are never used as reading the
+     * response entity could block them.
+     * 
+     * @param request
+     *            The high-level request.
+     * @param response
+     *            The high-level response.
+     * @param callback
+     *            The callback to invoke.
+     * @param dispatched
+     *            Indicates if the callback was already dispatched.
+     */
+    private void dispatch(final Request request, final Response response,
+            final Uniform callback, AtomicBoolean dispatched) {
+        if ((callback != null) && dispatched.compareAndSet(false, true)) {
+            Runnable task = () -> callback.handle(request, response);
+
+            try {
+                this.clientHelper.getHttpClient().getExecutor().execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+        }
+    }
+
     /**
      * Returns the HTTP request.
      * 
@@ -231,6 +261,38 @@ public class JettyClientCall extends ClientCall {
         return getHttpResponse().getStatus();
     }
 
+    /**
+     * Copies the request entity and headers to the Jetty request.
+     * 
+     * @param request
+     *            The high-level request.
+     * @throws IOException
+     */
+    private void prepareRequest(Request request) throws IOException {
+        final Representation entity = request.getEntity();
+
+        // Request entity
+        if (entity != null && entity.isAvailable())
+            this.httpRequest.content(new InputStreamContentProvider(entity
+                    .getStream()));
+
+        // Set the request headers
+        for (Header header : getRequestHeaders()) {
+            final String name = header.getName();
+            switch (name) {
+            case HeaderConstants.HEADER_CONTENT_LENGTH:
+                // skip this header
+                break;
+            case HeaderConstants.HEADER_USER_AGENT:
+                this.httpRequest.agent(header.getValue());
+                break;
+            default:
+                this.httpRequest.header(name, header.getValue());
+                break;
+            }
+        }
+    }
+
     /**
      * Sends the request to the client. Commits the request line, headers and
      * optional entity and send them over the network.
@@ -244,28 +306,7 @@ public class JettyClientCall extends ClientCall {
         Status result = null;
 
         try {
-            final Representation entity = request.getEntity();
-
-            // Request entity
-            if (entity != null && entity.isAvailable())
-                this.httpRequest.content(new InputStreamContentProvider(entity
-                        .getStream()));
-
-            // Set the request headers
-            for (Header header : getRequestHeaders()) {
-                final String name = header.getName();
-                switch (name) {
-                case HeaderConstants.HEADER_CONTENT_LENGTH:
-                    // skip this header
-                    break;
-                case HeaderConstants.HEADER_USER_AGENT:
-                    this.httpRequest.agent(header.getValue());
-                    break;
-                default:
-                    this.httpRequest.header(name, header.getValue());
-                    break;
-                }
-            }
+            prepareRequest(request);
 
             // Ensure that the connection is active
             this.inputStreamResponseListener = new InputStreamResponseListener();
@@ -307,17 +348,65 @@ public class JettyClientCall extends ClientCall {
         return result;
     }
 
+    /**
+     * Sends the request without blocking. The callback is invoked once the
+     * response headers have been received, or once the exchange has failed.
+     * It is dispatched to the executor of the Jetty client so that it can read
+     * the response entity stream.
+     * 
+     * @param request
+     *            The high-level request.
+     * @param response
+     *            The high-level response.
+     * @param callback
+     *            The callback invoked upon request completion.
+     */
     @Override
-    public void sendRequest(Request request, Response response, Uniform callback)
-            throws Exception {
-        sendRequest(request);
+    public void sendRequest(final Request request, final Response response,
+            final Uniform callback) throws Exception {
+        final AtomicBoolean dispatched = new AtomicBoolean();
+
+        try {
+            prepareRequest(request);
+        } catch (IOException e) {
+            this.clientHelper.getLogger().log(Level.WARNING,
+                    "An error occurred while reading the request entity.", e);
+            response.setStatus(Status.CONNECTOR_ERROR_INTERNAL, e);
+            getHttpRequest().abort(e);
+            dispatch(request, response, callback, dispatched);
+            return;
+        }
+
+        final Uniform onSent = request.getOnSent();
+        if (onSent != null) {
+            this.httpRequest.onRequestSuccess(
+                    httpRequest -> onSent.handle(request, response));
+        }
 
-        final Uniform getOnSent = request.getOnSent();
-        if (getOnSent != null)
-            getOnSent.handle(request, response);
+        this.inputStreamResponseListener = new InputStreamResponseListener() {
+            @Override
+            public void onComplete(Result result) {
+                super.onComplete(result);
+
+                if (result.isFailed() && !dispatched.get()) {
+                    clientHelper.getLogger().log(Level.FINE,
+                            "An error occurred while processing the HTTP request.",
+                            result.getFailure());
+                    response.setStatus(Status.CONNECTOR_ERROR_COMMUNICATION,
+                            result.getFailure());
+                    dispatch(request, response, callback, dispatched);
+                }
+            }
+
+            @Override
+            public void onHeaders(
+                    org.eclipse.jetty.client.api.Response httpResponse) {
+                super.onHeaders(httpResponse);
+                JettyClientCall.this.httpResponse = httpResponse;
+                dispatch(request, response, callback, dispatched);
+            }
+        };
 
-        if (callback != null)
-            // Transmit to the callback, if any
-            callback.handle(request, response);
+        this.httpRequest.send(this.inputStreamResponseListener);
     }
 }
@@ -0,0 +1,79 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.ext.jetty.internal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import org.eclipse.jetty.server.HttpOutput;
+
+/**
+ * Output stream wrapping the Jetty response output. It also exposes the
+ * output as a writable byte channel so that file representations can hand
+ * their direct buffers to Jetty without copying them through
+ * a user-space byte array.
+ * 
+ * @author Jerome Louvel
+ * @see org.restlet.engine.io.IoUtils#getTransferChannel(OutputStream)
+ */
+public class JettyOutputStream extends OutputStream implements
+        WritableByteChannel {
+
+    /** The wrapped Jetty output. */
+    private final HttpOutput output;
+
+    /**
+     * Constructor.
+     * 
+     * @param output
+     *            The wrapped Jetty output.
+     */
+    public JettyOutputStream(HttpOutput output) {
+        this.output = output;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.output.close();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.output.flush();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !this.output.isClosed();
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        this.output.write(b, off, len);
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        int result = src.remaining();
+        this.output.write(src);
+
+        // The blocking write has consumed the whole buffer
+        src.position(src.limit());
+        return result;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        this.output.write(b);
+    }
+
+}
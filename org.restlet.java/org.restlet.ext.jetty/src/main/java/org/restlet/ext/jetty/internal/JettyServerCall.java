@@ -20,8 +20,10 @@ import java.util.Enumeration;
 import java.util.List;
 import java.util.logging.Level;
 
+import org.eclipse.jetty.http.HttpVersion;
 import org.eclipse.jetty.io.EofException;
 import org.eclipse.jetty.server.HttpChannel;
+import org.eclipse.jetty.server.HttpOutput;
 import org.restlet.Response;
 import org.restlet.Server;
 import org.restlet.data.Header;
@@ -83,6 +85,11 @@ public class JettyServerCall extends ServerCall {
         } catch (IOException e) {
             getLogger().log(Level.FINE, "Unable to complete the response", e);
         }
+
+        // Release the suspended call
+        if (getChannel().getRequest().isAsyncStarted()) {
+            getChannel().getRequest().getAsyncContext().complete();
+        }
     }
 
     @Override
@@ -168,6 +175,18 @@ public class JettyServerCall extends ServerCall {
                 }
             }
 
+            // HTTP/2 conveys the host in the ":authority" pseudo-header
+            if (result.getFirst(HeaderConstants.HEADER_HOST, true) == null) {
+                final org.eclipse.jetty.server.Request request = getChannel()
+                        .getRequest();
+
+                if (request.getServerName() != null) {
+                    result.add(HeaderConstants.HEADER_HOST,
+                            request.getServerName() + ":"
+                                    + request.getServerPort());
+                }
+            }
+
             this.requestHeadersAdded = true;
         }
 
@@ -194,13 +213,16 @@ public class JettyServerCall extends ServerCall {
     }
 
     /**
-     * Returns the response stream if it exists.
+     * Returns the response stream if it exists. The stream also implements
+     * {@link java.nio.channels.WritableByteChannel} so that files can be
+     * transferred without intermediary copies.
      * 
      * @return The response stream if it exists.
      */
     public OutputStream getResponseEntityStream() {
         try {
-            return getChannel().getResponse().getOutputStream();
+            return new JettyOutputStream((HttpOutput) getChannel()
+                    .getResponse().getOutputStream());
         } catch (IOException e) {
             getLogger().log(Level.WARNING,
                     "Unable to get response entity stream", e);
@@ -237,6 +259,22 @@ public class JettyServerCall extends ServerCall {
         return null;
     }
 
+    /**
+     * Returns the protocol version used, such as "1.1" or "2.0".
+     * 
+     * @return The protocol version used.
+     */
+    @Override
+    public String getVersion() {
+        final String protocol = getChannel().getRequest().getProtocol();
+
+        if ((protocol != null) && protocol.startsWith("HTTP/")) {
+            return protocol.substring(5);
+        }
+
+        return super.getVersion();
+    }
+
     /**
      * Indicates if the request was made using a confidential mean.<br>
      * 
@@ -253,6 +291,46 @@ public class JettyServerCall extends ServerCall {
                 || super.isConnectionBroken(exception);
     }
 
+    /**
+     * Indicates if the request entity is delimited by the end of the stream,
+     * which is always the case with HTTP/2 as the content length is optional.
+     * 
+     * @return True if the request entity is delimited by the end of the stream.
+     */
+    @Override
+    protected boolean isRequestEntityStreamDelimited() {
+        return (getChannel().getRequest().getHttpVersion() == HttpVersion.HTTP_2)
+                || super.isRequestEntityStreamDelimited();
+    }
+
+    /**
+     * Indicates if the call can be suspended, when the Jetty request supports
+     * the asynchronous processing.
+     * 
+     * @return True if the call can be suspended.
+     */
+    @Override
+    public boolean isSuspendable() {
+        return getChannel().getRequest().isAsyncSupported();
+    }
+
+    /**
+     * Suspends the call by starting the asynchronous processing of the Jetty
+     * request, without timeout. The Jetty thread is released when the handler
+     * returns and the call is completed when the response is committed.
+     * 
+     * @return True if the asynchronous processing was started.
+     */
+    @Override
+    public boolean suspend() {
+        if (!isSuspendable()) {
+            return false;
+        }
+
+        getChannel().getRequest().startAsync().setTimeout(0);
+        return true;
+    }
+
     @Override
     public void sendResponse(Response response) throws IOException {
         // Add call headers
@@ -0,0 +1,267 @@
+/**
+ * Copyright 2005-2024 Qlik
+ *
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ *
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.ext.nethttp;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Redirect;
+import java.net.http.HttpClient.Version;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+
+import javax.net.ssl.SSLContext;
+
+import org.restlet.Client;
+import org.restlet.Request;
+import org.restlet.data.Protocol;
+import org.restlet.engine.adapter.ClientCall;
+import org.restlet.engine.ssl.SslContextFactory;
+import org.restlet.engine.ssl.SslUtils;
+import org.restlet.engine.util.ReferenceUtils;
+import org.restlet.ext.nethttp.internal.NetHttpClientCall;
+
+/**
+ * HTTP client connector based on the {@link HttpClient} class of the JDK. It
+ * supports HTTP/2, including the multiplexing of concurrent requests over a
+ * single connection, and sends asynchronous requests without blocking the
+ * calling thread. Request and response entities are streamed. Here is the list
+ * of parameters that are supported. They should be set in the Client's context
+ * before it is started:
+ * <table>
+ * <caption>list of supported parameters</caption>
+ * <tr>
+ * <th>Parameter name</th>
+ * <th>Value type</th>
+ * <th>Default value</th>
+ * <th>Description</th>
+ * </tr>
+ * <tr>
+ * <td>followRedirects</td>
+ * <td>boolean</td>
+ * <td>false</td>
+ * <td>If true, the protocol will automatically follow redirects, except from
+ * HTTPS to HTTP URIs.</td>
+ * </tr>
+ * <tr>
+ * <td>httpVersion</td>
+ * <td>String</td>
+ * <td>HTTP_2</td>
+ * <td>The preferred HTTP version, either "HTTP_2" or "HTTP_1_1". With HTTP/2,
+ * the connector falls back to HTTP/1.1 when the server doesn't support
+ * it.</td>
+ * </tr>
+ * <tr>
+ * <td>maxThreads</td>
+ * <td>int</td>
+ * <td>0</td>
+ * <td>The maximum number of threads handling the responses. A value of 0 means
+ * that the default executor of the JDK, based on a cached thread pool, is
+ * used.</td>
+ * </tr>
+ * <tr>
+ * <td>readTimeout</td>
+ * <td>long</td>
+ * <td>60000</td>
+ * <td>The maximum time in milliseconds to wait for the response headers. A
+ * timeout of zero is interpreted as an infinite timeout.</td>
+ * </tr>
+ * <tr>
+ * <td>socketConnectTimeoutMs</td>
+ * <td>int</td>
+ * <td>0</td>
+ * <td>The socket connection timeout or 0 for unlimited wait.</td>
+ * </tr>
+ * <tr>
+ * <td>sslContextFactory</td>
+ * <td>String</td>
+ * <td>org.restlet.engine.ssl.DefaultSslContextFactory</td>
+ * <td>Let you specify a {@link SslContextFactory} qualified class name as a
+ * parameter, or an instance as an attribute for a more complete and flexible
+ * SSL context setting.</td>
+ * </tr>
+ * </table>
+ * For the default SSL parameters see the Javadocs of the
+ * {@link org.restlet.engine.ssl.DefaultSslContextFactory} class.
+ * <p>
+ * The connections are pooled by the JDK. The size of the pool and the idle
+ * timeout of the connections can be set with the
+ * "jdk.httpclient.connectionPoolSize" and "jdk.httpclient.keepalive.timeout"
+ * system properties.
+ * <p>
+ * Note that this connector requires Java 11 or later. When it is available, it
+ * takes precedence over the internal HTTP client connector.
+ *
+ * @author Jerome Louvel
+ */
+public class HttpClientHelper extends
+        org.restlet.engine.adapter.HttpClientHelper {
+
+    /** The executor created for the wrapped HTTP client, if any. */
+    private volatile ExecutorService executorService;
+
+    /** The wrapped JDK HTTP client. */
+    private volatile HttpClient httpClient;
+
+    /**
+     * Constructor.
+     *
+     * @param client
+     *            The client to help.
+     */
+    public HttpClientHelper(Client client) {
+        super(client);
+        getProtocols().add(Protocol.HTTP);
+        getProtocols().add(Protocol.HTTPS);
+    }
+
+    /**
+     * Creates a low-level HTTP client call from a high-level uniform call.
+     *
+     * @param request
+     *            The high-level request.
+     * @return A low-level HTTP client call.
+     */
+    @Override
+    public ClientCall create(Request request) {
+        ClientCall result = null;
+
+        try {
+            result = new NetHttpClientCall(this, request.getMethod()
+                    .toString(), ReferenceUtils.update(
+                    request.getResourceRef(), request).toString());
+        } catch (IOException e) {
+            getLogger().log(Level.WARNING,
+                    "Unable to create the JDK HTTP/HTTPS client call", e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates a JDK HTTP client.
+     *
+     * @return A new HTTP client.
+     */
+    private HttpClient createHttpClient() {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(getHttpVersion())
+                .followRedirects(
+                        isFollowRedirects() ? Redirect.NORMAL : Redirect.NEVER);
+
+        if (getSocketConnectTimeoutMs() > 0) {
+            builder.connectTimeout(Duration
+                    .ofMillis(getSocketConnectTimeoutMs()));
+        }
+
+        if (getMaxThreads() > 0) {
+            this.executorService = Executors.newFixedThreadPool(
+                    getMaxThreads(), runnable -> {
+                        Thread thread = new Thread(runnable,
+                                "Restlet-JdkHttpClient");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            builder.executor(this.executorService);
+        }
+
+        try {
+            SslContextFactory sslContextFactory = SslUtils
+                    .getSslContextFactory(this);
+
+            if (sslContextFactory != null) {
+                SSLContext sslContext = sslContextFactory.createSslContext();
+                builder.sslContext(sslContext);
+            }
+        } catch (Exception e) {
+            getLogger().log(Level.WARNING,
+                    "Unable to create the SSL context.", e);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Returns the wrapped JDK HTTP client.
+     *
+     * @return The wrapped JDK HTTP client.
+     */
+    public HttpClient getHttpClient() {
+        return this.httpClient;
+    }
+
+    /**
+     * Returns the preferred HTTP version. Defaults to HTTP/2.
+     *
+     * @return The preferred HTTP version.
+     */
+    public Version getHttpVersion() {
+        return Version.valueOf(getHelpedParameters().getFirstValue(
+                "httpVersion", Version.HTTP_2.name()));
+    }
+
+    /**
+     * Returns the maximum number of threads handling the responses. Defaults
+     * to 0, meaning that the default executor of the JDK is used.
+     *
+     * @return The maximum number of threads handling the responses.
+     */
+    public int getMaxThreads() {
+        return Integer.parseInt(getHelpedParameters().getFirstValue(
+                "maxThreads", "0"));
+    }
+
+    /**
+     * Returns the maximum time in milliseconds to wait for the response
+     * headers. A timeout of zero is interpreted as an infinite timeout.
+     * Defaults to 60000.
+     *
+     * @return The read timeout value.
+     */
+    public long getReadTimeout() {
+        return Long.parseLong(getHelpedParameters().getFirstValue(
+                "readTimeout", "60000"));
+    }
+
+    /**
+     * Indicates if the protocol will automatically follow redirects.
+     *
+     * @return True if the protocol will automatically follow redirects.
+     */
+    public boolean isFollowRedirects() {
+        return Boolean.parseBoolean(getHelpedParameters().getFirstValue(
+                "followRedirects", "false"));
+    }
+
+    @Override
+    public synchronized void start() throws Exception {
+        super.start();
+
+        if (this.httpClient == null) {
+            this.httpClient = createHttpClient();
+        }
+
+        getLogger().info("Starting a JDK HTTP/HTTPS client");
+    }
+
+    @Override
+    public synchronized void stop() throws Exception {
+        getLogger().info("Stopping a JDK HTTP/HTTPS client");
+        this.httpClient = null;
+
+        if (this.executorService != null) {
+            this.executorService.shutdown();
+            this.executorService = null;
+        }
+
+        super.stop();
+    }
+}
@@ -0,0 +1,362 @@
+/**
+ * Copyright 2005-2024 Qlik
+ *
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ *
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.ext.nethttp.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Level;
+
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Uniform;
+import org.restlet.data.Header;
+import org.restlet.data.Protocol;
+import org.restlet.data.Status;
+import org.restlet.engine.adapter.ClientCall;
+import org.restlet.engine.header.HeaderConstants;
+import org.restlet.ext.nethttp.HttpClientHelper;
+import org.restlet.representation.Representation;
+import org.restlet.util.Series;
+
+/**
+ * HTTP client connector call based on the {@link HttpRequest} class of the JDK.
+ * The request entity is streamed from the representation and the response
+ * entity is exposed as an input stream filled as the content is received.
+ *
+ * @author Jerome Louvel
+ */
+public class NetHttpClientCall extends ClientCall {
+
+    /** The associated HTTP client. */
+    private final HttpClientHelper clientHelper;
+
+    /** The builder of the wrapped HTTP request. */
+    private final HttpRequest.Builder httpRequestBuilder;
+
+    /** The wrapped HTTP response. */
+    private volatile HttpResponse<InputStream> httpResponse;
+
+    /** The target URI. */
+    private final URI requestUri;
+
+    /** Indicates if the response headers were added. */
+    private volatile boolean responseHeadersAdded;
+
+    /**
+     * Constructor.
+     *
+     * @param helper
+     *            The parent HTTP client helper.
+     * @param method
+     *            The method name.
+     * @param requestUri
+     *            The request URI.
+     * @throws IOException
+     */
+    public NetHttpClientCall(HttpClientHelper helper, String method,
+            String requestUri) throws IOException {
+        super(helper, method, requestUri);
+        this.clientHelper = helper;
+
+        if (requestUri.startsWith("http")) {
+            this.requestUri = URI.create(requestUri);
+            this.httpRequestBuilder = HttpRequest.newBuilder(this.requestUri);
+
+            if (helper.getReadTimeout() > 0) {
+                this.httpRequestBuilder.timeout(Duration.ofMillis(helper
+                        .getReadTimeout()));
+            }
+
+            setConfidential(this.requestUri.getScheme().equalsIgnoreCase(
+                    Protocol.HTTPS.getSchemeName()));
+        } else {
+            throw new IllegalArgumentException(
+                    "Only HTTP or HTTPS resource URIs are allowed here");
+        }
+    }
+
+    /**
+     * Creates the HTTP request to send, copying the request headers and
+     * streaming the entity of the high-level request.
+     *
+     * @param request
+     *            The high-level request.
+     * @return The HTTP request to send.
+     */
+    private HttpRequest createHttpRequest(Request request) {
+        final Representation entity = request.getEntity();
+        BodyPublisher bodyPublisher;
+
+        if ((entity != null) && entity.isAvailable()) {
+            BodyPublisher streamPublisher = BodyPublishers.ofInputStream(() -> {
+                try {
+                    return entity.getStream();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            long size = entity.getAvailableSize();
+
+            if (size == Representation.UNKNOWN_SIZE) {
+                bodyPublisher = streamPublisher;
+            } else if (size > 0) {
+                bodyPublisher = BodyPublishers.fromPublisher(streamPublisher,
+                        size);
+            } else {
+                bodyPublisher = BodyPublishers.noBody();
+            }
+        } else {
+            bodyPublisher = BodyPublishers.noBody();
+        }
+
+        this.httpRequestBuilder.method(getMethod(), bodyPublisher);
+
+        // Set the request headers
+        for (Header header : getRequestHeaders()) {
+            final String name = header.getName();
+
+            if (HeaderConstants.HEADER_EXPECT.equalsIgnoreCase(name)) {
+                this.httpRequestBuilder.expectContinue(true);
+            } else if (!isRestrictedHeader(name)) {
+                try {
+                    this.httpRequestBuilder.header(name, header.getValue());
+                } catch (IllegalArgumentException e) {
+                    this.clientHelper.getLogger().log(Level.FINE,
+                            "Header ignored by the JDK HTTP client: " + name,
+                            e);
+                }
+            }
+        }
+
+        return this.httpRequestBuilder.build();
+    }
+
+    /**
+     * Returns the HTTP response.
+     *
+     * @return The HTTP response.
+     */
+    public HttpResponse<InputStream> getHttpResponse() {
+        return this.httpResponse;
+    }
+
+    /**
+     * Returns the response reason phrase. HTTP/2 doesn't convey reason
+     * phrases, so the default one of the status is used.
+     *
+     * @return The response reason phrase.
+     */
+    @Override
+    public String getReasonPhrase() {
+        return null;
+    }
+
+    @Deprecated
+    public WritableByteChannel getRequestEntityChannel() {
+        return null;
+    }
+
+    public OutputStream getRequestEntityStream() {
+        return null;
+    }
+
+    public OutputStream getRequestHeadStream() {
+        return null;
+    }
+
+    @Deprecated
+    public ReadableByteChannel getResponseEntityChannel(long size) {
+        return null;
+    }
+
+    public InputStream getResponseEntityStream(long size) {
+        final HttpResponse<InputStream> httpResponse = getHttpResponse();
+        return (httpResponse == null) ? null : httpResponse.body();
+    }
+
+    /**
+     * Returns the modifiable list of response headers.
+     *
+     * @return The modifiable list of response headers.
+     */
+    @Override
+    public Series<Header> getResponseHeaders() {
+        final Series<Header> result = super.getResponseHeaders();
+
+        if (!this.responseHeadersAdded) {
+            final HttpResponse<InputStream> httpResponse = getHttpResponse();
+
+            if (httpResponse != null) {
+                for (Map.Entry<String, List<String>> entry : httpResponse
+                        .headers().map().entrySet()) {
+                    // Skip the HTTP/2 pseudo-headers
+                    if (!entry.getKey().startsWith(":")) {
+                        for (String value : entry.getValue()) {
+                            result.add(entry.getKey(), value);
+                        }
+                    }
+                }
+            }
+
+            this.responseHeadersAdded = true;
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the response address.<br>
+     * Corresponds to the IP address of the responding server.
+     *
+     * @return The response address.
+     */
+    @Override
+    public String getServerAddress() {
+        return this.requestUri.getHost();
+    }
+
+    /**
+     * Returns the response status code.
+     *
+     * @return The response status code.
+     */
+    @Override
+    public int getStatusCode() {
+        return getHttpResponse().statusCode();
+    }
+
+    /**
+     * Indicates if a header is set by the JDK client itself, and therefore
+     * can't be copied from the high-level request.
+     *
+     * @param name
+     *            The header name.
+     * @return True if the header is restricted.
+     */
+    private boolean isRestrictedHeader(String name) {
+        return HeaderConstants.HEADER_CONNECTION.equalsIgnoreCase(name)
+                || HeaderConstants.HEADER_CONTENT_LENGTH
+                        .equalsIgnoreCase(name)
+                || HeaderConstants.HEADER_HOST.equalsIgnoreCase(name)
+                || HeaderConstants.HEADER_UPGRADE.equalsIgnoreCase(name);
+    }
+
+    /**
+     * Sends the request to the client. Commits the request line, headers and
+     * optional entity and send them over the network.
+     *
+     * @param request
+     *            The high-level request.
+     * @return The result status.
+     */
+    @Override
+    public Status sendRequest(Request request) {
+        Status result = null;
+
+        try {
+            this.httpResponse = this.clientHelper.getHttpClient().send(
+                    createHttpRequest(request), BodyHandlers.ofInputStream());
+            result = new Status(getStatusCode(), getReasonPhrase());
+        } catch (IOException e) {
+            this.clientHelper.getLogger().log(Level.FINE,
+                    "An error occurred during the communication with the remote HTTP server.",
+                    e);
+            result = new Status(Status.CONNECTOR_ERROR_COMMUNICATION, e);
+        } catch (InterruptedException e) {
+            this.clientHelper.getLogger().log(Level.WARNING,
+                    "The HTTP request thread was interrupted.", e);
+            Thread.currentThread().interrupt();
+            result = new Status(Status.CONNECTOR_ERROR_COMMUNICATION, e);
+        } catch (RuntimeException e) {
+            this.clientHelper.getLogger().log(Level.WARNING,
+                    "An unexpected error occurred during the sending of the HTTP request.",
+                    e);
+            result = new Status(Status.CONNECTOR_ERROR_INTERNAL, e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Sends the request without blocking. The callback is invoked by a thread
+     * of the client's executor once the response headers have been received,
+     * or once the exchange has failed.
+     *
+     * @param request
+     *            The high-level request.
+     * @param response
+     *            The high-level response.
+     * @param callback
+     *            The callback invoked upon request completion.
+     */
+    @Override
+    public void sendRequest(final Request request, final Response response,
+            final Uniform callback) throws Exception {
+        HttpRequest httpRequest;
+
+        try {
+            httpRequest = createHttpRequest(request);
+        } catch (RuntimeException e) {
+            this.clientHelper.getLogger().log(Level.WARNING,
+                    "Unable to create the HTTP request.", e);
+            response.setStatus(Status.CONNECTOR_ERROR_INTERNAL, e);
+
+            if (callback != null) {
+                callback.handle(request, response);
+            }
+
+            return;
+        }
+
+        this.clientHelper
+                .getHttpClient()
+                .sendAsync(httpRequest, BodyHandlers.ofInputStream())
+                .whenComplete(
+                        (httpResponse, throwable) -> {
+                            if (throwable != null) {
+                                Throwable cause = ((throwable instanceof CompletionException) && (throwable
+                                        .getCause() != null)) ? throwable
+                                        .getCause() : throwable;
+                                this.clientHelper.getLogger().log(Level.FINE,
+                                        "An error occurred during the communication with the remote HTTP server.",
+                                        cause);
+                                response.setStatus(
+                                        Status.CONNECTOR_ERROR_COMMUNICATION,
+                                        cause);
+                            } else {
+                                this.httpResponse = httpResponse;
+
+                                if (request.getOnSent() != null) {
+                                    request.getOnSent().handle(request,
+                                            response);
+                                }
+                            }
+
+                            if (callback != null) {
+                                callback.handle(request, response);
+                            }
+                        });
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.ext.zstd;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+
+import org.restlet.data.Encoding;
+import org.restlet.engine.application.EncoderHelper;
+import org.restlet.engine.io.UnclosableOutputStream;
+import org.restlet.representation.Representation;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdOutputStream;
+
+/**
+ * Encoder helper supporting the Zstandard encoding, based on the Zstd-JNI
+ * library. The compression level ranges from 1 (fastest) to 22 (best
+ * compression), 3 by default. Levels out of the range supported by the library
+ * are bounded to it.
+ * 
+ * @author Jerome Louvel
+ */
+public class ZstdEncoderHelper extends EncoderHelper {
+
+    /** The supported encodings. */
+    private static final List<Encoding> ENCODINGS = Collections
+            .singletonList(Encoding.ZSTD);
+
+    @Override
+    public void encode(Representation source, Encoding encoding, int level,
+            OutputStream target) throws IOException {
+        ZstdOutputStream encoderOutputStream = new ZstdOutputStream(
+                new UnclosableOutputStream(target));
+
+        int supportedLevel = toSupportedLevel(level,
+                Zstd.minCompressionLevel(), Zstd.maxCompressionLevel());
+
+        if (supportedLevel != DEFAULT_LEVEL) {
+            encoderOutputStream.setLevel(supportedLevel);
+        }
+
+        try {
+            source.write(encoderOutputStream);
+        } finally {
+            // Writes the end of the frame and releases the native context
+            encoderOutputStream.close();
+        }
+
+        target.flush();
+    }
+
+    @Override
+    public List<Encoding> getEncodings() {
+        return ENCODINGS;
+    }
+
+}
@@ -10,18 +10,30 @@
 package org.restlet.test.engine;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
+import org.restlet.Request;
+import org.restlet.data.Form;
+import org.restlet.data.MediaType;
 import org.restlet.data.Method;
+import org.restlet.data.Preference;
 import org.restlet.engine.resource.AnnotationInfo;
 import org.restlet.engine.resource.AnnotationUtils;
 import org.restlet.engine.resource.MethodAnnotationInfo;
+import org.restlet.engine.resource.NegotiationTable;
+import org.restlet.representation.Variant;
 import org.restlet.resource.Get;
 import org.restlet.resource.Put;
+import org.restlet.service.ConnegService;
+import org.restlet.service.ConverterService;
+import org.restlet.service.MetadataService;
 import org.restlet.test.RestletTestCase;
+import org.restlet.test.resource.MyResource04;
 
 /**
  * Test case for generic interfaces.
@@ -87,4 +99,59 @@ public class AnnotationUtilsTestCase extends RestletTestCase {
 
         assertTrue(found, "Didn't find a method with IChild as the declaring class.");
     }
+    @Test
+    public void testNegotiationTable() {
+        List<AnnotationInfo> infos = AnnotationUtils.getInstance()
+                .getAnnotations(MyResource04.class);
+        MetadataService metadataService = new MetadataService();
+        ConverterService converterService = new ConverterService();
+        ConnegService connegService = new ConnegService();
+        NegotiationTable table = AnnotationUtils.getInstance()
+                .getNegotiationTable(MyResource04.class, infos,
+                        metadataService, converterService);
+        assertSame(table, AnnotationUtils.getInstance().getNegotiationTable(
+                MyResource04.class, infos, metadataService, converterService));
+
+        // Each pair of services keeps its own table
+        MetadataService otherMetadataService = new MetadataService();
+        ConverterService otherConverterService = new ConverterService();
+        NegotiationTable otherTable = AnnotationUtils.getInstance()
+                .getNegotiationTable(MyResource04.class, infos,
+                        otherMetadataService, otherConverterService);
+        assertNotSame(table, otherTable);
+        assertSame(table, AnnotationUtils.getInstance().getNegotiationTable(
+                MyResource04.class, infos, metadataService, converterService));
+        assertSame(otherTable, AnnotationUtils.getInstance()
+                .getNegotiationTable(MyResource04.class, infos,
+                        otherMetadataService, otherConverterService));
+
+        for (int i = 0; i < 2; i++) {
+            for (MediaType mediaType : new MediaType[] {
+                    MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML,
+                    MediaType.TEXT_HTML }) {
+                Request request = new Request(Method.GET, "http://local");
+                request.getClientInfo().getAcceptedMediaTypes()
+                        .add(new Preference<MediaType>(mediaType));
+                List<Variant> variants = table.getVariants(Method.GET,
+                        request, new Form());
+                assertEquals(4, variants.size());
+                assertEquals(mediaType, table.getPreferredVariant(variants,
+                        request, connegService, metadataService)
+                        .getMediaType());
+            }
+        }
+
+        // Changes of the candidate variants bypass the memo
+        Request request = new Request(Method.GET, "http://local");
+        request.getClientInfo().getAcceptedMediaTypes()
+                .add(new Preference<MediaType>(MediaType.TEXT_PLAIN));
+        List<Variant> variants = table.getVariants(Method.GET, request,
+                new Form());
+        variants.add(new Variant(MediaType.TEXT_PLAIN));
+        assertEquals(MediaType.TEXT_PLAIN, table.getPreferredVariant(variants,
+                request, connegService, metadataService).getMediaType());
+        assertEquals(0, table.getVariants(Method.PUT, request, new Form())
+                .size());
+    }
+
 }
@@ -10,11 +10,18 @@
 package org.restlet.test.engine;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
 
 import org.junit.jupiter.api.Test;
 import org.restlet.engine.util.DateUtils;
+import org.restlet.engine.util.HttpDateCodec;
 import org.restlet.test.RestletTestCase;
 
 /**
@@ -42,6 +49,50 @@ public class DateTestCase extends RestletTestCase {
 
     private final String DATE_RFC822_1 = "Fri, 12 Apr 85 23:20:50 GMT";
 
+    /**
+     * Tests the HTTP date codec against the legacy formatter.
+     */
+    @Test
+    public void testHttpDateCodec() throws Exception {
+        SimpleDateFormat legacy = new SimpleDateFormat(
+                DateUtils.FORMAT_RFC_1123.get(0), Locale.US);
+        legacy.setTimeZone(TimeZone.getTimeZone("GMT"));
+        Random random = new Random(42);
+
+        for (int i = 0; i < 1000; i++) {
+            // Between 1900 and 2100
+            Date date = new Date(-2208988800000L
+                    + (long) (random.nextDouble() * 6311433600000L));
+            String text = HttpDateCodec.format(date);
+            assertEquals(legacy.format(date), text);
+            long seconds = Math.floorDiv(date.getTime(), 1000L);
+            assertEquals(seconds, HttpDateCodec.parse(new StringBuilder(text))
+                    .getTime() / 1000);
+
+            // Served from the cache
+            assertEquals(text, HttpDateCodec.format(date));
+            assertEquals(seconds, HttpDateCodec.parse(text).getTime() / 1000);
+        }
+
+        String before = legacy.format(new Date());
+        String current = HttpDateCodec.currentDate();
+        assertTrue(current.equals(before)
+                || current.equals(legacy.format(new Date())));
+        assertEquals(DATE_RFC1123_1,
+                HttpDateCodec.format(HttpDateCodec.parse(DATE_RFC1036_1)));
+        assertEquals(DATE_RFC1123_1,
+                HttpDateCodec.format(HttpDateCodec.parse(DATE_ASC_1)));
+        assertEquals("Sun, 06 Nov 1994 08:49:37 GMT",
+                HttpDateCodec.format(HttpDateCodec
+                        .parse("Sun Nov  6 08:49:37 1994")));
+        assertEquals("Tue, 29 Feb 2000 00:00:00 GMT",
+                HttpDateCodec.format(HttpDateCodec
+                        .parse(" Tue, 29 Feb 2000 00:00:00 GMT ")));
+        assertNull(HttpDateCodec.parse("Wed, 29 Feb 2001 00:00:00 GMT"));
+        assertNull(HttpDateCodec.parse("Fri, 12 Apr 1985 24:20:50 GMT"));
+        assertNull(HttpDateCodec.parse("not a date"));
+    }
+
     /**
      * Tests for dates in the RFC 822 format.
      */
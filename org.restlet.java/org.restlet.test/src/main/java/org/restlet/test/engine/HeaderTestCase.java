@@ -10,6 +10,7 @@
 package org.restlet.test.engine;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -29,11 +30,13 @@ import org.restlet.data.MediaType;
 import org.restlet.engine.header.EncodingReader;
 import org.restlet.engine.header.HeaderConstants;
 import org.restlet.engine.header.HeaderReader;
+import org.restlet.engine.header.HeaderSeries;
 import org.restlet.engine.header.HeaderUtils;
 import org.restlet.engine.header.PreferenceReader;
 import org.restlet.engine.header.TokenReader;
 import org.restlet.engine.util.DateUtils;
 import org.restlet.representation.Representation;
+import org.restlet.util.Series;
 import org.restlet.test.RestletTestCase;
 
 /**
@@ -240,4 +243,48 @@ public class HeaderTestCase extends RestletTestCase {
         assertEquals("My-Header", result.getName());
         assertNull(result.getValue());
     }
+
+    /**
+     * Tests the lookups by name of the {@link HeaderSeries} class.
+     */
+    @Test
+    public void testHeaderSeries() {
+        Series<Header> headers = new HeaderSeries();
+        assertNull(headers.getFirst("Accept", true));
+
+        for (int i = 0; i < 20; i++) {
+            headers.add("X-Header-" + i, Integer.toString(i));
+        }
+
+        headers.add("Accept", "text/html");
+        headers.add("accept", "text/plain");
+        headers.add("ACCEPT", "*/*");
+
+        assertEquals("text/html", headers.getFirstValue("accept", true));
+        assertEquals("text/plain", headers.getFirstValue("accept", false));
+        assertNull(headers.getFirst("Accept-Language", true));
+        assertEquals("text/html,text/plain,*/*",
+                headers.getValues("Accept", ",", true));
+        assertEquals("*/*", headers.getValues("ACCEPT", ",", false));
+        assertEquals(3, headers.subList("accept", true).size());
+        assertEquals("19", headers.getFirstValue("x-header-19", true));
+
+        // The index must be rebuilt after a removal
+        assertTrue(headers.removeFirst("accept", true));
+        assertEquals("text/plain", headers.getFirstValue("Accept", true));
+        assertEquals("5", headers.getFirstValue("X-Header-5"));
+        headers.remove(0);
+        assertNull(headers.getFirst("X-Header-0", true));
+        assertEquals("19", headers.getFirstValue("X-Header-19"));
+
+        // Replacing a header must be tracked as well
+        headers.set(0, new Header("Host", "localhost"));
+        assertNull(headers.getFirst("X-Header-1", true));
+        assertEquals("localhost", headers.getFirstValue("host", true));
+
+        assertTrue(headers.removeAll("Accept", true));
+        assertFalse(headers.removeAll("Accept", true));
+        assertNull(headers.getValues("Accept", ",", true));
+        assertEquals(19, headers.size());
+    }
 }
@@ -9,6 +9,8 @@
 
 package org.restlet.test.engine.connector;
 
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.restlet.Application;
@@ -38,6 +40,8 @@ public abstract class BaseConnectorsTestCase extends RestletTestCase {
 
     private final boolean enabledClientJetty = false;
 
+    private final boolean enabledClientNetHttp = true;
+
     private final boolean enabledServerInternal = true;
 
     private final boolean enabledServerJetty = true;
@@ -46,6 +50,29 @@ public abstract class BaseConnectorsTestCase extends RestletTestCase {
 
     protected abstract Application createApplication(Component component);
 
+    /**
+     * Creates the JDK HTTP client helper. As the extension requires Java 11,
+     * it is loaded reflectively and the test is skipped when it isn't
+     * available.
+     */
+    @SuppressWarnings("unchecked")
+    private ConnectorHelper<Client> createNetHttpClientHelper()
+            throws Exception {
+        Class<?> helperClass = null;
+
+        try {
+            helperClass = Class
+                    .forName("org.restlet.ext.nethttp.HttpClientHelper");
+        } catch (ClassNotFoundException | UnsupportedClassVersionError e) {
+            // Not available on this JVM
+        }
+
+        assumeTrue(helperClass != null,
+                "The JDK HTTP client extension requires Java 11");
+        return (ConnectorHelper<Client>) helperClass.getConstructor(
+                Client.class).newInstance((Client) null);
+    }
+
     // Helper methods
     protected void runTest(ConnectorHelper<Server> server,
             ConnectorHelper<Client> client) throws Exception {
@@ -118,6 +145,14 @@ public abstract class BaseConnectorsTestCase extends RestletTestCase {
         }
     }
 
+    @Test
+    public void testInternalAndNetHttp() throws Exception {
+        if (this.enabledServerInternal && this.enabledClientNetHttp) {
+            runTest(new org.restlet.engine.connector.HttpServerHelper(null),
+                    createNetHttpClientHelper());
+        }
+    }
+
     @Test
     public void testJettyAndApache() throws Exception {
         if (this.enabledServerJetty && this.enabledClientApache) {
@@ -141,4 +176,12 @@ public abstract class BaseConnectorsTestCase extends RestletTestCase {
                     new org.restlet.ext.jetty.HttpClientHelper(null));
         }
     }
+
+    @Test
+    public void testJettyAndNetHttp() throws Exception {
+        if (this.enabledServerJetty && this.enabledClientNetHttp) {
+            runTest(new org.restlet.ext.jetty.HttpServerHelper(null),
+                    createNetHttpClientHelper());
+        }
+    }
 }
@@ -0,0 +1,145 @@
+/**
+ * Copyright 2005-2024 Qlik
+ *
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ *
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.engine.connector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restlet.Application;
+import org.restlet.Client;
+import org.restlet.Component;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.Server;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import org.restlet.data.Status;
+import org.restlet.engine.Engine;
+import org.restlet.engine.log.CallTiming;
+import org.restlet.engine.log.CallTiming.Phase;
+import org.restlet.engine.log.CallTimingListener;
+import org.restlet.resource.Post;
+import org.restlet.resource.ServerResource;
+import org.restlet.routing.Router;
+import org.restlet.routing.Template;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the latency breakdown of the calls handled by the HTTP server
+ * connectors.
+ *
+ * @author Jerome Louvel
+ */
+public class CallTimingTestCase extends RestletTestCase {
+
+    public static class SlowResource extends ServerResource {
+        @Post("txt:txt")
+        public String echo(String text) throws InterruptedException {
+            Thread.sleep(20);
+            return "Echo " + text;
+        }
+    }
+
+    private Client client;
+
+    private Component component;
+
+    private final BlockingQueue<CallTiming> timings = new LinkedBlockingQueue<CallTiming>();
+
+    private String uri;
+
+    @BeforeEach
+    protected void setUpEach() throws Exception {
+        Engine engine = Engine.register(false);
+        engine.getRegisteredServers().add(
+                new org.restlet.engine.connector.HttpServerHelper(null));
+        engine.getRegisteredClients().add(
+                new org.restlet.engine.connector.HttpClientHelper(null));
+        engine.registerDefaultConverters();
+
+        this.component = new Component();
+        Server server = this.component.getServers().add(Protocol.HTTP, 0);
+        server.getContext().getAttributes().put("callTimingListener",
+                (CallTimingListener) (request, response, timing) -> timings
+                        .add(timing));
+        this.component.getDefaultHost().attach(new Application() {
+            @Override
+            public Restlet createInboundRoot() {
+                Router router = new Router(getContext());
+                router.attach("/slow", SlowResource.class);
+                return router;
+            }
+        });
+        this.component.start();
+        this.uri = "http://localhost:" + server.getEphemeralPort();
+
+        this.client = new Client(Protocol.HTTP);
+        this.client.start();
+    }
+
+    @AfterEach
+    protected void tearDownEach() throws Exception {
+        this.client.stop();
+        this.component.stop();
+        Engine.register();
+    }
+
+    @Test
+    public void testBreakdown() throws Exception {
+        Request request = new Request(Method.POST, this.uri + "/slow");
+        request.setEntity("hello", MediaType.TEXT_PLAIN);
+        Response response = this.client.handle(request);
+        assertEquals(Status.SUCCESS_OK, response.getStatus());
+        assertEquals("Echo hello", response.getEntity().getText());
+
+        CallTiming timing = this.timings.poll(5, TimeUnit.SECONDS);
+        assertNotNull(timing);
+        assertTrue(timing.isCompleted());
+
+        // The resource sleeps during 20 ms
+        assertTrue(timing.getDuration(Phase.HANDLING) >= TimeUnit.MILLISECONDS
+                .toNanos(20));
+        assertTrue(timing.getDuration(Phase.ADAPTATION) > 0);
+        assertTrue(timing.getDuration(Phase.ROUTING) > 0);
+        assertTrue(timing.getDuration(Phase.FILTERING) > 0);
+        assertTrue(timing.getDuration(Phase.CONVERSION) > 0);
+        assertTrue(timing.getDuration(Phase.COMMIT) > 0);
+
+        // Conversions happen during the handling
+        assertTrue(timing.getDuration(Phase.CONVERSION) < timing
+                .getDuration(Phase.HANDLING));
+        assertTrue(timing.getElapsedTime() >= timing.getDuration(Phase.HANDLING)
+                + timing.getDuration(Phase.COMMIT));
+    }
+
+    @Test
+    public void testLogFormat() {
+        Request request = new Request(Method.GET, "http://localhost/resource");
+        CallTiming timing = new CallTiming(0L);
+        timing.add(Phase.ROUTING, 2000L);
+        timing.add(Phase.ROUTING, 1500L);
+        timing.add(Phase.HANDLING, 42000L);
+        request.setTiming(timing);
+
+        Template template = new Template("{tro} {tha} {tco}");
+        assertEquals("3 42 0", template.format(request, new Response(request)));
+    }
+
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright 2005-2024 Qlik
+ *
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ *
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.engine.connector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restlet.Client;
+import org.restlet.Component;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.Server;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import org.restlet.data.Status;
+import org.restlet.engine.Engine;
+import org.restlet.engine.limit.ConcurrencyLimiter;
+import org.restlet.engine.limit.ConcurrencyLimiter.Priority;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the concurrency limiter of the HTTP server connectors.
+ *
+ * @author Jerome Louvel
+ */
+public class ConcurrencyLimitTestCase extends RestletTestCase {
+
+    private Client client;
+
+    private Component component;
+
+    private final CountDownLatch entered = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private String uri;
+
+    @BeforeEach
+    protected void setUpEach() throws Exception {
+        Engine engine = Engine.register(false);
+        engine.getRegisteredServers().add(
+                new org.restlet.engine.connector.HttpServerHelper(null));
+        engine.getRegisteredClients().add(
+                new org.restlet.engine.connector.HttpClientHelper(null));
+
+        this.component = new Component();
+        Server server = this.component.getServers().add(Protocol.HTTP, 0);
+        server.getContext().getParameters().add("concurrencyLimit", "true");
+        server.getContext().getParameters().add("concurrencyLimit.initial",
+                "1");
+        server.getContext().getParameters().add("concurrencyLimit.max", "1");
+        server.getContext().getParameters().add("concurrencyLimit.critical",
+                ".*/health");
+        this.component.getDefaultHost().attachDefault(new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                if (request.getResourceRef().getPath().equals("/slow")) {
+                    entered.countDown();
+
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                response.setEntity("ok", MediaType.TEXT_PLAIN);
+            }
+        });
+        this.component.start();
+        this.uri = "http://localhost:" + server.getEphemeralPort();
+
+        this.client = new Client(Protocol.HTTP);
+        this.client.start();
+    }
+
+    @AfterEach
+    protected void tearDownEach() throws Exception {
+        this.release.countDown();
+        this.client.stop();
+        this.component.stop();
+        Engine.register();
+    }
+
+    private Response get(String path) {
+        return this.client.handle(new Request(Method.GET, this.uri + path));
+    }
+
+    /**
+     * Keeps the limiter saturated while calls complete with a given latency.
+     */
+    private void saturate(ConcurrencyLimiter limiter, long latency, int calls) {
+        for (int i = 0; i < calls; i++) {
+            while (limiter.tryAcquire(Priority.NORMAL)) {
+            }
+
+            limiter.release(latency);
+        }
+    }
+
+    @Test
+    public void testAdaptiveLimit() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 1, 100);
+
+        // Stable latencies let the limit grow
+        saturate(limiter, 1000000, 200);
+        int grown = limiter.getLimit();
+        assertTrue(grown > 10);
+
+        // Much higher latencies reveal queuing and make it shrink
+        saturate(limiter, 50000000, 200);
+        assertTrue(limiter.getLimit() < grown);
+        assertEquals(1000000, limiter.getMinLatency());
+    }
+
+    @Test
+    public void testPriorities() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(4, 1, 4);
+        assertTrue(limiter.tryAcquire(Priority.SHEDDABLE));
+        assertTrue(limiter.tryAcquire(Priority.SHEDDABLE));
+
+        // Sheddable calls only get half of the limit
+        assertFalse(limiter.tryAcquire(Priority.SHEDDABLE));
+        assertTrue(limiter.tryAcquire(Priority.NORMAL));
+        assertTrue(limiter.tryAcquire(Priority.NORMAL));
+        assertFalse(limiter.tryAcquire(Priority.NORMAL));
+
+        // Critical calls are always admitted
+        assertTrue(limiter.tryAcquire(Priority.CRITICAL));
+        assertEquals(5, limiter.getInFlight());
+    }
+
+    @Test
+    public void testShedding() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<Response> slow = executor.submit(() -> get("/slow"));
+            assertTrue(this.entered.await(5, TimeUnit.SECONDS));
+
+            Response rejected = get("/other");
+            assertEquals(Status.SERVER_ERROR_SERVICE_UNAVAILABLE,
+                    rejected.getStatus());
+            assertNotNull(rejected.getRetryAfter());
+
+            assertEquals(Status.SUCCESS_OK, get("/health").getStatus());
+
+            this.release.countDown();
+            assertEquals(Status.SUCCESS_OK,
+                    slow.get(5, TimeUnit.SECONDS).getStatus());
+            assertEquals(Status.SUCCESS_OK, get("/other").getStatus());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright 2005-2024 Qlik
+ *
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ *
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.engine.connector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.restlet.Application;
+import org.restlet.Client;
+import org.restlet.Component;
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import org.restlet.data.Status;
+import org.restlet.resource.Get;
+import org.restlet.resource.ResourceException;
+import org.restlet.resource.ServerResource;
+import org.restlet.routing.Router;
+
+/**
+ * Test that responses committed after the handling thread returned work for
+ * all the connectors.
+ *
+ * @author Jerome Louvel
+ */
+public class DeferredCommitTestCase extends BaseConnectorsTestCase {
+
+    public static class DelayedResource extends ServerResource {
+        @Get("txt")
+        public CompletionStage<String> represent() {
+            final CompletableFuture<String> result = new CompletableFuture<String>();
+            EXECUTOR.schedule(() -> result.complete("Delayed hello"), 50,
+                    TimeUnit.MILLISECONDS);
+            return result;
+        }
+    }
+
+    public static class FailingResource extends ServerResource {
+        @Get("txt")
+        public CompletionStage<String> represent() {
+            final CompletableFuture<String> result = new CompletableFuture<String>();
+            EXECUTOR.schedule(() -> result.completeExceptionally(
+                    new ResourceException(Status.CLIENT_ERROR_CONFLICT)), 50,
+                    TimeUnit.MILLISECONDS);
+            return result;
+        }
+    }
+
+    public static class ImmediateResource extends ServerResource {
+        @Get("txt")
+        public CompletionStage<String> represent() {
+            return CompletableFuture.completedFuture("Immediate hello");
+        }
+    }
+
+    private static final ScheduledExecutorService EXECUTOR = Executors
+            .newScheduledThreadPool(2);
+
+    private Request createRequest(String path) {
+        Request result = new Request(Method.GET,
+                "riap://application/test/" + path);
+        result.getResourceRef().setBaseRef("riap://application");
+        return result;
+    }
+
+    @Test
+    public void testInProcessCalls() throws Exception {
+        Application application = createApplication(null);
+        application.setContext(new Context());
+        application.start();
+
+        try {
+            // The calling thread waits for the stages to complete
+            Response r = application.handle(createRequest("delayed"));
+            assertEquals(Status.SUCCESS_OK, r.getStatus());
+            assertEquals("Delayed hello", r.getEntity().getText());
+
+            r = application.handle(createRequest("failing"));
+            assertEquals(Status.CLIENT_ERROR_CONFLICT, r.getStatus());
+        } finally {
+            application.stop();
+        }
+    }
+
+    @Override
+    protected void call(String uri) throws Exception {
+        Client c = new Client(Protocol.HTTP);
+
+        Response r = c.handle(new Request(Method.GET, uri + "/delayed"));
+        assertEquals(Status.SUCCESS_OK, r.getStatus(),
+                r.getStatus().getDescription());
+        assertEquals(MediaType.TEXT_PLAIN, r.getEntity().getMediaType());
+        assertEquals("Delayed hello", r.getEntity().getText());
+
+        r = c.handle(new Request(Method.GET, uri + "/immediate"));
+        assertEquals(Status.SUCCESS_OK, r.getStatus(),
+                r.getStatus().getDescription());
+        assertEquals("Immediate hello", r.getEntity().getText());
+
+        r = c.handle(new Request(Method.GET, uri + "/failing"));
+        assertEquals(Status.CLIENT_ERROR_CONFLICT, r.getStatus());
+        r.getEntity().exhaust();
+        c.stop();
+    }
+
+    @Override
+    protected Application createApplication(Component component) {
+        final Application application = new Application() {
+            @Override
+            public Restlet createInboundRoot() {
+                final Router router = new Router(getContext());
+                router.attach("/test/delayed", DelayedResource.class);
+                router.attach("/test/failing", FailingResource.class);
+                router.attach("/test/immediate", ImmediateResource.class);
+                return router;
+            }
+        };
+
+        return application;
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright 2005-2024 Qlik
+ *
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ *
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.engine.converter;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.restlet.data.MediaType;
+import org.restlet.engine.Engine;
+import org.restlet.engine.converter.ConverterHelper;
+import org.restlet.engine.converter.ConverterUtils;
+import org.restlet.engine.resource.VariantInfo;
+import org.restlet.representation.Representation;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.representation.Variant;
+import org.restlet.resource.Resource;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the converter utilities.
+ *
+ * @author Jerome Louvel
+ */
+public class ConverterUtilsTestCase extends RestletTestCase {
+
+    /** Converter helper preferring its own class to any other helper. */
+    private static class PreferredHelper extends ConverterHelper {
+
+        @Override
+        public List<Class<?>> getObjectClasses(Variant source) {
+            return Collections.<Class<?>> singletonList(PreferredHelper.class);
+        }
+
+        @Override
+        public List<VariantInfo> getVariants(Class<?> source) {
+            return null;
+        }
+
+        @Override
+        public float score(Object source, Variant target, Resource resource) {
+            return (source instanceof PreferredHelper) ? 1.0F : -1.0F;
+        }
+
+        @Override
+        public <T> float score(Representation source, Class<T> target, Resource resource) {
+            return (target == PreferredHelper.class) ? 1.0F : -1.0F;
+        }
+
+        @Override
+        public <T> T toObject(Representation source, Class<T> target, Resource resource) throws IOException {
+            return null;
+        }
+
+        @Override
+        public Representation toRepresentation(Object source, Variant target, Resource resource)
+                throws IOException {
+            return null;
+        }
+    }
+
+    @Test
+    public void testSelectionCache() {
+        Variant text = new Variant(MediaType.TEXT_PLAIN);
+        ConverterHelper helper = ConverterUtils.getBestHelper("test", text, null);
+        assertSame(helper, ConverterUtils.getBestHelper("other", new Variant(MediaType.TEXT_PLAIN), null));
+
+        Representation source = new StringRepresentation("test");
+        helper = ConverterUtils.getBestHelper(source, String.class, null);
+        assertSame(helper, ConverterUtils.getBestHelper(new StringRepresentation("other"), String.class, null));
+
+        // The cache must be invalidated by changes of the registered converters
+        PreferredHelper preferred = new PreferredHelper();
+        assertNull(ConverterUtils.getBestHelper(source, PreferredHelper.class, null));
+        Engine.getInstance().getRegisteredConverters().add(preferred);
+
+        try {
+            assertSame(preferred, ConverterUtils.getBestHelper(source, PreferredHelper.class, null));
+            assertSame(preferred, ConverterUtils.getBestHelper(new PreferredHelper(), text, null));
+        } finally {
+            Engine.getInstance().getRegisteredConverters().remove(preferred);
+        }
+
+        assertNull(ConverterUtils.getBestHelper(source, PreferredHelper.class, null));
+    }
+
+}
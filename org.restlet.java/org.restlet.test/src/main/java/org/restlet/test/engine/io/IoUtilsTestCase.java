@@ -9,20 +9,39 @@
 
 package org.restlet.test.engine.io;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.Pipe;
+import java.nio.file.Files;
+import java.util.Arrays;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.Test;
 import org.restlet.data.CharacterSet;
 import org.restlet.data.MediaType;
 import org.restlet.engine.io.IoUtils;
+import org.restlet.engine.io.PipeStream;
 import org.restlet.representation.OutputRepresentation;
+import org.restlet.representation.WriterRepresentation;
 import org.restlet.test.RestletTestCase;
 
 /**
@@ -32,6 +51,61 @@ import org.restlet.test.RestletTestCase;
  */
 public class IoUtilsTestCase extends RestletTestCase {
 
+    @Test
+    public void testCopyFileRegion() throws Exception {
+        byte[] content = new byte[5 * IoUtils.BUFFER_SIZE + 123];
+
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+
+        File file = File.createTempFile("restlet-copy", ".bin");
+        Files.write(file.toPath(), content);
+        byte[] expected = Arrays.copyOfRange(content, 100, content.length);
+
+        // Arbitrary channel, such as the one exposed by Jetty
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        try (FileInputStream fis = new FileInputStream(file)) {
+            FileChannel fileChannel = fis.getChannel();
+            assertEquals(expected.length, IoUtils.copy(fileChannel, 100,
+                    content.length, Channels.newChannel(baos)));
+        }
+
+        assertArrayEquals(expected, baos.toByteArray());
+
+        // Non-blocking selectable channel, drained by another thread
+        Pipe pipe = Pipe.open();
+        pipe.sink().configureBlocking(false);
+        ByteArrayOutputStream drained = new ByteArrayOutputStream();
+        Thread reader = new Thread(() -> {
+            ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+            try {
+                while (pipe.source().read(buffer) >= 0) {
+                    drained.write(buffer.array(), 0, buffer.position());
+                    buffer.clear();
+                }
+            } catch (IOException e) {
+                // Ends the draining
+            }
+        });
+        reader.start();
+
+        try (FileInputStream fis = new FileInputStream(file)) {
+            assertEquals(expected.length, IoUtils.copy(fis.getChannel(), 100,
+                    content.length, pipe.sink()));
+        }
+
+        pipe.sink().close();
+        reader.join(5000);
+        pipe.source().close();
+        assertArrayEquals(expected, drained.toByteArray());
+
+        // The file isn't mapped, so it can be deleted right away
+        assertTrue(file.delete());
+    }
+
     @Test
     public void testGetStream() throws IOException {
         StringWriter writer = new StringWriter();
@@ -65,4 +139,81 @@ public class IoUtilsTestCase extends RestletTestCase {
         }
     }
 
+    @Test
+    public void testPipeBulk() throws IOException {
+        final byte[] content = new byte[100000];
+
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+
+        OutputRepresentation or = new OutputRepresentation(
+                MediaType.APPLICATION_OCTET_STREAM) {
+            @Override
+            public void write(OutputStream outputStream) throws IOException {
+                for (int i = 0; i < content.length; i += 1000) {
+                    outputStream.write(content, i, 1000);
+                }
+            }
+        };
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        IoUtils.copy(or.getStream(), baos);
+        assertArrayEquals(content, baos.toByteArray());
+    }
+
+    @Test
+    public void testPipeClosedByReader() throws Exception {
+        PipeStream pipe = new PipeStream(16, 5000);
+        final OutputStream os = pipe.getOutputStream();
+        final CountDownLatch written = new CountDownLatch(1);
+        final AtomicReference<IOException> error = new AtomicReference<>();
+
+        Thread writer = new Thread(() -> {
+            try {
+                os.write(new byte[16]);
+                written.countDown();
+                os.write(new byte[16]);
+            } catch (IOException ioe) {
+                error.set(ioe);
+            }
+        });
+        writer.start();
+
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+        InputStream is = pipe.getInputStream();
+        is.close();
+        writer.join(5000);
+        assertNotNull(error.get());
+        assertTrue(pipe.isInputClosed());
+    }
+
+    @Test
+    public void testPipeError() {
+        OutputRepresentation or = new OutputRepresentation(
+                MediaType.APPLICATION_OCTET_STREAM) {
+            @Override
+            public void write(OutputStream outputStream) throws IOException {
+                outputStream.write(new byte[] { 1, 2, 3 });
+                throw new IOException("Broken source");
+            }
+        };
+
+        assertThrows(IOException.class,
+                () -> IoUtils.copy(or.getStream(), new ByteArrayOutputStream()));
+    }
+
+    @Test
+    public void testWriterRepresentationReader() throws IOException {
+        WriterRepresentation wr = new WriterRepresentation(
+                MediaType.TEXT_PLAIN) {
+            @Override
+            public void write(Writer writer) throws IOException {
+                writer.write("testé");
+            }
+        };
+
+        assertEquals("testé", IoUtils.toString(wr.getReader()));
+    }
+
 }
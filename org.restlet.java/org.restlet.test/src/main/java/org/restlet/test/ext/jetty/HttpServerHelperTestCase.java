@@ -0,0 +1,152 @@
+/**
+ * Copyright 2005-2024 Qlik
+ *
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ *
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.ext.jetty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restlet.Application;
+import org.restlet.Client;
+import org.restlet.Component;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.Server;
+import org.restlet.data.MediaType;
+import org.restlet.data.Protocol;
+import org.restlet.data.Status;
+import org.restlet.engine.Engine;
+import org.restlet.engine.header.HeaderConstants;
+import org.restlet.representation.InputRepresentation;
+import org.restlet.resource.ClientResource;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the HTTP/2 support of the Jetty server connector, called with
+ * the JDK HTTP client connector over cleartext connections (h2c).
+ *
+ * @author Jerome Louvel
+ */
+public class HttpServerHelperTestCase extends RestletTestCase {
+
+    private Client client;
+
+    private Component component;
+
+    private String uri;
+
+    @BeforeEach
+    protected void setUpEach() throws Exception {
+        Engine engine = Engine.register(false);
+        engine.getRegisteredServers().add(
+                new org.restlet.ext.jetty.HttpServerHelper(null));
+        engine.getRegisteredClients().add(
+                new org.restlet.ext.nethttp.HttpClientHelper(null));
+        engine.registerDefaultConverters();
+
+        Application application = new Application() {
+            @Override
+            public Restlet createInboundRoot() {
+                return new Restlet() {
+                    @Override
+                    public void handle(Request request, Response response) {
+                        try {
+                            String text = request.isEntityAvailable() ? Integer
+                                    .toString(request.getEntity().getText()
+                                            .length()) : request
+                                    .getResourceRef().getLastSegment();
+                            response.setEntity(
+                                    text
+                                            + " "
+                                            + request.getAttributes().get(
+                                                    HeaderConstants.ATTRIBUTE_VERSION)
+                                            + " "
+                                            + request.getHostRef()
+                                                    .getHostDomain(),
+                                    MediaType.TEXT_PLAIN);
+                        } catch (Exception e) {
+                            response.setStatus(Status.SERVER_ERROR_INTERNAL,
+                                    e);
+                        }
+                    }
+                };
+            }
+        };
+
+        this.component = new Component();
+        Server server = this.component.getServers().add(Protocol.HTTP, 0);
+        server.getContext().getParameters().add("http2.enabled", "true");
+        this.component.getDefaultHost().attach(application);
+        this.component.start();
+        this.uri = "http://localhost:" + server.getEphemeralPort();
+
+        this.client = new Client(Protocol.HTTP);
+        this.client.start();
+    }
+
+    @AfterEach
+    protected void tearDownEach() throws Exception {
+        this.client.stop();
+        this.component.stop();
+        Engine.register();
+    }
+
+    private ClientResource createResource(String path) {
+        ClientResource result = new ClientResource(this.uri + path);
+        result.setNext(this.client);
+        return result;
+    }
+
+    @Test
+    public void testMultiplexedCalls() throws Exception {
+        // The first call upgrades the connection to h2c
+        assertEquals("first 1.1 localhost", createResource("/first").get(
+                String.class));
+
+        List<CompletableFuture<String>> futures = new ArrayList<CompletableFuture<String>>();
+
+        for (int i = 0; i < 10; i++) {
+            futures.add(createResource("/item" + i).getAsync(String.class));
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("item" + i + " 2.0 localhost",
+                    futures.get(i).get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testStreamedEntity() throws Exception {
+        assertEquals("first 1.1 localhost", createResource("/first").get(
+                String.class));
+
+        StringBuilder sb = new StringBuilder();
+
+        // Larger than the stream window, so that flow control kicks in
+        for (int i = 0; i < 1000000; i++) {
+            sb.append((char) ('a' + (i % 26)));
+        }
+
+        byte[] content = sb.toString().getBytes();
+        InputRepresentation entity = new InputRepresentation(
+                new ByteArrayInputStream(content), MediaType.TEXT_PLAIN);
+        assertEquals("1000000 2.0 localhost",
+                createResource("/").post(entity, String.class));
+    }
+
+}
@@ -0,0 +1,205 @@
+/**
+ * Copyright 2005-2024 Qlik
+ *
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ *
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.ext.jetty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509ExtendedTrustManager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restlet.Application;
+import org.restlet.Client;
+import org.restlet.Component;
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.Server;
+import org.restlet.data.MediaType;
+import org.restlet.data.Parameter;
+import org.restlet.data.Protocol;
+import org.restlet.engine.Engine;
+import org.restlet.engine.header.HeaderConstants;
+import org.restlet.engine.ssl.SslContextFactory;
+import org.restlet.resource.ClientResource;
+import org.restlet.test.RestletTestCase;
+import org.restlet.util.Series;
+
+/**
+ * Unit tests for the HTTP/2 support of the Jetty server connector, called with
+ * the JDK HTTP client connector over TLS connections negotiated with ALPN (h2).
+ *
+ * @author Jerome Louvel
+ */
+public class HttpsServerHelperTestCase extends RestletTestCase {
+
+    /**
+     * SSL context factory trusting any server, as the certificate of the test
+     * keystore has expired.
+     */
+    private static class TrustingSslContextFactory extends SslContextFactory {
+
+        @Override
+        public SSLContext createSslContext() throws Exception {
+            SSLContext result = SSLContext.getInstance("TLS");
+            result.init(null, new TrustManager[] { new X509ExtendedTrustManager() {
+                @Override
+                public void checkClientTrusted(X509Certificate[] chain,
+                        String authType) {
+                }
+
+                @Override
+                public void checkClientTrusted(X509Certificate[] chain,
+                        String authType, Socket socket) {
+                }
+
+                @Override
+                public void checkClientTrusted(X509Certificate[] chain,
+                        String authType, SSLEngine engine) {
+                }
+
+                @Override
+                public void checkServerTrusted(X509Certificate[] chain,
+                        String authType) {
+                }
+
+                @Override
+                public void checkServerTrusted(X509Certificate[] chain,
+                        String authType, Socket socket) {
+                }
+
+                @Override
+                public void checkServerTrusted(X509Certificate[] chain,
+                        String authType, SSLEngine engine) {
+                }
+
+                @Override
+                public X509Certificate[] getAcceptedIssuers() {
+                    return new X509Certificate[0];
+                }
+            } }, null);
+            return result;
+        }
+
+        @Override
+        public void init(Series<Parameter> parameters) {
+        }
+    }
+
+    private Client client;
+
+    private Component component;
+
+    private File keystoreFile;
+
+    private String uri;
+
+    @BeforeEach
+    protected void setUpEach() throws Exception {
+        Engine engine = Engine.register(false);
+        engine.getRegisteredServers().add(
+                new org.restlet.ext.jetty.HttpsServerHelper(null));
+        engine.getRegisteredClients().add(
+                new org.restlet.ext.nethttp.HttpClientHelper(null));
+        engine.registerDefaultConverters();
+
+        this.keystoreFile = File.createTempFile("dummy", ".jks");
+
+        try (InputStream in = getClass().getResourceAsStream(
+                "/org/restlet/test/engine/connector/dummy.jks")) {
+            Files.copy(in, this.keystoreFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        Application application = new Application() {
+            @Override
+            public Restlet createInboundRoot() {
+                return new Restlet() {
+                    @Override
+                    public void handle(Request request, Response response) {
+                        response.setEntity(request.getResourceRef()
+                                .getLastSegment()
+                                + " "
+                                + request.getAttributes().get(
+                                        HeaderConstants.ATTRIBUTE_VERSION)
+                                + " "
+                                + request.getProtocol().getSchemeName(),
+                                MediaType.TEXT_PLAIN);
+                    }
+                };
+            }
+        };
+
+        this.component = new Component();
+        Server server = this.component.getServers().add(Protocol.HTTPS, 0);
+        Series<Parameter> parameters = server.getContext().getParameters();
+        parameters.add("http2.enabled", "true");
+        parameters.add("keystorePath", this.keystoreFile.getPath());
+        parameters.add("keystorePassword", "testtest");
+        parameters.add("keyPassword", "testtest");
+        this.component.getDefaultHost().attach(application);
+        this.component.start();
+        this.uri = "https://localhost:" + server.getEphemeralPort();
+
+        this.client = new Client(new Context(), Protocol.HTTPS);
+        this.client.getContext().getAttributes().put("sslContextFactory",
+                new TrustingSslContextFactory());
+        this.client.start();
+    }
+
+    @AfterEach
+    protected void tearDownEach() throws Exception {
+        this.client.stop();
+        this.component.stop();
+        this.keystoreFile.delete();
+        Engine.register();
+    }
+
+    private ClientResource createResource(String path) {
+        ClientResource result = new ClientResource(this.uri + path);
+        result.setNext(this.client);
+        return result;
+    }
+
+    @Test
+    public void testNegotiatedCalls() throws Exception {
+        // HTTP/2 is negotiated with ALPN from the first call
+        assertEquals("first 2.0 https", createResource("/first").get(
+                String.class));
+
+        List<CompletableFuture<String>> futures = new ArrayList<CompletableFuture<String>>();
+
+        for (int i = 0; i < 10; i++) {
+            futures.add(createResource("/item" + i).getAsync(String.class));
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("item" + i + " 2.0 https",
+                    futures.get(i).get(5, TimeUnit.SECONDS));
+        }
+    }
+
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright 2005-2024 Qlik
+ *
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ *
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.ext.nethttp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restlet.Application;
+import org.restlet.Client;
+import org.restlet.Component;
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.Server;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import org.restlet.data.Status;
+import org.restlet.engine.Engine;
+import org.restlet.ext.nethttp.HttpClientHelper;
+import org.restlet.representation.InputRepresentation;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.resource.ClientResource;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the JDK HTTP client connector.
+ *
+ * @author Jerome Louvel
+ */
+public class HttpClientHelperTestCase extends RestletTestCase {
+
+    private Client client;
+
+    private Component component;
+
+    private String uri;
+
+    @BeforeEach
+    protected void setUpEach() throws Exception {
+        Engine engine = Engine.register(false);
+        engine.getRegisteredServers().add(
+                new org.restlet.engine.connector.HttpServerHelper(null));
+        engine.getRegisteredClients().add(new HttpClientHelper(null));
+        engine.registerDefaultConverters();
+
+        Application application = new Application() {
+            @Override
+            public Restlet createInboundRoot() {
+                return new Restlet() {
+                    @Override
+                    public void handle(Request request, Response response) {
+                        try {
+                            String text = request.isEntityAvailable() ? Integer
+                                    .toString(request.getEntity().getText()
+                                            .length()) : request
+                                    .getResourceRef().getLastSegment();
+                            response.setEntity(text, MediaType.TEXT_PLAIN);
+                        } catch (Exception e) {
+                            response.setStatus(Status.SERVER_ERROR_INTERNAL,
+                                    e);
+                        }
+                    }
+                };
+            }
+        };
+
+        this.component = new Component();
+        Server server = this.component.getServers().add(Protocol.HTTP, 0);
+        this.component.getDefaultHost().attach(application);
+        this.component.start();
+        this.uri = "http://localhost:" + server.getEphemeralPort();
+
+        this.client = new Client(new Context(), Protocol.HTTP);
+        this.client.getContext().getParameters().add("maxThreads", "2");
+        this.client.start();
+    }
+
+    @AfterEach
+    protected void tearDownEach() throws Exception {
+        this.client.stop();
+        this.component.stop();
+        Engine.register();
+    }
+
+    @Test
+    public void testAsynchronousCalls() throws Exception {
+        List<CompletableFuture<String>> futures = new ArrayList<CompletableFuture<String>>();
+
+        for (int i = 0; i < 10; i++) {
+            ClientResource resource = new ClientResource(this.uri + "/item"
+                    + i);
+            resource.setNext(this.client);
+            futures.add(resource.getAsync(String.class));
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("item" + i, futures.get(i).get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testStreamedEntities() throws Exception {
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < 100000; i++) {
+            sb.append((char) ('a' + (i % 26)));
+        }
+
+        // Unknown size, so the request entity is chunked
+        Request request = new Request(Method.POST, this.uri + "/echo");
+        request.setEntity(new InputRepresentation(new ByteArrayInputStream(sb
+                .toString().getBytes()), MediaType.TEXT_PLAIN));
+        Response response = this.client.handle(request);
+        assertEquals(Status.SUCCESS_OK, response.getStatus());
+        assertEquals("100000", response.getEntity().getText());
+
+        // Known size
+        request = new Request(Method.PUT, this.uri + "/echo");
+        request.setEntity(new StringRepresentation(sb));
+        response = this.client.handle(request);
+        assertEquals(Status.SUCCESS_OK, response.getStatus());
+        assertEquals("100000", response.getEntity().getText());
+    }
+
+    @Test
+    public void testUnreachableServer() throws Exception {
+        this.component.stop();
+        Response response = this.client.handle(new Request(Method.GET,
+                this.uri + "/item"));
+        assertTrue(response.getStatus().isConnectorError());
+    }
+
+}
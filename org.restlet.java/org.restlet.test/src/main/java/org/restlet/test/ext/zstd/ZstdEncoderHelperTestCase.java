@@ -0,0 +1,61 @@
+/**
+ * Copyright 2005-2024 Qlik
+ *
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ *
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.ext.zstd;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.restlet.data.Encoding;
+import org.restlet.engine.application.EncodeRepresentation;
+import org.restlet.engine.io.IoUtils;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.test.RestletTestCase;
+
+import com.github.luben.zstd.ZstdInputStream;
+
+/**
+ * Unit tests for the Zstandard encoder helper.
+ *
+ * @author Jerome Louvel
+ */
+public class ZstdEncoderHelperTestCase extends RestletTestCase {
+
+    @Test
+    public void testEncode() throws Exception {
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < 2000; i++) {
+            sb.append("Line ").append(i % 10).append('\n');
+        }
+
+        String text = sb.toString();
+        assertTrue(EncodeRepresentation.getSupportedEncodings().contains(
+                Encoding.ZSTD));
+
+        EncodeRepresentation encoded = new EncodeRepresentation(
+                Encoding.ZSTD, 19, new StringRepresentation(text));
+        assertTrue(encoded.canEncode());
+        assertEquals(Encoding.ZSTD, encoded.getEncodings().get(0));
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        encoded.write(baos);
+        assertTrue(baos.size() < text.length());
+
+        try (ZstdInputStream zis = new ZstdInputStream(
+                new ByteArrayInputStream(baos.toByteArray()))) {
+            assertEquals(text, IoUtils.toString(zis));
+        }
+    }
+
+}
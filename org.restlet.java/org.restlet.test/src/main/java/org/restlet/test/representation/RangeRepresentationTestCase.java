@@ -10,11 +10,25 @@
 package org.restlet.test.representation;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.util.Arrays;
+
 import org.junit.jupiter.api.Test;
+import org.restlet.data.MediaType;
 import org.restlet.data.Range;
 import org.restlet.engine.application.RangeRepresentation;
+import org.restlet.representation.FileRepresentation;
+import org.restlet.representation.Representation;
 import org.restlet.representation.StringRepresentation;
 import org.restlet.test.RestletTestCase;
 
@@ -25,6 +39,39 @@ import org.restlet.test.RestletTestCase;
  */
 public class RangeRepresentationTestCase extends RestletTestCase {
 
+    /** Output stream exposing a writable byte channel, like connector streams. */
+    private static class ChannelOutputStream extends ByteArrayOutputStream
+            implements WritableByteChannel {
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            int result = src.remaining();
+            byte[] bytes = new byte[result];
+            src.get(bytes);
+            write(bytes, 0, result);
+            return result;
+        }
+    }
+
+    /**
+     * Writes a representation to a stream exposing a writable byte channel.
+     * 
+     * @param representation
+     *            The representation to write.
+     * @return The bytes written.
+     */
+    private static byte[] transfer(Representation representation)
+            throws IOException {
+        ChannelOutputStream result = new ChannelOutputStream();
+        representation.write((OutputStream) result);
+        return result.toByteArray();
+    }
+
     @Test
     public void testAppendable() throws Exception {
         StringRepresentation sr = new StringRepresentation("1234567890");
@@ -49,4 +96,42 @@ public class RangeRepresentationTestCase extends RestletTestCase {
         assertEquals("67890", rr.getText());
     }
 
+    @Test
+    public void testFileTransfer() throws Exception {
+        File file = File.createTempFile("range", ".txt");
+        File target = File.createTempFile("range", ".out");
+
+        try {
+            Files.write(file.toPath(), "1234567890".getBytes());
+            FileRepresentation fr = new FileRepresentation(file,
+                    MediaType.TEXT_PLAIN);
+
+            assertEquals("1234567890", new String(transfer(fr)));
+            assertEquals("34567",
+                    new String(transfer(new RangeRepresentation(fr,
+                            new Range(2, 5)))));
+            assertEquals("890", new String(transfer(new RangeRepresentation(
+                    fr, new Range(Range.INDEX_LAST, 3)))));
+            assertEquals("67890",
+                    new String(transfer(new RangeRepresentation(fr,
+                            new Range(5, 10000)))));
+
+            try (FileOutputStream fos = new FileOutputStream(target)) {
+                new RangeRepresentation(fr, new Range(1, 3)).write(fos);
+            }
+            assertEquals("234", new String(Files.readAllBytes(target.toPath())));
+
+            // Larger files are mapped in memory
+            byte[] content = new byte[100000];
+            Arrays.fill(content, (byte) 'a');
+            content[content.length - 1] = 'z';
+            Files.write(file.toPath(), content);
+            assertArrayEquals(content, transfer(new FileRepresentation(file,
+                    MediaType.TEXT_PLAIN)));
+        } finally {
+            file.delete();
+            target.delete();
+        }
+    }
+
 }
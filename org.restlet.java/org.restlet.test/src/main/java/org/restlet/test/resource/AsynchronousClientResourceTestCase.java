@@ -0,0 +1,186 @@
+/**
+ * Copyright 2005-2024 Qlik
+ *
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ *
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restlet.Application;
+import org.restlet.Client;
+import org.restlet.Component;
+import org.restlet.Restlet;
+import org.restlet.Server;
+import org.restlet.data.Protocol;
+import org.restlet.data.Reference;
+import org.restlet.data.Status;
+import org.restlet.engine.Engine;
+import org.restlet.representation.Representation;
+import org.restlet.resource.ClientResource;
+import org.restlet.resource.Get;
+import org.restlet.resource.Post;
+import org.restlet.resource.ResourceException;
+import org.restlet.resource.ServerResource;
+import org.restlet.routing.Router;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Test the asynchronous methods of {@link ClientResource} backed by the
+ * non-blocking Jetty client connector.
+ *
+ * @author Jerome Louvel
+ */
+public class AsynchronousClientResourceTestCase extends RestletTestCase {
+
+    public static class DelayedResource extends ServerResource {
+        @Get("txt")
+        public CompletionStage<String> represent() {
+            final CompletableFuture<String> result = new CompletableFuture<String>();
+            EXECUTOR.schedule(() -> result.complete("Delayed " + getAttribute("id")),
+                    100, TimeUnit.MILLISECONDS);
+            return result;
+        }
+    }
+
+    public static class EchoResource extends ServerResource {
+        @Post("txt:txt")
+        public String echo(String text) {
+            return "Echo " + text;
+        }
+    }
+
+    public interface DelayedProxy {
+        @Get
+        CompletionStage<String> represent();
+    }
+
+    private static final ScheduledExecutorService EXECUTOR = Executors
+            .newScheduledThreadPool(2);
+
+    private Application application;
+
+    private Client client;
+
+    private Component component;
+
+    private String uri;
+
+    @BeforeEach
+    protected void setUpEach() throws Exception {
+        Engine engine = Engine.register(false);
+        engine.getRegisteredServers().add(
+                new org.restlet.engine.connector.HttpServerHelper(null));
+        engine.getRegisteredClients().add(
+                new org.restlet.ext.jetty.HttpClientHelper(null));
+        engine.registerDefaultConverters();
+
+        this.application = new Application() {
+            @Override
+            public Restlet createInboundRoot() {
+                Router router = new Router(getContext());
+                router.attach("/delayed/{id}", DelayedResource.class);
+                router.attach("/echo", EchoResource.class);
+                return router;
+            }
+        };
+
+        this.component = new Component();
+        Server server = this.component.getServers().add(Protocol.HTTP, 0);
+        this.component.getDefaultHost().attach(this.application);
+        this.component.start();
+        this.uri = "http://localhost:" + server.getEphemeralPort();
+
+        this.client = new Client(Protocol.HTTP);
+        this.client.start();
+    }
+
+    @AfterEach
+    protected void tearDownEach() throws Exception {
+        this.client.stop();
+        this.component.stop();
+        Engine.register();
+    }
+
+    private ClientResource createResource(String path) {
+        ClientResource result = new ClientResource(this.uri + path);
+        result.setNext(this.client);
+        return result;
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        try {
+            createResource("/missing").getAsync().get(5, TimeUnit.SECONDS);
+            assertTrue(false);
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ResourceException);
+            assertEquals(Status.CLIENT_ERROR_NOT_FOUND,
+                    ((ResourceException) e.getCause()).getStatus());
+        }
+    }
+
+    @Test
+    public void testFanOut() throws Exception {
+        List<CompletableFuture<Representation>> futures = new ArrayList<CompletableFuture<Representation>>();
+
+        for (int i = 0; i < 20; i++) {
+            futures.add(createResource("/delayed/" + i).getAsync());
+        }
+
+        // The calling thread isn't blocked while the responses are pending
+        assertFalse(futures.get(0).isDone());
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals("Delayed " + i,
+                    futures.get(i).get(5, TimeUnit.SECONDS).getText());
+        }
+    }
+
+    @Test
+    public void testLocalDeferredCommit() throws Exception {
+        ClientResource resource = new ClientResource(new Reference(
+                new Reference("http://localhost"),
+                "http://localhost/delayed/local"));
+        resource.setNext(this.application);
+
+        CompletableFuture<String> future = resource.getAsync(String.class);
+        assertEquals("Delayed local", future.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testProxy() throws Exception {
+        DelayedProxy proxy = createResource("/delayed/proxy").wrap(
+                DelayedProxy.class);
+        assertEquals("Delayed proxy", proxy.represent().toCompletableFuture()
+                .get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTypedResults() throws Exception {
+        ClientResource resource = createResource("/echo");
+        assertEquals("Echo hello",
+                resource.postAsync("hello", String.class).get(5,
+                        TimeUnit.SECONDS));
+        assertEquals(Status.SUCCESS_OK, resource.getStatus());
+    }
+
+}
@@ -12,6 +12,7 @@ package org.restlet.test.resource;
 import static java.io.File.createTempFile;
 import static java.lang.System.getProperty;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.restlet.data.Language.FRENCH;
 import static org.restlet.data.Language.SPANISH;
@@ -25,6 +26,7 @@ import static org.restlet.data.Status.CLIENT_ERROR_BAD_REQUEST;
 import static org.restlet.data.Status.CLIENT_ERROR_FORBIDDEN;
 import static org.restlet.data.Status.CLIENT_ERROR_METHOD_NOT_ALLOWED;
 import static org.restlet.data.Status.CLIENT_ERROR_NOT_FOUND;
+import static org.restlet.data.Status.REDIRECTION_NOT_MODIFIED;
 import static org.restlet.data.Status.REDIRECTION_SEE_OTHER;
 import static org.restlet.data.Status.SUCCESS_CREATED;
 import static org.restlet.data.Status.SUCCESS_NO_CONTENT;
@@ -33,6 +35,7 @@ import static org.restlet.data.Status.SUCCESS_OK;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.Date;
 
 import org.junit.jupiter.api.AfterAll;
@@ -44,15 +47,21 @@ import org.restlet.Component;
 import org.restlet.Request;
 import org.restlet.Response;
 import org.restlet.Restlet;
+import org.restlet.data.Dimension;
+import org.restlet.data.Encoding;
 import org.restlet.data.Header;
 import org.restlet.data.Language;
+import org.restlet.data.MediaType;
 import org.restlet.data.Metadata;
 import org.restlet.data.Method;
 import org.restlet.data.Reference;
 import org.restlet.data.Status;
+import org.restlet.data.Tag;
 import org.restlet.engine.Engine;
 import org.restlet.engine.header.HeaderConstants;
 import org.restlet.engine.io.IoUtils;
+import org.restlet.engine.local.CachedFileRepresentation;
+import org.restlet.engine.local.FileCache;
 import org.restlet.engine.util.ReferenceUtils;
 import org.restlet.representation.StringRepresentation;
 import org.restlet.resource.Directory;
@@ -200,6 +209,114 @@ public class DirectoryTestCase extends RestletTestCase {
         assertEquals(CLIENT_ERROR_NOT_FOUND, response.getStatus());
     }
 
+    @Test
+    public void testPrecompressedFiles() throws IOException {
+        application.getTunnelService().setExtensionsTunnel(false);
+        this.testDir = Files.createTempDirectory("testPrecompressedFiles").toFile();
+        application.setTestDirectory(testDir);
+        Files.write(new File(this.testDir, "app.js").toPath(), "raw".getBytes());
+        Files.write(new File(this.testDir, "app.js.gz").toPath(), "compressed".getBytes());
+        Files.write(new File(this.testDir, "other.js").toPath(), "other".getBytes());
+
+        // Disabled by default
+        Response response = new TestRequest(this.webSiteURL, "app.js")
+                .baseRef(this.webSiteURL)
+                .accept(Encoding.GZIP)
+                .handle(GET);
+        assertEquals(SUCCESS_OK, response.getStatus());
+        assertEquals("raw", response.getEntity().getText());
+
+        application.getDirectory().getPrecompressedEncodings().add(Encoding.GZIP);
+        response = new TestRequest(this.webSiteURL, "app.js")
+                .baseRef(this.webSiteURL)
+                .accept(Encoding.GZIP)
+                .handle(GET);
+        assertEquals(SUCCESS_OK, response.getStatus());
+        assertEquals("compressed", response.getEntity().getText());
+        assertEquals(MediaType.APPLICATION_JAVASCRIPT, response.getEntity().getMediaType());
+        assertEquals(Arrays.asList(Encoding.GZIP), response.getEntity().getEncodings());
+        assertTrue(response.getDimensions().contains(Dimension.ENCODING));
+
+        // Negotiated base name
+        response = new TestRequest(this.webSiteURL, "app")
+                .baseRef(this.webSiteURL)
+                .accept(Encoding.GZIP)
+                .handle(GET);
+        assertEquals(SUCCESS_OK, response.getStatus());
+        assertEquals("compressed", response.getEntity().getText());
+
+        // Encoding not accepted
+        response = new TestRequest(this.webSiteURL, "app.js")
+                .baseRef(this.webSiteURL)
+                .handle(GET);
+        assertEquals(SUCCESS_OK, response.getStatus());
+        assertEquals("raw", response.getEntity().getText());
+        assertTrue(response.getEntity().getEncodings().isEmpty());
+
+        // No pre-compressed sibling
+        response = new TestRequest(this.webSiteURL, "other.js")
+                .baseRef(this.webSiteURL)
+                .accept(Encoding.GZIP)
+                .handle(GET);
+        assertEquals(SUCCESS_OK, response.getStatus());
+        assertEquals("other", response.getEntity().getText());
+        assertTrue(response.getEntity().getEncodings().isEmpty());
+    }
+
+    @Test
+    public void testFileCache() throws IOException {
+        application.getTunnelService().setExtensionsTunnel(false);
+        this.testDir = Files.createTempDirectory("testFileCache").toFile();
+        application.setTestDirectory(testDir);
+        File appFile = new File(this.testDir, "app.js");
+        Files.write(appFile.toPath(), "first".getBytes());
+        Files.write(new File(this.testDir, "lib.js").toPath(), "library".getBytes());
+
+        FileCache fileCache = new FileCache(10, 10);
+        application.getDirectory().setFileCache(fileCache);
+
+        Response response = new TestRequest(this.webSiteURL, "app.js")
+                .baseRef(this.webSiteURL)
+                .handle(GET);
+        assertEquals(SUCCESS_OK, response.getStatus());
+        assertEquals("first", response.getEntity().getText());
+        assertEquals(5, fileCache.getSize());
+
+        response = new TestRequest(this.webSiteURL, "app.js")
+                .baseRef(this.webSiteURL)
+                .handle(GET);
+        assertEquals(SUCCESS_OK, response.getStatus());
+        assertTrue(response.getEntity() instanceof CachedFileRepresentation);
+        assertEquals("first", response.getEntity().getText());
+        assertEquals(MediaType.APPLICATION_JAVASCRIPT, response.getEntity().getMediaType());
+        assertNotNull(response.getEntity().getTag());
+
+        // Conditional request
+        Tag tag = response.getEntity().getTag();
+        Request request = new Request(GET, this.webSiteURL + "app.js");
+        request.getResourceRef().setBaseRef(this.webSiteURL);
+        request.getConditions().getNoneMatch().add(tag);
+        response = application.handle(request);
+        assertEquals(REDIRECTION_NOT_MODIFIED, response.getStatus());
+
+        // Changed file
+        Files.write(appFile.toPath(), "second!".getBytes());
+        assertTrue(appFile.setLastModified(appFile.lastModified() - 10000));
+        response = new TestRequest(this.webSiteURL, "app.js")
+                .baseRef(this.webSiteURL)
+                .handle(GET);
+        assertEquals(SUCCESS_OK, response.getStatus());
+        assertEquals("second!", response.getEntity().getText());
+        assertEquals(7, fileCache.getSize());
+
+        // Eviction of the least recently used file
+        response = new TestRequest(this.webSiteURL, "lib.js")
+                .baseRef(this.webSiteURL)
+                .handle(GET);
+        assertEquals("library", response.getEntity().getText());
+        assertEquals(7, fileCache.getSize());
+    }
+
     @Test
     public void testParentDirectoryInaccessible() throws IOException {
         application.getTunnelService().setExtensionsTunnel(false);
@@ -400,6 +517,8 @@ public class DirectoryTestCase extends RestletTestCase {
             this.directory.setListingAllowed(false);
             this.directory.setModifiable(false);
             this.directory.setNegotiatingContent(true);
+            this.directory.getPrecompressedEncodings().clear();
+            this.directory.setFileCache(null);
         }
 
     }
@@ -0,0 +1,131 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.data.Method;
+import org.restlet.data.Reference;
+import org.restlet.engine.routing.TemplateMatch;
+import org.restlet.routing.Router;
+import org.restlet.routing.Template;
+import org.restlet.routing.TemplateRoute;
+import org.restlet.routing.Variable;
+import org.restlet.test.MockRestlet;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Test case for the routing modes of the Router class.
+ * 
+ * @author Jerome Louvel
+ */
+public class RouterTestCase extends RestletTestCase {
+
+    private static final String[] PATHS = { "", "/", "/users", "/users/",
+            "/users/123", "/users/123/", "/users/abc", "/users/a%20b",
+            "/users/a%2", "/users/123/orders", "/users/123/orders/45",
+            "/users/123/orders/45/items", "/users/123/photo.png",
+            "/files/a/b/c", "/files", "/static/css/main.css", "/admin",
+            "/admin/health", "/adminx", "/u/1/2", "/u/x/2", "/u//2",
+            "/opt/", "/opt/x", "/fixed/v1/a", "/fixed/v2/a" };
+
+    private static Router createRouter(int routingMode) {
+        Router router = new Router();
+        router.setRoutingMode(routingMode);
+        router.attach("/users", new MockRestlet(null));
+        router.attach("/users/{id}", new MockRestlet(null));
+        router.attach("/users/{id}/orders/{orderId}", new MockRestlet(null));
+        router.attach("/users/{id}/photo.{ext}", new MockRestlet(null));
+        router.attach("/users/{name}/", new MockRestlet(null),
+                Template.MODE_STARTS_WITH);
+        router.attach("/files/{path}", new MockRestlet(null)).getTemplate()
+                .getVariables().put("path", new Variable(Variable.TYPE_ALL));
+        router.attach("/static", new MockRestlet(null), Template.MODE_STARTS_WITH);
+        router.attach("/admin", new MockRestlet(null), Template.MODE_STARTS_WITH);
+        router.attach("/admin/health", new MockRestlet(null));
+
+        TemplateRoute route = router.attach("/u/{a}/{b}", new MockRestlet(null));
+        route.getTemplate().getVariables()
+                .put("a", new Variable(Variable.TYPE_DIGIT));
+        router.attach("/u/{a}/{b}", new MockRestlet(null));
+
+        route = router.attach("/opt/{o}", new MockRestlet(null));
+        route.getTemplate().getVariables().put("o",
+                new Variable(Variable.TYPE_URI_SEGMENT, "", false, false));
+
+        route = router.attach("/fixed/{version}/a", new MockRestlet(null));
+        route.getTemplate().getVariables().put("version",
+                new Variable(Variable.TYPE_ALL, "v1", true, true));
+        return router;
+    }
+
+    private static Request createRequest(String path) {
+        Request request = new Request(Method.GET, "http://localhost" + path);
+        request.getResourceRef().setBaseRef(new Reference("http://localhost"));
+        return request;
+    }
+
+    @Test
+    public void testCompiledTreeMatchesFirstMatch() {
+        Router firstMatch = createRouter(Router.MODE_FIRST_MATCH);
+        Router compiledTree = createRouter(Router.MODE_COMPILED_TREE);
+
+        for (String path : PATHS) {
+            Restlet expected = firstMatch.getNext(createRequest(path),
+                    new Response(null));
+            Restlet actual = compiledTree.getNext(createRequest(path),
+                    new Response(null));
+
+            if (expected == null) {
+                assertNull(actual, path);
+            } else {
+                int index = firstMatch.getRoutes().indexOf(expected);
+                assertEquals(index, compiledTree.getRoutes().indexOf(actual),
+                        path);
+            }
+        }
+    }
+
+    @Test
+    public void testLazyVariables() {
+        Router router = new Router();
+        router.setDefaultLazyVariables(true);
+        TemplateRoute route = router.attach("/users/{id}", new Restlet() {
+        });
+
+        Request request = createRequest("/users/123");
+        route.handle(request, new Response(request));
+        assertNull(request.getAttributes().get("id"));
+        assertEquals("123", TemplateMatch.getValue(request, "id"));
+    }
+
+    @Test
+    public void testCompiledTreeRebuild() {
+        Router router = new Router();
+        router.setRoutingMode(Router.MODE_COMPILED_TREE);
+        TemplateRoute first = router.attach("/a/{id}", new MockRestlet(null));
+        assertSame(first, router.getNext(createRequest("/a/1"),
+                new Response(null)));
+
+        TemplateRoute second = router.attach("/b/{id}", new MockRestlet(null));
+        assertSame(second, router.getNext(createRequest("/b/1"),
+                new Response(null)));
+
+        router.getRoutes().remove(first);
+        assertNull(router.getNext(createRequest("/a/1"), new Response(null)));
+    }
+
+}
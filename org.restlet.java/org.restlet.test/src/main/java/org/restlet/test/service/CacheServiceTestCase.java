@@ -0,0 +1,313 @@
+/**
+ * Copyright 2005-2024 Qlik
+ *
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ *
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.restlet.Application;
+import org.restlet.Client;
+import org.restlet.Component;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.data.CacheDirective;
+import org.restlet.data.ChallengeResponse;
+import org.restlet.data.ChallengeScheme;
+import org.restlet.data.Dimension;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Preference;
+import org.restlet.data.Protocol;
+import org.restlet.data.Status;
+import org.restlet.data.Tag;
+import org.restlet.engine.cache.CacheFilter;
+import org.restlet.engine.cache.MemoryCacheStore;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.resource.ClientResource;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the cache service and its filter.
+ *
+ * @author Jerome Louvel
+ */
+public class CacheServiceTestCase extends RestletTestCase {
+
+    private static final String URI = "http://localhost/resource";
+
+    private final AtomicInteger invocations = new AtomicInteger();
+
+    private CacheFilter createFilter(int maxAge) {
+        CacheFilter result = new CacheFilter(null, new MemoryCacheStore(),
+                true, 1024);
+        result.setNext(createResource(maxAge));
+        return result;
+    }
+
+    private Restlet createResource(final int maxAge) {
+        return new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                int count = invocations.incrementAndGet();
+
+                if (Method.GET.equals(request.getMethod())) {
+                    MediaType mediaType = request.getClientInfo()
+                            .getAcceptedMediaTypes().isEmpty() ? MediaType.TEXT_PLAIN
+                            : request.getClientInfo().getAcceptedMediaTypes()
+                                    .get(0).getMetadata();
+                    Tag tag = new Tag("v" + (count / 100), false);
+
+                    if (request.getConditions().getNoneMatch().contains(tag)) {
+                        response.setStatus(Status.REDIRECTION_NOT_MODIFIED);
+                    } else {
+                        StringRepresentation entity = new StringRepresentation(
+                                "count " + count, mediaType);
+                        entity.setTag(tag);
+                        response.setEntity(entity);
+                    }
+
+                    response.getDimensions().add(Dimension.MEDIA_TYPE);
+                    response.getCacheDirectives().add(
+                            CacheDirective.maxAge(maxAge));
+                } else {
+                    response.setStatus(Status.SUCCESS_NO_CONTENT);
+                }
+            }
+        };
+    }
+
+    private Response handle(Restlet restlet, Method method,
+            MediaType accepted) {
+        Request request = new Request(method, URI);
+
+        if (accepted != null) {
+            request.getClientInfo().getAcceptedMediaTypes()
+                    .add(new Preference<MediaType>(accepted));
+        }
+
+        Response response = new Response(request);
+        restlet.handle(request, response);
+        return response;
+    }
+
+    @Test
+    public void testClient() throws Exception {
+        Component component = new Component();
+        component.getServers().add(Protocol.HTTP, TEST_PORT);
+        component.getDefaultHost().attach(createResource(60));
+        component.start();
+
+        Client client = new Client(Protocol.HTTP);
+        client.setCacheStore(new MemoryCacheStore());
+        client.start();
+
+        try {
+            Restlet restlet = new Restlet() {
+                @Override
+                public void handle(Request request, Response response) {
+                    request.setResourceRef("http://localhost:" + TEST_PORT
+                            + "/resource");
+                    client.handle(request, response);
+                }
+            };
+
+            assertEquals("count 1", handle(restlet, Method.GET, null)
+                    .getEntity().getText());
+            Response response = handle(restlet, Method.GET, null);
+            assertEquals("count 1", response.getEntity().getText());
+            assertEquals(new Tag("v0", false), response.getEntity().getTag());
+            assertEquals(1, invocations.get());
+
+            // The client cache is shared, so authorized responses aren't stored
+            Restlet authenticated = new Restlet() {
+                @Override
+                public void handle(Request request, Response response) {
+                    request.setResourceRef("http://localhost:" + TEST_PORT
+                            + "/private");
+                    request.setChallengeResponse(new ChallengeResponse(
+                            ChallengeScheme.HTTP_BASIC, "user", "secret"));
+                    client.handle(request, response);
+                }
+            };
+
+            assertEquals("count 2", handle(authenticated, Method.GET, null)
+                    .getEntity().getText());
+            assertEquals("count 3", handle(authenticated, Method.GET, null)
+                    .getEntity().getText());
+        } finally {
+            client.stop();
+            component.stop();
+        }
+    }
+
+    @Test
+    public void testClientResource() throws Exception {
+        MemoryCacheStore store = new MemoryCacheStore();
+        ClientResource resource = new ClientResource(URI);
+        resource.setNext(createResource(60));
+        resource.setCacheStore(store);
+        assertEquals("count 1", resource.get().getText());
+        assertEquals("count 1", resource.get().getText());
+
+        ClientResource other = new ClientResource(URI);
+        other.setNext(createResource(60));
+        other.setCacheStore(store);
+        assertEquals("count 1", other.get().getText());
+        assertEquals(1, invocations.get());
+
+        // Without cache, the next Restlet is always invoked
+        resource.setCacheStore(null);
+        assertEquals("count 2", resource.get().getText());
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        assertFalse(new Application().getCacheService().isEnabled());
+    }
+
+    @Test
+    public void testFreshResponses() throws Exception {
+        CacheFilter filter = createFilter(60);
+        assertEquals("count 1", handle(filter, Method.GET, null).getEntity()
+                .getText());
+        assertEquals("count 1", handle(filter, Method.GET, null).getEntity()
+                .getText());
+        assertEquals(1, invocations.get());
+
+        // Variants are cached separately
+        Response response = handle(filter, Method.GET, MediaType.TEXT_HTML);
+        assertEquals("count 2", response.getEntity().getText());
+        assertEquals(MediaType.TEXT_HTML, response.getEntity().getMediaType());
+        assertEquals("count 2", handle(filter, Method.GET, MediaType.TEXT_HTML)
+                .getEntity().getText());
+        assertEquals("count 1", handle(filter, Method.GET, null).getEntity()
+                .getText());
+        assertEquals(2, invocations.get());
+
+        // Conditional requests are answered from the cache
+        Request request = new Request(Method.GET, URI);
+        request.getConditions().getNoneMatch().add(new Tag("v0", false));
+        response = new Response(request);
+        filter.handle(request, response);
+        assertEquals(Status.REDIRECTION_NOT_MODIFIED, response.getStatus());
+        assertEquals(2, invocations.get());
+
+        // Unsafe requests invalidate the cached responses
+        handle(filter, Method.POST, null);
+        assertEquals(3, invocations.get());
+        assertEquals("count 4", handle(filter, Method.GET, null).getEntity()
+                .getText());
+
+        // Requests can force a revalidation
+        request = new Request(Method.GET, URI);
+        request.getCacheDirectives().add(CacheDirective.noCache());
+        response = new Response(request);
+        filter.handle(request, response);
+        assertEquals("count 4", response.getEntity().getText());
+        assertEquals(5, invocations.get());
+    }
+
+    @Test
+    public void testRevalidation() throws Exception {
+        CacheFilter filter = createFilter(0);
+        assertEquals("count 1", handle(filter, Method.GET, null).getEntity()
+                .getText());
+
+        // The stale response is revalidated and served from the cache
+        Response response = handle(filter, Method.GET, null);
+        assertEquals(Status.SUCCESS_OK, response.getStatus());
+        assertEquals("count 1", response.getEntity().getText());
+        assertEquals(2, invocations.get());
+    }
+
+    @Test
+    public void testSuspendedResponses() throws Exception {
+        MemoryCacheStore store = new MemoryCacheStore();
+        CacheFilter filter = new CacheFilter(null, store, true, 1024);
+        filter.setNext(new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                // Completed later, for example by an asynchronous resource
+                invocations.incrementAndGet();
+                response.getCacheDirectives().add(CacheDirective.maxAge(60));
+                response.setAutoCommitting(false);
+            }
+        });
+
+        Response response = handle(filter, Method.GET, null);
+        assertEquals(Status.SUCCESS_OK, response.getStatus());
+        assertNull(response.getEntity());
+        assertTrue(store.get(CacheFilter.getKey(response.getRequest()))
+                .isEmpty());
+
+        // The incomplete response wasn't stored
+        handle(filter, Method.GET, null);
+        assertEquals(2, invocations.get());
+    }
+
+    @Test
+    public void testVariantEviction() throws Exception {
+        MemoryCacheStore store = new MemoryCacheStore(16L * 1024 * 1024,
+                1024L * 1024, 4, 3600000L);
+        CacheFilter filter = new CacheFilter(null, store, true, 1024);
+        filter.setNext(createResource(60));
+        Response response = null;
+
+        // Clients rotating the Accept header only keep the latest variants
+        for (int i = 0; i < 10; i++) {
+            response = handle(filter, Method.GET,
+                    MediaType.valueOf("text/x-variant-" + i));
+        }
+
+        String key = CacheFilter.getKey(response.getRequest());
+        assertEquals(4, store.get(key).size());
+
+        // Variants of the same resource are evicted to respect the budget
+        long entrySize = store.getSize() / 4;
+        store = new MemoryCacheStore(entrySize * 2, 1024L * 1024, 16,
+                3600000L);
+        filter = new CacheFilter(null, store, true, 1024);
+        filter.setNext(createResource(60));
+
+        for (int i = 0; i < 10; i++) {
+            handle(filter, Method.GET, MediaType.valueOf("text/x-variant-" + i));
+        }
+
+        assertTrue(store.getSize() <= entrySize * 2);
+        assertFalse(store.get(key).isEmpty());
+    }
+
+    @Test
+    public void testUncacheable() throws Exception {
+        CacheFilter filter = createFilter(60);
+        Request request = new Request(Method.GET, URI);
+        request.getCacheDirectives().add(CacheDirective.noStore());
+        Response response = new Response(request);
+        filter.handle(request, response);
+        assertEquals("count 1", response.getEntity().getText());
+        assertEquals("count 2", handle(filter, Method.GET, null).getEntity()
+                .getText());
+
+        // Only-if-cached requests fail on misses
+        request = new Request(Method.GET, URI + "?other");
+        request.getCacheDirectives().add(CacheDirective.onlyIfCached());
+        response = new Response(request);
+        filter.handle(request, response);
+        assertEquals(Status.SERVER_ERROR_GATEWAY_TIMEOUT, response.getStatus());
+        assertNull(response.getEntity());
+    }
+
+}
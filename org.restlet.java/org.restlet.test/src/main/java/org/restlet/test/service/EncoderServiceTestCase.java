@@ -0,0 +1,127 @@
+/**
+ * Copyright 2005-2024 Qlik
+ *
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ *
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.restlet.data.Encoding;
+import org.restlet.data.MediaType;
+import org.restlet.engine.application.DecodeRepresentation;
+import org.restlet.engine.application.EncodeRepresentation;
+import org.restlet.engine.application.EncoderHelper;
+import org.restlet.representation.InputRepresentation;
+import org.restlet.representation.Representation;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.service.EncoderService;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the encoder service.
+ *
+ * @author Jerome Louvel
+ */
+public class EncoderServiceTestCase extends RestletTestCase {
+
+    private static String createText() {
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < 2000; i++) {
+            sb.append("Line ").append(i % 10).append('\n');
+        }
+
+        return sb.toString();
+    }
+
+    private static byte[] encode(Representation representation)
+            throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        representation.write(baos);
+        return baos.toByteArray();
+    }
+
+    @Test
+    public void testCanEncode() {
+        EncoderService encoderService = new EncoderService();
+        assertFalse(encoderService.canEncode(new StringRepresentation("short")));
+        assertTrue(encoderService.canEncode(new StringRepresentation(createText())));
+
+        Representation zip = new StringRepresentation(createText(),
+                MediaType.APPLICATION_ZIP);
+        assertFalse(encoderService.canEncode(zip));
+
+        Representation gzipped = new StringRepresentation(createText());
+        gzipped.getEncodings().add(Encoding.GZIP);
+        assertFalse(encoderService.canEncode(gzipped));
+    }
+
+    @Test
+    public void testLevels() throws IOException {
+        EncoderService encoderService = new EncoderService();
+        assertEquals(EncoderHelper.DEFAULT_LEVEL,
+                encoderService.getLevel(MediaType.TEXT_PLAIN));
+
+        encoderService.setLevel(6);
+        encoderService.getLevels().put(MediaType.TEXT_ALL, 9);
+        encoderService.getLevels().put(MediaType.APPLICATION_JSON, 1);
+        assertEquals(9, encoderService.getLevel(MediaType.TEXT_PLAIN));
+        assertEquals(1, encoderService.getLevel(MediaType.valueOf(
+                "application/json; charset=UTF-8")));
+        assertEquals(6, encoderService.getLevel(MediaType.APPLICATION_XML));
+
+        String text = createText();
+        byte[] fast = encode(new EncodeRepresentation(Encoding.GZIP, 1,
+                new StringRepresentation(text)));
+        byte[] best = encode(new EncodeRepresentation(Encoding.GZIP, 9,
+                new StringRepresentation(text)));
+        assertTrue(best.length <= fast.length);
+
+        for (Encoding encoding : new Encoding[] { Encoding.GZIP,
+                Encoding.DEFLATE, Encoding.ZIP }) {
+            Representation encoded = new InputRepresentation(
+                    new java.io.ByteArrayInputStream(encode(
+                            new EncodeRepresentation(encoding, 9,
+                                    new StringRepresentation(text)))));
+            encoded.getEncodings().add(encoding);
+            assertEquals(text, new DecodeRepresentation(encoded).getText());
+        }
+    }
+
+    @Test
+    public void testLevelsByEncoding() throws IOException {
+        EncoderService encoderService = new EncoderService();
+        encoderService.getLevels().put(MediaType.TEXT_ALL, 9);
+        encoderService.getLevels(Encoding.ZSTD).put(MediaType.TEXT_ALL, 19);
+        assertEquals(19, encoderService.getLevel(Encoding.ZSTD,
+                MediaType.TEXT_PLAIN));
+        assertEquals(9, encoderService.getLevel(Encoding.GZIP,
+                MediaType.TEXT_PLAIN));
+        assertEquals(9, encoderService.getLevel(MediaType.TEXT_HTML));
+
+        // Levels beyond the range of the encoding are bounded
+        String text = createText();
+
+        for (Encoding encoding : new Encoding[] { Encoding.GZIP,
+                Encoding.DEFLATE, Encoding.ZIP }) {
+            Representation encoded = new InputRepresentation(
+                    new java.io.ByteArrayInputStream(encode(
+                            new EncodeRepresentation(encoding, 19,
+                                    new StringRepresentation(text)))));
+            encoded.getEncodings().add(encoding);
+            assertEquals(text, new DecodeRepresentation(encoded).getText());
+        }
+    }
+
+}
@@ -0,0 +1,257 @@
+/**
+ * Copyright 2005-2024 Qlik
+ *
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ *
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import org.restlet.engine.log.AccessLogWriter;
+import org.restlet.engine.log.DefaultAccessLogFormatter;
+import org.restlet.routing.Filter;
+import org.restlet.service.LogService;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the log service and its asynchronous access log writer.
+ *
+ * @author Jerome Louvel
+ */
+public class LogServiceTestCase extends RestletTestCase {
+
+    private File file;
+
+    private Filter createFilter(LogService logService) {
+        Filter result = logService.createInboundFilter(null);
+        result.setNext(new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                response.setStatus(Status.SUCCESS_NO_CONTENT);
+            }
+        });
+        return result;
+    }
+
+    private List<String> readEntries() throws Exception {
+        List<String> result = new ArrayList<String>();
+
+        for (String line : Files.readAllLines(this.file.toPath(),
+                StandardCharsets.UTF_8)) {
+            if (!line.startsWith("#")) {
+                result.add(line);
+            }
+        }
+
+        return result;
+    }
+
+    @BeforeEach
+    protected void setUpEach() throws Exception {
+        this.file = File.createTempFile("access", ".log");
+    }
+
+    @AfterEach
+    protected void tearDownEach() throws Exception {
+        this.file.delete();
+    }
+
+    @Test
+    public void testAsynchronousLog() throws Exception {
+        AccessLogWriter writer = new AccessLogWriter(this.file);
+        writer.setFormatter(new DefaultAccessLogFormatter());
+        writer.setFlushInterval(0);
+
+        LogService logService = new LogService();
+        logService.setAccessLogWriter(writer);
+        logService.start();
+
+        final Filter filter = createFilter(logService);
+        List<Thread> threads = new ArrayList<Thread>();
+
+        for (int i = 0; i < 4; i++) {
+            final int index = i;
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 250; j++) {
+                    Request request = new Request(Method.GET,
+                            "http://localhost/resource/" + index + "?j=" + j);
+                    filter.handle(request, new Response(request));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        logService.stop();
+        assertFalse(writer.isRunning());
+        assertEquals(1000, writer.getWrittenCount());
+        assertEquals(0, writer.getDroppedCount());
+        assertEquals(0, writer.getPendingCount());
+
+        String content = new String(Files.readAllBytes(this.file.toPath()),
+                StandardCharsets.UTF_8);
+        assertTrue(content.startsWith("#Software: Restlet Framework"));
+
+        List<String> entries = readEntries();
+        assertEquals(1000, entries.size());
+
+        for (String entry : entries) {
+            String[] fields = entry.split("\t");
+            assertEquals(16, fields.length);
+            assertEquals("GET", fields[6]);
+            assertTrue(fields[7].startsWith("/resource/"));
+            assertEquals("204", fields[9]);
+        }
+    }
+
+    @Test
+    public void testBackpressure() throws Exception {
+        final AccessLogWriter writer = new AccessLogWriter(this.file, 2);
+        writer.setBlocking(true);
+        writer.setFormatter(null);
+        writer.start();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+
+        for (int i = 0; i < 4; i++) {
+            final int index = i;
+            futures.add(executor.submit(() -> {
+                int logged = 0;
+
+                for (int j = 0; j < 500; j++) {
+                    if (writer.log("entry " + index + " " + j)) {
+                        logged++;
+                    }
+                }
+
+                return logged;
+            }));
+        }
+
+        // Blocking writers never drop entries
+        for (Future<Integer> future : futures) {
+            assertEquals(500, future.get(30, TimeUnit.SECONDS).intValue());
+        }
+
+        executor.shutdown();
+        writer.stop();
+        assertEquals(2000, writer.getWrittenCount());
+        assertEquals(0, writer.getDroppedCount());
+        assertEquals(2000, readEntries().size());
+    }
+
+    @Test
+    public void testDropped() throws Exception {
+        AccessLogWriter writer = new AccessLogWriter(this.file, 5);
+        assertEquals(8, writer.getCapacity());
+
+        // Entries are dropped when the writer isn't running
+        assertFalse(writer.log("entry"));
+        assertEquals(1, writer.getDroppedCount());
+
+        writer.start();
+        assertTrue(writer.log("entry"));
+        writer.stop();
+        assertFalse(writer.log("entry"));
+        assertEquals(2, writer.getDroppedCount());
+        assertEquals(1, writer.getWrittenCount());
+        assertEquals("entry", readEntries().get(0));
+    }
+
+    @Test
+    public void testResponseLogMessage() throws Exception {
+        AccessLogWriter writer = new AccessLogWriter(this.file);
+
+        LogService logService = new LogService() {
+            @Override
+            public void appendResponseLogMessage(StringBuilder sb,
+                    Response response, int duration) {
+                sb.append("custom ").append(response.getStatus().getCode());
+            }
+        };
+        logService.setAccessLogWriter(writer);
+        logService.start();
+
+        Filter filter = createFilter(logService);
+        Request request = new Request(Method.GET, "http://localhost/orders");
+        filter.handle(request, new Response(request));
+        logService.stop();
+
+        List<String> entries = readEntries();
+        assertEquals(1, entries.size());
+        assertEquals("custom 204", entries.get(0));
+        assertEquals("custom 200",
+                logService.getResponseLogMessage(new Response(request), 0));
+    }
+
+    @Test
+    public void testResponseLogFormat() throws Exception {
+        AccessLogWriter writer = new AccessLogWriter(this.file);
+
+        LogService logService = new LogService();
+        logService.setResponseLogFormat("{m} {rp} {S}");
+        logService.setAccessLogWriter(writer);
+        logService.start();
+
+        Filter filter = createFilter(logService);
+        Request request = new Request(Method.POST, "http://localhost/orders");
+        filter.handle(request, new Response(request));
+        logService.stop();
+
+        List<String> entries = readEntries();
+        assertEquals(1, entries.size());
+        assertEquals("POST /orders 204", entries.get(0));
+    }
+
+    @Test
+    public void testWakeUp() throws Exception {
+        AccessLogWriter writer = new AccessLogWriter(this.file);
+        writer.setFlushInterval(0);
+        writer.setFormatter(null);
+        writer.start();
+
+        // Let the idle writer park until an entry is published
+        Thread.sleep(100);
+        assertTrue(writer.log("entry"));
+        long deadline = System.currentTimeMillis() + 5000;
+
+        while ((writer.getWrittenCount() == 0)
+                && (System.currentTimeMillis() < deadline)) {
+            Thread.sleep(1);
+        }
+
+        assertEquals(1, writer.getWrittenCount());
+        assertEquals("entry", readEntries().get(0));
+        writer.stop();
+    }
+
+}
@@ -0,0 +1,307 @@
+/**
+ * Copyright 2005-2024 Qlik
+ *
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ *
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restlet.Application;
+import org.restlet.Client;
+import org.restlet.Component;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.Server;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import org.restlet.data.Status;
+import org.restlet.engine.Engine;
+import org.restlet.engine.metrics.CallMetrics;
+import org.restlet.engine.metrics.CallRecord;
+import org.restlet.engine.metrics.LatencyHistogram;
+import org.restlet.engine.metrics.MetricsLabel;
+import org.restlet.engine.metrics.MetricsRegistry;
+import org.restlet.resource.Get;
+import org.restlet.resource.ResourceException;
+import org.restlet.resource.ServerResource;
+import org.restlet.routing.Router;
+import org.restlet.routing.TemplateRoute;
+import org.restlet.service.MetricsService;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the metrics service and its latency histograms.
+ *
+ * @author Jerome Louvel
+ */
+public class MetricsServiceTestCase extends RestletTestCase {
+
+    public static class DelayedResource extends ServerResource {
+        @Get("txt")
+        public CompletionStage<String> represent() {
+            final CompletableFuture<String> result = new CompletableFuture<String>();
+            EXECUTOR.schedule(() -> result.completeExceptionally(
+                    new ResourceException(Status.CLIENT_ERROR_CONFLICT)), 100,
+                    TimeUnit.MILLISECONDS);
+            return result;
+        }
+    }
+
+    private static final ScheduledExecutorService EXECUTOR = Executors
+            .newScheduledThreadPool(1);
+
+    private static Application createApplication(final String path) {
+        return new Application() {
+            @Override
+            public Restlet createInboundRoot() {
+                Router router = new Router(getContext());
+                router.attach(path, new Restlet() {
+                    @Override
+                    public void handle(Request request, Response response) {
+                        response.setEntity("Item "
+                                + request.getAttributes().get("id"),
+                                MediaType.TEXT_PLAIN);
+                    }
+                });
+                return router;
+            }
+        };
+    }
+
+    private Client client;
+
+    private Component component;
+
+    private String uri;
+
+    private CallMetrics findMetrics(String route) {
+        for (CallMetrics metrics : this.component.getMetricsService()
+                .getCallMetrics()) {
+            if (route.equals(metrics.getRoute())) {
+                return metrics;
+            }
+        }
+
+        return null;
+    }
+
+    private Response get(String path) {
+        return this.client.handle(new Request(Method.GET, this.uri + path));
+    }
+
+    @BeforeEach
+    protected void setUpEach() throws Exception {
+        Engine engine = Engine.register(false);
+        engine.getRegisteredServers().add(
+                new org.restlet.engine.connector.HttpServerHelper(null));
+        engine.getRegisteredClients().add(
+                new org.restlet.engine.connector.HttpClientHelper(null));
+        engine.registerDefaultConverters();
+
+        this.component = new Component();
+        Server server = this.component.getServers().add(Protocol.HTTP, 0);
+        MetricsService metricsService = this.component.getMetricsService();
+        metricsService.setEnabled(true);
+        this.component.getDefaultHost().attach("/metrics",
+                metricsService.createPrometheusRestlet(null));
+        this.component.getDefaultHost().attach("/app", new Application() {
+            @Override
+            public Restlet createInboundRoot() {
+                Router router = new Router(getContext());
+                router.attach("/hello/{name}", new Restlet() {
+                    @Override
+                    public void handle(Request request, Response response) {
+                        response.setEntity("Hello "
+                                + request.getAttributes().get("name"),
+                                MediaType.TEXT_PLAIN);
+                    }
+                });
+                router.attach("/delayed", DelayedResource.class);
+                router.attach("/fail", new Restlet() {
+                    @Override
+                    public void handle(Request request, Response response) {
+                        response.setStatus(Status.SERVER_ERROR_INTERNAL);
+                    }
+                });
+                return router;
+            }
+        });
+        this.component.getDefaultHost().attach("/users",
+                createApplication("/{id}"));
+        this.component.getDefaultHost().attach("/orders",
+                createApplication("/{id}"));
+        this.component.start();
+        this.uri = "http://localhost:" + server.getEphemeralPort();
+
+        this.client = new Client(Protocol.HTTP);
+        this.client.start();
+    }
+
+    @AfterEach
+    protected void tearDownEach() throws Exception {
+        this.client.stop();
+        this.component.stop();
+        Engine.register();
+    }
+
+    @Test
+    public void testCallMetrics() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Status.SUCCESS_OK, get("/app/hello/" + i).getStatus());
+        }
+
+        assertEquals(Status.SERVER_ERROR_INTERNAL, get("/app/fail").getStatus());
+        assertEquals(Status.CLIENT_ERROR_NOT_FOUND, get("/none").getStatus());
+
+        CallMetrics hello = findMetrics("/app/hello/{name}");
+        assertNotNull(hello);
+        assertEquals(3, hello.getCount("2xx"));
+        assertEquals(3, hello.getTotalCount());
+        assertEquals(3, hello.getLatencies().getCount());
+        assertTrue(hello.getLatencies().getMax() > 0);
+
+        CallMetrics fail = findMetrics("/app/fail");
+        assertNotNull(fail);
+        assertEquals(1, fail.getCount("5xx"));
+        assertEquals(0, fail.getCount("2xx"));
+
+        // Calls not matched by any route of the default host
+        CallMetrics none = findMetrics("");
+        assertNotNull(none);
+        assertEquals(1, none.getCount("4xx"));
+
+        assertEquals(0, this.component.getMetricsService().getInFlight());
+    }
+
+    @Test
+    public void testFullRoutes() throws Exception {
+        assertEquals(Status.SUCCESS_OK, get("/users/1").getStatus());
+        assertEquals(Status.SUCCESS_OK, get("/users/2").getStatus());
+        assertEquals(Status.SUCCESS_OK, get("/orders/1").getStatus());
+
+        // Identical route patterns of distinct routers are distinguished
+        assertEquals(2, findMetrics("/users/{id}").getTotalCount());
+        assertEquals(1, findMetrics("/orders/{id}").getTotalCount());
+        assertNull(findMetrics("/{id}"));
+    }
+
+    @Test
+    public void testRecycledRecords() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.incrementInFlight();
+        CallRecord record = registry.acquire();
+        TemplateRoute route = new Router().attach("/items/{id}",
+                new Restlet() {
+                });
+        record.addRoute(route);
+        MetricsLabel label = route.getMetricsLabel();
+        assertNotNull(label);
+        assertEquals("/items/{id}", record.getRoute());
+        record.complete(new Response(new Request()), 1000L);
+        assertEquals(1, registry.getCallMetrics("", "/items/{id}")
+                .getTotalCount());
+        assertEquals(0, registry.getInFlight());
+
+        // The released record and the cached labels are reused
+        assertSame(record, registry.acquire());
+        assertEquals("", record.getRoute());
+        record.addRoute(route);
+        assertSame(label, route.getMetricsLabel());
+        assertSame(label.getValue(), record.getRoute());
+    }
+
+    @Test
+    public void testHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(50));
+
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000000, histogram.getMax());
+        assertEquals(500500, histogram.getMean(), 0.001);
+        assertEquals(1000000, histogram.getValueAtPercentile(100));
+
+        // The relative error is bounded by the sub-buckets resolution
+        assertEquals(500000, histogram.getValueAtPercentile(50), 500000 / 32);
+        assertEquals(990000, histogram.getValueAtPercentile(99), 990000 / 32);
+
+        // Values below the sub-buckets count are exact
+        LatencyHistogram small = new LatencyHistogram();
+        small.record(-5);
+        small.record(7);
+        assertEquals(0, small.getValueAtPercentile(50));
+        assertEquals(7, small.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void testSuspendedCall() throws Exception {
+        Response response = get("/app/delayed");
+        assertEquals(Status.CLIENT_ERROR_CONFLICT, response.getStatus());
+        response.getEntity().exhaust();
+
+        // Recorded once committed, with the final status and latency
+        CallMetrics delayed = findMetrics("/app/delayed");
+
+        for (int i = 0; (delayed == null) && (i < 50); i++) {
+            Thread.sleep(20);
+            delayed = findMetrics("/app/delayed");
+        }
+
+        assertNotNull(delayed);
+        assertEquals(1, delayed.getCount("4xx"));
+        assertEquals(0, delayed.getCount("2xx"));
+        assertTrue(delayed.getLatencies().getMax() >= TimeUnit.MILLISECONDS
+                .toNanos(100));
+        assertEquals(0, this.component.getMetricsService().getInFlight());
+    }
+
+    @Test
+    public void testPrometheus() throws Exception {
+        get("/app/hello/world");
+        Response response = get("/metrics");
+        assertEquals(Status.SUCCESS_OK, response.getStatus());
+        assertTrue(MediaType.TEXT_PLAIN.equals(
+                response.getEntity().getMediaType(), true));
+
+        String text = response.getEntity().getText();
+        assertTrue(text.contains(
+                "restlet_requests_total{host=\".*\",route=\"/app/hello/{name}\",status=\"2xx\"} 1\n"));
+        assertTrue(text.contains(
+                "restlet_request_duration_seconds{host=\".*\",route=\"/app/hello/{name}\",quantile=\"0.99\"} "));
+        assertTrue(text.contains(
+                "restlet_request_duration_seconds_count{host=\".*\",route=\"/app/hello/{name}\"} 1\n"));
+
+        // The metrics call itself is in flight
+        assertTrue(text.contains("restlet_requests_in_flight 1\n"));
+        assertTrue(text.contains("# TYPE restlet_server_threads gauge\n"));
+        assertTrue(text.contains("restlet_server_queued_calls{server=\"HTTP:"));
+
+        assertEquals(Status.CLIENT_ERROR_METHOD_NOT_ALLOWED, this.client
+                .handle(new Request(Method.POST, this.uri + "/metrics"))
+                .getStatus());
+    }
+
+}
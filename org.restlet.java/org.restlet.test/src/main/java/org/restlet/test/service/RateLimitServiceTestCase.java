@@ -0,0 +1,155 @@
+/**
+ * Copyright 2005-2024 Qlik
+ *
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ *
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.restlet.Application;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import org.restlet.engine.limit.RateLimitFilter;
+import org.restlet.engine.limit.TokenBucket;
+import org.restlet.security.User;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the rate limit service and its filter.
+ *
+ * @author Jerome Louvel
+ */
+public class RateLimitServiceTestCase extends RestletTestCase {
+
+    private RateLimitFilter createFilter(int capacity) {
+        RateLimitFilter result = new RateLimitFilter(null, capacity, 0.001);
+        result.setNext(new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                response.setStatus(Status.SUCCESS_NO_CONTENT);
+            }
+        });
+        return result;
+    }
+
+    private Response handle(Restlet restlet, String address, User user) {
+        Request request = new Request(Method.GET, "http://localhost/resource");
+        request.getClientInfo().setAddress(address);
+        request.getClientInfo().setUser(user);
+        Response response = new Response(request);
+        restlet.handle(request, response);
+        return response;
+    }
+
+    @Test
+    public void testBoundedKeys() {
+        RateLimitFilter filter = createFilter(2);
+        filter.setMaxKeys(10);
+
+        for (int i = 0; i < 100; i++) {
+            handle(filter, "10.0.0." + i, null);
+        }
+
+        assertTrue(filter.getBuckets().size() <= 10);
+    }
+
+    @Test
+    public void testClientAddressKey() {
+        RateLimitFilter filter = createFilter(2);
+        assertEquals(Status.SUCCESS_NO_CONTENT,
+                handle(filter, "10.0.0.1", null).getStatus());
+        assertEquals(Status.SUCCESS_NO_CONTENT,
+                handle(filter, "10.0.0.1", null).getStatus());
+
+        Response response = handle(filter, "10.0.0.1", null);
+        assertEquals(Status.CLIENT_ERROR_TOO_MANY_REQUESTS,
+                response.getStatus());
+        assertNotNull(response.getRetryAfter());
+        assertTrue(response.getRetryAfter().getTime() > System
+                .currentTimeMillis());
+
+        // Other clients have their own bucket
+        assertEquals(Status.SUCCESS_NO_CONTENT,
+                handle(filter, "10.0.0.2", null).getStatus());
+
+        TokenBucket bucket = filter.getBuckets().get("10.0.0.1");
+        assertEquals(0, bucket.getAvailableTokens());
+        assertEquals(2, bucket.getCapacity());
+        assertEquals(1, filter.getBuckets().get("10.0.0.2")
+                .getAvailableTokens());
+    }
+
+    @Test
+    public void testCustomKey() {
+        RateLimitFilter filter = createFilter(1);
+        filter.setKeyFunction(request -> request.getMethod().equals(
+                Method.GET) ? "shared" : null);
+        assertEquals(Status.SUCCESS_NO_CONTENT,
+                handle(filter, "10.0.0.1", null).getStatus());
+        assertEquals(Status.CLIENT_ERROR_TOO_MANY_REQUESTS,
+                handle(filter, "10.0.0.2", null).getStatus());
+    }
+
+    @Test
+    public void testRefill() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(null, 1, 20);
+        filter.setNext(createFilter(100).getNext());
+        assertEquals(Status.SUCCESS_NO_CONTENT,
+                handle(filter, "10.0.0.1", null).getStatus());
+        assertEquals(Status.CLIENT_ERROR_TOO_MANY_REQUESTS,
+                handle(filter, "10.0.0.1", null).getStatus());
+        Thread.sleep(100);
+        assertEquals(Status.SUCCESS_NO_CONTENT,
+                handle(filter, "10.0.0.1", null).getStatus());
+    }
+
+    @Test
+    public void testService() throws Exception {
+        Application application = new Application();
+        assertFalse(application.getRateLimitService().isEnabled());
+        assertTrue(application.getRateLimitService().getBuckets().isEmpty());
+
+        application.getRateLimitService().setEnabled(true);
+        application.getRateLimitService().setCapacity(1);
+        application.setInboundRoot(createFilter(100).getNext());
+        application.start();
+
+        try {
+            assertEquals(Status.SUCCESS_NO_CONTENT,
+                    handle(application, "10.0.0.1", null).getStatus());
+            assertEquals(Status.CLIENT_ERROR_TOO_MANY_REQUESTS,
+                    handle(application, "10.0.0.1", null).getStatus());
+            assertEquals(1, application.getRateLimitService().getBuckets()
+                    .size());
+        } finally {
+            application.stop();
+        }
+    }
+
+    @Test
+    public void testUserKey() {
+        RateLimitFilter filter = createFilter(1);
+        filter.setKeyFunction(RateLimitFilter.KEY_USER);
+        assertEquals(Status.SUCCESS_NO_CONTENT,
+                handle(filter, "10.0.0.1", new User("alice")).getStatus());
+
+        // Same user from another address
+        assertEquals(Status.CLIENT_ERROR_TOO_MANY_REQUESTS,
+                handle(filter, "10.0.0.2", new User("alice")).getStatus());
+        assertEquals(Status.SUCCESS_NO_CONTENT,
+                handle(filter, "10.0.0.1", new User("bob")).getStatus());
+    }
+
+}
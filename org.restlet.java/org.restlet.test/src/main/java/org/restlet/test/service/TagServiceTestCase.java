@@ -0,0 +1,227 @@
+/**
+ * Copyright 2005-2024 Qlik
+ *
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ *
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.restlet.Application;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.data.Digest;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import org.restlet.data.Tag;
+import org.restlet.engine.application.TagFilter;
+import org.restlet.representation.InputRepresentation;
+import org.restlet.representation.Representation;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.resource.Finder;
+import org.restlet.resource.ServerResource;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the tag service and the version tags of server resources.
+ *
+ * @author Jerome Louvel
+ */
+public class TagServiceTestCase extends RestletTestCase {
+
+    public static class VersionedResource extends ServerResource {
+
+        @Override
+        protected Representation get() {
+            INVOCATIONS.incrementAndGet();
+            return new StringRepresentation("state " + version);
+        }
+
+        @Override
+        protected Tag getVersionTag() {
+            return new Tag("r" + version, false);
+        }
+    }
+
+    private static final AtomicInteger INVOCATIONS = new AtomicInteger();
+
+    private static final String URI = "http://localhost/resource";
+
+    private static volatile int version;
+
+    private static Response handle(Restlet restlet, Tag noneMatch) {
+        Request request = new Request(Method.GET, URI);
+
+        if (noneMatch != null) {
+            request.getConditions().getNoneMatch().add(noneMatch);
+        }
+
+        Response response = new Response(request);
+        restlet.handle(request, response);
+        return response;
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        assertFalse(new Application().getTagService().isEnabled());
+    }
+
+    @Test
+    public void testDigestFailures() throws Exception {
+        TagFilter filter = new TagFilter(null, Digest.ALGORITHM_MD5, 1024);
+        filter.setNext(new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                if (request.getResourceRef().getQuery() == null) {
+                    // Fails once, then can be written again
+                    response.setEntity(new StringRepresentation("content") {
+                        private boolean failed;
+
+                        @Override
+                        public void write(OutputStream outputStream)
+                                throws IOException {
+                            if (!this.failed) {
+                                this.failed = true;
+                                throw new IOException("Failure");
+                            }
+
+                            super.write(outputStream);
+                        }
+                    });
+                } else {
+                    // Fails after being partly consumed
+                    InputStream stream = new SequenceInputStream(
+                            new ByteArrayInputStream(new byte[2]),
+                            new InputStream() {
+                                @Override
+                                public int read() throws IOException {
+                                    throw new IOException("Failure");
+                                }
+                            });
+                    response.setEntity(new InputRepresentation(stream, null,
+                            4));
+                }
+            }
+        });
+
+        Response response = handle(filter, null);
+        assertEquals(Status.SUCCESS_OK, response.getStatus());
+        assertNull(response.getEntity().getTag());
+        assertEquals("content", response.getEntity().getText());
+
+        Request request = new Request(Method.GET, URI + "?stream");
+        response = new Response(request);
+        filter.handle(request, response);
+        assertEquals(Status.SERVER_ERROR_INTERNAL, response.getStatus());
+        assertNull(response.getEntity());
+    }
+
+    @Test
+    public void testTagFilter() throws Exception {
+        final StringBuilder text = new StringBuilder("content");
+        TagFilter filter = new TagFilter(null, Digest.ALGORITHM_MD5, 1024);
+        filter.setNext(new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                response.setEntity(new StringRepresentation(text));
+            }
+        });
+
+        Response response = handle(filter, null);
+        Tag tag = response.getEntity().getTag();
+        assertNotNull(tag);
+        assertTrue(tag.isWeak());
+        assertEquals("content", response.getEntity().getText());
+        assertEquals(tag, handle(filter, null).getEntity().getTag());
+
+        response = handle(filter, tag);
+        assertEquals(Status.REDIRECTION_NOT_MODIFIED, response.getStatus());
+
+        text.append(" updated");
+        response = handle(filter, tag);
+        assertEquals(Status.SUCCESS_OK, response.getStatus());
+        assertFalse(tag.equals(response.getEntity().getTag()));
+        assertEquals("content updated", response.getEntity().getText());
+    }
+
+    @Test
+    public void testUntaggedEntities() throws Exception {
+        TagFilter filter = new TagFilter(null, Digest.ALGORITHM_MD5, 4);
+        filter.setNext(new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                if (request.getResourceRef().getQuery() == null) {
+                    response.setEntity(new StringRepresentation("too large"));
+                } else {
+                    response.setEntity(new InputRepresentation(
+                            new java.io.ByteArrayInputStream(new byte[1])));
+                }
+            }
+        });
+
+        Response response = handle(filter, null);
+        assertNull(response.getEntity().getTag());
+        assertEquals("too large", response.getEntity().getText());
+
+        Request request = new Request(Method.GET, URI + "?stream");
+        response = new Response(request);
+        filter.handle(request, response);
+        assertNull(response.getEntity().getTag());
+
+        // Suspended responses are completed later
+        filter = new TagFilter(null, Digest.ALGORITHM_MD5, 1024);
+        filter.setNext(new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                response.setEntity(new StringRepresentation("partial"));
+                response.setAutoCommitting(false);
+            }
+        });
+
+        response = handle(filter, null);
+        assertNull(response.getEntity().getTag());
+        assertEquals("partial", response.getEntity().getText());
+    }
+
+    @Test
+    public void testVersionTag() throws Exception {
+        Finder finder = new Finder(null, VersionedResource.class);
+        version = 1;
+        INVOCATIONS.set(0);
+
+        Response response = handle(finder, null);
+        assertEquals(new Tag("r1", false), response.getEntity().getTag());
+        assertEquals(1, INVOCATIONS.get());
+
+        // Answered without invoking the handler
+        response = handle(finder, new Tag("r1", false));
+        assertEquals(Status.REDIRECTION_NOT_MODIFIED, response.getStatus());
+        assertEquals(new Tag("r1", false), response.getEntity().getTag());
+        assertEquals(1, INVOCATIONS.get());
+
+        version = 2;
+        response = handle(finder, new Tag("r1", false));
+        assertEquals(Status.SUCCESS_OK, response.getStatus());
+        assertEquals("state 2", response.getEntity().getText());
+        assertEquals(new Tag("r2", false), response.getEntity().getTag());
+        assertEquals(2, INVOCATIONS.get());
+    }
+
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright 2005-2024 Qlik
+ *
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ *
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.test.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.restlet.Context;
+import org.restlet.engine.util.ThreadUtils;
+import org.restlet.service.TaskService;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the task service.
+ *
+ * @author Jerome Louvel
+ */
+public class TaskServiceTestCase extends RestletTestCase {
+
+    @Test
+    public void testExplicitVirtualThreads() throws Exception {
+        Context context = new Context();
+        context.getParameters().add("virtualThreads", "true");
+        TaskService taskService = new TaskService();
+        taskService.setContext(context);
+        assertTrue(taskService.isVirtualThreads());
+
+        // The explicit setting takes precedence over the context parameter
+        taskService.setVirtualThreads(false);
+        taskService.setShutdownAllowed(true);
+        taskService.start();
+
+        try {
+            assertFalse(taskService.isVirtualThreads());
+        } finally {
+            taskService.stop();
+        }
+    }
+
+    @Test
+    public void testVirtualThreads() throws Exception {
+        Context context = new Context();
+        context.getParameters().add("virtualThreads", "true");
+        TaskService taskService = new TaskService();
+        taskService.setContext(context);
+        taskService.setShutdownAllowed(true);
+        taskService.start();
+        assertTrue(taskService.isVirtualThreads());
+        assertEquals(ThreadUtils.isVirtualThreadsSupported(),
+                ThreadUtils.createVirtualThreadFactory("test-") != null);
+
+        final AtomicReference<Context> current = new AtomicReference<>();
+        final CountDownLatch latch = new CountDownLatch(2);
+        Context.setCurrent(context);
+
+        try {
+            taskService.execute(() -> {
+                current.set(Context.getCurrent());
+                latch.countDown();
+            });
+            taskService.schedule(latch::countDown, 10, TimeUnit.MILLISECONDS);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertSame(context, current.get());
+        } finally {
+            Context.setCurrent(null);
+            taskService.stop();
+        }
+    }
+
+}
@@ -18,6 +18,7 @@ import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 import org.restlet.engine.Engine;
+import org.restlet.engine.routing.TemplateMatch;
 import org.restlet.routing.Template;
 import org.restlet.routing.Variable;
 import org.restlet.test.RestletTestCase;
@@ -44,6 +45,64 @@ public class TemplateTestCase extends RestletTestCase {
         assertEquals(encodedToken, variables1.get("token"));
     }
 
+    @Test
+    public void testFixedVariable() {
+        Template template = new Template("/a/{x}");
+        template.getVariables().put("x",
+                new Variable(Variable.TYPE_URI_SEGMENT, "foo", true, true));
+
+        // Fixed variables are still recorded when parsing
+        Map<String, Object> variables = new HashMap<>();
+        assertEquals(6, template.parse("/a/foo", variables));
+        assertEquals(1, variables.size());
+        assertEquals("foo", variables.get("x"));
+
+        variables.clear();
+        assertEquals(-1, template.parse("/a/bar", variables));
+        assertTrue(variables.isEmpty());
+    }
+
+    @Test
+    public void testLiteralSuffix() {
+        // A variable followed by a literal not starting with a slash must
+        // give back the characters matched by the literal
+        Template template = new Template("/files/{name}.json");
+        Map<String, Object> variables = new HashMap<>();
+        assertEquals(18, template.parse("/files/report.json", variables));
+        assertEquals("report", variables.get("name"));
+    }
+
+    @Test
+    public void testParseTemplateMatch() {
+        // Compiled into a regex-free form
+        Template template = new Template("/users/{id}/orders/{orderId}",
+                Template.MODE_STARTS_WITH, Variable.TYPE_URI_SEGMENT, "",
+                true, false);
+        template.getVariables().put("orderId", new Variable(
+                Variable.TYPE_URI_SEGMENT, "", true, false, true, false));
+
+        TemplateMatch match = TemplateMatch.getCurrent();
+        assertEquals(25, template.parse("/users/a%20b/orders/c%20d/items",
+                match));
+        assertEquals(2, match.getCount());
+        assertEquals("a%20b", match.getValue("id"));
+        assertEquals("c d", match.getValue("orderId"));
+
+        assertEquals(-1, template.parse("/users//orders/1", match));
+        assertEquals(0, match.getCount());
+
+        // Requires the regex engine
+        template = new Template("/files/{path}.{ext}");
+        template.getDefaultVariable().setType(Variable.TYPE_URI_SEGMENT);
+        assertEquals(17, template.parse("/files/a.b.tar.gz", match));
+        TemplateMatch copy = match.copy(null);
+        assertEquals("a.b.tar", match.getValue("path"));
+
+        // Copies survive the next parsing done on the same thread
+        template.parse("/files/c.txt", TemplateMatch.getCurrent());
+        assertEquals("gz", copy.getValue("ext"));
+    }
+
     @Test
     public void testPathMatching() {
         Template template = new Template("http://www.mydomain.com/abc/{v1}");
@@ -21,6 +21,7 @@ import org.restlet.resource.ServerResource;
 import org.restlet.routing.Router;
 import org.restlet.routing.VirtualHost;
 import org.restlet.security.Role;
+import org.restlet.service.CacheService;
 import org.restlet.service.ConnectorService;
 import org.restlet.service.ConnegService;
 import org.restlet.service.ConverterService;
@@ -28,7 +29,9 @@ import org.restlet.service.DecoderService;
 import org.restlet.service.EncoderService;
 import org.restlet.service.MetadataService;
 import org.restlet.service.RangeService;
+import org.restlet.service.RateLimitService;
 import org.restlet.service.StatusService;
+import org.restlet.service.TagService;
 import org.restlet.service.TunnelService;
 import org.restlet.util.ServiceList;
 
@@ -42,6 +45,8 @@ import org.restlet.util.ServiceList;
  * Applications also have many useful services associated. Most are enabled by
  * default and are available as properties that can be eventually overridden:
  * <ul>
+ * <li>"cacheService" to cache the responses of the application (disabled by
+ * default).</li>
  * <li>"connectorService" to declare necessary client and server
  * connectors.</li>
  * <li>"converterService" to convert between regular objects and
@@ -53,8 +58,12 @@ import org.restlet.util.ServiceList;
  * <li>"metadataService" to provide access to metadata and their associated
  * extension names.</li>
  * <li>"rangeService" to automatically exposes ranges of response entities.</li>
+ * <li>"rateLimitService" to limit the rate of the requests of each client
+ * (disabled by default).</li>
  * <li>"statusService" to provide common representations for exception
  * status.</li>
+ * <li>"tagService" to automatically tag response entities (disabled by
+ * default).</li>
  * <li>"taskService" to run tasks asynchronously (disabled by default).</li>
  * <li>"tunnelService" to tunnel method names or client preferences via query
  * parameters.</li>
@@ -148,9 +157,12 @@ public class Application extends Restlet {
 		this.services = new ServiceList(context);
 		this.services.add(new TunnelService(true, true));
 		this.services.add(new StatusService(true, converterService, metadataService, connegService));
+		this.services.add(new RateLimitService(false));
 		this.services.add(new DecoderService());
 		this.services.add(new EncoderService(false));
 		this.services.add(new RangeService());
+		this.services.add(new CacheService(false));
+		this.services.add(new TagService(false));
 		this.services.add(new ConnectorService());
 		this.services.add(connegService);
 		this.services.add(converterService);
@@ -188,6 +200,15 @@ public class Application extends Restlet {
 		return getHelper().getFirstOutboundFilter();
 	}
 
+	/**
+	 * Returns the cache service. The service is disabled by default.
+	 * 
+	 * @return The cache service.
+	 */
+	public CacheService getCacheService() {
+		return getServices().get(CacheService.class);
+	}
+
 	/**
 	 * Returns the connector service. The service is enabled by default.
 	 * 
@@ -294,6 +315,15 @@ public class Application extends Restlet {
 		return getServices().get(RangeService.class);
 	}
 
+	/**
+	 * Returns the rate limit service. The service is disabled by default.
+	 * 
+	 * @return The rate limit service.
+	 */
+	public RateLimitService getRateLimitService() {
+		return getServices().get(RateLimitService.class);
+	}
+
 	/**
 	 * Returns the role associated to the given name.
 	 * 
@@ -337,6 +367,15 @@ public class Application extends Restlet {
 		return getServices().get(StatusService.class);
 	}
 
+	/**
+	 * Returns the tag service. The service is disabled by default.
+	 * 
+	 * @return The tag service.
+	 */
+	public TagService getTagService() {
+		return getServices().get(TagService.class);
+	}
+
 	/**
 	 * Returns the tunnel service. The service is enabled by default.
 	 * 
@@ -364,6 +403,15 @@ public class Application extends Restlet {
 		return debugging;
 	}
 
+	/**
+	 * Sets the cache service.
+	 * 
+	 * @param cacheService The cache service.
+	 */
+	public void setCacheService(CacheService cacheService) {
+		getServices().set(cacheService);
+	}
+
 	/**
 	 * Sets the connector service.
 	 * 
@@ -487,6 +535,15 @@ public class Application extends Restlet {
 		getServices().set(rangeService);
 	}
 
+	/**
+	 * Sets the rate limit service.
+	 * 
+	 * @param rateLimitService The rate limit service.
+	 */
+	public void setRateLimitService(RateLimitService rateLimitService) {
+		getServices().set(rateLimitService);
+	}
+
 	/**
 	 * Sets the modifiable list of roles. This method clears the current list and
 	 * adds all entries in the parameter list.
@@ -514,6 +571,15 @@ public class Application extends Restlet {
 		getServices().set(statusService);
 	}
 
+	/**
+	 * Sets the tag service.
+	 * 
+	 * @param tagService The tag service.
+	 */
+	public void setTagService(TagService tagService) {
+		getServices().set(tagService);
+	}
+
 	/**
 	 * Sets the task service.
 	 * 
@@ -16,6 +16,8 @@ import org.restlet.data.Protocol;
 import org.restlet.data.Status;
 import org.restlet.engine.Engine;
 import org.restlet.engine.RestletHelper;
+import org.restlet.engine.cache.CacheFilter;
+import org.restlet.engine.cache.CacheStore;
 
 /**
  * Connector acting as a generic client. It internally uses one of the available
@@ -28,12 +30,22 @@ import org.restlet.engine.RestletHelper;
  * For advanced cases, it is possible to obtained the wrapped
  * {@link RestletHelper} instance that is used by this client to handle the
  * calls via the "org.restlet.engine.helper" attribute stored in the
- * {@link Context} object.
+ * {@link Context} object.<br>
+ * <br>
+ * An HTTP cache can be attached with {@link #setCacheStore(CacheStore)} so
+ * that fresh responses are reused without hitting the network and stale ones
+ * are revalidated with conditional requests. As a client connector is
+ * typically used on behalf of several users, this cache is shared and doesn't
+ * store private responses or responses to authenticated requests unless they
+ * are explicitly public.
  * 
  * @author Jerome Louvel
  */
 public class Client extends Connector {
 
+	/** The shared cache filter, if any. */
+	private volatile CacheFilter cacheFilter;
+
 	/** The helper provided by the implementation. */
 	private final RestletHelper<Client> helper;
 
@@ -68,7 +80,7 @@ public class Client extends Connector {
 		}
 
 		if (context != null && this.helper != null) {
-			context.getAttributes().put("org.restlet.engine.helper", this.helper);
+			context.getAttributes().put(RestletHelper.ATTRIBUTE_NAME, this.helper);
 		}
 	}
 
@@ -109,6 +121,34 @@ public class Client extends Connector {
 		this(Protocol.valueOf(protocolName));
 	}
 
+	/**
+	 * Handles a call with the connector helper, bypassing the cache.
+	 * 
+	 * @param request  The request to handle.
+	 * @param response The response to update.
+	 */
+	private void doHandle(Request request, Response response) {
+		if (getHelper() != null) {
+			getHelper().handle(request, response);
+		} else {
+			StringBuilder sb = new StringBuilder();
+			sb.append("No available client connector supports the required protocol: ");
+			sb.append("'").append(request.getProtocol().getName()).append("'.");
+			sb.append(" Please add the JAR of a matching connector to your classpath.");
+			response.setStatus(Status.CONNECTOR_ERROR_INTERNAL, sb.toString());
+		}
+	}
+
+	/**
+	 * Returns the store of the shared cache, or null if no cache is attached.
+	 * 
+	 * @return The store of the shared cache or null.
+	 */
+	public CacheStore getCacheStore() {
+		CacheFilter cacheFilter = this.cacheFilter;
+		return (cacheFilter == null) ? null : cacheFilter.getStore();
+	}
+
 	/**
 	 * Returns the helper provided by the implementation.
 	 * 
@@ -121,15 +161,12 @@ public class Client extends Connector {
 	@Override
 	public void handle(Request request, Response response) {
 		super.handle(request, response);
+		CacheFilter cacheFilter = this.cacheFilter;
 
-		if (getHelper() != null) {
-			getHelper().handle(request, response);
+		if (cacheFilter != null) {
+			cacheFilter.handle(request, response);
 		} else {
-			StringBuilder sb = new StringBuilder();
-			sb.append("No available client connector supports the required protocol: ");
-			sb.append("'").append(request.getProtocol().getName()).append("'.");
-			sb.append(" Please add the JAR of a matching connector to your classpath.");
-			response.setStatus(Status.CONNECTOR_ERROR_INTERNAL, sb.toString());
+			doHandle(request, response);
 		}
 	}
 
@@ -143,6 +180,32 @@ public class Client extends Connector {
 		return getHelper() != null;
 	}
 
+	/**
+	 * Attaches a shared cache to this client, or detaches it when null. As
+	 * specified by RFC 9111 for shared caches, private responses and responses
+	 * to requests with credentials aren't stored unless they are explicitly
+	 * public. For a cache dedicated to a single user, see
+	 * {@link org.restlet.resource.ClientResource#setCacheStore(CacheStore)}.
+	 * 
+	 * @param cacheStore The store of the shared cache or null.
+	 * @see CacheFilter
+	 */
+	public void setCacheStore(CacheStore cacheStore) {
+		if (cacheStore == null) {
+			this.cacheFilter = null;
+		} else {
+			CacheFilter cacheFilter = new CacheFilter(getContext(), cacheStore, true);
+			cacheFilter.setNext(new Restlet(getContext()) {
+				@Override
+				public void handle(Request request, Response response) {
+					super.handle(request, response);
+					doHandle(request, response);
+				}
+			});
+			this.cacheFilter = cacheFilter;
+		}
+	}
+
 	@Override
 	public synchronized void start() throws Exception {
 		if (isStopped()) {
@@ -19,6 +19,7 @@ import org.restlet.routing.Router;
 import org.restlet.routing.VirtualHost;
 import org.restlet.security.Realm;
 import org.restlet.service.LogService;
+import org.restlet.service.MetricsService;
 import org.restlet.service.Service;
 import org.restlet.service.StatusService;
 import org.restlet.util.ClientList;
@@ -38,9 +39,11 @@ import org.restlet.util.ServiceList;
  * Fielding<br>
  * <br>
  * Components also have useful services associated. They are all enabled by
- * default and are available as properties that can be eventually overridden:
+ * default, except the metrics service, and are available as properties that
+ * can be eventually overridden:
  * <ul>
  * <li>"logService" to configure access logging.</li>
+ * <li>"metricsService" to record the metrics of the calls.</li>
  * <li>"statusService" to provide common representations for exception
  * status.</li>
  * <li>"taskService" to run tasks asynchronously.</li>
@@ -108,6 +111,9 @@ public class Component extends Restlet {
 			getLogService().setContext(childContext);
 			this.services.add(new StatusService());
 			getStatusService().setContext(childContext);
+			this.services.add(new MetricsService());
+			getMetricsService().setContext(childContext);
+			getMetricsService().setServers(this.servers);
 			this.clients.setContext(childContext);
 			this.servers.setContext(childContext);
 		}
@@ -188,6 +194,15 @@ public class Component extends Restlet {
 		return getServices().get(LogService.class);
 	}
 
+	/**
+	 * Returns the metrics service. This service is disabled by default.
+	 * 
+	 * @return The metrics service.
+	 */
+	public MetricsService getMetricsService() {
+		return getServices().get(MetricsService.class);
+	}
+
 	/**
 	 * Finds the realm with the given name.
 	 * 
@@ -335,6 +350,19 @@ public class Component extends Restlet {
 		getServices().set(logService);
 	}
 
+	/**
+	 * Sets the metrics service.
+	 * 
+	 * @param metricsService The metrics service.
+	 */
+	public void setMetricsService(MetricsService metricsService) {
+		if (metricsService != null) {
+			metricsService.setServers(getServers());
+		}
+
+		getServices().set(metricsService);
+	}
+
 	/**
 	 * Sets the list of realms. This method clears the current list and adds all
 	 * entries in the parameter list.
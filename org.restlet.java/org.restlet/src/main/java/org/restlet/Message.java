@@ -147,6 +147,12 @@ public abstract class Message {
 	 * <td>For requests received via a secure connector, indicates the ordered list
 	 * of client certificates, if they are available and accessible.</td>
 	 * </tr>
+	 * <tr>
+	 * <td>org.restlet.routing.variables</td>
+	 * <td>org.restlet.engine.routing.TemplateMatch</td>
+	 * <td>For requests routed by template routes with lazy variables, holds the
+	 * offsets of the URI template variables, materialized on demand.</td>
+	 * </tr>
 	 * </table>
 	 * <br>
 	 * Most of the standard HTTP headers are directly supported via the Restlet API.
@@ -31,6 +31,7 @@ import org.restlet.data.Range;
 import org.restlet.data.Reference;
 import org.restlet.data.Tag;
 import org.restlet.data.Warning;
+import org.restlet.engine.log.CallTiming;
 import org.restlet.representation.Representation;
 import org.restlet.util.Series;
 
@@ -121,6 +122,9 @@ public class Request extends Message {
 	/** The application root reference. */
 	private volatile Reference rootRef;
 
+	/** The latency breakdown of the call. */
+	private volatile CallTiming timing;
+
 	/**
 	 * Constructor.
 	 */
@@ -310,12 +314,39 @@ public class Request extends Message {
 	/**
 	 * Asks the server connector to immediately commit the given response associated
 	 * to this request, making it ready to be sent back to the client. Note that all
-	 * server connectors don't necessarily support this feature.
+	 * server connectors don't necessarily support this feature.<br>
+	 * <br>
+	 * When the request is asynchronous and directly handled in the same JVM, for
+	 * example by an application, the {@link #getOnResponse()} callback is
+	 * invoked instead.
 	 * 
 	 * @param response The response to commit.
 	 *
 	 */
 	public void commit(Response response) {
+		commit(response, null);
+	}
+
+	/**
+	 * Asks the server connector to commit the given response once completed by the
+	 * given task. When the call is suspended, see {@link #isSuspendable()}, the
+	 * task is run by the thread effectively committing the response, once the
+	 * thread handling the call released it. Otherwise, it is run by the calling
+	 * thread before committing the response.
+	 * 
+	 * @param response   The response to commit.
+	 * @param completion The task completing the response or null.
+	 */
+	public void commit(Response response, Runnable completion) {
+		if (completion != null) {
+			completion.run();
+		}
+
+		Uniform onResponse = getOnResponse();
+
+		if (onResponse != null) {
+			onResponse.handle(this, response);
+		}
 	}
 
 	/**
@@ -589,6 +620,16 @@ public class Request extends Message {
 		return this.rootRef;
 	}
 
+	/**
+	 * Returns the latency breakdown of the call. It is set by the server
+	 * connectors and by the log filter, otherwise it is null.
+	 * 
+	 * @return The latency breakdown of the call.
+	 */
+	public CallTiming getTiming() {
+		return this.timing;
+	}
+
 	/**
 	 * Indicates if the request is asynchronous. The test consist in verifying that
 	 * the {@link #getOnResponse()} method returns a callback object.
@@ -642,6 +683,19 @@ public class Request extends Message {
 		return loggable;
 	}
 
+	/**
+	 * Indicates if the call can be suspended by the server connector, so that its
+	 * response is committed later by another thread, via
+	 * {@link #commit(Response, Runnable)}, after the handling thread returned.
+	 * False by default, as calls handled in the same JVM return their response to
+	 * the handling thread.
+	 * 
+	 * @return True if the call can be suspended.
+	 */
+	public boolean isSuspendable() {
+		return false;
+	}
+
 	/**
 	 * Indicates if the request is synchronous. The test consist in verifying that
 	 * the {@link #getOnResponse()} method returns null.
@@ -914,6 +968,15 @@ public class Request extends Message {
 		this.rootRef = rootRef;
 	}
 
+	/**
+	 * Sets the latency breakdown of the call.
+	 * 
+	 * @param timing The latency breakdown of the call.
+	 */
+	public void setTiming(CallTiming timing) {
+		this.timing = timing;
+	}
+
 	/**
 	 * Displays a synthesis of the request like an HTTP request line.
 	 * 
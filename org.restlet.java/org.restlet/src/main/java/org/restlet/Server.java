@@ -98,7 +98,7 @@ public class Server extends Connector {
 		}
 
 		if (context != null && this.helper != null) {
-			context.getAttributes().put("org.restlet.engine.helper", this.helper);
+			context.getAttributes().put(RestletHelper.ATTRIBUTE_NAME, this.helper);
 		}
 	}
 
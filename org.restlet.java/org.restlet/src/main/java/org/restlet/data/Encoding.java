@@ -19,6 +19,9 @@ public final class Encoding extends Metadata {
 	/** All encodings acceptable. */
 	public static final Encoding ALL = new Encoding("*", "All encodings");
 
+	/** The Brotli compression format defined by RFC 7932. */
+	public static final Encoding BROTLI = new Encoding("br", "Brotli compression");
+
 	/** The common Unix file compression. */
 	public static final Encoding COMPRESS = new Encoding("compress", "Common Unix compression");
 
@@ -44,6 +47,9 @@ public final class Encoding extends Metadata {
 	/** The Info-Zip encoding. */
 	public static final Encoding ZIP = new Encoding("zip", "Zip compression");
 
+	/** The Zstandard compression format defined by RFC 8878. */
+	public static final Encoding ZSTD = new Encoding("zstd", "Zstandard compression");
+
 	/**
 	 * Returns the encoding associated to a name. If an existing constant exists
 	 * then it is returned, otherwise a new instance is created.
@@ -73,6 +79,10 @@ public final class Encoding extends Metadata {
 				result = FREEMARKER;
 			} else if (name.equalsIgnoreCase(VELOCITY.getName())) {
 				result = VELOCITY;
+			} else if (name.equalsIgnoreCase(BROTLI.getName())) {
+				result = BROTLI;
+			} else if (name.equalsIgnoreCase(ZSTD.getName())) {
+				result = ZSTD;
 			} else {
 				result = new Encoding(name);
 			}
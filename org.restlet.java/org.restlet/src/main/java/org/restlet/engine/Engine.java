@@ -31,6 +31,7 @@ import org.restlet.data.Method;
 import org.restlet.data.Protocol;
 import org.restlet.engine.io.IoUtils;
 import org.restlet.engine.log.LoggerFacade;
+import org.restlet.engine.util.ThreadUtils;
 
 /**
  * Engine supporting the Restlet API. The engine acts as a registry of various
@@ -63,6 +64,10 @@ public class Engine {
 
 	public static final String DESCRIPTOR_CONVERTER_PATH = DESCRIPTOR + "/" + DESCRIPTOR_CONVERTER;
 
+	public static final String DESCRIPTOR_ENCODER = "org.restlet.engine.application.EncoderHelper";
+
+	public static final String DESCRIPTOR_ENCODER_PATH = DESCRIPTOR + "/" + DESCRIPTOR_ENCODER;
+
 	public static final String DESCRIPTOR_PROTOCOL = "org.restlet.engine.ProtocolHelper";
 
 	public static final String DESCRIPTOR_PROTOCOL_PATH = DESCRIPTOR + "/" + DESCRIPTOR_PROTOCOL;
@@ -110,7 +115,9 @@ public class Engine {
 
 	/**
 	 * Creates a new standalone thread with local Restlet thread variable properly
-	 * set.
+	 * set. A virtual thread is created when enabled by the
+	 * "org.restlet.engine.virtualThreads" system property and supported by the
+	 * JVM.
 	 * 
 	 * @param runnable The runnable task to execute.
 	 * @param name     The thread name.
@@ -144,7 +151,7 @@ public class Engine {
 
 		};
 
-		return new Thread(r, name);
+		return ThreadUtils.newThread(r, name);
 	}
 
 	/**
@@ -382,6 +389,9 @@ public class Engine {
 	/** List of available converter helpers. */
 	private final List<org.restlet.engine.converter.ConverterHelper> registeredConverters;
 
+	/** List of available encoder helpers. */
+	private final List<org.restlet.engine.application.EncoderHelper> registeredEncoders;
+
 	/** List of available protocol helpers. */
 	private final List<org.restlet.engine.connector.ProtocolHelper> registeredProtocols;
 
@@ -426,6 +436,7 @@ public class Engine {
 		this.registeredServers = new CopyOnWriteArrayList<org.restlet.engine.connector.ConnectorHelper<org.restlet.Server>>();
 		this.registeredAuthenticators = new CopyOnWriteArrayList<org.restlet.engine.security.AuthenticatorHelper>();
 		this.registeredConverters = new CopyOnWriteArrayList<org.restlet.engine.converter.ConverterHelper>();
+		this.registeredEncoders = new CopyOnWriteArrayList<org.restlet.engine.application.EncoderHelper>();
 
 		if (discoverHelpers) {
 			try {
@@ -434,6 +445,7 @@ public class Engine {
 
 				discoverAuthenticators();
 				discoverConverters();
+				discoverEncoders();
 			} catch (IOException e) {
 				Context.getCurrentLogger().log(Level.WARNING, "An error occurred while discovering the engine helpers.",
 						e);
@@ -586,6 +598,16 @@ public class Engine {
 		registerDefaultConverters();
 	}
 
+	/**
+	 * Discovers the encoder helpers and register the default helpers.
+	 * 
+	 * @throws IOException
+	 */
+	private void discoverEncoders() throws IOException {
+		registerHelpers(DESCRIPTOR_ENCODER_PATH, getRegisteredEncoders(), null);
+		registerDefaultEncoders();
+	}
+
 	/**
 	 * Discovers the protocol helpers and register the default helpers.
 	 * 
@@ -697,6 +719,15 @@ public class Engine {
 		return registeredConverters;
 	}
 
+	/**
+	 * Returns the list of available encoder helpers.
+	 * 
+	 * @return The list of available encoder helpers.
+	 */
+	public List<org.restlet.engine.application.EncoderHelper> getRegisteredEncoders() {
+		return this.registeredEncoders;
+	}
+
 	/**
 	 * Returns the list of available protocol connectors.
 	 * 
@@ -760,6 +791,13 @@ public class Engine {
 		getRegisteredConverters().add(new org.restlet.engine.converter.StatusInfoHtmlConverter());
 	}
 
+	/**
+	 * Registers the default encoders.
+	 */
+	public void registerDefaultEncoders() {
+		getRegisteredEncoders().add(new org.restlet.engine.application.DefaultEncoderHelper());
+	}
+
 	/**
 	 * Registers the default protocols.
 	 */
@@ -29,6 +29,12 @@ import org.restlet.util.Series;
  */
 public abstract class RestletHelper<T extends Restlet> extends Helper {
 
+	/**
+	 * Name of the context attribute holding the helper of a client or server
+	 * connector.
+	 */
+	public static final String ATTRIBUTE_NAME = "org.restlet.engine.helper";
+
 	/**
 	 * The map of attributes exchanged between the API and the Engine via this
 	 * helper.
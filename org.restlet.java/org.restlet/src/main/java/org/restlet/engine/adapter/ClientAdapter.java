@@ -56,13 +56,24 @@ public class ClientAdapter extends Adapter {
 			if (request.isAsynchronous()) {
 				final Uniform userCallback = request.getOnResponse();
 
+				// The response is only complete when the callback is invoked
+				response.setAutoCommitting(false);
+
 				// Send the request to the client
 				httpCall.sendRequest(request, response, new Uniform() {
 					public void handle(Request request, Response response) {
 						try {
-							updateResponse(response, new Status(httpCall.getStatusCode(), httpCall.getReasonPhrase()),
-									httpCall);
+							if (!response.getStatus().isConnectorError()) {
+								updateResponse(response,
+										new Status(httpCall.getStatusCode(), httpCall.getReasonPhrase()), httpCall);
+							}
+						} catch (Throwable t) {
+							getLogger().log(Level.FINE, "Unable to read the response of an asynchronous HTTP call",
+									t);
+							response.setStatus(Status.CONNECTOR_ERROR_COMMUNICATION, t);
+						}
 
+						try {
 							if (userCallback != null) {
 								userCallback.handle(request, response);
 							}
@@ -23,6 +23,7 @@ import java.util.logging.Level;
 
 import org.restlet.Context;
 import org.restlet.Request;
+import org.restlet.Response;
 import org.restlet.data.CacheDirective;
 import org.restlet.data.ChallengeResponse;
 import org.restlet.data.ClientInfo;
@@ -78,6 +79,12 @@ public class HttpRequest extends Request {
 	/** Indicates if the conditions were parsed and added. */
 	private volatile boolean conditionAdded;
 
+	/** Indicates if the response was committed before the call was suspended. */
+	private boolean commitRequested;
+
+	/** The task completing the response committed before the suspension. */
+	private Runnable completion;
+
 	/** The context of the HTTP server connector that issued the call. */
 	private volatile Context context;
 
@@ -105,6 +112,12 @@ public class HttpRequest extends Request {
 	/** Indicates if the security data was parsed and added. */
 	private volatile boolean securityAdded;
 
+	/** The helper committing the response of the suspended call. */
+	private HttpServerHelper suspendedHelper;
+
+	/** The response of the suspended call. */
+	private HttpResponse suspendedResponse;
+
 	/** Indicates if the warning data was parsed and added. */
 	private volatile boolean warningsAdded;
 
@@ -126,6 +139,7 @@ public class HttpRequest extends Request {
 		this.proxySecurityAdded = false;
 		this.recipientsInfoAdded = false;
 		this.warningsAdded = false;
+		this.commitRequested = false;
 		this.httpCall = httpCall;
 
 		// Set the properties
@@ -175,6 +189,41 @@ public class HttpRequest extends Request {
 		return getHttpCall().abort();
 	}
 
+	/**
+	 * Completes and commits the response of a suspended call using the calling
+	 * thread. When the call isn't suspended yet, the completion task and the
+	 * commit are handed back to the thread handling the request, so that the
+	 * response isn't updated while the filters are still processing it.
+	 * 
+	 * @param response   The response to commit.
+	 * @param completion The task completing the response or null.
+	 */
+	@Override
+	public void commit(Response response, Runnable completion) {
+		HttpServerHelper helper;
+		HttpResponse httpResponse;
+
+		synchronized (this) {
+			helper = this.suspendedHelper;
+			httpResponse = this.suspendedResponse;
+			this.suspendedHelper = null;
+			this.suspendedResponse = null;
+
+			if (helper == null) {
+				this.commitRequested = true;
+				this.completion = completion;
+			}
+		}
+
+		if (helper != null) {
+			if (completion != null) {
+				completion.run();
+			}
+
+			helper.commit(httpResponse);
+		}
+	}
+
 	@Override
 	public void flushBuffers() throws IOException {
 		getHttpCall().flushBuffers();
@@ -529,6 +578,52 @@ public class HttpRequest extends Request {
 		return result;
 	}
 
+	/**
+	 * Indicates if the call can be suspended by the low-level HTTP call.
+	 * 
+	 * @return True if the call can be suspended.
+	 * @see ServerCall#isSuspendable()
+	 */
+	@Override
+	public boolean isSuspendable() {
+		return getHttpCall().isSuspendable();
+	}
+
+	/**
+	 * Suspends the call so that its response is committed later, when
+	 * {@link #commit(Response, Runnable)} is invoked. If the response was already
+	 * committed, its completion task is run by the calling thread.
+	 * 
+	 * @param helper   The helper committing the response.
+	 * @param response The response to commit.
+	 * @return True if the call was suspended, false if the response should be
+	 *         committed immediately.
+	 */
+	boolean suspend(HttpServerHelper helper, HttpResponse response) {
+		Runnable completion;
+
+		synchronized (this) {
+			if (!this.commitRequested) {
+				if (!getHttpCall().suspend()) {
+					return false;
+				}
+
+				this.suspendedHelper = helper;
+				this.suspendedResponse = response;
+				return true;
+			}
+
+			completion = this.completion;
+			this.completion = null;
+		}
+
+		if (completion != null) {
+			completion.run();
+		}
+
+		return false;
+	}
+
 	@Override
 	public void setAccessControlRequestHeaders(Set<String> accessControlRequestHeaders) {
 		super.setAccessControlRequestHeaders(accessControlRequestHeaders);
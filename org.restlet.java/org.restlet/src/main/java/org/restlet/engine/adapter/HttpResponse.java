@@ -35,6 +35,12 @@ public class HttpResponse extends Response {
 		}
 	}
 
+	/**
+	 * The time in nanoseconds when the call was admitted by the concurrency
+	 * limiter, if any.
+	 */
+	private volatile Long admissionTime;
+
 	/** The low-level HTTP call. */
 	private volatile ServerCall httpCall;
 
@@ -56,6 +62,17 @@ public class HttpResponse extends Response {
 		setStatus(Status.SUCCESS_OK);
 	}
 
+	/**
+	 * Returns the time in nanoseconds when the call was admitted by the
+	 * concurrency limiter, or null if it wasn't admitted by a limiter or was
+	 * already released.
+	 * 
+	 * @return The admission time in nanoseconds.
+	 */
+	public Long getAdmissionTime() {
+		return this.admissionTime;
+	}
+
 	/**
 	 * Returns the low-level HTTP call.
 	 * 
@@ -84,4 +101,14 @@ public class HttpResponse extends Response {
 		return result;
 	}
 
+	/**
+	 * Sets the time in nanoseconds when the call was admitted by the
+	 * concurrency limiter.
+	 * 
+	 * @param admissionTime The admission time in nanoseconds.
+	 */
+	public void setAdmissionTime(Long admissionTime) {
+		this.admissionTime = admissionTime;
+	}
+
 }
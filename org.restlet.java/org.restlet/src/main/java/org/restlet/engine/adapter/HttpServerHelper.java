@@ -10,12 +10,25 @@
 package org.restlet.engine.adapter;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
+import java.util.regex.Pattern;
 
 import org.restlet.Context;
+import org.restlet.Request;
 import org.restlet.Server;
+import org.restlet.data.Status;
 import org.restlet.engine.Engine;
 import org.restlet.engine.connector.ServerHelper;
+import org.restlet.engine.limit.ConcurrencyLimiter;
+import org.restlet.engine.limit.ConcurrencyLimiter.Priority;
+import org.restlet.engine.log.CallTiming;
+import org.restlet.engine.log.CallTiming.Phase;
+import org.restlet.engine.log.CallTimingListener;
+import org.restlet.engine.metrics.CallRecord;
 
 /**
  * Base HTTP server connector. Here is the list of parameters that are
@@ -45,7 +58,62 @@ import org.restlet.engine.connector.ServerHelper;
  * <td>Class name of the adapter of low-level HTTP calls into high level
  * requests and responses.</td>
  * </tr>
+ * <tr>
+ * <td>concurrencyLimit</td>
+ * <td>boolean</td>
+ * <td>false</td>
+ * <td>Indicates if the number of calls processed concurrently is adaptively
+ * limited. Excess calls are immediately rejected with a 503 (Service
+ * Unavailable) status instead of waiting. See {@link ConcurrencyLimiter}.</td>
+ * </tr>
+ * <tr>
+ * <td>concurrencyLimit.critical</td>
+ * <td>String</td>
+ * <td>null</td>
+ * <td>Regular expression matched against the target URI, without query, of the
+ * critical calls which are always admitted, such as health checks or
+ * administration calls. For example "http://admin\.example\.com/.*" for a
+ * virtual host or ".*&#47;health" for a route. Several values can be
+ * set.</td>
+ * </tr>
+ * <tr>
+ * <td>concurrencyLimit.initial</td>
+ * <td>int</td>
+ * <td>20</td>
+ * <td>Initial limit of concurrent calls.</td>
+ * </tr>
+ * <tr>
+ * <td>concurrencyLimit.max</td>
+ * <td>int</td>
+ * <td>1000</td>
+ * <td>Maximum limit of concurrent calls.</td>
+ * </tr>
+ * <tr>
+ * <td>concurrencyLimit.min</td>
+ * <td>int</td>
+ * <td>1</td>
+ * <td>Minimum limit of concurrent calls.</td>
+ * </tr>
+ * <tr>
+ * <td>concurrencyLimit.retryAfter</td>
+ * <td>int</td>
+ * <td>1</td>
+ * <td>Delay in seconds after which rejected clients are invited to retry.</td>
+ * </tr>
+ * <tr>
+ * <td>concurrencyLimit.sheddable</td>
+ * <td>String</td>
+ * <td>null</td>
+ * <td>Regular expression matched against the target URI, without query, of the
+ * sheddable calls which are only admitted up to half of the limit. Several
+ * values can be set.</td>
+ * </tr>
  * </table>
+ * <br>
+ * The latency breakdown of each call is available via
+ * {@link Request#getTiming()}. Once a call is committed, it is also passed to
+ * the {@link CallTimingListener} set as a "callTimingListener" attribute of the
+ * server's context, if any.
  * 
  * @author Jerome Louvel
  */
@@ -54,6 +122,15 @@ public class HttpServerHelper extends ServerHelper {
 	/** The adapter from HTTP calls to uniform calls. */
 	private volatile ServerAdapter adapter;
 
+	/** The patterns of the target URIs of the critical calls. */
+	private volatile List<Pattern> criticalPatterns;
+
+	/** The concurrency limiter. */
+	private volatile ConcurrencyLimiter concurrencyLimiter;
+
+	/** The patterns of the target URIs of the sheddable calls. */
+	private volatile List<Pattern> sheddablePatterns;
+
 	/**
 	 * Default constructor. Note that many methods assume that a non-null server is
 	 * set to work properly. You can use the setHelped(Server) method for this
@@ -73,6 +150,79 @@ public class HttpServerHelper extends ServerHelper {
 		this.adapter = null;
 	}
 
+	/**
+	 * Commits a response back into its HTTP call, unless it was already
+	 * committed.
+	 * 
+	 * @param response The response to commit.
+	 */
+	public void commit(HttpResponse response) {
+		synchronized (response) {
+			if (response.isCommitted()) {
+				return;
+			}
+
+			response.setCommitted(true);
+		}
+
+		long startTime = System.nanoTime();
+
+		try {
+			getAdapter().commit(response);
+		} finally {
+			release(response);
+			completeTiming(response, startTime);
+		}
+	}
+
+	/**
+	 * Completes the latency breakdown of a committed call and notifies the call
+	 * timing listener, if any. Suspended calls whose metrics are recorded are
+	 * also recorded at this point, with their final status.
+	 * 
+	 * @param response  The committed response.
+	 * @param startTime The start time of the commit.
+	 */
+	private void completeTiming(HttpResponse response, long startTime) {
+		CallTiming timing = response.getRequest().getTiming();
+
+		if (timing != null) {
+			timing.record(Phase.COMMIT, startTime);
+			timing.complete();
+			CallRecord record = CallRecord.take(response.getRequest());
+
+			if (record != null) {
+				record.complete(response, timing.getElapsedTime());
+			}
+
+			CallTimingListener listener = getCallTimingListener();
+
+			if (listener != null) {
+				try {
+					listener.completed(response.getRequest(), response, timing);
+				} catch (RuntimeException e) {
+					getLogger().log(Level.WARNING, "Error while notifying the call timing listener", e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Compiles the regular expressions of a multi-valued parameter.
+	 * 
+	 * @param name The parameter name.
+	 * @return The compiled patterns.
+	 */
+	private List<Pattern> compilePatterns(String name) {
+		List<Pattern> result = new ArrayList<Pattern>();
+
+		for (String regex : getHelpedParameters().getValuesArray(name)) {
+			result.add(Pattern.compile(regex));
+		}
+
+		return result;
+	}
+
 	/**
 	 * Returns the adapter from HTTP calls to uniform calls.
 	 * 
@@ -105,25 +255,156 @@ public class HttpServerHelper extends ServerHelper {
 		return this.adapter;
 	}
 
+	/**
+	 * Returns the call timing listener set as a "callTimingListener" attribute of
+	 * the server's context, if any.
+	 * 
+	 * @return The call timing listener or null.
+	 */
+	public CallTimingListener getCallTimingListener() {
+		return ((getHelped() == null) || (getContext() == null)) ? null
+				: (CallTimingListener) getContext().getAttributes().get("callTimingListener");
+	}
+
+	/**
+	 * Returns the concurrency limiter, or null if the "concurrencyLimit"
+	 * parameter isn't set.
+	 * 
+	 * @return The concurrency limiter.
+	 */
+	public ConcurrencyLimiter getConcurrencyLimiter() {
+		if ((this.concurrencyLimiter == null) && isConcurrencyLimit()) {
+			synchronized (this) {
+				if (this.concurrencyLimiter == null) {
+					this.criticalPatterns = compilePatterns("concurrencyLimit.critical");
+					this.sheddablePatterns = compilePatterns("concurrencyLimit.sheddable");
+					this.concurrencyLimiter = new ConcurrencyLimiter(
+							Integer.parseInt(getHelpedParameters().getFirstValue("concurrencyLimit.initial", "20")),
+							Integer.parseInt(getHelpedParameters().getFirstValue("concurrencyLimit.min", "1")),
+							Integer.parseInt(getHelpedParameters().getFirstValue("concurrencyLimit.max", "1000")));
+				}
+			}
+		}
+
+		return this.concurrencyLimiter;
+	}
+
+	/**
+	 * Returns the delay in seconds after which clients rejected by the
+	 * concurrency limiter are invited to retry. Defaults to 1.
+	 * 
+	 * @return The delay in seconds after which rejected clients should retry.
+	 */
+	public int getConcurrencyLimitRetryAfter() {
+		return Integer.parseInt(getHelpedParameters().getFirstValue("concurrencyLimit.retryAfter", "1"));
+	}
+
+	/**
+	 * Returns the priority of a call for the concurrency limiter. By default,
+	 * the target URI without query is matched against the
+	 * "concurrencyLimit.critical" and "concurrencyLimit.sheddable" parameters.
+	 * 
+	 * @param request The request to prioritize.
+	 * @return The priority of the call.
+	 */
+	protected Priority getPriority(Request request) {
+		if (request.getResourceRef() != null) {
+			String target = request.getResourceRef().toString(false, false);
+
+			for (Pattern pattern : this.criticalPatterns) {
+				if (pattern.matcher(target).matches()) {
+					return Priority.CRITICAL;
+				}
+			}
+
+			for (Pattern pattern : this.sheddablePatterns) {
+				if (pattern.matcher(target).matches()) {
+					return Priority.SHEDDABLE;
+				}
+			}
+		}
+
+		return Priority.NORMAL;
+	}
+
 	/**
 	 * Handles the connector call. The default behavior is to create an REST call
-	 * and delegate it to the attached Restlet.
+	 * and delegate it to the attached Restlet. When the response isn't
+	 * automatically committed and the call can be suspended, the calling thread
+	 * is released and the response is committed when
+	 * {@link org.restlet.Response#commit()} is invoked.<br>
+	 * <br>
+	 * When the concurrency is limited, calls exceeding the limit are rejected
+	 * with a 503 (Service Unavailable) status before being handled.
 	 * 
 	 * @param httpCall The HTTP server call.
 	 */
 	public void handle(ServerCall httpCall) {
+		HttpResponse response = null;
+
 		try {
 			HttpRequest request = getAdapter().toRequest(httpCall);
-			HttpResponse response = new HttpResponse(httpCall, request);
+			response = new HttpResponse(httpCall, request);
+			ConcurrencyLimiter limiter = getConcurrencyLimiter();
+
+			if (limiter != null) {
+				if (limiter.tryAcquire(getPriority(request))) {
+					response.setAdmissionTime(System.nanoTime());
+				} else {
+					response.setStatus(Status.SERVER_ERROR_SERVICE_UNAVAILABLE,
+							"The server is overloaded, the request was rejected");
+					response.setRetryAfter(new Date(System.currentTimeMillis()
+							+ TimeUnit.SECONDS.toMillis(getConcurrencyLimitRetryAfter())));
+					commit(response);
+					return;
+				}
+			}
+
 			handle(request, response);
-			getAdapter().commit(response);
+
+			if (response.isAutoCommitting() || !request.suspend(this, response)) {
+				commit(response);
+			}
 		} catch (Exception e) {
 			getLogger().log(Level.WARNING, "Error while handling an HTTP server call", e);
+
+			if ((response != null) && !response.isCommitted()) {
+				release(response);
+			}
 		} finally {
 			Engine.clearThreadLocalVariables();
 		}
 	}
 
+	/**
+	 * Indicates if the number of calls processed concurrently is adaptively
+	 * limited. Defaults to false.
+	 * 
+	 * @return True if the number of concurrent calls is limited.
+	 */
+	public boolean isConcurrencyLimit() {
+		return Boolean.parseBoolean(getHelpedParameters().getFirstValue("concurrencyLimit", "false"));
+	}
+
+	/**
+	 * Releases the call of a response from the concurrency limiter, if it was
+	 * admitted and not already released.
+	 * 
+	 * @param response The response of the call.
+	 */
+	private void release(HttpResponse response) {
+		Long admissionTime;
+
+		synchronized (response) {
+			admissionTime = response.getAdmissionTime();
+			response.setAdmissionTime(null);
+		}
+
+		if (admissionTime != null) {
+			this.concurrencyLimiter.release(System.nanoTime() - admissionTime);
+		}
+	}
+
 	/**
 	 * Sets the adapter from HTTP calls to uniform calls.
 	 * 
@@ -24,6 +24,8 @@ import org.restlet.data.Header;
 import org.restlet.data.Method;
 import org.restlet.data.Status;
 import org.restlet.engine.header.HeaderUtils;
+import org.restlet.engine.log.CallTiming;
+import org.restlet.engine.log.CallTiming.Phase;
 import org.restlet.representation.Representation;
 import org.restlet.util.Series;
 
@@ -171,12 +173,14 @@ public class ServerAdapter extends Adapter {
 	}
 
 	/**
-	 * Converts a low-level HTTP call into a high-level uniform request.
+	 * Converts a low-level HTTP call into a high-level uniform request. The
+	 * latency breakdown of the call is started, see {@link CallTiming}.
 	 * 
 	 * @param httpCall The low-level HTTP call.
 	 * @return A new high-level uniform request.
 	 */
 	public HttpRequest toRequest(ServerCall httpCall) {
+		long startTime = System.nanoTime();
 		HttpRequest result = new HttpRequest(getContext(), httpCall);
 		result.getAttributes().put(ATTRIBUTE_HEADERS, httpCall.getRequestHeaders());
 
@@ -210,6 +214,11 @@ public class ServerAdapter extends Adapter {
 			}
 		}
 
+		// Start the latency breakdown from the acceptance of the call
+		CallTiming timing = new CallTiming(httpCall.getAcceptTime());
+		timing.add(Phase.ACCEPT, startTime - httpCall.getAcceptTime());
+		timing.record(Phase.ADAPTATION, startTime);
+		result.setTiming(timing);
 		return result;
 	}
 }
@@ -46,6 +46,9 @@ import org.restlet.service.ConnectorService;
  */
 public abstract class ServerCall extends Call {
 
+	/** The time when the call was accepted, as given by System.nanoTime(). */
+	private volatile long acceptTime;
+
 	/** Indicates if the "host" header was already parsed. */
 	private volatile boolean hostParsed;
 
@@ -68,6 +71,7 @@ public abstract class ServerCall extends Call {
 		setServerAddress(serverAddress);
 		setServerPort(serverPort);
 		this.hostParsed = false;
+		this.acceptTime = System.nanoTime();
 	}
 
 	/**
@@ -94,6 +98,16 @@ public abstract class ServerCall extends Call {
 	public void flushBuffers() throws IOException {
 	}
 
+	/**
+	 * Returns the time when the call was accepted by the connector, as given by
+	 * {@link System#nanoTime()}. Defaults to the creation time of the call.
+	 *
+	 * @return The time when the call was accepted.
+	 */
+	public long getAcceptTime() {
+		return this.acceptTime;
+	}
+
 	/**
 	 * Returns the chain of client SSL certificates, if available and accessible.
 	 *
@@ -158,7 +172,7 @@ public abstract class ServerCall extends Call {
 		long contentLength = getContentLength();
 		boolean chunkedEncoding = HeaderUtils.isChunkedEncoding(getRequestHeaders());
 		// In some cases there is an entity without a content-length header
-		boolean connectionClosed = HeaderUtils.isConnectionClose(getRequestHeaders());
+		boolean connectionClosed = isRequestEntityStreamDelimited();
 
 		// Create the representation
 		if (((contentLength != Representation.UNKNOWN_SIZE) && (contentLength != 0)) || chunkedEncoding
@@ -316,6 +330,18 @@ public abstract class ServerCall extends Call {
 		this.hostParsed = true;
 	}
 
+	/**
+	 * Indicates if a request entity without a content length and a chunked
+	 * encoding is delimited by the end of the underlying stream. This is the
+	 * case when the connection is closed after the request, or with protocols
+	 * framing each exchange in its own stream like HTTP/2.
+	 *
+	 * @return True if the request entity is delimited by the end of the stream.
+	 */
+	protected boolean isRequestEntityStreamDelimited() {
+		return HeaderUtils.isConnectionClose(getRequestHeaders());
+	}
+
 	/**
 	 * Reads the HTTP request head (request line and headers).
 	 *
@@ -441,6 +467,29 @@ public abstract class ServerCall extends Call {
 		return (response.getEntity() != null) && !response.getEntity().hasKnownSize();
 	}
 
+	/**
+	 * Indicates if the call can be suspended, see {@link #suspend()}. The default
+	 * implementation doesn't support this feature and returns false.
+	 * 
+	 * @return True if the call can be suspended.
+	 */
+	public boolean isSuspendable() {
+		return false;
+	}
+
+	/**
+	 * Suspends the call so that the response can be committed later by another
+	 * thread, releasing the thread that handled the request. Once suspended, the
+	 * call must be completed by {@link #complete()} when the response is sent.
+	 * The default implementation doesn't support this feature and returns false.
+	 *
+	 * @return True if the call was suspended.
+	 * @see org.restlet.Response#setAutoCommitting(boolean)
+	 */
+	public boolean suspend() {
+		return false;
+	}
+
 	/**
 	 * Effectively writes the response body. The entity to write is guaranteed to be
 	 * non null. Attempts to write the entity on the response channel or response
@@ -0,0 +1,167 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.application;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.restlet.data.Disposition;
+import org.restlet.data.Encoding;
+import org.restlet.engine.io.IoUtils;
+import org.restlet.representation.Representation;
+
+/**
+ * Default encoder helper, based on the java.util.zip package. Supports the GZip,
+ * Deflate, Deflate without wrapping and Zip encodings. The compression level
+ * ranges from 0 (no compression) to 9 (best compression), higher levels being
+ * bounded to 9.
+ * 
+ * @author Jerome Louvel
+ */
+public class DefaultEncoderHelper extends EncoderHelper {
+
+	/**
+	 * GZip output stream with a tunable compression level.
+	 */
+	private static class GzipOutputStream extends GZIPOutputStream {
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param out   The output stream to write the compressed content to.
+		 * @param level The compression level or {@link #DEFAULT_LEVEL}.
+		 * @throws IOException
+		 */
+		private GzipOutputStream(OutputStream out, int level) throws IOException {
+			super(out, IoUtils.BUFFER_SIZE);
+
+			if (level != DEFAULT_LEVEL) {
+				this.def.setLevel(level);
+			}
+		}
+
+		/**
+		 * Releases the native memory of the deflater without closing the
+		 * underlying output stream.
+		 */
+		private void end() {
+			this.def.end();
+		}
+	}
+
+	/**
+	 * Zip output stream releasing the native memory of its deflater.
+	 */
+	private static class ZipStream extends ZipOutputStream {
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param out The output stream to write the compressed content to.
+		 */
+		private ZipStream(OutputStream out) {
+			super(out);
+		}
+
+		/**
+		 * Releases the native memory of the deflater without closing the
+		 * underlying output stream.
+		 */
+		private void end() {
+			this.def.end();
+		}
+	}
+
+	/** The maximum compression level. */
+	private static final int MAX_LEVEL = Deflater.BEST_COMPRESSION;
+
+	/** The minimum compression level. */
+	private static final int MIN_LEVEL = Deflater.NO_COMPRESSION;
+
+	/** The supported encodings. */
+	private static final List<Encoding> ENCODINGS = Collections.unmodifiableList(
+			Arrays.<Encoding>asList(Encoding.GZIP, Encoding.DEFLATE, Encoding.DEFLATE_NOWRAP, Encoding.ZIP));
+
+	/**
+	 * Returns a new deflater for the given level.
+	 * 
+	 * @param level  The compression level or {@link #DEFAULT_LEVEL}.
+	 * @param nowrap Indicates if the zlib wrapping should be omitted.
+	 * @return A new deflater.
+	 */
+	private static Deflater createDeflater(int level, boolean nowrap) {
+		return new Deflater((level == DEFAULT_LEVEL) ? Deflater.DEFAULT_COMPRESSION : level, nowrap);
+	}
+
+	@Override
+	public void encode(Representation source, Encoding encoding, int level, OutputStream target)
+			throws IOException {
+		DeflaterOutputStream encoderOutputStream = null;
+		Deflater deflater = null;
+		int supportedLevel = toSupportedLevel(level, MIN_LEVEL, MAX_LEVEL);
+
+		if (Encoding.GZIP.equals(encoding)) {
+			encoderOutputStream = new GzipOutputStream(target, supportedLevel);
+		} else if (Encoding.DEFLATE.equals(encoding)) {
+			deflater = createDeflater(supportedLevel, false);
+			encoderOutputStream = new DeflaterOutputStream(target, deflater, IoUtils.BUFFER_SIZE);
+		} else if (Encoding.DEFLATE_NOWRAP.equals(encoding)) {
+			deflater = createDeflater(supportedLevel, true);
+			encoderOutputStream = new DeflaterOutputStream(target, deflater, IoUtils.BUFFER_SIZE);
+		} else if (Encoding.ZIP.equals(encoding)) {
+			final ZipStream stream = new ZipStream(target);
+			String name = "entry";
+
+			if (source.getDisposition() != null) {
+				name = source.getDisposition().getParameters().getFirstValue(Disposition.NAME_FILENAME, true, name);
+			}
+
+			if (supportedLevel != DEFAULT_LEVEL) {
+				stream.setLevel(supportedLevel);
+			}
+
+			stream.putNextEntry(new ZipEntry(name));
+			encoderOutputStream = stream;
+		}
+
+		if (encoderOutputStream == null) {
+			source.write(target);
+		} else {
+			try {
+				source.write(encoderOutputStream);
+				encoderOutputStream.flush();
+				encoderOutputStream.finish();
+			} finally {
+				// Release the native memory without waiting for the GC
+				if (deflater != null) {
+					deflater.end();
+				} else if (encoderOutputStream instanceof GzipOutputStream) {
+					((GzipOutputStream) encoderOutputStream).end();
+				} else if (encoderOutputStream instanceof ZipStream) {
+					((ZipStream) encoderOutputStream).end();
+				}
+			}
+		}
+	}
+
+	@Override
+	public List<Encoding> getEncodings() {
+		return ENCODINGS;
+	}
+
+}
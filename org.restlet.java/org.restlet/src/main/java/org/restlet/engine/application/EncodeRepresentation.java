@@ -15,18 +15,13 @@ import java.io.OutputStream;
 import java.io.Reader;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
-import java.util.zip.Deflater;
-import java.util.zip.DeflaterOutputStream;
-import java.util.zip.GZIPOutputStream;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
-import org.restlet.data.Disposition;
 import org.restlet.data.Encoding;
+import org.restlet.engine.Engine;
 import org.restlet.engine.io.IoUtils;
 import org.restlet.representation.Representation;
 import org.restlet.util.WrapperList;
@@ -44,8 +39,18 @@ public class EncodeRepresentation extends WrapperRepresentation {
 	 * @return The list of supported encodings.
 	 */
 	public static List<Encoding> getSupportedEncodings() {
-		return Arrays.<Encoding>asList(Encoding.GZIP, Encoding.DEFLATE, Encoding.DEFLATE_NOWRAP, Encoding.ZIP,
-				Encoding.IDENTITY);
+		List<Encoding> result = new ArrayList<Encoding>();
+
+		for (EncoderHelper helper : Engine.getInstance().getRegisteredEncoders()) {
+			for (Encoding encoding : helper.getEncodings()) {
+				if (!result.contains(encoding)) {
+					result.add(encoding);
+				}
+			}
+		}
+
+		result.add(Encoding.IDENTITY);
+		return result;
 	}
 
 	/** Indicates if the encoding can happen. */
@@ -57,6 +62,9 @@ public class EncodeRepresentation extends WrapperRepresentation {
 	/** The applied encodings. */
 	private volatile List<Encoding> encodings;
 
+	/** The compression level. */
+	private volatile int level;
+
 	/**
 	 * Constructor.
 	 * 
@@ -64,10 +72,24 @@ public class EncodeRepresentation extends WrapperRepresentation {
 	 * @param wrappedRepresentation The wrapped representation.
 	 */
 	public EncodeRepresentation(Encoding encoding, Representation wrappedRepresentation) {
+		this(encoding, EncoderHelper.DEFAULT_LEVEL, wrappedRepresentation);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param encoding              Encoder algorithm.
+	 * @param level                 The compression level, specific to the
+	 *                              encoding, or
+	 *                              {@link EncoderHelper#DEFAULT_LEVEL}.
+	 * @param wrappedRepresentation The wrapped representation.
+	 */
+	public EncodeRepresentation(Encoding encoding, int level, Representation wrappedRepresentation) {
 		super(wrappedRepresentation);
-		this.canEncode = getSupportedEncodings().contains(encoding);
+		this.canEncode = Encoding.IDENTITY.equals(encoding) || (EncoderHelper.getHelper(encoding) != null);
 		this.encodings = null;
 		this.encoding = encoding;
+		this.level = level;
 	}
 
 	/**
@@ -185,6 +207,16 @@ public class EncodeRepresentation extends WrapperRepresentation {
 		return this.encodings;
 	}
 
+	/**
+	 * Returns the compression level, specific to the encoding, or
+	 * {@link EncoderHelper#DEFAULT_LEVEL}.
+	 * 
+	 * @return The compression level.
+	 */
+	public int getLevel() {
+		return this.level;
+	}
+
 	@Override
 	public Reader getReader() throws IOException {
 		if (canEncode()) {
@@ -235,39 +267,12 @@ public class EncodeRepresentation extends WrapperRepresentation {
 
 	@Override
 	public void write(OutputStream outputStream) throws IOException {
-		if (canEncode()) {
-			DeflaterOutputStream encoderOutputStream = null;
-
-			if (this.encoding.equals(Encoding.GZIP)) {
-				encoderOutputStream = new GZIPOutputStream(outputStream);
-			} else if (this.encoding.equals(Encoding.DEFLATE)) {
-				encoderOutputStream = new DeflaterOutputStream(outputStream);
-			} else if (this.encoding.equals(Encoding.DEFLATE_NOWRAP)) {
-				encoderOutputStream = new DeflaterOutputStream(outputStream,
-						new Deflater(Deflater.DEFAULT_COMPRESSION, true));
-			} else if (this.encoding.equals(Encoding.ZIP)) {
-				final ZipOutputStream stream = new ZipOutputStream(outputStream);
-				String name = "entry";
-
-				if (getWrappedRepresentation().getDisposition() != null) {
-					name = getWrappedRepresentation().getDisposition().getParameters()
-							.getFirstValue(Disposition.NAME_FILENAME, true, name);
-				}
+		EncoderHelper helper = canEncode() ? EncoderHelper.getHelper(this.encoding) : null;
 
-				stream.putNextEntry(new ZipEntry(name));
-				encoderOutputStream = stream;
-			} else if (this.encoding.equals(Encoding.IDENTITY)) {
-				// Encoder unnecessary for identity encoding
-			}
-
-			if (encoderOutputStream != null) {
-				getWrappedRepresentation().write(encoderOutputStream);
-				encoderOutputStream.flush();
-				encoderOutputStream.finish();
-			} else {
-				getWrappedRepresentation().write(outputStream);
-			}
+		if (helper != null) {
+			helper.encode(getWrappedRepresentation(), this.encoding, getLevel(), outputStream);
 		} else {
+			// Encoder unnecessary for identity encoding
 			getWrappedRepresentation().write(outputStream);
 		}
 	}
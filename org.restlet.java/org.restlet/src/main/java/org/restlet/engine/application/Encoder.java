@@ -24,8 +24,8 @@ import org.restlet.service.EncoderService;
 
 /**
  * Filter compressing entities. The best encoding is automatically selected
- * based on the preferences of the client and on the encoding supported by NRE:
- * GZip, Zip and Deflate.<br>
+ * based on the preferences of the client and on the encodings supported by the
+ * registered encoder helpers, GZip, Zip and Deflate by default.<br>
  * If the {@link org.restlet.representation.Representation} has an unknown size,
  * it will always be a candidate for encoding. Candidate representations need to
  * respect media type criteria by the lists of accepted and ignored media types.
@@ -109,7 +109,9 @@ public class Encoder extends Filter {
 		Encoding bestEncoding = getBestEncoding(client);
 
 		if (bestEncoding != null) {
-			result = new EncodeRepresentation(bestEncoding, representation);
+			int level = (getEncoderService() == null) ? EncoderHelper.DEFAULT_LEVEL
+					: getEncoderService().getLevel(bestEncoding, representation.getMediaType());
+			result = new EncodeRepresentation(bestEncoding, level, representation);
 		}
 
 		return result;
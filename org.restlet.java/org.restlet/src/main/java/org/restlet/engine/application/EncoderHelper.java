@@ -0,0 +1,88 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.application;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.restlet.data.Encoding;
+import org.restlet.engine.Engine;
+import org.restlet.engine.Helper;
+import org.restlet.representation.Representation;
+
+/**
+ * Encoder helper, compressing representations on the fly. Helpers are
+ * registered by the engine, either by default or via the
+ * "META-INF/services/org.restlet.engine.application.EncoderHelper" descriptor
+ * of extensions supporting additional encodings such as Zstandard or Brotli.
+ * 
+ * @author Jerome Louvel
+ * @see Engine#getRegisteredEncoders()
+ */
+public abstract class EncoderHelper extends Helper {
+
+	/** Indicates that the default level of the encoding should be used. */
+	public static final int DEFAULT_LEVEL = -1;
+
+	/**
+	 * Returns the first registered encoder helper supporting the given encoding.
+	 * 
+	 * @param encoding The encoding to apply.
+	 * @return The matching encoder helper or null.
+	 */
+	public static EncoderHelper getHelper(Encoding encoding) {
+		for (EncoderHelper helper : Engine.getInstance().getRegisteredEncoders()) {
+			if (helper.getEncodings().contains(encoding)) {
+				return helper;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Bounds a compression level to the range supported by an encoding, leaving
+	 * {@link #DEFAULT_LEVEL} unchanged. As levels aren't comparable across
+	 * encodings, this lets a level tuned for one encoding, such as 19 for
+	 * Zstandard, be applied safely when another encoding is negotiated.
+	 * 
+	 * @param level    The requested compression level.
+	 * @param minLevel The minimum level supported by the encoding.
+	 * @param maxLevel The maximum level supported by the encoding.
+	 * @return The bounded compression level.
+	 */
+	protected static int toSupportedLevel(int level, int minLevel, int maxLevel) {
+		return (level == DEFAULT_LEVEL) ? level : Math.max(minLevel, Math.min(maxLevel, level));
+	}
+
+	/**
+	 * Writes the encoded content of a representation. The target stream must not
+	 * be closed.
+	 * 
+	 * @param source   The representation to encode.
+	 * @param encoding The encoding to apply.
+	 * @param level    The compression level, specific to the encoding, or
+	 *                 {@link #DEFAULT_LEVEL}. Levels out of the range of the
+	 *                 encoding must be bounded to that range.
+	 * @param target   The output stream to write the encoded content to.
+	 * @throws IOException
+	 */
+	public abstract void encode(Representation source, Encoding encoding, int level, OutputStream target)
+			throws IOException;
+
+	/**
+	 * Returns the list of supported encodings, by order of preference.
+	 * 
+	 * @return The list of supported encodings.
+	 */
+	public abstract List<Encoding> getEncodings();
+
+}
@@ -18,6 +18,7 @@ import java.nio.channels.WritableByteChannel;
 import org.restlet.data.Range;
 import org.restlet.engine.io.IoUtils;
 import org.restlet.engine.io.RangeInputStream;
+import org.restlet.representation.FileRepresentation;
 import org.restlet.representation.Representation;
 import org.restlet.util.WrapperRepresentation;
 
@@ -112,9 +113,38 @@ public class RangeRepresentation extends WrapperRepresentation {
 		os.flush();
 	}
 
+	/**
+	 * Writes the range to a byte stream. When the wrapped representation is a
+	 * file and the stream exposes a writable byte channel, the bytes of the range
+	 * are transferred without copying them through user-space buffers.
+	 * 
+	 * @param outputStream The output stream.
+	 * @see FileRepresentation#transferTo(long, long, WritableByteChannel)
+	 */
 	@Override
 	public void write(OutputStream outputStream) throws IOException {
-		IoUtils.copy(getStream(), outputStream);
+		WritableByteChannel writableChannel = IoUtils.getTransferChannel(outputStream);
+		Range range = getRange();
+		long totalSize = getSize();
+
+		if ((writableChannel != null) && (getWrappedRepresentation() instanceof FileRepresentation)
+				&& (range != null) && Range.isBytesRange(range) && (totalSize != UNKNOWN_SIZE)) {
+			long position;
+			long count;
+
+			if (range.getIndex() == Range.INDEX_LAST) {
+				count = (range.getSize() == Range.SIZE_MAX) ? totalSize : Math.min(range.getSize(), totalSize);
+				position = totalSize - count;
+			} else {
+				position = range.getIndex();
+				count = (range.getSize() == Range.SIZE_MAX) ? totalSize - position : range.getSize();
+			}
+
+			((FileRepresentation) getWrappedRepresentation()).transferTo(position, count, writableChannel);
+			outputStream.flush();
+		} else {
+			IoUtils.copy(getStream(), outputStream);
+		}
 	}
 
 	@Override
@@ -0,0 +1,174 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.application;
+
+import java.io.IOException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.logging.Level;
+
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.Conditions;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import org.restlet.data.Tag;
+import org.restlet.engine.io.BoundedOutputStream;
+import org.restlet.representation.ByteArrayRepresentation;
+import org.restlet.representation.Representation;
+import org.restlet.routing.Filter;
+
+/**
+ * Filter tagging the untagged entities of successful GET and HEAD responses
+ * with a weak entity tag computed from a digest of their content. The entity
+ * is buffered while being digested, then the request conditions are evaluated
+ * against the computed tag so that repeated requests receive a "304 Not
+ * Modified" response without the content being sent again.<br>
+ * <br>
+ * Entities larger than the maximum size, transient entities of unknown size,
+ * ranged entities and entities of responses that aren't automatically committed
+ * are left untagged. If a transient entity can't be
+ * digested, it can't be sent anymore and the response status is set to
+ * "500 Internal Server Error".
+ * 
+ * @author Jerome Louvel
+ * @see org.restlet.service.TagService
+ */
+public class TagFilter extends Filter {
+
+	/** The digest algorithm. */
+	private final String algorithm;
+
+	/** The maximum size of a tagged entity. */
+	private final long maxEntitySize;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param context       The context.
+	 * @param algorithm     The digest algorithm. See constant values in
+	 *                      {@link org.restlet.data.Digest}.
+	 * @param maxEntitySize The maximum size of a tagged entity.
+	 */
+	public TagFilter(Context context, String algorithm, long maxEntitySize) {
+		super(context);
+		this.algorithm = algorithm;
+		this.maxEntitySize = maxEntitySize;
+	}
+
+	@Override
+	protected void afterHandle(Request request, Response response) {
+		Method method = request.getMethod();
+
+		// Suspended responses will only be completed later
+		if ((Method.GET.equals(method) || Method.HEAD.equals(method)) && response.isAutoCommitting()
+				&& Status.SUCCESS_OK.equals(response.getStatus()) && canTag(response.getEntity())) {
+			Representation entity = tag(response);
+
+			if (entity != null) {
+				response.setEntity(entity);
+				Conditions conditions = request.getConditions();
+
+				if (conditions.hasSome()) {
+					Status status = conditions.getStatus(method, entity);
+
+					if (status != null) {
+						response.setStatus(status);
+
+						if (status.isError()) {
+							response.setEntity(null);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Indicates if an entity can be tagged.
+	 * 
+	 * @param entity The entity to test.
+	 * @return True if the entity can be tagged.
+	 */
+	protected boolean canTag(Representation entity) {
+		return (entity != null) && (entity.getTag() == null) && entity.isAvailable() && (entity.getRange() == null)
+				&& (entity.getSize() <= getMaxEntitySize())
+				&& ((entity.getSize() != Representation.UNKNOWN_SIZE) || !entity.isTransient());
+	}
+
+	/**
+	 * Returns the digest algorithm.
+	 * 
+	 * @return The digest algorithm.
+	 */
+	public String getAlgorithm() {
+		return this.algorithm;
+	}
+
+	/**
+	 * Returns the maximum size of a tagged entity.
+	 * 
+	 * @return The maximum size of a tagged entity.
+	 */
+	public long getMaxEntitySize() {
+		return this.maxEntitySize;
+	}
+
+	/**
+	 * Buffers the entity of a response while computing its digest, and returns
+	 * a copy tagged with a weak entity tag. If a transient entity can't be
+	 * digested, the response status is set to "500 Internal Server Error" and
+	 * its entity is removed.
+	 * 
+	 * @param response The response whose entity must be tagged.
+	 * @return The tagged copy or null if the entity couldn't be tagged.
+	 */
+	protected Representation tag(Response response) {
+		Representation entity = response.getEntity();
+		BoundedOutputStream bos = new BoundedOutputStream(getMaxEntitySize());
+		MessageDigest digest;
+
+		try {
+			digest = MessageDigest.getInstance(getAlgorithm());
+			entity.write(new DigestOutputStream(bos, digest));
+		} catch (NoSuchAlgorithmException nsae) {
+			getLogger().log(Level.WARNING, "Unable to tag the entity", nsae);
+			return null;
+		} catch (IOException ioe) {
+			if (entity.isTransient()) {
+				// Partly consumed, the entity can't be written again
+				getLogger().log(Level.FINE, "Unable to tag the transient entity", ioe);
+				response.setStatus(Status.SERVER_ERROR_INTERNAL, ioe);
+				response.setEntity(null);
+			} else if (!bos.isOverflowed()) {
+				getLogger().log(Level.WARNING, "Unable to tag the entity", ioe);
+			}
+
+			return null;
+		}
+
+		byte[] content = bos.toByteArray();
+		Representation result = new ByteArrayRepresentation(content, entity.getMediaType(), content.length);
+		result.setCharacterSet(entity.getCharacterSet());
+		result.setDisposition(entity.getDisposition());
+		result.getEncodings().addAll(entity.getEncodings());
+		result.getLanguages().addAll(entity.getLanguages());
+		result.setLocationRef(entity.getLocationRef());
+		result.setModificationDate(entity.getModificationDate());
+		result.setExpirationDate(entity.getExpirationDate());
+		result.setTag(new Tag(Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest()), true));
+		entity.release();
+		return result;
+	}
+
+}
@@ -0,0 +1,468 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.CacheDirective;
+import org.restlet.data.CharacterSet;
+import org.restlet.data.Dimension;
+import org.restlet.data.Disposition;
+import org.restlet.data.Encoding;
+import org.restlet.data.Header;
+import org.restlet.data.Language;
+import org.restlet.data.MediaType;
+import org.restlet.data.Metadata;
+import org.restlet.data.Preference;
+import org.restlet.data.Reference;
+import org.restlet.data.Status;
+import org.restlet.data.Tag;
+import org.restlet.engine.header.HeaderConstants;
+import org.restlet.representation.ByteArrayRepresentation;
+import org.restlet.representation.EmptyRepresentation;
+import org.restlet.representation.Representation;
+import org.restlet.util.Series;
+
+/**
+ * Response stored by a cache. It holds the status, the entity content and
+ * metadata, the cache directives and the other headers of the response, as
+ * well as the values of the request dimensions listed by the response (its
+ * "Vary" header) that select this entry among the variants stored for the same
+ * key.<br>
+ * <br>
+ * The freshness lifetime and the response time can be updated when the entry
+ * is revalidated, other properties are immutable.
+ * 
+ * @author Jerome Louvel
+ */
+public class CacheEntry {
+
+	/**
+	 * Returns the value of a request dimension, as used to select variants.
+	 * 
+	 * @param dimension The dimension.
+	 * @param request   The request.
+	 * @return The value of the request dimension.
+	 */
+	public static String getDimensionValue(Dimension dimension, Request request) {
+		switch (dimension) {
+		case CHARACTER_SET:
+			return toString(request.getClientInfo().getAcceptedCharacterSets());
+		case CLIENT_ADDRESS:
+			return request.getClientInfo().getAddress();
+		case CLIENT_AGENT:
+			return request.getClientInfo().getAgent();
+		case ENCODING:
+			return toString(request.getClientInfo().getAcceptedEncodings());
+		case LANGUAGE:
+			return toString(request.getClientInfo().getAcceptedLanguages());
+		case MEDIA_TYPE:
+			return toString(request.getClientInfo().getAcceptedMediaTypes());
+		case ORIGIN:
+			return request.getHeaders().getFirstValue(HeaderConstants.HEADER_ORIGIN, true);
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the freshness lifetime given by a response, in milliseconds. The
+	 * "s-maxage" directive is only considered by shared caches and has precedence
+	 * over the "max-age" directive, which has precedence over the expiration date
+	 * of the entity.
+	 * 
+	 * @param response The response.
+	 * @param shared   True for a shared cache.
+	 * @param now      The current time.
+	 * @return The freshness lifetime in milliseconds, zero if unknown.
+	 */
+	public static long getFreshnessLifetime(Response response, boolean shared, long now) {
+		long result = -1;
+		long maxAge = -1;
+
+		for (CacheDirective directive : response.getCacheDirectives()) {
+			if (shared && HeaderConstants.CACHE_SHARED_MAX_AGE.equals(directive.getName())) {
+				result = toMillis(directive.getValue());
+			} else if (HeaderConstants.CACHE_MAX_AGE.equals(directive.getName())) {
+				maxAge = toMillis(directive.getValue());
+			}
+		}
+
+		if (result < 0) {
+			result = maxAge;
+		}
+
+		if ((result < 0) && (response.getEntity() != null) && (response.getEntity().getExpirationDate() != null)) {
+			result = response.getEntity().getExpirationDate().getTime() - now;
+		}
+
+		return Math.max(0, result);
+	}
+
+	/**
+	 * Returns the value of a cache directive in milliseconds, or -1 if it isn't
+	 * a valid number of seconds.
+	 * 
+	 * @param value The value in seconds.
+	 * @return The value in milliseconds or -1.
+	 */
+	private static long toMillis(String value) {
+		try {
+			return (value == null) ? -1 : Long.parseLong(value.trim()) * 1000L;
+		} catch (NumberFormatException nfe) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Returns a canonical string for a list of preferences.
+	 * 
+	 * @param preferences The list of preferences.
+	 * @return A canonical string for a list of preferences.
+	 */
+	private static String toString(List<? extends Preference<? extends Metadata>> preferences) {
+		StringBuilder sb = new StringBuilder();
+
+		for (Preference<? extends Metadata> preference : preferences) {
+			if (sb.length() > 0) {
+				sb.append(',');
+			}
+
+			sb.append(preference.getMetadata().getName()).append(";q=").append(preference.getQuality());
+		}
+
+		return sb.toString();
+	}
+
+	/** The cache directives of the response. */
+	private final List<CacheDirective> cacheDirectives;
+
+	/** The character set of the entity. */
+	private final CharacterSet characterSet;
+
+	/** The content of the entity, or null if there is no entity. */
+	private final byte[] content;
+
+	/** The dimensions of the response. */
+	private final Set<Dimension> dimensions;
+
+	/** The values of the request dimensions. */
+	private final Map<Dimension, String> dimensionValues;
+
+	/** The disposition of the entity. */
+	private final Disposition disposition;
+
+	/** The encodings of the entity. */
+	private final List<Encoding> encodings;
+
+	/** The expiration date of the entity. */
+	private final Date expirationDate;
+
+	/** The freshness lifetime in milliseconds. */
+	private volatile long freshnessLifetime;
+
+	/** The other headers of the response. */
+	private final List<Header> headers;
+
+	/** The languages of the entity. */
+	private final List<Language> languages;
+
+	/** The location of the entity. */
+	private final Reference locationRef;
+
+	/** The media type of the entity. */
+	private final MediaType mediaType;
+
+	/** The modification date of the entity. */
+	private final Date modificationDate;
+
+	/** The time of the response, in milliseconds. */
+	private volatile long responseTime;
+
+	/** The status of the response. */
+	private final Status status;
+
+	/** The tag of the entity. */
+	private final Tag tag;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param request           The request.
+	 * @param response          The response to store.
+	 * @param content           The content of the entity, or null if there is no
+	 *                          entity.
+	 * @param freshnessLifetime The freshness lifetime in milliseconds.
+	 * @param responseTime      The time of the response, in milliseconds.
+	 */
+	public CacheEntry(Request request, Response response, byte[] content, long freshnessLifetime,
+			long responseTime) {
+		Representation entity = response.getEntity();
+		this.status = response.getStatus();
+		this.content = content;
+		this.cacheDirectives = Collections.unmodifiableList(new ArrayList<CacheDirective>(response.getCacheDirectives()));
+		this.dimensions = response.getDimensions().isEmpty() ? Collections.<Dimension>emptySet()
+				: Collections.unmodifiableSet(EnumSet.copyOf(response.getDimensions()));
+		this.dimensionValues = new EnumMap<Dimension, String>(Dimension.class);
+
+		for (Dimension dimension : this.dimensions) {
+			String value = getDimensionValue(dimension, request);
+
+			if (value != null) {
+				this.dimensionValues.put(dimension, value);
+			}
+		}
+
+		this.headers = Collections.unmodifiableList(new ArrayList<Header>(response.getHeaders()));
+		this.freshnessLifetime = freshnessLifetime;
+		this.responseTime = responseTime;
+
+		if (entity == null) {
+			this.characterSet = null;
+			this.disposition = null;
+			this.encodings = Collections.emptyList();
+			this.expirationDate = null;
+			this.languages = Collections.emptyList();
+			this.locationRef = null;
+			this.mediaType = null;
+			this.modificationDate = null;
+			this.tag = null;
+		} else {
+			this.characterSet = entity.getCharacterSet();
+			this.disposition = entity.getDisposition();
+			this.encodings = Collections.unmodifiableList(new ArrayList<Encoding>(entity.getEncodings()));
+			this.expirationDate = entity.getExpirationDate();
+			this.languages = Collections.unmodifiableList(new ArrayList<Language>(entity.getLanguages()));
+			this.locationRef = entity.getLocationRef();
+			this.mediaType = entity.getMediaType();
+			this.modificationDate = entity.getModificationDate();
+			this.tag = entity.getTag();
+		}
+	}
+
+	/**
+	 * Returns the current age of the entry in milliseconds.
+	 * 
+	 * @param now The current time.
+	 * @return The current age of the entry in milliseconds.
+	 */
+	public long getAge(long now) {
+		return Math.max(0, now - this.responseTime);
+	}
+
+	/**
+	 * Returns the cache directives of the response.
+	 * 
+	 * @return The cache directives of the response.
+	 */
+	public List<CacheDirective> getCacheDirectives() {
+		return this.cacheDirectives;
+	}
+
+	/**
+	 * Returns the dimensions of the response.
+	 * 
+	 * @return The dimensions of the response.
+	 */
+	public Set<Dimension> getDimensions() {
+		return this.dimensions;
+	}
+
+	/**
+	 * Returns the freshness lifetime in milliseconds.
+	 * 
+	 * @return The freshness lifetime in milliseconds.
+	 */
+	public long getFreshnessLifetime() {
+		return this.freshnessLifetime;
+	}
+
+	/**
+	 * Returns the modification date of the entity.
+	 * 
+	 * @return The modification date of the entity.
+	 */
+	public Date getModificationDate() {
+		return this.modificationDate;
+	}
+
+	/**
+	 * Returns the time of the response, in milliseconds.
+	 * 
+	 * @return The time of the response, in milliseconds.
+	 */
+	public long getResponseTime() {
+		return this.responseTime;
+	}
+
+	/**
+	 * Returns the approximate memory size of the entry, in bytes.
+	 * 
+	 * @return The approximate memory size of the entry.
+	 */
+	public long getSize() {
+		return ((this.content == null) ? 0 : this.content.length) + 512L;
+	}
+
+	/**
+	 * Returns the status of the response.
+	 * 
+	 * @return The status of the response.
+	 */
+	public Status getStatus() {
+		return this.status;
+	}
+
+	/**
+	 * Returns the tag of the entity.
+	 * 
+	 * @return The tag of the entity.
+	 */
+	public Tag getTag() {
+		return this.tag;
+	}
+
+	/**
+	 * Indicates if the response has the given cache directive.
+	 * 
+	 * @param name The name of the cache directive.
+	 * @return True if the response has the given cache directive.
+	 */
+	public boolean hasCacheDirective(String name) {
+		for (CacheDirective directive : this.cacheDirectives) {
+			if (name.equals(directive.getName())) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Indicates if the entity has a tag or a modification date that can be used
+	 * to revalidate the entry.
+	 * 
+	 * @return True if the entity has validators.
+	 */
+	public boolean hasValidators() {
+		return (this.tag != null) || (this.modificationDate != null);
+	}
+
+	/**
+	 * Indicates if the entry is fresh.
+	 * 
+	 * @param now The current time.
+	 * @return True if the entry is fresh.
+	 */
+	public boolean isFresh(long now) {
+		return getAge(now) < this.freshnessLifetime;
+	}
+
+	/**
+	 * Indicates if the entry was stored for the same values of the response
+	 * dimensions as the given request.
+	 * 
+	 * @param request The request.
+	 * @return True if the entry matches the request.
+	 */
+	public boolean matches(Request request) {
+		for (Dimension dimension : this.dimensions) {
+			String value = getDimensionValue(dimension, request);
+
+			if ((value == null) ? this.dimensionValues.containsKey(dimension)
+					: !value.equals(this.dimensionValues.get(dimension))) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Indicates if the entry was stored for the same values of the response
+	 * dimensions as the other entry.
+	 * 
+	 * @param entry The other entry.
+	 * @return True if the entries select the same variant.
+	 */
+	public boolean matches(CacheEntry entry) {
+		return this.dimensions.equals(entry.dimensions) && this.dimensionValues.equals(entry.dimensionValues);
+	}
+
+	/**
+	 * Updates the freshness of the entry after a successful revalidation.
+	 * 
+	 * @param freshnessLifetime The new freshness lifetime in milliseconds.
+	 * @param responseTime      The time of the revalidation response.
+	 */
+	public void revalidated(long freshnessLifetime, long responseTime) {
+		this.freshnessLifetime = freshnessLifetime;
+		this.responseTime = responseTime;
+	}
+
+	/**
+	 * Returns a new representation of the stored entity, or null if there is no
+	 * entity.
+	 * 
+	 * @return A new representation of the stored entity or null.
+	 */
+	public Representation toRepresentation() {
+		Representation result = null;
+
+		if (this.content != null) {
+			result = (this.content.length == 0) ? new EmptyRepresentation()
+					: new ByteArrayRepresentation(this.content, this.mediaType, this.content.length);
+			result.setMediaType(this.mediaType);
+			result.setCharacterSet(this.characterSet);
+			result.setDisposition(this.disposition);
+			result.getEncodings().addAll(this.encodings);
+			result.getLanguages().addAll(this.languages);
+			result.setLocationRef(this.locationRef);
+			result.setModificationDate(this.modificationDate);
+			result.setExpirationDate(this.expirationDate);
+			result.setTag(this.tag);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Updates a response with the stored status, entity and headers.
+	 * 
+	 * @param response The response to update.
+	 * @param now      The current time.
+	 */
+	public void updateResponse(Response response, long now) {
+		response.setStatus(this.status);
+		response.setEntity(toRepresentation());
+		response.setCacheDirectives(new ArrayList<CacheDirective>(this.cacheDirectives));
+		response.getDimensions().clear();
+		response.getDimensions().addAll(this.dimensions);
+		response.setAge((int) (getAge(now) / 1000L));
+
+		if (!this.headers.isEmpty()) {
+			Series<Header> responseHeaders = response.getHeaders();
+
+			for (Header header : this.headers) {
+				responseHeaders.add(header);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,498 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.cache;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.logging.Level;
+
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.CacheDirective;
+import org.restlet.data.Conditions;
+import org.restlet.data.Dimension;
+import org.restlet.data.Method;
+import org.restlet.data.Reference;
+import org.restlet.data.Status;
+import org.restlet.engine.header.HeaderConstants;
+import org.restlet.engine.io.BoundedOutputStream;
+import org.restlet.representation.Representation;
+import org.restlet.routing.Filter;
+
+/**
+ * Filter caching responses according to their cache directives, expiration
+ * dates and dimensions, as specified by RFC 9111. Fresh responses are served
+ * without invoking the next Restlet, stale responses with validators are
+ * revalidated with a conditional request, and conditional requests are
+ * answered using the validators of the stored responses.<br>
+ * <br>
+ * A shared cache, for example on the server side or attached to a
+ * {@link org.restlet.Client}, doesn't store responses marked as private,
+ * responses setting cookies or responses to authenticated requests unless
+ * they are explicitly public. It also honors the "s-maxage" directive. A
+ * private cache, for example attached to a
+ * {@link org.restlet.resource.ClientResource}, stores them as well.<br>
+ * <br>
+ * Responses that aren't automatically committed, for example by asynchronous
+ * resources, are not stored as they are only completed later.<br>
+ * <br>
+ * Concurrency note: instances of this class or its subclasses can be invoked
+ * by several threads at the same time and therefore must be thread-safe.
+ * 
+ * @author Jerome Louvel
+ */
+public class CacheFilter extends Filter {
+
+	/** The default maximum size of a stored entity, 1 MB. */
+	public static final long DEFAULT_MAX_ENTRY_SIZE = 1024L * 1024;
+
+	/**
+	 * Returns the key of the resource targeted by a request.
+	 * 
+	 * @param request The request.
+	 * @return The key of the resource.
+	 */
+	public static String getKey(Request request) {
+		return request.getResourceRef().getTargetRef().toString(true, false);
+	}
+
+	/** The maximum size of a stored entity. */
+	private final long maxEntrySize;
+
+	/** Indicates if the cache is shared by several users. */
+	private final boolean shared;
+
+	/** The store of the cached responses. */
+	private final CacheStore store;
+
+	/**
+	 * Constructor. Stores entities up to {@link #DEFAULT_MAX_ENTRY_SIZE}.
+	 * 
+	 * @param context The context.
+	 * @param store   The store of the cached responses.
+	 * @param shared  Indicates if the cache is shared by several users.
+	 */
+	public CacheFilter(Context context, CacheStore store, boolean shared) {
+		this(context, store, shared, DEFAULT_MAX_ENTRY_SIZE);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param context      The context.
+	 * @param store        The store of the cached responses.
+	 * @param shared       Indicates if the cache is shared by several users.
+	 * @param maxEntrySize The maximum size of a stored entity.
+	 */
+	public CacheFilter(Context context, CacheStore store, boolean shared, long maxEntrySize) {
+		super(context);
+		this.store = store;
+		this.shared = shared;
+		this.maxEntrySize = maxEntrySize;
+	}
+
+	/**
+	 * Applies the request conditions to a response built without them.
+	 * 
+	 * @param conditions The request conditions.
+	 * @param method     The request method.
+	 * @param response   The response to update.
+	 */
+	private void applyConditions(Conditions conditions, Method method, Response response) {
+		if (conditions.hasSome() && response.getStatus().isSuccess()) {
+			Representation entity = response.getEntity();
+			Status status = (entity == null) ? conditions.getStatus(method, false, null, null)
+					: conditions.getStatus(method, entity);
+
+			if (status != null) {
+				response.setStatus(status);
+
+				if (status.isError()) {
+					response.setEntity(null);
+				}
+			}
+		}
+	}
+
+	@Override
+	protected int doHandle(Request request, Response response) {
+		Method method = request.getMethod();
+
+		if (!Method.GET.equals(method) && !Method.HEAD.equals(method)) {
+			int result = super.doHandle(request, response);
+
+			if (!method.isSafe() && (response.getStatus().isSuccess() || response.getStatus().isRedirection())) {
+				invalidate(request, response);
+			}
+
+			return result;
+		}
+
+		if (!request.isSynchronous()
+				|| hasCacheDirective(request.getCacheDirectives(), HeaderConstants.CACHE_NO_STORE)) {
+			// Asynchronous responses can't be inspected once handled
+			return super.doHandle(request, response);
+		}
+
+		String key = getKey(request);
+		CacheEntry entry = select(getStore().get(key), request);
+
+		if ((entry != null) && isFresh(entry, request, System.currentTimeMillis())) {
+			serve(entry, request, response, System.currentTimeMillis());
+			return CONTINUE;
+		}
+
+		if (hasCacheDirective(request.getCacheDirectives(), HeaderConstants.CACHE_ONLY_IF_CACHED)) {
+			response.setStatus(Status.SERVER_ERROR_GATEWAY_TIMEOUT);
+			return CONTINUE;
+		}
+
+		Conditions conditions = request.getConditions();
+		int result;
+
+		if ((entry != null) && entry.hasValidators()) {
+			// Revalidate the stored response with its own validators
+			Conditions validators = new Conditions();
+
+			if (entry.getTag() != null) {
+				validators.getNoneMatch().add(entry.getTag());
+			} else {
+				validators.setModifiedSince(entry.getModificationDate());
+			}
+
+			request.setConditions(validators);
+
+			try {
+				result = super.doHandle(request, response);
+			} finally {
+				request.setConditions(conditions);
+			}
+
+			if (!response.isAutoCommitting()) {
+				// Suspended, the response will only be completed later
+				return result;
+			}
+
+			long now = System.currentTimeMillis();
+
+			if (Status.REDIRECTION_NOT_MODIFIED.equals(response.getStatus())) {
+				entry.revalidated(getFreshnessLifetime(entry, response, now), now);
+				serve(entry, request, response, now);
+			} else if ((entry = store(key, request, response, now)) != null) {
+				serve(entry, request, response, now);
+			} else {
+				applyConditions(conditions, method, response);
+			}
+		} else {
+			result = super.doHandle(request, response);
+			long now = System.currentTimeMillis();
+
+			if (response.isAutoCommitting() && !conditions.hasSome()
+					&& ((entry = store(key, request, response, now)) != null)) {
+				serve(entry, request, response, now);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the freshness lifetime of a revalidated entry. The directives of the
+	 * revalidation response prevail, otherwise the ones of the stored response
+	 * are used.
+	 * 
+	 * @param entry    The revalidated entry.
+	 * @param response The revalidation response.
+	 * @param now      The current time.
+	 * @return The new freshness lifetime in milliseconds.
+	 */
+	private long getFreshnessLifetime(CacheEntry entry, Response response, long now) {
+		if (hasCacheDirective(response.getCacheDirectives(), HeaderConstants.CACHE_NO_CACHE)
+				|| entry.hasCacheDirective(HeaderConstants.CACHE_NO_CACHE)) {
+			return 0;
+		}
+
+		if (response.getCacheDirectives().isEmpty()
+				&& ((response.getEntity() == null) || (response.getEntity().getExpirationDate() == null))) {
+			return entry.getFreshnessLifetime();
+		}
+
+		return CacheEntry.getFreshnessLifetime(response, isShared(), now);
+	}
+
+	/**
+	 * Returns the maximum size of a stored entity.
+	 * 
+	 * @return The maximum size of a stored entity.
+	 */
+	public long getMaxEntrySize() {
+		return this.maxEntrySize;
+	}
+
+	/**
+	 * Returns the store of the cached responses.
+	 * 
+	 * @return The store of the cached responses.
+	 */
+	public CacheStore getStore() {
+		return this.store;
+	}
+
+	/**
+	 * Returns the value in seconds of a cache directive, or -1 if it is absent or
+	 * has no numeric value.
+	 * 
+	 * @param directives The cache directives.
+	 * @param name       The name of the directive.
+	 * @return The value of the directive in seconds or -1.
+	 */
+	private long getSeconds(List<CacheDirective> directives, String name) {
+		for (CacheDirective directive : directives) {
+			if (name.equals(directive.getName())) {
+				try {
+					return (directive.getValue() == null) ? Long.MAX_VALUE / 1000L
+							: Long.parseLong(directive.getValue().trim());
+				} catch (NumberFormatException nfe) {
+					return -1;
+				}
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Indicates if a list of cache directives contains the given directive.
+	 * 
+	 * @param directives The cache directives.
+	 * @param name       The name of the directive.
+	 * @return True if the list contains the directive.
+	 */
+	private boolean hasCacheDirective(List<CacheDirective> directives, String name) {
+		for (CacheDirective directive : directives) {
+			if (name.equals(directive.getName())) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Invalidates the responses stored for the resource targeted by an unsafe
+	 * request, and for the locations given by its response.
+	 * 
+	 * @param request  The unsafe request.
+	 * @param response The response.
+	 */
+	protected void invalidate(Request request, Response response) {
+		getStore().remove(getKey(request));
+
+		if (response.getLocationRef() != null) {
+			getStore().remove(new Reference(request.getResourceRef(), response.getLocationRef()).getTargetRef()
+					.toString(true, false));
+		}
+
+		if ((response.getEntity() != null) && (response.getEntity().getLocationRef() != null)) {
+			getStore().remove(new Reference(request.getResourceRef(), response.getEntity().getLocationRef())
+					.getTargetRef().toString(true, false));
+		}
+	}
+
+	/**
+	 * Indicates if a stored entry can be served without revalidation, taking the
+	 * request directives into account.
+	 * 
+	 * @param entry   The stored entry.
+	 * @param request The request.
+	 * @param now     The current time.
+	 * @return True if the entry can be served without revalidation.
+	 */
+	protected boolean isFresh(CacheEntry entry, Request request, long now) {
+		List<CacheDirective> directives = request.getCacheDirectives();
+
+		if (hasCacheDirective(directives, HeaderConstants.CACHE_NO_CACHE)
+				|| entry.hasCacheDirective(HeaderConstants.CACHE_NO_CACHE)) {
+			return false;
+		}
+
+		long age = entry.getAge(now) / 1000L;
+		long lifetime = entry.getFreshnessLifetime() / 1000L;
+		long maxAge = getSeconds(directives, HeaderConstants.CACHE_MAX_AGE);
+		long minFresh = getSeconds(directives, HeaderConstants.CACHE_MIN_FRESH);
+		long maxStale = getSeconds(directives, HeaderConstants.CACHE_MAX_STALE);
+
+		if ((maxAge >= 0) && (age > maxAge)) {
+			return false;
+		}
+
+		if ((minFresh >= 0) && (lifetime - age < minFresh)) {
+			return false;
+		}
+
+		if (entry.isFresh(now)) {
+			return true;
+		}
+
+		return (maxStale >= 0) && !entry.hasCacheDirective(HeaderConstants.CACHE_MUST_REVALIDATE)
+				&& !(isShared() && entry.hasCacheDirective(HeaderConstants.CACHE_PROXY_MUST_REVALIDATE))
+				&& (age - lifetime <= maxStale);
+	}
+
+	/**
+	 * Indicates if the cache is shared by several users.
+	 * 
+	 * @return True if the cache is shared by several users.
+	 */
+	public boolean isShared() {
+		return this.shared;
+	}
+
+	/**
+	 * Indicates if a response can be stored.
+	 * 
+	 * @param request  The request.
+	 * @param response The response.
+	 * @return True if the response can be stored.
+	 */
+	protected boolean isStorable(Request request, Response response) {
+		Status status = response.getStatus();
+
+		if (!Method.GET.equals(request.getMethod()) || !(Status.SUCCESS_OK.equals(status)
+				|| Status.SUCCESS_NON_AUTHORITATIVE.equals(status) || Status.SUCCESS_NO_CONTENT.equals(status)
+				|| Status.REDIRECTION_MULTIPLE_CHOICES.equals(status)
+				|| Status.REDIRECTION_PERMANENT.equals(status) || Status.CLIENT_ERROR_NOT_FOUND.equals(status)
+				|| Status.CLIENT_ERROR_GONE.equals(status))) {
+			return false;
+		}
+
+		List<CacheDirective> directives = response.getCacheDirectives();
+
+		if (hasCacheDirective(directives, HeaderConstants.CACHE_NO_STORE)
+				|| hasCacheDirective(request.getCacheDirectives(), HeaderConstants.CACHE_NO_STORE)) {
+			return false;
+		}
+
+		for (Dimension dimension : response.getDimensions()) {
+			if ((dimension == Dimension.UNSPECIFIED) || (dimension == Dimension.AUTHORIZATION)
+					|| (dimension == Dimension.TIME)) {
+				return false;
+			}
+		}
+
+		if (isShared()) {
+			if (hasCacheDirective(directives, HeaderConstants.CACHE_PRIVATE)
+					|| !response.getCookieSettings().isEmpty()) {
+				return false;
+			}
+
+			if ((request.getChallengeResponse() != null) && !hasCacheDirective(directives, HeaderConstants.CACHE_PUBLIC)
+					&& !hasCacheDirective(directives, HeaderConstants.CACHE_SHARED_MAX_AGE)
+					&& !hasCacheDirective(directives, HeaderConstants.CACHE_MUST_REVALIDATE)) {
+				return false;
+			}
+		}
+
+		Representation entity = response.getEntity();
+
+		if ((entity != null) && (!entity.isAvailable() || (entity.getRange() != null)
+				|| (entity.getSize() > getMaxEntrySize())
+				|| ((entity.getSize() == Representation.UNKNOWN_SIZE) && entity.isTransient()))) {
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Selects the stored entry matching the dimensions of the request.
+	 * 
+	 * @param entries The entries stored for the resource.
+	 * @param request The request.
+	 * @return The matching entry or null.
+	 */
+	private CacheEntry select(List<CacheEntry> entries, Request request) {
+		for (CacheEntry entry : entries) {
+			if (entry.matches(request)) {
+				return entry;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Updates a response with a stored entry and applies the request conditions
+	 * using the stored validators.
+	 * 
+	 * @param entry    The stored entry.
+	 * @param request  The request.
+	 * @param response The response to update.
+	 * @param now      The current time.
+	 */
+	protected void serve(CacheEntry entry, Request request, Response response, long now) {
+		entry.updateResponse(response, now);
+
+		if (entry.getStatus().isSuccess()) {
+			applyConditions(request.getConditions(), request.getMethod(), response);
+		}
+	}
+
+	/**
+	 * Stores a response if possible. The response entity is buffered in memory.
+	 * 
+	 * @param key      The key of the resource.
+	 * @param request  The request.
+	 * @param response The response.
+	 * @param now      The time of the response.
+	 * @return The stored entry or null.
+	 */
+	protected CacheEntry store(String key, Request request, Response response, long now) {
+		if (!isStorable(request, response)) {
+			return null;
+		}
+
+		long lifetime = hasCacheDirective(response.getCacheDirectives(), HeaderConstants.CACHE_NO_CACHE) ? 0
+				: CacheEntry.getFreshnessLifetime(response, isShared(), now);
+		Representation entity = response.getEntity();
+		boolean validators = (entity != null) && ((entity.getTag() != null) || (entity.getModificationDate() != null));
+
+		if ((lifetime <= 0) && !validators) {
+			return null;
+		}
+
+		byte[] content = null;
+
+		if (entity != null) {
+			BoundedOutputStream bos = new BoundedOutputStream(getMaxEntrySize());
+
+			try {
+				entity.write(bos);
+				content = bos.toByteArray();
+			} catch (IOException ioe) {
+				if (bos.isOverflowed()) {
+					// Too large, the entity isn't transient and can be written again
+					return null;
+				}
+
+				getLogger().log(Level.FINE, "Unable to buffer the entity to cache", ioe);
+				response.setStatus(Status.SERVER_ERROR_INTERNAL, ioe);
+				response.setEntity(null);
+				return null;
+			}
+		}
+
+		CacheEntry result = new CacheEntry(request, response, content, lifetime, now);
+		getStore().put(key, result);
+		return result;
+	}
+
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.cache;
+
+import java.util.List;
+
+/**
+ * Storage of the responses kept by a cache. Each key identifies a resource and
+ * can be associated to several entries, one per variant selected by the
+ * dimensions of the responses.<br>
+ * <br>
+ * Concurrency note: implementations must be thread-safe.
+ * 
+ * @author Jerome Louvel
+ * @see MemoryCacheStore
+ */
+public interface CacheStore {
+
+	/**
+	 * Removes all the entries.
+	 */
+	void clear();
+
+	/**
+	 * Returns the entries stored for the given key.
+	 * 
+	 * @param key The key of the resource.
+	 * @return The entries stored for the given key, possibly empty.
+	 */
+	List<CacheEntry> get(String key);
+
+	/**
+	 * Stores an entry for the given key. It replaces the entry previously stored
+	 * for the same variant, if any.
+	 * 
+	 * @param key   The key of the resource.
+	 * @param entry The entry to store.
+	 * @see CacheEntry#matches(CacheEntry)
+	 */
+	void put(String key, CacheEntry entry);
+
+	/**
+	 * Removes all the entries stored for the given key.
+	 * 
+	 * @param key The key of the resource.
+	 */
+	void remove(String key);
+
+}
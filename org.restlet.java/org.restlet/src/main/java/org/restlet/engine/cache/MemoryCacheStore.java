@@ -0,0 +1,249 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded in-memory cache store. When the total size of the entries exceeds
+ * the budget, the least recently used resources are evicted first, then the
+ * oldest variants of the stored resource. The number of variants stored per
+ * resource is also bounded, as they depend on headers controlled by the
+ * clients, such as Accept or Accept-Language. Entries that are no longer fresh are evicted when accessed, unless they have
+ * validators allowing their revalidation, and entries that stayed stale for
+ * longer than the retention delay are always evicted.<br>
+ * <br>
+ * Concurrency note: instances of this class can be shared by several threads.
+ * 
+ * @author Jerome Louvel
+ */
+public class MemoryCacheStore implements CacheStore {
+
+	/** The entries by key, in access order. */
+	private final LinkedHashMap<String, List<CacheEntry>> entries;
+
+	/** The maximum size of an entry. */
+	private final long maxEntrySize;
+
+	/** The maximum total size of the entries. */
+	private final long maxSize;
+
+	/** The maximum number of variants stored per resource. */
+	private final int maxVariants;
+
+	/** The delay during which stale entries with validators are retained. */
+	private final long retention;
+
+	/** The current total size of the entries. */
+	private long size;
+
+	/**
+	 * Constructor. Stores up to 16 MB of entries of at most 1 MB each, up to 16
+	 * variants per resource, and retains stale entries for one hour.
+	 */
+	public MemoryCacheStore() {
+		this(16L * 1024 * 1024, 1024L * 1024, 3600000L);
+	}
+
+	/**
+	 * Constructor. Stores up to 16 variants per resource.
+	 * 
+	 * @param maxSize      The maximum total size of the entries.
+	 * @param maxEntrySize The maximum size of an entry.
+	 * @param retention    The delay in milliseconds during which stale entries
+	 *                     with validators are retained.
+	 */
+	public MemoryCacheStore(long maxSize, long maxEntrySize, long retention) {
+		this(maxSize, maxEntrySize, 16, retention);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param maxSize      The maximum total size of the entries.
+	 * @param maxEntrySize The maximum size of an entry.
+	 * @param maxVariants  The maximum number of variants stored per resource.
+	 * @param retention    The delay in milliseconds during which stale entries
+	 *                     with validators are retained.
+	 */
+	public MemoryCacheStore(long maxSize, long maxEntrySize, int maxVariants, long retention) {
+		this.entries = new LinkedHashMap<String, List<CacheEntry>>(16, 0.75f, true);
+		this.maxSize = maxSize;
+		this.maxEntrySize = maxEntrySize;
+		this.maxVariants = maxVariants;
+		this.retention = retention;
+		this.size = 0;
+	}
+
+	@Override
+	public synchronized void clear() {
+		this.entries.clear();
+		this.size = 0;
+	}
+
+	@Override
+	public synchronized List<CacheEntry> get(String key) {
+		List<CacheEntry> list = this.entries.get(key);
+
+		if (list == null) {
+			return Collections.emptyList();
+		}
+
+		long now = System.currentTimeMillis();
+
+		for (Iterator<CacheEntry> iter = list.iterator(); iter.hasNext();) {
+			CacheEntry entry = iter.next();
+
+			if (isExpired(entry, now)) {
+				this.size -= entry.getSize();
+				iter.remove();
+			}
+		}
+
+		if (list.isEmpty()) {
+			this.entries.remove(key);
+			return Collections.emptyList();
+		}
+
+		return new ArrayList<CacheEntry>(list);
+	}
+
+	/**
+	 * Returns the maximum size of an entry. Larger entries aren't stored.
+	 * 
+	 * @return The maximum size of an entry.
+	 */
+	public long getMaxEntrySize() {
+		return this.maxEntrySize;
+	}
+
+	/**
+	 * Returns the maximum total size of the entries.
+	 * 
+	 * @return The maximum total size of the entries.
+	 */
+	public long getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * Returns the maximum number of variants stored per resource. The oldest
+	 * variants are evicted first.
+	 * 
+	 * @return The maximum number of variants stored per resource.
+	 */
+	public int getMaxVariants() {
+		return this.maxVariants;
+	}
+
+	/**
+	 * Returns the delay in milliseconds during which stale entries with validators
+	 * are retained.
+	 * 
+	 * @return The retention delay of stale entries in milliseconds.
+	 */
+	public long getRetention() {
+		return this.retention;
+	}
+
+	/**
+	 * Returns the current total size of the entries.
+	 * 
+	 * @return The current total size of the entries.
+	 */
+	public synchronized long getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Indicates if an entry should be evicted because it is stale.
+	 * 
+	 * @param entry The entry to test.
+	 * @param now   The current time.
+	 * @return True if the entry should be evicted.
+	 */
+	private boolean isExpired(CacheEntry entry, long now) {
+		return !entry.isFresh(now) && (!entry.hasValidators()
+				|| (entry.getAge(now) - entry.getFreshnessLifetime() > this.retention));
+	}
+
+	@Override
+	public synchronized void put(String key, CacheEntry entry) {
+		if (entry.getSize() > this.maxEntrySize) {
+			remove(key);
+			return;
+		}
+
+		List<CacheEntry> list = this.entries.get(key);
+
+		if (list == null) {
+			list = new ArrayList<CacheEntry>(1);
+			this.entries.put(key, list);
+		} else {
+			for (Iterator<CacheEntry> iter = list.iterator(); iter.hasNext();) {
+				CacheEntry previous = iter.next();
+
+				if (previous.matches(entry)) {
+					this.size -= previous.getSize();
+					iter.remove();
+				}
+			}
+		}
+
+		list.add(entry);
+		this.size += entry.getSize();
+
+		// Evict the oldest variants of the resource
+		while (list.size() > this.maxVariants) {
+			this.size -= list.remove(0).getSize();
+		}
+
+		// Evict the least recently used resources
+		for (Iterator<Map.Entry<String, List<CacheEntry>>> iter = this.entries.entrySet().iterator(); (this.size > this.maxSize)
+				&& iter.hasNext();) {
+			Map.Entry<String, List<CacheEntry>> eldest = iter.next();
+
+			if (eldest.getValue() != list) {
+				for (CacheEntry evicted : eldest.getValue()) {
+					this.size -= evicted.getSize();
+				}
+
+				iter.remove();
+			}
+		}
+
+		// Then the oldest variants of the resource, except the stored one
+		for (Iterator<CacheEntry> iter = list.iterator(); (this.size > this.maxSize) && iter.hasNext();) {
+			CacheEntry evicted = iter.next();
+
+			if (evicted != entry) {
+				this.size -= evicted.getSize();
+				iter.remove();
+			}
+		}
+	}
+
+	@Override
+	public synchronized void remove(String key) {
+		List<CacheEntry> list = this.entries.remove(key);
+
+		if (list != null) {
+			for (CacheEntry entry : list) {
+				this.size -= entry.getSize();
+			}
+		}
+	}
+
+}
@@ -125,6 +125,27 @@ public class HttpExchangeCall extends ServerCall {
 		return this.exchange.getResponseBody();
 	}
 
+	/**
+	 * Indicates if the call can be suspended.
+	 * 
+	 * @return True.
+	 */
+	@Override
+	public boolean isSuspendable() {
+		return true;
+	}
+
+	/**
+	 * Suspends the call. The exchange stays open until the response is sent,
+	 * whatever the thread sending it.
+	 *
+	 * @return True.
+	 */
+	@Override
+	public boolean suspend() {
+		return true;
+	}
+
 	@Override
 	public void writeResponseHead(org.restlet.Response restletResponse) throws IOException {
 		final Headers headers = this.exchange.getResponseHeaders();
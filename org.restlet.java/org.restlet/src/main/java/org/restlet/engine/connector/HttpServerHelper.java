@@ -65,7 +65,7 @@ public class HttpServerHelper extends NetServerHelper {
 			}
 		});
 		// creates a default executor
-		server.setExecutor(createThreadPool());
+		server.setExecutor(createExecutorService());
 		server.start();
 
 		setConfidential(false);
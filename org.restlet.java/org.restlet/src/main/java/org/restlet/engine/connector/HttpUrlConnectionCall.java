@@ -345,7 +345,11 @@ public class HttpUrlConnectionCall extends ClientCall {
 	@Override
 	public void sendRequest(Request request, Response response, Uniform callback) throws Exception {
 		// Send the request
-		sendRequest(request);
+		Status status = sendRequest(request);
+
+		if ((status != null) && status.isConnectorError()) {
+			response.setStatus(status);
+		}
 
 		if (request.getOnSent() != null) {
 			request.getOnSent().handle(request, response);
@@ -12,6 +12,7 @@ package org.restlet.engine.connector;
 import java.net.InetSocketAddress;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.SynchronousQueue;
@@ -21,6 +22,7 @@ import java.util.concurrent.TimeUnit;
 import org.restlet.Server;
 import org.restlet.engine.adapter.HttpServerHelper;
 import org.restlet.engine.log.LoggingThreadFactory;
+import org.restlet.engine.util.ThreadUtils;
 
 /**
  * Abstract Internal web server connector based on com.sun.net.httpserver
@@ -71,6 +73,15 @@ import org.restlet.engine.log.LoggingThreadFactory;
  * <td>Time for an idle thread to wait for an operation before being
  * collected.</td>
  * </tr>
+ * <tr>
+ * <td>virtualThreads</td>
+ * <td>boolean</td>
+ * <td>false</td>
+ * <td>Indicates if each call should be serviced by a new virtual thread
+ * instead of a bounded pool of worker threads. Requires Java 21 or later,
+ * otherwise the pool of worker threads is used. The default value can be
+ * changed via the "org.restlet.engine.virtualThreads" system property.</td>
+ * </tr>
  * </table>
  * 
  * @author Jerome Louvel
@@ -86,6 +97,11 @@ public abstract class NetServerHelper extends HttpServerHelper {
 	 */
 	private volatile boolean confidential;
 
+	/**
+	 * The executor service handling the calls.
+	 */
+	private volatile ExecutorService executorService;
+
 	/**
 	 * Constructor.
 	 * 
@@ -95,6 +111,28 @@ public abstract class NetServerHelper extends HttpServerHelper {
 		super(server);
 	}
 
+	/**
+	 * Creates the executor service handling the calls. In the virtual threads
+	 * mode, a new virtual thread is started for each call, otherwise the result
+	 * of {@link #createThreadPool()} is returned.
+	 * 
+	 * @return The executor service handling the calls.
+	 */
+	protected ExecutorService createExecutorService() {
+		ExecutorService result = null;
+
+		if (isVirtualThreads()) {
+			result = ThreadUtils.createVirtualThreadExecutor("restlet-server-");
+
+			if (result == null) {
+				getLogger().warning("Virtual threads aren't supported by the JVM, using a pool of worker threads");
+			}
+		}
+
+		this.executorService = (result == null) ? createThreadPool() : result;
+		return this.executorService;
+	}
+
 	/**
 	 * Creates the handler service.
 	 * 
@@ -127,6 +165,19 @@ public abstract class NetServerHelper extends HttpServerHelper {
 		return result;
 	}
 
+	/**
+	 * Returns the approximate number of worker threads actively servicing calls.
+	 * 
+	 * @return The approximate number of active worker threads, or -1 if the
+	 *         calls aren't serviced by a pool of worker threads.
+	 */
+	public int getActiveThreadCount() {
+		ExecutorService executorService = this.executorService;
+		return (executorService instanceof ThreadPoolExecutor)
+				? ((ThreadPoolExecutor) executorService).getActiveCount()
+				: -1;
+	}
+
 	/**
 	 * Returns the socket address this server is listening to.
 	 * 
@@ -136,6 +187,16 @@ public abstract class NetServerHelper extends HttpServerHelper {
 		return this.address;
 	}
 
+	/**
+	 * Returns the executor service handling the calls, as created by
+	 * {@link #createExecutorService()}.
+	 * 
+	 * @return The executor service handling the calls or null.
+	 */
+	public ExecutorService getExecutorService() {
+		return this.executorService;
+	}
+
 	/**
 	 * Returns the maximum number of calls that can be queued if there aren't any
 	 * worker thread available to service them. If the value is '0', then no queue
@@ -182,6 +243,32 @@ public abstract class NetServerHelper extends HttpServerHelper {
 		return Integer.parseInt(getHelpedParameters().getFirstValue("minThreads", "1"));
 	}
 
+	/**
+	 * Returns the number of calls waiting for a worker thread.
+	 * 
+	 * @return The number of queued calls, or -1 if the calls aren't serviced by a
+	 *         pool of worker threads.
+	 */
+	public int getQueuedCallCount() {
+		ExecutorService executorService = this.executorService;
+		return (executorService instanceof ThreadPoolExecutor)
+				? ((ThreadPoolExecutor) executorService).getQueue().size()
+				: -1;
+	}
+
+	/**
+	 * Returns the current number of worker threads in the pool.
+	 * 
+	 * @return The current number of worker threads, or -1 if the calls aren't
+	 *         serviced by a pool of worker threads.
+	 */
+	public int getThreadCount() {
+		ExecutorService executorService = this.executorService;
+		return (executorService instanceof ThreadPoolExecutor)
+				? ((ThreadPoolExecutor) executorService).getPoolSize()
+				: -1;
+	}
+
 	/**
 	 * Indicates if this service is acting in HTTP or HTTPS mode.
 	 * 
@@ -191,6 +278,17 @@ public abstract class NetServerHelper extends HttpServerHelper {
 		return this.confidential;
 	}
 
+	/**
+	 * Indicates if each call is serviced by a new virtual thread when supported
+	 * by the JVM.
+	 * 
+	 * @return True if each call is serviced by a new virtual thread.
+	 */
+	public boolean isVirtualThreads() {
+		return Boolean.parseBoolean(getHelpedParameters().getFirstValue("virtualThreads",
+				Boolean.toString(ThreadUtils.isVirtualThreadsDefault())));
+	}
+
 	/**
 	 * Sets the socket address this server is listening to.
 	 * 
@@ -212,6 +310,12 @@ public abstract class NetServerHelper extends HttpServerHelper {
 	@Override
 	public synchronized void start() throws Exception {
 		super.start();
+
+		// Expose the helper, for example to report the worker threads usage
+		if (getHelped().getContext() != null) {
+			getHelped().getContext().getAttributes().putIfAbsent(ATTRIBUTE_NAME, this);
+		}
+
 		getLogger().info("Starting the internal " + getProtocols() + " server on port " + getHelped().getPort());
 	}
 
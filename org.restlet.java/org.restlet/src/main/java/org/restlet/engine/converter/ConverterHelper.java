@@ -131,6 +131,20 @@ public abstract class ConverterHelper extends Helper {
 		return addVariants(sourceClass, targetVariant, null);
 	}
 
+	/**
+	 * Indicates if the scores computed by this helper can be cached. This is the
+	 * case when they only depend on the class of the source object or
+	 * representation, on the metadata of the source or target variant, on the
+	 * target class and on the class of the calling resource, which is true by
+	 * default. Helpers looking at other properties, such as the actual value of
+	 * the source object, must return false.
+	 * 
+	 * @return True if the scores computed by this helper can be cached.
+	 */
+	public boolean isScoreCacheable() {
+		return true;
+	}
+
 	/**
 	 * Scores the affinity of this helper with the source class.
 	 * 
@@ -10,23 +10,194 @@
 package org.restlet.engine.converter;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 
 import org.restlet.Context;
+import org.restlet.data.CharacterSet;
+import org.restlet.data.Encoding;
+import org.restlet.data.Language;
+import org.restlet.data.MediaType;
 import org.restlet.engine.Engine;
+import org.restlet.engine.util.SystemUtils;
 import org.restlet.engine.resource.VariantInfo;
 import org.restlet.representation.Representation;
 import org.restlet.representation.Variant;
 import org.restlet.resource.Resource;
 
 /**
- * Utilities for the converter service.
+ * Utilities for the converter service. The converter helpers selected by the
+ * getBestHelper() methods are cached, based on the classes and metadata their
+ * scores depend on, until the list of registered converters changes. See
+ * {@link ConverterHelper#isScoreCacheable()}.
  * 
  * @author Jerome Louvel
  */
 public class ConverterUtils {
 
+	/**
+	 * Immutable key of a converter selection, made of the classes and metadata
+	 * the scores of cacheable converter helpers depend on.
+	 */
+	private static final class SelectionKey {
+
+		/** The character set of the variant. */
+		private final CharacterSet characterSet;
+
+		/** The encodings of the variant. */
+		private final List<Encoding> encodings;
+
+		/** The cached hash code. */
+		private final int hashCode;
+
+		/** The languages of the variant. */
+		private final List<Language> languages;
+
+		/** The media type of the variant. */
+		private final MediaType mediaType;
+
+		/** The class of the calling resource. */
+		private final Class<?> resourceClass;
+
+		/** The class of the source object or representation. */
+		private final Class<?> sourceClass;
+
+		/** The target class, for conversions to objects. */
+		private final Class<?> targetClass;
+
+		/** Indicates if there is a variant. */
+		private final boolean variant;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param sourceClass The class of the source object or representation.
+		 * @param variant     The source or target variant.
+		 * @param targetClass The target class, for conversions to objects.
+		 * @param resource    The calling resource.
+		 */
+		private SelectionKey(Class<?> sourceClass, Variant variant, Class<?> targetClass, Resource resource) {
+			this.sourceClass = sourceClass;
+			this.targetClass = targetClass;
+			this.resourceClass = (resource == null) ? null : resource.getClass();
+			this.variant = (variant != null);
+			this.characterSet = (variant == null) ? null : variant.getCharacterSet();
+			this.encodings = (variant == null) ? Collections.<Encoding>emptyList() : copy(variant.getEncodings());
+			this.languages = (variant == null) ? Collections.<Language>emptyList() : copy(variant.getLanguages());
+			this.mediaType = (variant == null) ? null : variant.getMediaType();
+			this.hashCode = SystemUtils.hashCode(sourceClass, targetClass, this.resourceClass, this.variant,
+					this.characterSet, this.encodings, this.languages, this.mediaType);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+
+			if (!(obj instanceof SelectionKey)) {
+				return false;
+			}
+
+			SelectionKey that = (SelectionKey) obj;
+			return (this.hashCode == that.hashCode) && (this.sourceClass == that.sourceClass)
+					&& (this.targetClass == that.targetClass) && (this.resourceClass == that.resourceClass)
+					&& (this.variant == that.variant) && Objects.equals(this.characterSet, that.characterSet)
+					&& this.encodings.equals(that.encodings) && this.languages.equals(that.languages)
+					&& Objects.equals(this.mediaType, that.mediaType);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
+	/**
+	 * Cache of the converter helpers selected for a given list of registered
+	 * converter helpers. The selected helpers are stored as indexes in a snapshot
+	 * of the list, -1 meaning that no helper was selected.
+	 */
+	private static final class SelectionCache {
+
+		/** Indicates if all the helpers have cacheable scores. */
+		private final boolean cacheable;
+
+		/** The registered converters. */
+		private final List<ConverterHelper> converters;
+
+		/** The snapshot of the registered converters. */
+		private final ConverterHelper[] helpers;
+
+		/** The indexes of the selected helpers. */
+		private final ConcurrentMap<SelectionKey, Integer> selections;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param converters The registered converters.
+		 */
+		private SelectionCache(List<ConverterHelper> converters) {
+			boolean allCacheable = true;
+			this.converters = converters;
+			this.helpers = converters.toArray(new ConverterHelper[0]);
+
+			for (ConverterHelper helper : this.helpers) {
+				allCacheable &= (helper == null) || helper.isScoreCacheable();
+			}
+
+			this.cacheable = allCacheable;
+			this.selections = new ConcurrentHashMap<SelectionKey, Integer>();
+		}
+
+		/**
+		 * Indicates if the cache reflects the given list of registered converters.
+		 * 
+		 * @param converters The registered converters.
+		 * @return True if the cache is up to date.
+		 */
+		private boolean isCurrent(List<ConverterHelper> converters) {
+			if ((converters != this.converters) || (converters.size() != this.helpers.length)) {
+				return false;
+			}
+
+			try {
+				for (int i = 0; i < this.helpers.length; i++) {
+					if (converters.get(i) != this.helpers[i]) {
+						return false;
+					}
+				}
+			} catch (IndexOutOfBoundsException e) {
+				// Concurrently modified
+				return false;
+			}
+
+			return true;
+		}
+	}
+
+	/** The maximum number of selections cached. */
+	private static final int MAX_SELECTIONS = 1024;
+
+	/** The current cache of selected converter helpers. */
+	private static volatile SelectionCache selectionCache;
+
+	/**
+	 * Returns a defensive copy of a metadata list, avoiding allocations for the
+	 * common empty list.
+	 * 
+	 * @param list The list to copy.
+	 * @return An independent copy of the list.
+	 */
+	private static <T> List<T> copy(List<T> list) {
+		return list.isEmpty() ? Collections.<T>emptyList() : new ArrayList<T>(list);
+	}
+
 	/**
 	 * Returns the best converter helper matching the given parameters.
 	 * 
@@ -36,11 +207,117 @@ public class ConverterUtils {
 	 * @return The matched converter helper or null.
 	 */
 	public static ConverterHelper getBestHelper(Object source, Variant target, Resource resource) {
+		List<ConverterHelper> converters = Engine.getInstance().getRegisteredConverters();
+		SelectionCache cache = getSelectionCache(converters);
+
+		if (!cache.cacheable) {
+			return scoreHelpers(converters.toArray(new ConverterHelper[0]), source, target, resource);
+		}
+
+		SelectionKey key = new SelectionKey((source == null) ? null : source.getClass(), target, null, resource);
+		Integer index = cache.selections.get(key);
+		ConverterHelper result;
+
+		if (index == null) {
+			result = scoreHelpers(cache.helpers, source, target, resource);
+			putSelection(cache, key, result);
+		} else {
+			result = (index < 0) ? null : cache.helpers[index];
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the best converter helper matching the given parameters.
+	 * 
+	 * @param <T>      The target class.
+	 * @param source   The source representation variant.
+	 * @param target   The target class.
+	 * @param resource The parent resource.
+	 * @return The matched converter helper or null.
+	 */
+	public static <T> ConverterHelper getBestHelper(Representation source, Class<T> target, Resource resource) {
+		List<ConverterHelper> converters = Engine.getInstance().getRegisteredConverters();
+		SelectionCache cache = getSelectionCache(converters);
+
+		if (!cache.cacheable) {
+			return scoreHelpers(converters.toArray(new ConverterHelper[0]), source, target, resource);
+		}
+
+		SelectionKey key = new SelectionKey((source == null) ? null : source.getClass(), source, target, resource);
+		Integer index = cache.selections.get(key);
+		ConverterHelper result;
+
+		if (index == null) {
+			result = scoreHelpers(cache.helpers, source, target, resource);
+			putSelection(cache, key, result);
+		} else {
+			result = (index < 0) ? null : cache.helpers[index];
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the cache of selected converter helpers, creating a new one if the
+	 * registered converters have changed.
+	 * 
+	 * @param converters The registered converters.
+	 * @return The up to date cache.
+	 */
+	private static SelectionCache getSelectionCache(List<ConverterHelper> converters) {
+		SelectionCache result = selectionCache;
+
+		if ((result == null) || !result.isCurrent(converters)) {
+			selectionCache = result = new SelectionCache(converters);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Remembers the converter helper selected for a given key.
+	 * 
+	 * @param cache  The cache to update.
+	 * @param key    The selection key.
+	 * @param helper The selected helper or null.
+	 */
+	private static void putSelection(SelectionCache cache, SelectionKey key, ConverterHelper helper) {
+		int index = -1;
+
+		for (int i = 0; (helper != null) && (i < cache.helpers.length); i++) {
+			if (cache.helpers[i] == helper) {
+				index = i;
+				break;
+			}
+		}
+
+		// Bound the memory used by unusual combinations of classes and
+		// variants
+		if (cache.selections.size() >= MAX_SELECTIONS) {
+			cache.selections.clear();
+		}
+
+		cache.selections.put(key, index);
+	}
+
+	/**
+	 * Scores the given converter helpers and returns the best one.
+	 * 
+	 * @param helpers  The converter helpers to score.
+	 * @param source   The object to convert to a representation.
+	 * @param target   The target representation variant.
+	 * @param resource The optional parent resource.
+	 * @return The matched converter helper or null.
+	 */
+	private static ConverterHelper scoreHelpers(ConverterHelper[] helpers, Object source, Variant target,
+			Resource resource) {
 		ConverterHelper result = null;
 		float bestScore = -1.0F;
 		float currentScore;
 
-		for (ConverterHelper ch : Engine.getInstance().getRegisteredConverters()) {
+		for (ConverterHelper ch : helpers) {
 			if (ch != null) {
 				try {
 					currentScore = ch.score(source, target, resource);
@@ -60,20 +337,22 @@ public class ConverterUtils {
 	}
 
 	/**
-	 * Returns the best converter helper matching the given parameters.
+	 * Scores the given converter helpers and returns the best one.
 	 * 
 	 * @param <T>      The target class.
+	 * @param helpers  The converter helpers to score.
 	 * @param source   The source representation variant.
 	 * @param target   The target class.
 	 * @param resource The parent resource.
 	 * @return The matched converter helper or null.
 	 */
-	public static <T> ConverterHelper getBestHelper(Representation source, Class<T> target, Resource resource) {
+	private static <T> ConverterHelper scoreHelpers(ConverterHelper[] helpers, Representation source,
+			Class<T> target, Resource resource) {
 		ConverterHelper result = null;
 		float bestScore = -1.0F;
 		float currentScore;
 
-		for (ConverterHelper ch : Engine.getInstance().getRegisteredConverters()) {
+		for (ConverterHelper ch : helpers) {
 			if (ch != null) {
 				currentScore = ch.score(source, target, resource);
 
@@ -12,6 +12,7 @@ package org.restlet.engine.header;
 import java.util.Date;
 
 import org.restlet.engine.util.DateUtils;
+import org.restlet.engine.util.HttpDateCodec;
 
 /**
  * Date header writer.
@@ -42,7 +43,7 @@ public class DateWriter {
 			return DateUtils.format(date, DateUtils.FORMAT_RFC_1036.get(0));
 		}
 
-		return DateUtils.format(date);
+		return HttpDateCodec.format(date);
 	}
 
 }
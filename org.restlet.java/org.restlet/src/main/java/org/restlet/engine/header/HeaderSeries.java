@@ -0,0 +1,362 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.header;
+
+import java.util.ArrayList;
+
+import org.restlet.data.Header;
+import org.restlet.util.Series;
+
+/**
+ * Series of headers optimized for lookups by name. Entries are stored in an
+ * unsynchronized array list, preserving the insertion order, and a small
+ * open-addressed index of the case-insensitive header names is maintained so
+ * that {@link #getFirst(String, boolean)}, {@link #getValues(String, String,
+ * boolean)} and {@link #subList(String, boolean)} don't need to scan all the
+ * headers.<br>
+ * <br>
+ * The index is rebuilt lazily after any structural modification, except for
+ * headers appended at the end which are indexed incrementally. Note that
+ * renaming a header already in the series via {@link Header#setName(String)}
+ * or replacing it via a sub-list view isn't tracked.<br>
+ * <br>
+ * Concurrency note: contrary to the default {@link Series}, this class isn't
+ * synchronized. It is intended to be filled by a single thread, typically the
+ * one handling the call in a connector, before being read.
+ * 
+ * @author Jerome Louvel
+ */
+public class HeaderSeries extends Series<Header> {
+
+	/**
+	 * Array list exposing a stamp changed by each modification.
+	 */
+	private static final class HeaderList extends ArrayList<Header> {
+
+		private static final long serialVersionUID = 1L;
+
+		/** The number of elements replaced. */
+		private int replacements;
+
+		private HeaderList(int initialCapacity) {
+			super(initialCapacity);
+		}
+
+		/**
+		 * Returns a stamp changed by each modification of the list.
+		 * 
+		 * @return The modification stamp.
+		 */
+		private int getStamp() {
+			return this.modCount + this.replacements;
+		}
+
+		@Override
+		public Header set(int index, Header element) {
+			this.replacements++;
+			return super.set(index, element);
+		}
+	}
+
+	/**
+	 * Open-addressed index of the case-insensitive header names. Each slot
+	 * references the first header with a given name, and each header references
+	 * the next one with the same name.
+	 */
+	private static final class Index {
+		/** The hash of the name of each slot. */
+		private final int[] hashes;
+
+		/** The position plus one of the first header of each slot. */
+		private final int[] heads;
+
+		/** The name of each slot. */
+		private final String[] names;
+
+		/** The position plus one of the next header with the same name. */
+		private final int[] next;
+
+		/** The number of indexed headers. */
+		private int size;
+
+		/** The number of used slots. */
+		private int slotCount;
+
+		/** The modification stamp of the list when last indexed. */
+		private int stamp;
+
+		/** The position plus one of the last header of each slot. */
+		private final int[] tails;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param headers The headers to index.
+		 */
+		private Index(HeaderList headers) {
+			int capacity = Math.max(8, 2 * headers.size());
+			int slots = Integer.highestOneBit(2 * capacity - 1) << 1;
+			this.hashes = new int[slots];
+			this.heads = new int[slots];
+			this.names = new String[slots];
+			this.tails = new int[slots];
+			this.next = new int[capacity];
+			this.size = 0;
+			this.slotCount = 0;
+
+			for (Header header : headers) {
+				add(header.getName());
+			}
+
+			this.stamp = headers.getStamp();
+		}
+
+		/**
+		 * Indexes a header added at the next position. Returns false if the
+		 * index is full and must be rebuilt.
+		 * 
+		 * @param name The header name.
+		 * @return True if the header was indexed.
+		 */
+		private boolean add(String name) {
+			if ((this.size == this.next.length) || (2 * (this.slotCount + 1) > this.heads.length)) {
+				return false;
+			}
+
+			int position = ++this.size;
+			int hash = hash(name);
+			int slot = slot(name, hash);
+
+			if (this.heads[slot] == 0) {
+				this.hashes[slot] = hash;
+				this.heads[slot] = position;
+				this.names[slot] = name;
+				this.slotCount++;
+			} else {
+				this.next[this.tails[slot] - 1] = position;
+			}
+
+			this.tails[slot] = position;
+			return true;
+		}
+
+		/**
+		 * Returns the position plus one of the first header with the given name,
+		 * ignoring case, or 0 if there is none.
+		 * 
+		 * @param name The header name.
+		 * @return The position plus one of the first header or 0.
+		 */
+		private int first(String name) {
+			return this.heads[slot(name, hash(name))];
+		}
+
+		/**
+		 * Returns the slot used by a name or the free slot where it should be
+		 * stored.
+		 * 
+		 * @param name The header name.
+		 * @param hash The hash of the name.
+		 * @return The slot.
+		 */
+		private int slot(String name, int hash) {
+			int mask = this.heads.length - 1;
+			int result = hash & mask;
+
+			while ((this.heads[result] != 0)
+					&& ((this.hashes[result] != hash) || !equalsIgnoreCase(this.names[result], name))) {
+				result = (result + 1) & mask;
+			}
+
+			return result;
+		}
+	}
+
+	/**
+	 * Indicates if two names are equal.
+	 * 
+	 * @param name1      The first name.
+	 * @param name2      The second name.
+	 * @param ignoreCase Indicates if the case should be ignored.
+	 * @return True if both names are equal.
+	 */
+	private static boolean equals(String name1, String name2, boolean ignoreCase) {
+		return ignoreCase ? equalsIgnoreCase(name1, name2)
+				: ((name1 == name2) || ((name1 != null) && name1.equals(name2)));
+	}
+
+	/**
+	 * Indicates if two names are equal, ignoring case.
+	 * 
+	 * @param name1 The first name.
+	 * @param name2 The second name.
+	 * @return True if both names are equal, ignoring case.
+	 */
+	private static boolean equalsIgnoreCase(String name1, String name2) {
+		return (name1 == name2) || ((name1 != null) && name1.equalsIgnoreCase(name2));
+	}
+
+	/**
+	 * Returns the case-insensitive hash of a header name, consistent with
+	 * {@link String#equalsIgnoreCase(String)}.
+	 * 
+	 * @param name The header name.
+	 * @return The case-insensitive hash.
+	 */
+	private static int hash(String name) {
+		int result = 0;
+
+		if (name != null) {
+			char c;
+
+			for (int i = 0; i < name.length(); i++) {
+				c = name.charAt(i);
+
+				if ((c >= 'A') && (c <= 'Z')) {
+					c = (char) (c + ('a' - 'A'));
+				} else if (c >= 128) {
+					c = Character.toLowerCase(Character.toUpperCase(c));
+				}
+
+				result = 31 * result + c;
+			}
+		}
+
+		// Spread the high bits as the table is small
+		return result ^ (result >>> 16);
+	}
+
+	/** The list of headers, also the delegate of this series. */
+	private final HeaderList headers;
+
+	/** The current index, possibly out of date. */
+	private volatile Index index;
+
+	/**
+	 * Constructor.
+	 */
+	public HeaderSeries() {
+		this(new HeaderList(16));
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param headers The list of headers.
+	 */
+	private HeaderSeries(HeaderList headers) {
+		super(Header.class, headers);
+		this.headers = headers;
+		this.index = null;
+	}
+
+	@Override
+	public boolean add(Header header) {
+		Index current = this.index;
+		boolean indexed = (current != null) && (current.stamp == this.headers.getStamp());
+		boolean result = super.add(header);
+
+		if (indexed && current.add(header.getName())) {
+			current.stamp = this.headers.getStamp();
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the index of the header names, rebuilding it if needed.
+	 * 
+	 * @return The up to date index.
+	 */
+	private Index getIndex() {
+		Index result = this.index;
+
+		if ((result == null) || (result.stamp != this.headers.getStamp())) {
+			this.index = result = new Index(this.headers);
+		}
+
+		return result;
+	}
+
+	@Override
+	public Header getFirst(String name, boolean ignoreCase) {
+		Index current = getIndex();
+		Header header;
+
+		for (int position = current.first(name); position != 0; position = current.next[position - 1]) {
+			header = this.headers.get(position - 1);
+
+			if (equals(name, header.getName(), ignoreCase)) {
+				return header;
+			}
+		}
+
+		return null;
+	}
+
+	@Override
+	public String getValues(String name, String separator, boolean ignoreCase) {
+		Index current = getIndex();
+		String result = null;
+		StringBuilder sb = null;
+		Header header;
+
+		for (int position = current.first(name); position != 0; position = current.next[position - 1]) {
+			header = this.headers.get(position - 1);
+
+			if (equals(name, header.getName(), ignoreCase)) {
+				if (sb == null) {
+					if (result == null) {
+						result = header.getValue();
+					} else {
+						sb = new StringBuilder();
+						sb.append(result).append(separator).append(header.getValue());
+					}
+				} else {
+					sb.append(separator).append(header.getValue());
+				}
+			}
+		}
+
+		if (sb != null) {
+			result = sb.toString();
+		}
+
+		return result;
+	}
+
+	@Override
+	public boolean removeAll(String name, boolean ignoreCase) {
+		return (getFirst(name, ignoreCase) != null) && super.removeAll(name, ignoreCase);
+	}
+
+	@Override
+	public boolean removeFirst(String name, boolean ignoreCase) {
+		return (getFirst(name, ignoreCase) != null) && super.removeFirst(name, ignoreCase);
+	}
+
+	@Override
+	public Series<Header> subList(String name, boolean ignoreCase) {
+		HeaderSeries result = new HeaderSeries();
+		Index current = getIndex();
+		Header header;
+
+		for (int position = current.first(name); position != 0; position = current.next[position - 1]) {
+			header = this.headers.get(position - 1);
+
+			if (equals(name, header.getName(), ignoreCase)) {
+				result.add(header);
+			}
+		}
+
+		return result;
+	}
+
+}
@@ -556,7 +556,7 @@ public class HeaderUtils {
 	 */
 	public static void keepExtensionHeadersOnly(Message message) {
 		Series<Header> headers = message.getHeaders();
-		Series<Header> extensionHeaders = new Series<Header>(Header.class);
+		Series<Header> extensionHeaders = new HeaderSeries();
 		for (Header header : headers) {
 			if (!STANDARD_HEADERS.contains(header.getName())) {
 				extensionHeaders.add(header);
@@ -0,0 +1,107 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream buffering bytes in memory up to a maximum number of bytes.
+ * Writes going beyond the limit fail with an {@link IOException} and mark the
+ * stream as overflowed, so that callers can tell this case from other I/O
+ * errors and fall back to an unbuffered processing.
+ * 
+ * @author Jerome Louvel
+ */
+public class BoundedOutputStream extends OutputStream {
+
+	/** The buffered bytes. */
+	private final ByteArrayOutputStream buffer;
+
+	/** The maximum number of bytes. */
+	private final long maxSize;
+
+	/** Indicates if a write went beyond the maximum number of bytes. */
+	private volatile boolean overflowed;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param maxSize The maximum number of bytes.
+	 */
+	public BoundedOutputStream(long maxSize) {
+		this.buffer = new ByteArrayOutputStream();
+		this.maxSize = maxSize;
+		this.overflowed = false;
+	}
+
+	/**
+	 * Checks that the given number of bytes can be buffered.
+	 * 
+	 * @param len The number of bytes to buffer.
+	 * @throws IOException If the maximum number of bytes would be exceeded.
+	 */
+	private void check(int len) throws IOException {
+		if (this.buffer.size() + (long) len > this.maxSize) {
+			this.overflowed = true;
+			throw new IOException("Unable to buffer more than " + this.maxSize + " bytes");
+		}
+	}
+
+	/**
+	 * Returns the maximum number of bytes.
+	 * 
+	 * @return The maximum number of bytes.
+	 */
+	public long getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * Indicates if a write went beyond the maximum number of bytes.
+	 * 
+	 * @return True if a write went beyond the maximum number of bytes.
+	 */
+	public boolean isOverflowed() {
+		return this.overflowed;
+	}
+
+	/**
+	 * Returns the number of bytes buffered.
+	 * 
+	 * @return The number of bytes buffered.
+	 */
+	public int size() {
+		return this.buffer.size();
+	}
+
+	/**
+	 * Returns a copy of the bytes buffered.
+	 * 
+	 * @return A copy of the bytes buffered.
+	 */
+	public byte[] toByteArray() {
+		return this.buffer.toByteArray();
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		check(len);
+		this.buffer.write(b, off, len);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		check(1);
+		this.buffer.write(b);
+	}
+
+}
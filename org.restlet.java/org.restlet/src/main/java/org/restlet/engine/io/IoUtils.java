@@ -12,7 +12,9 @@ package org.restlet.engine.io;
 import static org.restlet.data.Range.isBytesRange;
 
 import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -21,8 +23,10 @@ import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channel;
 import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
@@ -33,6 +37,7 @@ import java.util.logging.Level;
 import org.restlet.Context;
 import org.restlet.data.CharacterSet;
 import org.restlet.data.Range;
+import org.restlet.engine.util.Pool;
 import org.restlet.engine.Engine;
 import org.restlet.representation.Representation;
 
@@ -54,6 +59,22 @@ public class IoUtils {
 	/** Support for byte to hexa conversions. */
 	private static final char[] HEXDIGITS = "0123456789ABCDEF".toCharArray();
 
+	/**
+	 * The pool of direct buffers used to copy file regions to channels that can't
+	 * be handed to {@link FileChannel#transferTo(long, long, WritableByteChannel)}.
+	 */
+	private static final Pool<ByteBuffer> TRANSFER_BUFFERS = new Pool<ByteBuffer>() {
+		@Override
+		protected void clear(ByteBuffer buffer) {
+			buffer.clear();
+		}
+
+		@Override
+		protected ByteBuffer createObject() {
+			return ByteBuffer.allocateDirect(BUFFER_SIZE);
+		}
+	};
+
 	/**
 	 * The number of milliseconds after which IO operation will time out. It looks
 	 * for the System property "org.restlet.engine.io.timeoutMs" and if not defined,
@@ -90,6 +111,72 @@ public class IoUtils {
 		}
 	}
 
+	/**
+	 * Transfers a region of a file channel to a writable channel, letting the
+	 * kernel copy the bytes when possible. Except for non-blocking selectable
+	 * targets, {@link FileChannel#transferTo(long, long, WritableByteChannel)} is
+	 * used, relying on system calls such as sendfile for files and sockets.
+	 * Otherwise, the region is read by chunks into a pooled direct buffer that is
+	 * written to the target. The file is never mapped in memory, so that it
+	 * doesn't stay pinned once the transfer is done. The file channel isn't
+	 * closed.
+	 * 
+	 * @param fileChannel     The source file channel.
+	 * @param position        The position of the region in the file.
+	 * @param count           The size of the region, truncated to the end of the
+	 *                        file.
+	 * @param writableChannel The target channel.
+	 * @return The number of bytes transferred.
+	 * @throws IOException
+	 */
+	public static long copy(FileChannel fileChannel, long position, long count, WritableByteChannel writableChannel)
+			throws IOException {
+		long end = position + Math.min(count, Math.max(0, fileChannel.size() - position));
+		long current = position;
+
+		if (!(writableChannel instanceof SelectableChannel) || ((SelectableChannel) writableChannel).isBlocking()) {
+			while (current < end) {
+				long transferred = fileChannel.transferTo(current, end - current, writableChannel);
+
+				if (transferred <= 0) {
+					throw new EOFException("Unexpected end of file at position " + current);
+				}
+
+				current += transferred;
+			}
+		} else if (current < end) {
+			ByteBuffer buffer = TRANSFER_BUFFERS.checkout();
+
+			try {
+				while (current < end) {
+					buffer.clear();
+
+					if (end - current < buffer.capacity()) {
+						buffer.limit((int) (end - current));
+					}
+
+					int read = fileChannel.read(buffer, current);
+
+					if (read < 0) {
+						throw new EOFException("Unexpected end of file at position " + current);
+					}
+
+					buffer.flip();
+
+					while (buffer.hasRemaining()) {
+						writableChannel.write(buffer);
+					}
+
+					current += read;
+				}
+			} finally {
+				TRANSFER_BUFFERS.checkin(buffer);
+			}
+		}
+
+		return Math.max(0, current - position);
+	}
+
 	/**
 	 * Copies an input stream to a random access file. When the reading is done, the
 	 * input stream is closed.
@@ -307,8 +394,8 @@ public class IoUtils {
 
 	/**
 	 * Returns a readable byte channel based on the given representation's content
-	 * and its write(WritableByteChannel) method. Internally, it uses a writer
-	 * thread and a pipe channel.
+	 * and its write(OutputStream) method. Internally, it uses a writer thread and
+	 * a {@link PipeStream}, see {@link #getStream(Representation)}.
 	 * 
 	 * @param representation the representation to get the {@link OutputStream}
 	 *                       from.
@@ -318,44 +405,8 @@ public class IoUtils {
 	 */
 	@Deprecated
 	public static ReadableByteChannel getChannel(final Representation representation) throws IOException {
-		ReadableByteChannel result = null;
-
-		final java.nio.channels.Pipe pipe = java.nio.channels.Pipe.open();
-
-		// Get a thread that will handle the task of continuously
-		// writing the representation into the input side of the pipe
-		Runnable task = new Runnable() {
-				public void run() {
-				WritableByteChannel wbc = null;
-
-				try {
-					wbc = pipe.sink();
-					representation.write(wbc);
-				} catch (IOException ioe) {
-					Context.getCurrentLogger().log(Level.WARNING, "Error while writing to the piped channel.", ioe);
-				} finally {
-					if (wbc != null)
-						try {
-							wbc.close();
-						} catch (IOException e) {
-							Context.getCurrentLogger().log(Level.WARNING,
-									"Error while closing to the piped channel.", e);
-						}
-				}
-			}
-			};
-
-		org.restlet.Context context = org.restlet.Context.getCurrent();
-
-		if (context != null && context.getExecutorService() != null) {
-			context.getExecutorService().execute(task);
-		} else {
-			Engine.createThreadWithLocalVariables(task, "Restlet-IoUtils").start();
-		}
-
-		result = pipe.source();
-
-		return result;
+		InputStream stream = getStream(representation);
+		return (stream == null) ? null : Channels.newChannel(stream);
 	}
 
 	private static int getProperty(String name, int defaultValue) {
@@ -388,8 +439,10 @@ public class IoUtils {
 	}
 
 	/**
-	 * Returns a reader from a writer representation.Internally, it uses a writer
-	 * thread and a pipe stream.
+	 * Returns a reader from a writer representation. Internally, it uses a writer
+	 * thread and a {@link PipeStream}, see {@link #getStream(Representation)}. The
+	 * characters are encoded with the character set of the representation, or
+	 * ISO-8859-1 by default, like {@link #getWriter(OutputStream, CharacterSet)}.
 	 * 
 	 * @param representation The representation to read from.
 	 * @return The character reader.
@@ -397,42 +450,9 @@ public class IoUtils {
 	 */
 	public static Reader getReader(final org.restlet.representation.WriterRepresentation representation)
 			throws IOException {
-		Reader result = null;
-		final java.io.PipedWriter pipedWriter = new java.io.PipedWriter();
-
-		java.io.PipedReader pipedReader = new java.io.PipedReader(pipedWriter);
-
-		// Gets a thread that will handle the task of continuously
-		// writing the representation into the input side of the pipe
-		Runnable task = new org.restlet.engine.util.ContextualRunnable() {
-			public void run() {
-				try {
-					representation.write(pipedWriter);
-					pipedWriter.flush();
-				} catch (IOException ioe) {
-					Context.getCurrentLogger().log(Level.WARNING, "Error while writing to the piped reader.", ioe);
-				} finally {
-					try {
-						pipedWriter.close();
-					} catch (IOException ioe2) {
-						Context.getCurrentLogger().log(Level.WARNING, "Error while closing the pipe.", ioe2);
-					}
-				}
-			}
-		};
-
-		org.restlet.Context context = org.restlet.Context.getCurrent();
-
-		if (context != null && context.getExecutorService() != null) {
-			context.getExecutorService().execute(task);
-		} else {
-			Engine.createThreadWithLocalVariables(task, "Restlet-IoUtils").start();
-		}
-
-		result = pipedReader;
-
-		return result;
-
+		CharacterSet characterSet = representation.getCharacterSet();
+		return getReader(getStream(representation),
+				(characterSet == null) ? CharacterSet.ISO_8859_1 : characterSet);
 	}
 
 	/**
@@ -486,8 +506,9 @@ public class IoUtils {
 
 	/**
 	 * Returns an input stream based on the given representation's content and its
-	 * write(OutputStream) method. Internally, it uses a writer thread and a pipe
-	 * stream.
+	 * write(OutputStream) method. Internally, it uses a writer thread and a
+	 * {@link PipeStream}, so that errors raised while writing are reported to the
+	 * reader and closing the returned stream stops the writer.
 	 * 
 	 * @param representation the representation to get the
 	 *                       {@link java.io.OutputStream} from.
@@ -510,9 +531,14 @@ public class IoUtils {
 				try {
 					representation.write(os);
 					os.flush();
-				} catch (IOException ioe) {
-					Context.getCurrentLogger().log(Level.WARNING, "Error while writing to the piped input stream.",
-							ioe);
+				} catch (IOException | RuntimeException e) {
+					// The reader closing the pipe early isn't an error
+					if (!pipe.isInputClosed()) {
+						Context.getCurrentLogger().log(Level.WARNING, "Error while writing to the piped input stream.",
+								e);
+					}
+
+					pipe.fail(e);
 				} finally {
 					try {
 						os.close();
@@ -580,6 +606,28 @@ public class IoUtils {
 		return result;
 	}
 
+	/**
+	 * Returns a writable byte channel that can directly receive the bytes
+	 * transferred from a file, or null if the given output stream doesn't expose
+	 * one. This is the case of file output streams and of connector streams that
+	 * implement {@link WritableByteChannel}.
+	 * 
+	 * @param outputStream The output stream.
+	 * @return The writable byte channel or null.
+	 * @see #copy(FileChannel, long, long, WritableByteChannel)
+	 */
+	public static WritableByteChannel getTransferChannel(OutputStream outputStream) {
+		WritableByteChannel result = null;
+
+		if (outputStream instanceof WritableByteChannel) {
+			result = (WritableByteChannel) outputStream;
+		} else if (outputStream instanceof FileOutputStream) {
+			result = ((FileOutputStream) outputStream).getChannel();
+		}
+
+		return result;
+	}
+
 	/**
 	 * Returns a writer to the given output stream, using the given character set
 	 * for encoding to bytes.
@@ -11,28 +11,134 @@ package org.restlet.engine.io;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Pipe stream that pipes output streams into input streams. Implementation
- * based on a shared synchronized queue.
+ * based on a bounded ring buffer of bytes, transferred in bulk between a single
+ * writer thread and a single reader thread.<br>
+ * <br>
+ * The writer blocks while the buffer is full and the reader blocks while it is
+ * empty, up to a configurable timeout. Closing the input stream releases the
+ * writer with an {@link IOException}, and an error reported by the writer via
+ * {@link #fail(Throwable)} is thrown to the reader once the buffered bytes have
+ * been consumed.
  * 
  * @author Jerome Louvel
  */
 public class PipeStream {
 
-	/** The queue timeout. */
-	private static final long QUEUE_TIMEOUT = 5;
+	/** The ring buffer. */
+	private final byte[] buffer;
 
-	/** The supporting synchronized queue. */
-	private final BlockingQueue<Integer> queue;
+	/** The number of buffered bytes. */
+	private int count;
+
+	/** The error reported by the writer. */
+	private Throwable error;
+
+	/** Indicates if the input stream was closed by the reader. */
+	private boolean inputClosed;
+
+	/** Indicates if the output stream was closed by the writer. */
+	private boolean outputClosed;
+
+	/** The position of the next byte to read in the buffer. */
+	private int readPosition;
+
+	/** The maximum time to wait for the other side, in milliseconds. */
+	private final long timeoutMs;
 
 	/** Constructor. */
 	public PipeStream() {
-		this.queue = new ArrayBlockingQueue<Integer>(1024);
+		this(4 * IoUtils.BUFFER_SIZE, IoUtils.TIMEOUT_MS);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param capacity  The capacity of the buffer in bytes.
+	 * @param timeoutMs The maximum time to wait for the other side, in
+	 *                  milliseconds.
+	 */
+	public PipeStream(int capacity, long timeoutMs) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("The pipe capacity must be strictly positive");
+		}
+
+		this.buffer = new byte[capacity];
+		this.count = 0;
+		this.error = null;
+		this.inputClosed = false;
+		this.outputClosed = false;
+		this.readPosition = 0;
+		this.timeoutMs = timeoutMs;
+	}
+
+	/**
+	 * Returns the number of bytes that can be read without blocking.
+	 * 
+	 * @return The number of buffered bytes.
+	 */
+	private synchronized int available() {
+		return this.count;
+	}
+
+	/**
+	 * Waits until notified by the other side or until the deadline is reached.
+	 * 
+	 * @param deadline The deadline, based on {@link System#nanoTime()}.
+	 * @param message  The message of the exception thrown on timeout.
+	 * @throws IOException
+	 */
+	private void await(long deadline, String message) throws IOException {
+		long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+
+		if (remaining <= 0) {
+			throw new IOException(message);
+		}
+
+		try {
+			wait(remaining);
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interruption occurred while waiting for the pipe");
+		}
+	}
+
+	/**
+	 * Closes the input side of the pipe. Buffered bytes are discarded and the
+	 * writer is released.
+	 */
+	private synchronized void closeInput() {
+		this.inputClosed = true;
+		this.count = 0;
+		notifyAll();
+	}
+
+	/**
+	 * Closes the output side of the pipe. The reader will reach the end of the
+	 * stream once the buffered bytes have been consumed.
+	 */
+	private synchronized void closeOutput() {
+		this.outputClosed = true;
+		notifyAll();
+	}
+
+	/**
+	 * Reports an error that occurred while producing the piped content. The
+	 * error is thrown to the reader once the buffered bytes have been consumed.
+	 * 
+	 * @param error The error to report.
+	 */
+	public synchronized void fail(Throwable error) {
+		if (this.error == null) {
+			this.error = error;
+		}
+
+		notifyAll();
 	}
 
 	/**
@@ -42,26 +148,32 @@ public class PipeStream {
 	 */
 	public InputStream getInputStream() {
 		return new InputStream() {
-			private boolean endReached = false;
+			/** The buffer used by single byte reads. */
+			private final byte[] single = new byte[1];
+
+			@Override
+			public int available() throws IOException {
+				return PipeStream.this.available();
+			}
+
+			@Override
+			public void close() throws IOException {
+				closeInput();
+			}
 
 			@Override
 			public int read() throws IOException {
-				try {
-					if (this.endReached) {
-						return -1;
-					}
-
-					final Integer value = queue.poll(QUEUE_TIMEOUT, TimeUnit.SECONDS);
-
-					if (value == null) {
-						throw new IOException("Timeout while reading from the queue-based input stream");
-					} else {
-						this.endReached = (value == -1);
-						return value.intValue();
-					}
-				} catch (InterruptedException ie) {
-					throw new IOException("Interruption occurred while writing in the queue");
+				int result = read(this.single, 0, 1);
+				return (result == -1) ? -1 : (this.single[0] & 0xff);
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				if ((off < 0) || (len < 0) || (len > b.length - off)) {
+					throw new IndexOutOfBoundsException();
 				}
+
+				return (len == 0) ? 0 : PipeStream.this.read(b, off, len);
 			}
 		};
 	}
@@ -73,28 +185,115 @@ public class PipeStream {
 	 */
 	public OutputStream getOutputStream() {
 		return new OutputStream() {
+			/** The buffer used by single byte writes. */
+			private final byte[] single = new byte[1];
+
 			@Override
-			public void write(int b) throws IOException {
-				try {
-					if (!queue.offer(b & 0xff, QUEUE_TIMEOUT, TimeUnit.SECONDS)) {
-						throw new IOException("Timeout while writing to the queue-based output stream");
-					}
-				} catch (InterruptedException ie) {
-					throw new IOException("Interruption occurred while writing in the queue");
-				}
+			public void close() throws IOException {
+				closeOutput();
 			}
 
 			@Override
-			public void close() throws IOException {
-				try {
-					if (!queue.offer(-1, QUEUE_TIMEOUT, TimeUnit.SECONDS)) {
-						throw new IOException("Timeout while writing to the queue-based output stream");
-					}
-				} catch (InterruptedException ie) {
-					throw new IOException("Interruption occurred while writing in the queue");
+			public void write(byte[] b, int off, int len) throws IOException {
+				if ((off < 0) || (len < 0) || (len > b.length - off)) {
+					throw new IndexOutOfBoundsException();
 				}
+
+				PipeStream.this.write(b, off, len);
+			}
+
+			@Override
+			public void write(int b) throws IOException {
+				this.single[0] = (byte) b;
+				PipeStream.this.write(this.single, 0, 1);
 			}
 		};
 	}
 
+	/**
+	 * Indicates if the input stream was closed by the reader.
+	 * 
+	 * @return True if the input stream was closed by the reader.
+	 */
+	public synchronized boolean isInputClosed() {
+		return this.inputClosed;
+	}
+
+	/**
+	 * Reads bytes from the pipe, waiting until at least one is available.
+	 * 
+	 * @param b   The target array.
+	 * @param off The offset in the target array.
+	 * @param len The maximum number of bytes to read, strictly positive.
+	 * @return The number of bytes read or -1 if the end was reached.
+	 * @throws IOException
+	 */
+	private synchronized int read(byte[] b, int off, int len) throws IOException {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.timeoutMs);
+
+		while ((this.count == 0) && !this.inputClosed && !this.outputClosed && (this.error == null)) {
+			await(deadline, "Timeout while reading from the pipe");
+		}
+
+		if (this.inputClosed) {
+			throw new IOException("The pipe input stream is closed");
+		}
+
+		if (this.count == 0) {
+			if (this.error != null) {
+				throw new IOException("Error while writing to the pipe", this.error);
+			}
+
+			return -1;
+		}
+
+		int result = Math.min(len, this.count);
+		int first = Math.min(result, this.buffer.length - this.readPosition);
+		System.arraycopy(this.buffer, this.readPosition, b, off, first);
+		System.arraycopy(this.buffer, 0, b, off + first, result - first);
+		this.readPosition = (this.readPosition + result) % this.buffer.length;
+		this.count -= result;
+		notifyAll();
+		return result;
+	}
+
+	/**
+	 * Writes bytes into the pipe, waiting for free space as needed.
+	 * 
+	 * @param b   The source array.
+	 * @param off The offset in the source array.
+	 * @param len The number of bytes to write.
+	 * @throws IOException
+	 */
+	private synchronized void write(byte[] b, int off, int len) throws IOException {
+		int offset = off;
+		int remaining = len;
+
+		while (remaining > 0) {
+			long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.timeoutMs);
+
+			while ((this.count == this.buffer.length) && !this.inputClosed) {
+				await(deadline, "Timeout while writing to the pipe");
+			}
+
+			if (this.inputClosed) {
+				throw new IOException("The pipe input stream is closed");
+			}
+
+			if (this.outputClosed) {
+				throw new IOException("The pipe output stream is closed");
+			}
+
+			int writePosition = (this.readPosition + this.count) % this.buffer.length;
+			int length = Math.min(remaining, this.buffer.length - this.count);
+			int first = Math.min(length, this.buffer.length - writePosition);
+			System.arraycopy(b, offset, this.buffer, writePosition, first);
+			System.arraycopy(b, offset + first, this.buffer, 0, length - first);
+			this.count += length;
+			offset += length;
+			remaining -= length;
+			notifyAll();
+		}
+	}
+
 }
@@ -33,4 +33,10 @@ public class UnclosableOutputStream extends FilterOutputStream {
 	@Override
 	public void close() throws IOException {
 	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		// Avoid the byte per byte writes of FilterOutputStream
+		this.out.write(b, off, len);
+	}
 }
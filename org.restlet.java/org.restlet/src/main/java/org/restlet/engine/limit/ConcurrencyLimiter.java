@@ -0,0 +1,238 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive limiter of the number of calls processed concurrently. The limit is
+ * adjusted after each call following the TCP Vegas congestion avoidance
+ * algorithm: the latency observed without load is compared to the latency of
+ * the call to estimate the number of queued calls. The limit grows while this
+ * queue is small and shrinks when it grows, so that latency stays close to its
+ * unloaded value and excess calls can be rejected immediately instead of
+ * waiting.<br>
+ * <br>
+ * Calls have a priority. Critical calls are always admitted, normal calls are
+ * admitted up to the limit and sheddable calls up to half of it, so that they
+ * are the first rejected under load.<br>
+ * <br>
+ * The admission of a call is lock-free. The limit is updated under a lock that
+ * is only tried, so that concurrent completions never wait for each other.
+ * 
+ * @author Jerome Louvel
+ */
+public class ConcurrencyLimiter {
+
+	/**
+	 * Priority of a call.
+	 */
+	public enum Priority {
+		/** Always admitted, for health checks or administration calls. */
+		CRITICAL,
+
+		/** Admitted up to the limit. */
+		NORMAL,
+
+		/** Admitted up to half of the limit. */
+		SHEDDABLE
+	}
+
+	/**
+	 * The number of samples, per unit of limit, after which the unloaded latency
+	 * is measured again.
+	 */
+	private static final int PROBE_MULTIPLIER = 30;
+
+	/** The estimated limit, guarded by the update lock. */
+	private double estimatedLimit;
+
+	/** The number of calls in progress. */
+	private final AtomicInteger inFlight;
+
+	/** The current limit. */
+	private volatile int limit;
+
+	/** The maximum limit. */
+	private final int maxLimit;
+
+	/** The minimum limit. */
+	private final int minLimit;
+
+	/** The minimum latency observed, in nanoseconds, guarded by the update lock. */
+	private volatile long minLatency;
+
+	/** The number of samples since the last probe, guarded by the update lock. */
+	private long sampleCount;
+
+	/** The lock guarding the update of the limit. */
+	private final ReentrantLock updateLock;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param initialLimit The initial limit.
+	 * @param minLimit     The minimum limit.
+	 * @param maxLimit     The maximum limit.
+	 */
+	public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+		if ((minLimit < 1) || (maxLimit < minLimit)) {
+			throw new IllegalArgumentException("Invalid limits: " + minLimit + " to " + maxLimit);
+		}
+
+		this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+		this.estimatedLimit = this.limit;
+		this.inFlight = new AtomicInteger();
+		this.maxLimit = maxLimit;
+		this.minLimit = minLimit;
+		this.minLatency = Long.MAX_VALUE;
+		this.updateLock = new ReentrantLock();
+	}
+
+	/**
+	 * Returns the number of calls in progress.
+	 * 
+	 * @return The number of calls in progress.
+	 */
+	public int getInFlight() {
+		return this.inFlight.get();
+	}
+
+	/**
+	 * Returns the current limit of concurrent calls.
+	 * 
+	 * @return The current limit of concurrent calls.
+	 */
+	public int getLimit() {
+		return this.limit;
+	}
+
+	/**
+	 * Returns the maximum limit.
+	 * 
+	 * @return The maximum limit.
+	 */
+	public int getMaxLimit() {
+		return this.maxLimit;
+	}
+
+	/**
+	 * Returns the minimum latency observed in nanoseconds, or
+	 * {@link Long#MAX_VALUE} if none was observed since the last probe.
+	 * 
+	 * @return The minimum latency observed.
+	 */
+	public long getMinLatency() {
+		return this.minLatency;
+	}
+
+	/**
+	 * Returns the minimum limit.
+	 * 
+	 * @return The minimum limit.
+	 */
+	public int getMinLimit() {
+		return this.minLimit;
+	}
+
+	/**
+	 * Releases a call previously admitted and updates the limit with its
+	 * latency.
+	 * 
+	 * @param latency The latency of the call in nanoseconds.
+	 */
+	public void release(long latency) {
+		int inFlight = this.inFlight.getAndDecrement();
+
+		if ((latency > 0) && this.updateLock.tryLock()) {
+			try {
+				update(latency, inFlight);
+			} finally {
+				this.updateLock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Tries to admit a call.
+	 * 
+	 * @param priority The priority of the call.
+	 * @return True if the call is admitted, in which case
+	 *         {@link #release(long)} must be invoked once completed.
+	 */
+	public boolean tryAcquire(Priority priority) {
+		if (priority == Priority.CRITICAL) {
+			this.inFlight.incrementAndGet();
+			return true;
+		}
+
+		int max = (priority == Priority.SHEDDABLE) ? Math.max(1, this.limit / 2) : this.limit;
+
+		for (;;) {
+			int current = this.inFlight.get();
+
+			if (current >= max) {
+				return false;
+			}
+
+			if (this.inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Updates the limit with a latency sample. Must be invoked with the update
+	 * lock held.
+	 * 
+	 * @param latency  The latency of the call in nanoseconds.
+	 * @param inFlight The number of calls in progress when the call completed.
+	 */
+	private void update(long latency, int inFlight) {
+		double current = this.estimatedLimit;
+		boolean loaded = (inFlight * 2 >= current);
+
+		if ((++this.sampleCount > PROBE_MULTIPLIER * (long) this.limit) && !loaded) {
+			// Measure the unloaded latency again as it may have changed, but
+			// only once the load decreased, so that it isn't overestimated
+			this.sampleCount = 0;
+			this.minLatency = latency;
+			return;
+		}
+
+		if (latency < this.minLatency) {
+			this.minLatency = latency;
+		}
+
+		if (!loaded) {
+			// The limit isn't reached, so the latency says nothing about it
+			return;
+		}
+
+		int queueSize = (int) Math.ceil(current * (1 - (double) this.minLatency / latency));
+		double log = Math.max(1, Math.log10(current));
+		double result;
+
+		if (queueSize <= log) {
+			result = current + 6 * log;
+		} else if (queueSize < 3 * log) {
+			result = current + log;
+		} else if (queueSize > 6 * log) {
+			result = current - log;
+		} else {
+			result = current;
+		}
+
+		this.estimatedLimit = Math.max(this.minLimit, Math.min(this.maxLimit, result));
+		this.limit = (int) this.estimatedLimit;
+	}
+
+}
@@ -0,0 +1,273 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.limit;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.data.Status;
+import org.restlet.routing.Filter;
+
+/**
+ * Filter limiting the rate of the requests with token buckets. Each request is
+ * associated to a key, by default the client address, and consumes a token of
+ * the bucket of this key. When the bucket is empty, the request is rejected
+ * with a 429 (Too Many Requests) status and a "Retry-After" header indicating
+ * when a token will be available. Requests without key aren't limited.<br>
+ * <br>
+ * The filter can protect a whole application via the
+ * {@link org.restlet.service.RateLimitService} or be attached in front of
+ * specific routes. To limit the requests of each authenticated user with
+ * {@link #KEY_USER}, the filter must be placed after the authenticator.<br>
+ * <br>
+ * The number of buckets is bounded. Once the limit is reached, the full
+ * buckets, which are equivalent to new ones, are evicted first. If that isn't
+ * enough, arbitrary buckets are evicted so that a client using many different
+ * keys can't exhaust the memory.<br>
+ * <br>
+ * Concurrency note: instances of this class or its subclasses can be invoked by
+ * several threads at the same time and therefore must be thread-safe. You
+ * should be especially careful when storing state in member variables.
+ * 
+ * @author Jerome Louvel
+ * @see TokenBucket
+ */
+public class RateLimitFilter extends Filter {
+
+	/** The default maximum number of buckets. */
+	public static final int DEFAULT_MAX_KEYS = 10000;
+
+	/** Key function returning the upstream client address. */
+	public static final Function<Request, String> KEY_CLIENT_ADDRESS = request -> request.getClientInfo()
+			.getUpstreamAddress();
+
+	/**
+	 * Key function returning the identifier of the authenticated user, or the
+	 * upstream client address for anonymous requests.
+	 */
+	public static final Function<Request, String> KEY_USER = request -> (request.getClientInfo().getUser() != null)
+			? "user:" + request.getClientInfo().getUser().getIdentifier()
+			: request.getClientInfo().getUpstreamAddress();
+
+	/** The token buckets by key. */
+	private final ConcurrentMap<String, TokenBucket> buckets;
+
+	/** The maximum number of tokens of each bucket. */
+	private final int capacity;
+
+	/** Indicates if buckets are being evicted. */
+	private final AtomicBoolean evicting;
+
+	/** The function computing the key of a request. */
+	private volatile Function<Request, String> keyFunction;
+
+	/** The maximum number of buckets. */
+	private volatile int maxKeys;
+
+	/** The number of tokens added to each bucket per second. */
+	private final double refillRate;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param context    The context.
+	 * @param capacity   The maximum number of tokens of each bucket, i.e. the
+	 *                   maximum burst of requests.
+	 * @param refillRate The number of tokens added to each bucket per second,
+	 *                   i.e. the sustained rate of requests.
+	 */
+	public RateLimitFilter(Context context, int capacity, double refillRate) {
+		this(context, null, capacity, refillRate);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param context    The context.
+	 * @param next       The next Restlet.
+	 * @param capacity   The maximum number of tokens of each bucket, i.e. the
+	 *                   maximum burst of requests.
+	 * @param refillRate The number of tokens added to each bucket per second,
+	 *                   i.e. the sustained rate of requests.
+	 */
+	public RateLimitFilter(Context context, Restlet next, int capacity, double refillRate) {
+		super(context, next);
+
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The capacity must be at least 1");
+		}
+
+		if (refillRate <= 0) {
+			throw new IllegalArgumentException("The refill rate must be positive");
+		}
+
+		this.buckets = new ConcurrentHashMap<String, TokenBucket>();
+		this.capacity = capacity;
+		this.evicting = new AtomicBoolean();
+		this.keyFunction = KEY_CLIENT_ADDRESS;
+		this.maxKeys = DEFAULT_MAX_KEYS;
+		this.refillRate = refillRate;
+	}
+
+	/**
+	 * Consumes a token of the bucket associated to the request, or rejects the
+	 * request if none is available.
+	 */
+	@Override
+	protected int beforeHandle(Request request, Response response) {
+		String key = getKeyFunction().apply(request);
+
+		if (key == null) {
+			return CONTINUE;
+		}
+
+		long delay = getBucket(key).tryConsume();
+
+		if (delay == 0) {
+			return CONTINUE;
+		}
+
+		// Round up to the second, the precision of the header
+		long delaySeconds = (TimeUnit.NANOSECONDS.toMillis(delay) + 999) / 1000;
+		response.setStatus(Status.CLIENT_ERROR_TOO_MANY_REQUESTS);
+		response.setRetryAfter(new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(delaySeconds)));
+		return STOP;
+	}
+
+	/**
+	 * Evicts buckets until their number is below three quarters of the maximum.
+	 * Only one thread evicts at a time, the others proceed without waiting.
+	 */
+	private void evict() {
+		if (this.evicting.compareAndSet(false, true)) {
+			try {
+				int target = (getMaxKeys() * 3) / 4;
+
+				for (Iterator<TokenBucket> iter = this.buckets.values().iterator(); (this.buckets.size() > target)
+						&& iter.hasNext();) {
+					if (iter.next().isFull()) {
+						iter.remove();
+					}
+				}
+
+				for (Iterator<TokenBucket> iter = this.buckets.values().iterator(); (this.buckets.size() > target)
+						&& iter.hasNext();) {
+					iter.next();
+					iter.remove();
+				}
+			} finally {
+				this.evicting.set(false);
+			}
+		}
+	}
+
+	/**
+	 * Returns the bucket associated to a key, creating it if needed.
+	 * 
+	 * @param key The key.
+	 * @return The bucket associated to the key.
+	 */
+	private TokenBucket getBucket(String key) {
+		TokenBucket result = this.buckets.get(key);
+
+		if (result == null) {
+			if (this.buckets.size() >= getMaxKeys()) {
+				evict();
+			}
+
+			TokenBucket bucket = new TokenBucket(getCapacity(), getRefillRate());
+			result = this.buckets.putIfAbsent(key, bucket);
+
+			if (result == null) {
+				result = bucket;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns an unmodifiable view of the current token buckets by key.
+	 * 
+	 * @return The current token buckets by key.
+	 */
+	public Map<String, TokenBucket> getBuckets() {
+		return Collections.unmodifiableMap(this.buckets);
+	}
+
+	/**
+	 * Returns the maximum number of tokens of each bucket.
+	 * 
+	 * @return The maximum number of tokens of each bucket.
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Returns the function computing the key of a request. Defaults to
+	 * {@link #KEY_CLIENT_ADDRESS}.
+	 * 
+	 * @return The function computing the key of a request.
+	 */
+	public Function<Request, String> getKeyFunction() {
+		return this.keyFunction;
+	}
+
+	/**
+	 * Returns the maximum number of buckets. Defaults to
+	 * {@link #DEFAULT_MAX_KEYS}.
+	 * 
+	 * @return The maximum number of buckets.
+	 */
+	public int getMaxKeys() {
+		return this.maxKeys;
+	}
+
+	/**
+	 * Returns the number of tokens added to each bucket per second.
+	 * 
+	 * @return The number of tokens added to each bucket per second.
+	 */
+	public double getRefillRate() {
+		return this.refillRate;
+	}
+
+	/**
+	 * Sets the function computing the key of a request. A null key disables
+	 * the limiting of the request.
+	 * 
+	 * @param keyFunction The function computing the key of a request.
+	 */
+	public void setKeyFunction(Function<Request, String> keyFunction) {
+		this.keyFunction = keyFunction;
+	}
+
+	/**
+	 * Sets the maximum number of buckets.
+	 * 
+	 * @param maxKeys The maximum number of buckets.
+	 */
+	public void setMaxKeys(int maxKeys) {
+		this.maxKeys = maxKeys;
+	}
+
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.limit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket holding up to a given number of tokens and refilled at a
+ * constant rate. Each token lets one request through, so the capacity is the
+ * maximum burst and the refill rate is the sustained number of requests per
+ * second.<br>
+ * <br>
+ * The bucket is implemented as a generic cell rate algorithm: its whole state
+ * is the theoretical arrival time of the next request, updated with a single
+ * compare-and-set. Concurrent requests are therefore never serialized by a
+ * lock.
+ * 
+ * @author Jerome Louvel
+ */
+public class TokenBucket {
+
+	/** The maximum number of tokens. */
+	private final int capacity;
+
+	/** The number of nanoseconds needed to refill one token. */
+	private final long interval;
+
+	/** The theoretical arrival time of the next request, in nanoseconds. */
+	private final AtomicLong theoreticalArrival;
+
+	/** The burst tolerance in nanoseconds. */
+	private final long tolerance;
+
+	/**
+	 * Constructor. The bucket is initially full.
+	 * 
+	 * @param capacity   The maximum number of tokens.
+	 * @param refillRate The number of tokens added per second.
+	 */
+	public TokenBucket(int capacity, double refillRate) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The capacity must be at least 1");
+		}
+
+		if (refillRate <= 0) {
+			throw new IllegalArgumentException("The refill rate must be positive");
+		}
+
+		this.capacity = capacity;
+		this.interval = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / refillRate));
+		this.tolerance = this.interval * (capacity - 1);
+		this.theoreticalArrival = new AtomicLong(System.nanoTime());
+	}
+
+	/**
+	 * Returns the number of tokens currently available.
+	 * 
+	 * @return The number of tokens currently available.
+	 */
+	public int getAvailableTokens() {
+		long now = System.nanoTime();
+		long backlog = this.theoreticalArrival.get() - now;
+
+		if (backlog <= 0) {
+			return this.capacity;
+		}
+
+		return (int) Math.max(0L, (this.tolerance + this.interval - backlog) / this.interval);
+	}
+
+	/**
+	 * Returns the maximum number of tokens.
+	 * 
+	 * @return The maximum number of tokens.
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Returns the number of tokens added per second.
+	 * 
+	 * @return The number of tokens added per second.
+	 */
+	public double getRefillRate() {
+		return (double) TimeUnit.SECONDS.toNanos(1) / this.interval;
+	}
+
+	/**
+	 * Indicates if the bucket is full. A full bucket is equivalent to a new one
+	 * and can be discarded without losing any state.
+	 * 
+	 * @return True if the bucket is full.
+	 */
+	public boolean isFull() {
+		return this.theoreticalArrival.get() - System.nanoTime() <= 0;
+	}
+
+	/**
+	 * Tries to consume one token.
+	 * 
+	 * @return 0 if a token was consumed, otherwise the number of nanoseconds
+	 *         to wait before a token becomes available.
+	 */
+	public long tryConsume() {
+		long now = System.nanoTime();
+
+		for (;;) {
+			long current = this.theoreticalArrival.get();
+			long arrival = (current - now > 0) ? current : now;
+			long backlog = arrival - now;
+
+			if (backlog > this.tolerance) {
+				return backlog - this.tolerance;
+			}
+
+			if (this.theoreticalArrival.compareAndSet(current, arrival + this.interval)) {
+				return 0L;
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return getAvailableTokens() + "/" + getCapacity();
+	}
+
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.local;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import org.restlet.engine.io.IoUtils;
+import org.restlet.representation.Representation;
+
+/**
+ * Representation of a file whose content is held in memory by a
+ * {@link FileCache}. The content can be read and written any number of times.
+ * 
+ * @author Jerome Louvel
+ */
+public class CachedFileRepresentation extends Representation {
+
+	/**
+	 * Input stream reading the content of a byte buffer.
+	 */
+	private static class BufferInputStream extends InputStream {
+
+		/** The buffer to read. */
+		private final ByteBuffer buffer;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param buffer The buffer to read.
+		 */
+		public BufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int available() {
+			return this.buffer.remaining();
+		}
+
+		@Override
+		public int read() {
+			return this.buffer.hasRemaining() ? (this.buffer.get() & 0xFF) : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+
+			if (!this.buffer.hasRemaining()) {
+				return -1;
+			}
+
+			int result = Math.min(len, this.buffer.remaining());
+			this.buffer.get(b, off, result);
+			return result;
+		}
+
+		@Override
+		public long skip(long n) {
+			int result = (int) Math.max(0, Math.min(n, this.buffer.remaining()));
+			this.buffer.position(this.buffer.position() + result);
+			return result;
+		}
+	}
+
+	/** The cached content, never modified. */
+	private final ByteBuffer content;
+
+	/** The cached file. */
+	private final File file;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param file    The cached file.
+	 * @param content The cached content.
+	 */
+	public CachedFileRepresentation(File file, ByteBuffer content) {
+		this.file = file;
+		this.content = content;
+		setSize(content.remaining());
+	}
+
+	@Override
+	@Deprecated
+	public java.nio.channels.ReadableByteChannel getChannel() throws IOException {
+		return IoUtils.getChannel(getStream());
+	}
+
+	/**
+	 * Returns a read-only view of the cached content.
+	 * 
+	 * @return A read-only view of the cached content.
+	 */
+	public ByteBuffer getContent() {
+		return this.content.asReadOnlyBuffer();
+	}
+
+	/**
+	 * Returns the cached file.
+	 * 
+	 * @return The cached file.
+	 */
+	public File getFile() {
+		return this.file;
+	}
+
+	@Override
+	public Reader getReader() throws IOException {
+		return IoUtils.getReader(getStream(), getCharacterSet());
+	}
+
+	@Override
+	public InputStream getStream() throws IOException {
+		return new BufferInputStream(getContent());
+	}
+
+	@Override
+	public String getText() throws IOException {
+		return IoUtils.toString(getStream(), getCharacterSet());
+	}
+
+	/**
+	 * Writes the representation to a byte stream. When the stream exposes a
+	 * writable byte channel, the cached buffer is written to it directly.
+	 * 
+	 * @param outputStream The output stream.
+	 * @see IoUtils#getTransferChannel(OutputStream)
+	 */
+	@Override
+	public void write(OutputStream outputStream) throws IOException {
+		WritableByteChannel writableChannel = IoUtils.getTransferChannel(outputStream);
+
+		if (writableChannel == null) {
+			IoUtils.copy(getStream(), outputStream);
+		} else {
+			ByteBuffer buffer = getContent();
+
+			while (buffer.hasRemaining()) {
+				writableChannel.write(buffer);
+			}
+
+			outputStream.flush();
+		}
+	}
+
+	@Override
+	@Deprecated
+	public void write(WritableByteChannel writableChannel) throws IOException {
+		ByteBuffer buffer = getContent();
+
+		while (buffer.hasRemaining()) {
+			writableChannel.write(buffer);
+		}
+	}
+
+	@Override
+	public void write(Writer writer) throws IOException {
+		OutputStream os = IoUtils.getStream(writer, getCharacterSet());
+		write(os);
+		os.flush();
+	}
+
+}
@@ -9,6 +9,7 @@
 
 package org.restlet.engine.local;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -21,12 +22,16 @@ import java.util.logging.Level;
 import org.restlet.Request;
 import org.restlet.Response;
 import org.restlet.Restlet;
+import org.restlet.data.Dimension;
+import org.restlet.data.Encoding;
 import org.restlet.data.MediaType;
 import org.restlet.data.Method;
+import org.restlet.data.Preference;
 import org.restlet.data.Reference;
 import org.restlet.data.ReferenceList;
 import org.restlet.data.Status;
 import org.restlet.engine.util.StringUtils;
+import org.restlet.representation.FileRepresentation;
 import org.restlet.representation.Representation;
 import org.restlet.representation.Variant;
 import org.restlet.resource.Directory;
@@ -177,6 +182,12 @@ public class DirectoryServerResource extends ServerResource {
 
 		// Update the member variables
 		setNegotiated(this.directory.isNegotiatingContent());
+
+		if (!getDirectory().getPrecompressedEncodings().isEmpty()) {
+			// The representation may depend on the accepted encodings
+			getDimensions().add(Dimension.ENCODING);
+		}
+
 		this.relativePart = getReference().getRemainingPart(false, false);
 		this.originalRef = getOriginalRef();
 		if (this.originalRef != null) {
@@ -439,15 +450,114 @@ public class DirectoryServerResource extends ServerResource {
 		return this.directoryUri;
 	}
 
+	/**
+	 * Returns the pre-compressed sibling of the given representation when the
+	 * client accepts its encoding and when the sibling file exists. For example,
+	 * the content of "foo.js.gz" is returned for "foo.js" if the GZip encoding is
+	 * enabled on the parent directory and accepted by the client. The metadata of
+	 * the original representation are preserved.
+	 * 
+	 * @param resourceUri    The URI of the original representation.
+	 * @param representation The original representation.
+	 * @return The pre-compressed representation or the original one.
+	 * @see Directory#getPrecompressedEncodings()
+	 */
+	protected Representation getPrecompressedRepresentation(String resourceUri, Representation representation) {
+		Representation result = representation;
+		Encoding encoding = getPrecompressedEncoding();
+
+		if ((encoding != null) && (representation != null) && !Encoding.IDENTITY.equals(encoding)
+				&& (representation.getEncodings().isEmpty()
+						|| representation.getEncodings().equals(Arrays.asList(Encoding.IDENTITY)))) {
+			String extension = getDirectory().getPrecompressedExtension(encoding);
+			Response contextResponse = getRepresentation(resourceUri + "." + extension);
+			Representation sibling = contextResponse.getEntity();
+
+			if (contextResponse.getStatus().isSuccess() && (sibling != null)
+					&& isPrecompressedSibling(representation, sibling, extension)) {
+				sibling.setMediaType(representation.getMediaType());
+				sibling.setCharacterSet(representation.getCharacterSet());
+				sibling.getLanguages().clear();
+				sibling.getLanguages().addAll(representation.getLanguages());
+				sibling.getEncodings().clear();
+				sibling.getEncodings().add(encoding);
+				sibling.setLocationRef(representation.getLocationRef());
+				representation.release();
+				result = sibling;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the pre-compressed encoding that best matches the encodings accepted
+	 * by the client, or null if none is enabled and accepted. Ties are resolved
+	 * using the order of the encodings enabled on the parent directory.
+	 * 
+	 * @return The best pre-compressed encoding or null.
+	 */
+	private Encoding getPrecompressedEncoding() {
+		Encoding result = null;
+		float bestQuality = 0F;
+
+		for (Encoding encoding : getDirectory().getPrecompressedEncodings()) {
+			float quality = 0F;
+
+			for (Preference<Encoding> pref : getClientInfo().getAcceptedEncodings()) {
+				if (pref.getMetadata().equals(encoding)) {
+					quality = pref.getQuality();
+					break;
+				} else if (pref.getMetadata().equals(Encoding.ALL)) {
+					quality = pref.getQuality();
+				}
+			}
+
+			if (quality > bestQuality) {
+				bestQuality = quality;
+				result = encoding;
+			}
+		}
+
+		return result;
+	}
+
 	/**
 	 * Returns a representation of the resource at the target URI. Leverages the
-	 * client dispatcher of the parent directory's context.
+	 * client dispatcher of the parent directory's context, unless the file is
+	 * available in the file cache of the parent directory.
 	 * 
 	 * @param resourceUri The URI of the target resource.
 	 * @return A response with the representation if success.
+	 * @see Directory#getFileCache()
 	 */
 	private Response getRepresentation(String resourceUri) {
-		return dispatchRequest(new Request(Method.GET, resourceUri));
+		FileCache fileCache = getDirectory().getFileCache();
+
+		if ((fileCache == null) || !resourceUri.startsWith("file:")) {
+			return dispatchRequest(new Request(Method.GET, resourceUri));
+		}
+
+		Representation cached = fileCache.get(resourceUri);
+
+		if (cached != null) {
+			Request request = new Request(Method.GET, resourceUri);
+			Response response = new Response(request);
+			cached.setLocationRef(request.getResourceRef());
+			response.setEntity(cached);
+			response.setStatus(Status.SUCCESS_OK);
+			return response;
+		}
+
+		Response result = dispatchRequest(new Request(Method.GET, resourceUri));
+
+		if (result.getStatus().isSuccess() && (result.getEntity() instanceof FileRepresentation)) {
+			Representation entity = fileCache.put(resourceUri, (FileRepresentation) result.getEntity());
+			entity.setLocationRef(result.getRequest().getResourceRef());
+			result.setEntity(entity);
+		}
+
+		return result;
 	}
 
 	/**
@@ -537,7 +647,8 @@ public class DirectoryServerResource extends ServerResource {
 				this.fileContent.setLocationRef(getReference());
 			}
 
-			variantsGet = Arrays.asList((Variant) this.fileContent);
+			variantsGet = Arrays
+					.asList((Variant) getPrecompressedRepresentation(this.targetUri, this.fileContent));
 
 			return variantsGet;
 		}
@@ -568,7 +679,7 @@ public class DirectoryServerResource extends ServerResource {
 							rep.setLocationRef(baseReference + "/" + filePath);
 						}
 
-						resultSet.add(rep);
+						resultSet.add(getPrecompressedRepresentation(ref.toString(), rep));
 					}
 				}
 			}
@@ -667,7 +778,7 @@ public class DirectoryServerResource extends ServerResource {
 			int firstDotIndex = fullEntryName.indexOf('.');
 			String baseEntryName = (firstDotIndex != -1) ? fullEntryName.substring(0, firstDotIndex) : fullEntryName;
 
-			if (!baseEntryName.equals(this.baseName)) {
+			if (!baseEntryName.equals(this.baseName) || isPrecompressedName(fullEntryName)) {
 				// Not a valid variant
 				continue;
 			}
@@ -710,6 +821,46 @@ public class DirectoryServerResource extends ServerResource {
 		return null;
 	}
 
+	/**
+	 * Indicates if the given file name is the one of a pre-compressed sibling file,
+	 * according to the encodings enabled on the parent directory.
+	 * 
+	 * @param name The file name to test.
+	 * @return True if the file name is the one of a pre-compressed file.
+	 */
+	private boolean isPrecompressedName(String name) {
+		for (Encoding encoding : getDirectory().getPrecompressedEncodings()) {
+			if (name.endsWith("." + getDirectory().getPrecompressedExtension(encoding))) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Indicates if the given sibling representation really is the content of the
+	 * pre-compressed file, and not a variant of the original resource silently
+	 * returned by the client connector in place of a missing file.
+	 * 
+	 * @param representation The original representation.
+	 * @param sibling        The sibling representation.
+	 * @param extension      The extension of the pre-compressed file.
+	 * @return True if the sibling is the pre-compressed file.
+	 */
+	private boolean isPrecompressedSibling(Representation representation, Representation sibling, String extension) {
+		if (sibling instanceof FileRepresentation) {
+			File file = ((FileRepresentation) sibling).getFile();
+			return (file != null) && file.getName().endsWith("." + extension);
+		} else if (sibling instanceof CachedFileRepresentation) {
+			return ((CachedFileRepresentation) sibling).getFile().getName().endsWith("." + extension);
+		}
+
+		return (sibling.getSize() != representation.getSize())
+				|| (sibling.getModificationDate() == null)
+				|| !sibling.getModificationDate().equals(representation.getModificationDate());
+	}
+
 	/**
 	 * Indicates if the target resource is a directory.
 	 * 
@@ -732,7 +883,7 @@ public class DirectoryServerResource extends ServerResource {
 	 * Transmit the given request to the clientDispatcher.<br>
 	 * It completes the request's attributes map with the current Directory
 	 * ("org.restlet.directory" key).
-	 *
+	 * 
 	 * @param request The request to send.
 	 * @return The response
 	 */
@@ -751,7 +902,7 @@ public class DirectoryServerResource extends ServerResource {
 	 * Transmit the given request to the clientDispatcher.<br>
 	 * It completes the request's attributes map with the current Directory
 	 * ("org.restlet.directory" key).
-	 *
+	 * 
 	 * @param request  The request to send.
 	 * @param response The related response.
 	 */
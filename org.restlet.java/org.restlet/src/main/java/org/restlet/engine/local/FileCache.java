@@ -0,0 +1,335 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.local;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import org.restlet.Context;
+import org.restlet.data.CharacterSet;
+import org.restlet.data.Disposition;
+import org.restlet.data.Encoding;
+import org.restlet.data.Language;
+import org.restlet.data.MediaType;
+import org.restlet.data.Reference;
+import org.restlet.data.Tag;
+import org.restlet.representation.FileRepresentation;
+import org.restlet.representation.Representation;
+
+/**
+ * In-memory cache of file contents and metadata, used by a
+ * {@link org.restlet.resource.Directory} to serve hot files without reading
+ * them from the disk and computing their metadata again for each request.<br>
+ * <br>
+ * The contents are held in direct byte buffers rather than memory mapped, so
+ * that files replaced or truncated in place can't corrupt the cached copy.
+ * Each lookup checks the modification date and the length of the file, and
+ * discards the cached entry when they changed. The least recently used entries
+ * are evicted when the total size of the cached contents exceeds the budget.
+ * Files larger than the maximum file size are never cached.<br>
+ * <br>
+ * Cached representations have a strong entity tag derived from the
+ * modification date and the length of the file, so conditional requests can
+ * be answered without transferring the content.<br>
+ * <br>
+ * Concurrency note: instances of this class can be shared by several threads.
+ * 
+ * @author Jerome Louvel
+ */
+public class FileCache {
+
+	/**
+	 * Cached content and metadata of a file.
+	 */
+	private static class Entry {
+
+		/** The character set. */
+		private final CharacterSet characterSet;
+
+		/** The cached content. */
+		private final ByteBuffer content;
+
+		/** The encodings. */
+		private final List<Encoding> encodings;
+
+		/** The delay before expiration in milliseconds or -1. */
+		private final long expirationDelay;
+
+		/** The cached file. */
+		private final File file;
+
+		/** The languages. */
+		private final List<Language> languages;
+
+		/** The modification date of the file, in milliseconds. */
+		private final long lastModified;
+
+		/** The media type. */
+		private final MediaType mediaType;
+
+		/** The entity tag. */
+		private final Tag tag;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param file           The cached file.
+		 * @param lastModified   The modification date of the file.
+		 * @param content        The cached content.
+		 * @param representation The representation returned by the client
+		 *                       connector, providing the metadata.
+		 */
+		public Entry(File file, long lastModified, ByteBuffer content, Representation representation) {
+			this.file = file;
+			this.lastModified = lastModified;
+			this.content = content;
+			this.characterSet = representation.getCharacterSet();
+			this.encodings = new ArrayList<Encoding>(representation.getEncodings());
+			this.languages = new ArrayList<Language>(representation.getLanguages());
+			this.mediaType = representation.getMediaType();
+			this.expirationDelay = (representation.getExpirationDate() == null) ? -1
+					: Math.max(0, representation.getExpirationDate().getTime() - System.currentTimeMillis());
+			this.tag = new Tag(Long.toHexString(lastModified) + "-" + Long.toHexString(content.capacity()), false);
+		}
+
+		/**
+		 * Indicates if the file is unchanged since it was cached.
+		 * 
+		 * @return True if the file is unchanged since it was cached.
+		 */
+		public boolean isValid() {
+			return (this.file.lastModified() == this.lastModified) && (this.file.length() == this.content.capacity());
+		}
+
+		/**
+		 * Returns a new representation of the cached file.
+		 * 
+		 * @return A new representation of the cached file.
+		 */
+		public Representation toRepresentation() {
+			CachedFileRepresentation result = new CachedFileRepresentation(this.file, this.content.duplicate());
+			result.setMediaType(this.mediaType);
+			result.setCharacterSet(this.characterSet);
+			result.getEncodings().addAll(this.encodings);
+			result.getLanguages().addAll(this.languages);
+			result.setModificationDate(new Date(this.lastModified));
+			result.setTag(this.tag);
+
+			if (this.expirationDelay >= 0) {
+				result.setExpirationDate(new Date(System.currentTimeMillis() + this.expirationDelay));
+			}
+
+			Disposition disposition = new Disposition();
+			disposition.setFilename(this.file.getName());
+			result.setDisposition(disposition);
+			return result;
+		}
+	}
+
+	/** The cached entries by URI, in access order. */
+	private final LinkedHashMap<String, Entry> entries;
+
+	/** The maximum size of a cached file. */
+	private final long maxFileSize;
+
+	/** The maximum total size of the cached contents. */
+	private final long maxSize;
+
+	/** The current total size of the cached contents. */
+	private long size;
+
+	/**
+	 * Constructor. Caches up to 64 MB of files of at most 1 MB each.
+	 */
+	public FileCache() {
+		this(64L * 1024 * 1024);
+	}
+
+	/**
+	 * Constructor. Files up to a sixteenth of the maximum total size are cached.
+	 * 
+	 * @param maxSize The maximum total size of the cached contents.
+	 */
+	public FileCache(long maxSize) {
+		this(maxSize, maxSize / 16);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param maxSize     The maximum total size of the cached contents.
+	 * @param maxFileSize The maximum size of a cached file.
+	 */
+	public FileCache(long maxSize, long maxFileSize) {
+		this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+		this.maxSize = maxSize;
+		this.maxFileSize = Math.min(maxFileSize, Integer.MAX_VALUE);
+		this.size = 0;
+	}
+
+	/**
+	 * Removes all the cached entries.
+	 */
+	public synchronized void clear() {
+		this.entries.clear();
+		this.size = 0;
+	}
+
+	/**
+	 * Returns a new representation of the file cached for the given URI, or null
+	 * if it isn't cached. Entries whose file changed since it was cached are
+	 * discarded.
+	 * 
+	 * @param uri The URI of the file.
+	 * @return A new representation of the cached file or null.
+	 */
+	public Representation get(String uri) {
+		Entry entry;
+
+		synchronized (this) {
+			entry = this.entries.get(uri);
+		}
+
+		if (entry == null) {
+			return null;
+		}
+
+		if (!entry.isValid()) {
+			remove(uri, entry);
+			return null;
+		}
+
+		return entry.toRepresentation();
+	}
+
+	/**
+	 * Returns the maximum size of a cached file.
+	 * 
+	 * @return The maximum size of a cached file.
+	 */
+	public long getMaxFileSize() {
+		return this.maxFileSize;
+	}
+
+	/**
+	 * Returns the maximum total size of the cached contents.
+	 * 
+	 * @return The maximum total size of the cached contents.
+	 */
+	public long getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * Returns the current total size of the cached contents.
+	 * 
+	 * @return The current total size of the cached contents.
+	 */
+	public synchronized long getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Caches the content and the metadata of the file returned by a client
+	 * connector for the given URI. Only representations of the very file
+	 * targeted by the URI are cached, not variants negotiated by the connector.
+	 * 
+	 * @param uri            The URI of the file.
+	 * @param representation The file representation returned by the connector.
+	 * @return A representation of the cached file, or the given representation if
+	 *         it couldn't be cached.
+	 */
+	public Representation put(String uri, FileRepresentation representation) {
+		File file = representation.getFile();
+
+		if ((file == null) || !file.getName().equals(Reference.decode(new Reference(uri).getLastSegment()))) {
+			return representation;
+		}
+
+		long lastModified = file.lastModified();
+		long length = file.length();
+
+		if ((lastModified == 0L) || (length > getMaxFileSize()) || (length > getMaxSize())) {
+			return representation;
+		}
+
+		ByteBuffer content = ByteBuffer.allocateDirect((int) length);
+
+		try (FileInputStream fis = new FileInputStream(file)) {
+			FileChannel fileChannel = fis.getChannel();
+
+			while (content.hasRemaining()) {
+				if (fileChannel.read(content) < 0) {
+					return representation;
+				}
+			}
+		} catch (IOException ioe) {
+			Context.getCurrentLogger().log(Level.FINE, "Unable to cache the file " + file, ioe);
+			return representation;
+		}
+
+		content.flip();
+
+		if ((file.lastModified() != lastModified) || (file.length() != length)) {
+			// The file changed while being read
+			return representation;
+		}
+
+		Entry entry = new Entry(file, lastModified, content, representation);
+
+		synchronized (this) {
+			Entry previous = this.entries.put(uri, entry);
+
+			if (previous != null) {
+				this.size -= previous.content.capacity();
+			}
+
+			this.size += length;
+
+			// Evict the least recently used entries
+			for (Iterator<Map.Entry<String, Entry>> iter = this.entries.entrySet().iterator(); (this.size > this.maxSize)
+					&& iter.hasNext();) {
+				Map.Entry<String, Entry> eldest = iter.next();
+
+				if (eldest.getValue() != entry) {
+					this.size -= eldest.getValue().content.capacity();
+					iter.remove();
+				}
+			}
+		}
+
+		representation.release();
+		return entry.toRepresentation();
+	}
+
+	/**
+	 * Removes the given entry if it is still cached for the given URI.
+	 * 
+	 * @param uri   The URI of the file.
+	 * @param entry The entry to remove.
+	 */
+	private synchronized void remove(String uri, Entry entry) {
+		if (this.entries.get(uri) == entry) {
+			this.entries.remove(uri);
+			this.size -= entry.content.capacity();
+		}
+	}
+
+}
@@ -0,0 +1,662 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+import org.restlet.engine.Engine;
+
+/**
+ * Asynchronous writer of access log entries to a file. The threads handling
+ * the calls append their entries to a bounded and lock-free ring buffer, each
+ * slot holding a pre-sized {@link StringBuilder} that is reused across
+ * entries. A single writer thread drains the ring buffer, encodes the entries
+ * in UTF-8 and writes them in batches to a {@link FileChannel}, so that the
+ * calls are never blocked by the disk.<br>
+ * <br>
+ * An entry is added in two steps: a slot is first claimed with
+ * {@link #claim()}, then the entry returned by {@link #getEntry(long)} is
+ * filled and finally published with {@link #publish(long)}, even if its
+ * formatting failed. When the ring buffer is full, the entry is dropped unless
+ * the writer is blocking, in which case the calling thread waits for a free
+ * slot. Both situations are counted.<br>
+ * <br>
+ * The flush policy is controlled by the flush interval: the encoded entries
+ * are written to the file when the buffer is full or when the interval has
+ * elapsed. With an interval of zero, they are written as soon as the ring
+ * buffer is empty. When the ring buffer is empty, the writer thread is parked
+ * until an entry is published, or until the flush interval elapses if encoded
+ * entries are waiting, so that an idle writer doesn't consume any CPU. Each entry is terminated by a new line like with the
+ * {@link AccessLogFormatter}, whose head is written when the file is empty and
+ * whose tail is written when the writer is stopped.<br>
+ * <br>
+ * Concurrency note: instances of this class are thread-safe.
+ * 
+ * @author Jerome Louvel
+ */
+public class AccessLogWriter {
+
+	/** The default number of entries in the ring buffer. */
+	public static final int DEFAULT_CAPACITY = 8192;
+
+	/** The default initial size of each entry, in characters. */
+	public static final int DEFAULT_ENTRY_SIZE = 256;
+
+	/**
+	 * The delay in nanoseconds between two attempts of a blocked calling thread
+	 * to claim a slot.
+	 */
+	private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	/** The number of times a calling thread waited for a free slot. */
+	private final LongAdder backpressureCount;
+
+	/** Indicates if the calling threads wait for a free slot. */
+	private volatile boolean blocking;
+
+	/** The buffer of encoded entries, only used by the writer thread. */
+	private volatile ByteBuffer buffer;
+
+	/** The size in bytes of the buffer of encoded entries. */
+	private volatile int bufferSize;
+
+	/** The capacity of the ring buffer, as a power of two. */
+	private final int capacity;
+
+	/** The file channel, only used by the writer thread. */
+	private volatile FileChannel channel;
+
+	/** The buffer of characters to encode, only used by the writer thread. */
+	private CharBuffer chars;
+
+	/** The next sequence to claim. */
+	private final AtomicLong claimSequence;
+
+	/** The next sequence to consume, only updated by the writer thread. */
+	private volatile long consumeSequence;
+
+	/** The number of dropped entries. */
+	private final LongAdder droppedCount;
+
+	/** The UTF-8 encoder, only used by the writer thread. */
+	private final CharsetEncoder encoder;
+
+	/** The reusable entries of the ring buffer. */
+	private final StringBuilder[] entries;
+
+	/** The initial size of each entry, in characters. */
+	private final int entrySize;
+
+	/** The target file. */
+	private final File file;
+
+	/** The maximum delay in milliseconds before writing the entries. */
+	private volatile long flushInterval;
+
+	/** Indicates if the written entries are forced to the storage device. */
+	private volatile boolean forceOnFlush;
+
+	/** The formatter providing the head and tail of the file. */
+	private volatile AccessLogFormatter formatter;
+
+	/** The mask computing the index of a sequence in the ring buffer. */
+	private final int mask;
+
+	/** Indicates if the writer thread is parked, waiting for entries. */
+	private volatile boolean parked;
+
+	/** The sequence published in each slot of the ring buffer. */
+	private final AtomicLongArray publishedSequences;
+
+	/** Indicates if the writer is running. */
+	private volatile boolean running;
+
+	/** The writer thread. */
+	private volatile Thread thread;
+
+	/** The number of written entries. */
+	private final LongAdder writtenCount;
+
+	/**
+	 * Constructor using the default capacity.
+	 * 
+	 * @param file The target file.
+	 */
+	public AccessLogWriter(File file) {
+		this(file, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param file     The target file.
+	 * @param capacity The number of entries in the ring buffer, rounded up to a
+	 *                 power of two.
+	 */
+	public AccessLogWriter(File file, int capacity) {
+		this(file, capacity, DEFAULT_ENTRY_SIZE);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param file      The target file.
+	 * @param capacity  The number of entries in the ring buffer, rounded up to a
+	 *                  power of two.
+	 * @param entrySize The initial size of each entry, in characters.
+	 */
+	public AccessLogWriter(File file, int capacity, int entrySize) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The capacity must be positive");
+		}
+
+		this.file = file;
+		this.capacity = (capacity == 1) ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+		this.mask = this.capacity - 1;
+		this.entrySize = entrySize;
+		this.entries = new StringBuilder[this.capacity];
+		this.publishedSequences = new AtomicLongArray(this.capacity);
+
+		for (int i = 0; i < this.capacity; i++) {
+			this.entries[i] = new StringBuilder(entrySize);
+			this.publishedSequences.set(i, -1L);
+		}
+
+		this.claimSequence = new AtomicLong();
+		this.consumeSequence = 0L;
+		this.backpressureCount = new LongAdder();
+		this.droppedCount = new LongAdder();
+		this.writtenCount = new LongAdder();
+		this.encoder = StandardCharsets.UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		this.blocking = false;
+		this.bufferSize = 64 * 1024;
+		this.flushInterval = 1000L;
+		this.forceOnFlush = false;
+		this.formatter = new AccessLogFormatter();
+	}
+
+	/**
+	 * Claims a slot of the ring buffer. When the ring buffer is full, the entry
+	 * is dropped unless the writer is blocking, in which case the calling thread
+	 * waits for a free slot. The entry is also dropped if the writer isn't
+	 * running. A claimed slot must always be published.
+	 * 
+	 * @return The sequence of the claimed slot or -1 if the entry is dropped.
+	 */
+	public long claim() {
+		long result = -1L;
+		boolean waiting = false;
+
+		while (this.running) {
+			long sequence = this.claimSequence.get();
+
+			if (sequence - this.consumeSequence >= this.capacity) {
+				if (!isBlocking()) {
+					break;
+				} else if (!waiting) {
+					this.backpressureCount.increment();
+					waiting = true;
+				}
+
+				LockSupport.unpark(this.thread);
+				LockSupport.parkNanos(this, POLL_NANOS);
+			} else if (this.claimSequence.compareAndSet(sequence, sequence + 1)) {
+				result = sequence;
+				break;
+			}
+		}
+
+		if (result < 0) {
+			this.droppedCount.increment();
+		}
+
+		return result;
+	}
+
+	/**
+	 * Drains the published entries of the ring buffer into the buffer of encoded
+	 * entries.
+	 * 
+	 * @return The number of drained entries.
+	 * @throws IOException
+	 */
+	private int drain() throws IOException {
+		int result = 0;
+		long sequence = this.consumeSequence;
+		int index = (int) (sequence & this.mask);
+
+		while ((result < this.capacity) && (this.publishedSequences.get(index) == sequence)) {
+			StringBuilder entry = this.entries[index];
+
+			if (entry.length() > 0) {
+				encode(entry);
+				this.writtenCount.increment();
+			}
+
+			// Don't retain the memory of unusually large entries
+			if (entry.capacity() > 4 * this.entrySize) {
+				this.entries[index] = new StringBuilder(this.entrySize);
+			} else {
+				entry.setLength(0);
+			}
+
+			this.consumeSequence = ++sequence;
+			index = (int) (sequence & this.mask);
+			result++;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Encodes an entry followed by a new line.
+	 * 
+	 * @param entry The entry to encode.
+	 * @throws IOException
+	 */
+	private void encode(StringBuilder entry) throws IOException {
+		int length = entry.length();
+
+		if (this.chars.capacity() <= length) {
+			this.chars = CharBuffer.allocate(Math.max(length + 1, 2 * this.chars.capacity()));
+		}
+
+		this.chars.clear();
+		entry.getChars(0, length, this.chars.array(), 0);
+		this.chars.array()[length] = '\n';
+		this.chars.limit(length + 1);
+		encode(this.chars);
+	}
+
+	/**
+	 * Encodes characters, writing the buffer of encoded entries to the file each
+	 * time it is full.
+	 * 
+	 * @param source The characters to encode.
+	 * @throws IOException
+	 */
+	private void encode(CharBuffer source) throws IOException {
+		this.encoder.reset();
+		CoderResult coderResult = this.encoder.encode(source, this.buffer, true);
+
+		while (coderResult.isOverflow()) {
+			write();
+			coderResult = this.encoder.encode(source, this.buffer, true);
+		}
+
+		while (this.encoder.flush(this.buffer).isOverflow()) {
+			write();
+		}
+	}
+
+	/**
+	 * Returns the number of times a calling thread waited for a free slot.
+	 * 
+	 * @return The number of times a calling thread waited for a free slot.
+	 */
+	public long getBackpressureCount() {
+		return this.backpressureCount.sum();
+	}
+
+	/**
+	 * Returns the size in bytes of the buffer of encoded entries. Defaults to
+	 * 65536.
+	 * 
+	 * @return The size in bytes of the buffer of encoded entries.
+	 */
+	public int getBufferSize() {
+		return this.bufferSize;
+	}
+
+	/**
+	 * Returns the capacity of the ring buffer.
+	 * 
+	 * @return The capacity of the ring buffer.
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Returns the number of dropped entries, either because the ring buffer was
+	 * full or because the writer wasn't running.
+	 * 
+	 * @return The number of dropped entries.
+	 */
+	public long getDroppedCount() {
+		return this.droppedCount.sum();
+	}
+
+	/**
+	 * Returns the entry of a claimed slot, empty and ready to be filled.
+	 * 
+	 * @param sequence The sequence of the claimed slot.
+	 * @return The entry to fill.
+	 */
+	public StringBuilder getEntry(long sequence) {
+		return this.entries[(int) (sequence & this.mask)];
+	}
+
+	/**
+	 * Returns the target file.
+	 * 
+	 * @return The target file.
+	 */
+	public File getFile() {
+		return this.file;
+	}
+
+	/**
+	 * Returns the maximum delay in milliseconds before writing the entries to
+	 * the file. Defaults to 1000 ms. With a value of zero, the entries are
+	 * written as soon as the ring buffer is empty.
+	 * 
+	 * @return The maximum delay in milliseconds before writing the entries.
+	 */
+	public long getFlushInterval() {
+		return this.flushInterval;
+	}
+
+	/**
+	 * Returns the formatter providing the head and tail of the file. Defaults to
+	 * an {@link AccessLogFormatter}.
+	 * 
+	 * @return The formatter providing the head and tail of the file.
+	 */
+	public AccessLogFormatter getFormatter() {
+		return this.formatter;
+	}
+
+	/**
+	 * Returns the number of entries claimed but not written yet.
+	 * 
+	 * @return The number of entries claimed but not written yet.
+	 */
+	public long getPendingCount() {
+		return this.claimSequence.get() - this.consumeSequence;
+	}
+
+	/**
+	 * Returns the number of written entries.
+	 * 
+	 * @return The number of written entries.
+	 */
+	public long getWrittenCount() {
+		return this.writtenCount.sum();
+	}
+
+	/**
+	 * Indicates if the calling threads wait for a free slot when the ring buffer
+	 * is full, instead of dropping their entry. Defaults to false.
+	 * 
+	 * @return True if the calling threads wait for a free slot.
+	 */
+	public boolean isBlocking() {
+		return this.blocking;
+	}
+
+	/**
+	 * Indicates if the written entries are forced to the storage device.
+	 * Defaults to false.
+	 * 
+	 * @return True if the written entries are forced to the storage device.
+	 */
+	public boolean isForceOnFlush() {
+		return this.forceOnFlush;
+	}
+
+	/**
+	 * Indicates if the writer is running.
+	 * 
+	 * @return True if the writer is running.
+	 */
+	public boolean isRunning() {
+		return this.running;
+	}
+
+	/**
+	 * Adds an entry. The message is copied, so the caller can reuse it.
+	 * 
+	 * @param message The entry to add.
+	 * @return True if the entry was added, false if it was dropped.
+	 */
+	public boolean log(CharSequence message) {
+		long sequence = claim();
+
+		if (sequence >= 0) {
+			getEntry(sequence).append(message);
+			publish(sequence);
+		}
+
+		return sequence >= 0;
+	}
+
+	/**
+	 * Parks the writer thread until an entry is published. When encoded entries
+	 * are waiting to be written, the thread is parked at most until the flush
+	 * interval has elapsed since the last write.
+	 * 
+	 * @param flushNanos The flush interval in nanoseconds.
+	 * @param lastWrite  The time of the last write in nanoseconds.
+	 */
+	private void park(long flushNanos, long lastWrite) {
+		this.parked = true;
+
+		// Check again after the flag is visible to the publishing threads
+		if (this.publishedSequences.get((int) (this.consumeSequence & this.mask)) != this.consumeSequence) {
+			if (!this.running) {
+				LockSupport.parkNanos(this, POLL_NANOS);
+			} else if ((flushNanos == 0) || (this.buffer.position() == 0)) {
+				LockSupport.park(this);
+			} else {
+				LockSupport.parkNanos(this, flushNanos - (System.nanoTime() - lastWrite));
+			}
+		}
+
+		this.parked = false;
+	}
+
+	/**
+	 * Publishes the entry of a claimed slot, making it available to the writer
+	 * thread and waking it up if it was waiting for entries. An empty entry is
+	 * skipped.
+	 * 
+	 * @param sequence The sequence of the claimed slot.
+	 */
+	public void publish(long sequence) {
+		this.publishedSequences.set((int) (sequence & this.mask), sequence);
+
+		// The ring buffer was drained, wake up the writer
+		if (this.parked) {
+			LockSupport.unpark(this.thread);
+		}
+	}
+
+	/**
+	 * Drains the ring buffer until the writer is stopped.
+	 */
+	private void run() {
+		final long flushNanos = TimeUnit.MILLISECONDS.toNanos(getFlushInterval());
+		long lastWrite = System.nanoTime();
+
+		try {
+			while (true) {
+				boolean idle = (drain() == 0);
+				long now = System.nanoTime();
+
+				if ((this.buffer.position() > 0)
+						&& ((idle && (flushNanos == 0)) || (now - lastWrite >= flushNanos))) {
+					write();
+					lastWrite = now;
+				}
+
+				if (idle) {
+					if (!this.running && (getPendingCount() == 0)) {
+						break;
+					}
+
+					park(flushNanos, lastWrite);
+				}
+			}
+		} catch (IOException e) {
+			this.running = false;
+			Engine.getLogger(AccessLogWriter.class).log(Level.SEVERE,
+					"Unable to write the access log entries to " + getFile(), e);
+		}
+	}
+
+	/**
+	 * Indicates if the calling threads wait for a free slot when the ring buffer
+	 * is full, instead of dropping their entry.
+	 * 
+	 * @param blocking True if the calling threads wait for a free slot.
+	 */
+	public void setBlocking(boolean blocking) {
+		this.blocking = blocking;
+	}
+
+	/**
+	 * Sets the size in bytes of the buffer of encoded entries. Must be set before
+	 * the writer is started.
+	 * 
+	 * @param bufferSize The size in bytes of the buffer of encoded entries.
+	 */
+	public void setBufferSize(int bufferSize) {
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * Sets the maximum delay in milliseconds before writing the entries to the
+	 * file. Must be set before the writer is started.
+	 * 
+	 * @param flushInterval The maximum delay in milliseconds before writing the
+	 *                      entries.
+	 */
+	public void setFlushInterval(long flushInterval) {
+		this.flushInterval = flushInterval;
+	}
+
+	/**
+	 * Indicates if the written entries are forced to the storage device.
+	 * 
+	 * @param forceOnFlush True if the written entries are forced to the storage
+	 *                     device.
+	 */
+	public void setForceOnFlush(boolean forceOnFlush) {
+		this.forceOnFlush = forceOnFlush;
+	}
+
+	/**
+	 * Sets the formatter providing the head and tail of the file, for example a
+	 * {@link DefaultAccessLogFormatter}.
+	 * 
+	 * @param formatter The formatter providing the head and tail of the file.
+	 */
+	public void setFormatter(AccessLogFormatter formatter) {
+		this.formatter = formatter;
+	}
+
+	/**
+	 * Opens the file in append mode, writes the head of the formatter if the file
+	 * is empty and starts the writer thread.
+	 * 
+	 * @throws IOException
+	 */
+	public synchronized void start() throws IOException {
+		if (!this.running) {
+			this.channel = FileChannel.open(getFile().toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.APPEND);
+			this.buffer = ByteBuffer.allocateDirect(getBufferSize());
+			this.chars = CharBuffer.allocate(this.entrySize);
+
+			if ((getFormatter() != null) && (this.channel.size() == 0)) {
+				String head = getFormatter().getHead(null);
+
+				if ((head != null) && !head.isEmpty()) {
+					encode(CharBuffer.wrap(head));
+					write();
+				}
+			}
+
+			this.running = true;
+			this.thread = new LoggingThreadFactory(Engine.getLogger(AccessLogWriter.class), true)
+					.newThread(this::run);
+			this.thread.setName("Restlet-AccessLogWriter");
+			this.thread.start();
+		}
+	}
+
+	/**
+	 * Stops the writer thread once the published entries are written, writes the
+	 * tail of the formatter and closes the file.
+	 * 
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public synchronized void stop() throws IOException, InterruptedException {
+		if (this.thread != null) {
+			this.running = false;
+			LockSupport.unpark(this.thread);
+			this.thread.join();
+			this.thread = null;
+
+			try {
+				if (getFormatter() != null) {
+					String tail = getFormatter().getTail(null);
+
+					if ((tail != null) && !tail.isEmpty()) {
+						encode(CharBuffer.wrap(tail));
+					}
+				}
+
+				write();
+			} finally {
+				this.channel.close();
+				this.channel = null;
+			}
+		}
+	}
+
+	/**
+	 * Writes the buffer of encoded entries to the file.
+	 * 
+	 * @throws IOException
+	 */
+	private void write() throws IOException {
+		this.buffer.flip();
+
+		while (this.buffer.hasRemaining()) {
+			this.channel.write(this.buffer);
+		}
+
+		this.buffer.clear();
+
+		if (isForceOnFlush()) {
+			this.channel.force(false);
+		}
+	}
+
+}
@@ -0,0 +1,223 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.log;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import org.restlet.engine.metrics.CallRecord;
+
+/**
+ * Latency breakdown of a call, based on {@link System#nanoTime()} markers. The
+ * durations of the successive phases of the call are accumulated in a fixed
+ * size array, as some phases such as the routing or the conversion can occur
+ * several times during a single call.<br>
+ * <br>
+ * The phases don't all exclude each other: the conversions happen during the
+ * handling by the target resource, while the filtering only accounts for the
+ * time spent by the filters themselves, before and after the next Restlet.<br>
+ * <br>
+ * Concurrency note: instances of this class aren't synchronized, as a call is
+ * processed by a single thread at a time, even when it is suspended and
+ * resumed by another thread. Only the record of the call's metrics is
+ * updated atomically, as it can be completed by several threads.
+ * 
+ * @author Jerome Louvel
+ * @see org.restlet.Request#getTiming()
+ */
+public final class CallTiming {
+
+	/**
+	 * The phases of a call.
+	 */
+	public enum Phase {
+
+		/** From the acceptance of the call by the connector to its adaptation. */
+		ACCEPT,
+
+		/** Adaptation of the connector call into a uniform request. */
+		ADAPTATION,
+
+		/** Selection of the next Restlet by the routers and virtual hosts. */
+		ROUTING,
+
+		/** Own processing of the filters, before and after the next Restlet. */
+		FILTERING,
+
+		/** Handling of the call by the target resource, including conversions. */
+		HANDLING,
+
+		/** Conversions between representations and objects. */
+		CONVERSION,
+
+		/** Commit of the response to the connector, including its sending. */
+		COMMIT
+	}
+
+	/** The phases, in declaration order. */
+	private static final Phase[] PHASES = Phase.values();
+
+	/** The atomic updater of the record of the call's metrics. */
+	private static final AtomicReferenceFieldUpdater<CallTiming, CallRecord> RECORD_UPDATER = AtomicReferenceFieldUpdater
+			.newUpdater(CallTiming.class, CallRecord.class, "record");
+
+	/** The accumulated duration of each phase, in nanoseconds. */
+	private final long[] durations;
+
+	/** The end time in nanoseconds, or 0 if the call isn't completed yet. */
+	private long endTime;
+
+	/** The record of the call's metrics, if recorded. */
+	private volatile CallRecord record;
+
+	/** The start time in nanoseconds. */
+	private final long startTime;
+
+	/**
+	 * Constructor starting now.
+	 */
+	public CallTiming() {
+		this(System.nanoTime());
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param startTime The start time, as given by {@link System#nanoTime()}.
+	 */
+	public CallTiming(long startTime) {
+		this.durations = new long[PHASES.length];
+		this.startTime = startTime;
+		this.endTime = 0L;
+	}
+
+	/**
+	 * Adds a duration to a phase.
+	 * 
+	 * @param phase    The phase.
+	 * @param duration The duration to add, in nanoseconds.
+	 */
+	public void add(Phase phase, long duration) {
+		this.durations[phase.ordinal()] += duration;
+	}
+
+	/**
+	 * Marks the end of the call, unless it was already completed.
+	 */
+	public void complete() {
+		if (this.endTime == 0L) {
+			this.endTime = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Returns the accumulated duration of a phase.
+	 * 
+	 * @param phase The phase.
+	 * @return The accumulated duration of the phase, in nanoseconds.
+	 */
+	public long getDuration(Phase phase) {
+		return this.durations[phase.ordinal()];
+	}
+
+	/**
+	 * Returns the elapsed time since the start of the call, until its end if it
+	 * is completed.
+	 * 
+	 * @return The elapsed time, in nanoseconds.
+	 */
+	public long getElapsedTime() {
+		return (isCompleted() ? this.endTime : System.nanoTime()) - this.startTime;
+	}
+
+	/**
+	 * Returns the end time, or 0 if the call isn't completed yet.
+	 * 
+	 * @return The end time, as given by {@link System#nanoTime()}.
+	 */
+	public long getEndTime() {
+		return this.endTime;
+	}
+
+	/**
+	 * Returns the record of the call's metrics.
+	 * 
+	 * @return The record of the call's metrics or null.
+	 */
+	public CallRecord getRecord() {
+		return this.record;
+	}
+
+	/**
+	 * Returns the start time.
+	 * 
+	 * @return The start time, as given by {@link System#nanoTime()}.
+	 */
+	public long getStartTime() {
+		return this.startTime;
+	}
+
+	/**
+	 * Indicates if the call is completed.
+	 * 
+	 * @return True if the call is completed.
+	 */
+	public boolean isCompleted() {
+		return this.endTime != 0L;
+	}
+
+	/**
+	 * Adds to a phase the time elapsed since a given start time.
+	 * 
+	 * @param phase     The phase.
+	 * @param startTime The start time of the phase, as given by
+	 *                  {@link System#nanoTime()}.
+	 */
+	public void record(Phase phase, long startTime) {
+		add(phase, System.nanoTime() - startTime);
+	}
+
+	/**
+	 * Sets the record of the call's metrics.
+	 * 
+	 * @param record The record of the call's metrics.
+	 */
+	public void setRecord(CallRecord record) {
+		this.record = record;
+	}
+
+	/**
+	 * Removes and returns the record of the call's metrics. Only one caller
+	 * obtains the record when several threads try to take it.
+	 * 
+	 * @return The record of the call's metrics or null.
+	 */
+	public CallRecord takeRecord() {
+		return RECORD_UPDATER.getAndSet(this, null);
+	}
+
+	/**
+	 * Returns the breakdown in microseconds, for example
+	 * "elapsed=1250 accept=12 adaptation=20 routing=35 ...".
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("elapsed=").append(TimeUnit.NANOSECONDS.toMicros(getElapsedTime()));
+
+		for (Phase phase : PHASES) {
+			sb.append(' ').append(phase.name().toLowerCase()).append('=')
+					.append(TimeUnit.NANOSECONDS.toMicros(getDuration(phase)));
+		}
+
+		return sb.toString();
+	}
+
+}
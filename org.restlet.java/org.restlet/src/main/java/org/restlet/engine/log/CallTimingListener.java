@@ -0,0 +1,37 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.log;
+
+import org.restlet.Request;
+import org.restlet.Response;
+
+/**
+ * Listener notified by the server connectors once a call is completed, with its
+ * latency breakdown. Typically used to feed metrics. It is set as a
+ * "callTimingListener" attribute of the server's context.<br>
+ * <br>
+ * Concurrency note: implementations are invoked by several threads at the same
+ * time and therefore must be thread-safe. They should also return quickly, as
+ * they are invoked by the connector threads.
+ * 
+ * @author Jerome Louvel
+ */
+public interface CallTimingListener {
+
+	/**
+	 * Invoked once a call is completed and its response committed.
+	 * 
+	 * @param request  The completed request.
+	 * @param response The committed response.
+	 * @param timing   The latency breakdown of the call.
+	 */
+	void completed(Request request, Response response, CallTiming timing);
+
+}
@@ -9,6 +9,7 @@
 
 package org.restlet.engine.log;
 
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -22,7 +23,8 @@ import org.restlet.service.LogService;
 /**
  * Filter logging all calls after their handling by the target Restlet. The
  * current format is similar to IIS 6 logs. The logging is based on the
- * java.util.logging package.
+ * java.util.logging package, unless an {@link AccessLogWriter} is set on the
+ * log service, in which case the entries are written asynchronously.
  * 
  * Concurrency note: instances of this class or its subclasses can be invoked by
  * several threads at the same time and therefore must be thread-safe. You
@@ -68,9 +70,27 @@ public class LogFilter extends Filter {
 	@Override
 	protected void afterHandle(Request request, Response response) {
 		try {
-			if (request.isLoggable() && this.logLogger.isLoggable(Level.INFO)) {
-				long startTime = (Long) request.getAttributes().get("org.restlet.startTime");
-				int duration = (int) (System.currentTimeMillis() - startTime);
+			AccessLogWriter accessLogWriter = this.logService.getAccessLogWriter();
+
+			if (request.isLoggable() && (accessLogWriter != null)) {
+				long sequence = accessLogWriter.claim();
+
+				if (sequence >= 0) {
+					// Format the entry directly into the reusable slot
+					StringBuilder entry = accessLogWriter.getEntry(sequence);
+
+					try {
+						this.logService.appendResponseLogMessage(entry, response, getDuration(request));
+					} catch (Throwable e) {
+						// Skip the partially formatted entry
+						entry.setLength(0);
+						throw e;
+					} finally {
+						accessLogWriter.publish(sequence);
+					}
+				}
+			} else if (request.isLoggable() && this.logLogger.isLoggable(Level.INFO)) {
+				int duration = getDuration(request);
 				this.logLogger.log(Level.INFO, this.logService.getResponseLogMessage(response, duration));
 			}
 		} catch (Throwable e) {
@@ -80,7 +100,8 @@ public class LogFilter extends Filter {
 	}
 
 	/**
-	 * Allows filtering before processing by the next Restlet. Saves the start time.
+	 * Allows filtering before processing by the next Restlet. Starts the latency
+	 * breakdown of the call if it wasn't already started by the server connector.
 	 * 
 	 * @param request  The request to handle.
 	 * @param response The response to update.
@@ -88,7 +109,9 @@ public class LogFilter extends Filter {
 	 */
 	@Override
 	protected int beforeHandle(Request request, Response response) {
-		request.getAttributes().put("org.restlet.startTime", System.currentTimeMillis());
+		if (request.getTiming() == null) {
+			request.setTiming(new CallTiming());
+		}
 
 		// Set the log level for the given request
 		request.setLoggable(this.logService.isLoggable(request));
@@ -101,4 +124,15 @@ public class LogFilter extends Filter {
 		return CONTINUE;
 	}
 
+	/**
+	 * Returns the duration of the call so far, based on its latency breakdown.
+	 * 
+	 * @param request The request handled.
+	 * @return The duration of the call so far, in milliseconds.
+	 */
+	private int getDuration(Request request) {
+		CallTiming timing = request.getTiming();
+		return (timing == null) ? 0 : (int) TimeUnit.NANOSECONDS.toMillis(timing.getElapsedTime());
+	}
+
 }
@@ -0,0 +1,153 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the calls handled by a given route of a given virtual host. It
+ * counts the calls by status class and records their latency in a
+ * {@link LatencyHistogram}.<br>
+ * <br>
+ * Concurrency note: instances of this class are thread-safe.
+ * 
+ * @author Jerome Louvel
+ */
+public final class CallMetrics {
+
+	/** The labels of the status classes, indexed by status class. */
+	private static final String[] STATUS_CLASSES = { "other", "1xx", "2xx", "3xx", "4xx", "5xx" };
+
+	/**
+	 * Returns the index of the status class of a status code.
+	 * 
+	 * @param code The status code.
+	 * @return The index of the status class, or 0 for non standard codes.
+	 */
+	private static int getStatusClass(int code) {
+		int result = code / 100;
+		return ((result < 1) || (result >= STATUS_CLASSES.length)) ? 0 : result;
+	}
+
+	/** The counts of calls, indexed by status class. */
+	private final LongAdder[] counts;
+
+	/** The label of the virtual host. */
+	private final String host;
+
+	/** The latencies of the calls, in nanoseconds. */
+	private final LatencyHistogram latencies;
+
+	/** The label of the route. */
+	private final String route;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param host  The label of the virtual host.
+	 * @param route The label of the route.
+	 */
+	public CallMetrics(String host, String route) {
+		this.counts = new LongAdder[STATUS_CLASSES.length];
+
+		for (int i = 0; i < this.counts.length; i++) {
+			this.counts[i] = new LongAdder();
+		}
+
+		this.host = host;
+		this.latencies = new LatencyHistogram();
+		this.route = route;
+	}
+
+	/**
+	 * Returns the number of calls for a given status class.
+	 * 
+	 * @param statusClass The status class, for example "2xx" or "other".
+	 * @return The number of calls for the given status class.
+	 */
+	public long getCount(String statusClass) {
+		for (int i = 0; i < STATUS_CLASSES.length; i++) {
+			if (STATUS_CLASSES[i].equals(statusClass)) {
+				return this.counts[i].sum();
+			}
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Returns the label of the virtual host.
+	 * 
+	 * @return The label of the virtual host.
+	 */
+	public String getHost() {
+		return this.host;
+	}
+
+	/**
+	 * Returns the latencies of the calls, in nanoseconds.
+	 * 
+	 * @return The latencies of the calls, in nanoseconds.
+	 */
+	public LatencyHistogram getLatencies() {
+		return this.latencies;
+	}
+
+	/**
+	 * Returns the label of the route.
+	 * 
+	 * @return The label of the route.
+	 */
+	public String getRoute() {
+		return this.route;
+	}
+
+	/**
+	 * Returns the labels of the status classes, starting with "other" for the
+	 * non standard codes.
+	 * 
+	 * @return The labels of the status classes.
+	 */
+	public String[] getStatusClasses() {
+		return STATUS_CLASSES.clone();
+	}
+
+	/**
+	 * Returns the total number of calls.
+	 * 
+	 * @return The total number of calls.
+	 */
+	public long getTotalCount() {
+		long result = 0;
+
+		for (LongAdder count : this.counts) {
+			result += count.sum();
+		}
+
+		return result;
+	}
+
+	/**
+	 * Records a completed call.
+	 * 
+	 * @param statusCode The status code of the response.
+	 * @param latency    The latency of the call, in nanoseconds.
+	 */
+	public void record(int statusCode, long latency) {
+		this.counts[getStatusClass(statusCode)].increment();
+		this.latencies.record(latency);
+	}
+
+	@Override
+	public String toString() {
+		return "CallMetrics [host=" + getHost() + ", route=" + getRoute() + ", count=" + getTotalCount() + "]";
+	}
+
+}
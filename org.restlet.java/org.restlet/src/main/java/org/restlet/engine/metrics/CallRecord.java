@@ -0,0 +1,145 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.metrics;
+
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.engine.log.CallTiming;
+import org.restlet.routing.TemplateRoute;
+import org.restlet.routing.VirtualHost;
+
+/**
+ * Record of a call measured by a {@link MetricsFilter}. It is only set on the
+ * {@link CallTiming} of the call when the metrics service is enabled, and
+ * traces the virtual host and the label of the template routes that handled
+ * the call. The call is recorded once, either after its handling or, for
+ * suspended responses, once committed by the server connector.<br>
+ * <br>
+ * Records are recycled by their {@link MetricsRegistry} once the call is
+ * recorded, so that the recording of a call doesn't allocate any object. They
+ * must therefore be removed from the call timing with {@link #take(Request)}
+ * before being completed or discarded.<br>
+ * <br>
+ * Concurrency note: instances of this class are updated by the thread handling
+ * the call, and can be completed by the thread committing its response.
+ * 
+ * @author Jerome Louvel
+ */
+public final class CallRecord {
+
+	/**
+	 * Returns the record of a call, if its metrics are recorded.
+	 * 
+	 * @param request The request of the call.
+	 * @return The record of the call or null.
+	 */
+	public static CallRecord get(Request request) {
+		CallTiming timing = request.getTiming();
+		return (timing == null) ? null : timing.getRecord();
+	}
+
+	/**
+	 * Removes and returns the record of a call, if its metrics are recorded. Only
+	 * one caller obtains the record, which is then in charge of completing or
+	 * discarding it.
+	 * 
+	 * @param request The request of the call.
+	 * @return The record of the call or null.
+	 */
+	public static CallRecord take(Request request) {
+		CallTiming timing = request.getTiming();
+		return (timing == null) ? null : timing.takeRecord();
+	}
+
+	/** The virtual host that routed the call. */
+	private volatile VirtualHost host;
+
+	/** The registry of the metrics. */
+	private final MetricsRegistry registry;
+
+	/** The label of the template routes that matched the call. */
+	private volatile String route;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param registry The registry of the metrics.
+	 */
+	CallRecord(MetricsRegistry registry) {
+		this.registry = registry;
+		this.route = "";
+	}
+
+	/**
+	 * Adds a template route that matched the call.
+	 * 
+	 * @param route The template route.
+	 */
+	public void addRoute(TemplateRoute route) {
+		this.route = this.registry.resolveRouteLabel(this.route, route);
+	}
+
+	/**
+	 * Records the completed call in the registry and indicates that it left the
+	 * server.
+	 * 
+	 * @param response The response of the call.
+	 * @param latency  The latency of the call, in nanoseconds.
+	 */
+	public void complete(Response response, long latency) {
+		this.registry.decrementInFlight();
+		this.registry.record(this, response.getStatus().getCode(), latency);
+		this.registry.release(this);
+	}
+
+	/**
+	 * Indicates that the call left the server without being recorded.
+	 */
+	public void discard() {
+		this.registry.decrementInFlight();
+		this.registry.release(this);
+	}
+
+	/**
+	 * Returns the virtual host that routed the call.
+	 * 
+	 * @return The virtual host that routed the call or null.
+	 */
+	public VirtualHost getHost() {
+		return this.host;
+	}
+
+	/**
+	 * Returns the label of the template routes that matched the call.
+	 * 
+	 * @return The label of the template routes that matched the call.
+	 */
+	public String getRoute() {
+		return this.route;
+	}
+
+	/**
+	 * Resets the record before its reuse for another call.
+	 */
+	void reset() {
+		this.host = null;
+		this.route = "";
+	}
+
+	/**
+	 * Sets the virtual host that routed the call.
+	 * 
+	 * @param host The virtual host that routed the call.
+	 */
+	public void setHost(VirtualHost host) {
+		this.host = host;
+	}
+
+}
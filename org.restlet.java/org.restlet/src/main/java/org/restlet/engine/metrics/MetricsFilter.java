@@ -0,0 +1,103 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.metrics;
+
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.engine.log.CallTiming;
+import org.restlet.routing.Filter;
+
+/**
+ * Filter recording the metrics of the calls in a {@link MetricsRegistry}. A
+ * {@link CallRecord} is set on the call's {@link CallTiming} before the
+ * handling, so that the virtual hosts and template routes can trace the call. The latency is
+ * measured from the start of the call's {@link CallTiming}, set by the server
+ * connector when available.<br>
+ * <br>
+ * Calls whose response isn't automatically committed, for example by
+ * asynchronous resources, are recorded once their response is committed by the
+ * server connector, with their final status and full latency.<br>
+ * <br>
+ * Concurrency note: instances of this class or its subclasses can be invoked by
+ * several threads at the same time and therefore must be thread-safe.
+ * 
+ * @author Jerome Louvel
+ */
+public class MetricsFilter extends Filter {
+
+	/** The registry of the metrics. */
+	private final MetricsRegistry registry;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param context  The context.
+	 * @param registry The registry of the metrics.
+	 */
+	public MetricsFilter(Context context, MetricsRegistry registry) {
+		super(context);
+		this.registry = registry;
+	}
+
+	@Override
+	protected void afterHandle(Request request, Response response) {
+		// Suspended calls are recorded once committed
+		CallRecord record = response.isAutoCommitting() ? CallRecord.take(request) : null;
+
+		if (record != null) {
+			record.complete(response, request.getTiming().getElapsedTime());
+		}
+	}
+
+	@Override
+	protected int beforeHandle(Request request, Response response) {
+		if (request.getTiming() == null) {
+			request.setTiming(new CallTiming());
+		}
+
+		// Unless the call is already recorded by an enclosing filter
+		if (request.getTiming().getRecord() == null) {
+			getRegistry().incrementInFlight();
+			request.getTiming().setRecord(getRegistry().acquire());
+		}
+
+		return CONTINUE;
+	}
+
+	@Override
+	protected int doHandle(Request request, Response response) {
+		boolean handled = false;
+
+		try {
+			int result = super.doHandle(request, response);
+			handled = true;
+			return result;
+		} finally {
+			if (!handled) {
+				CallRecord record = CallRecord.take(request);
+
+				if (record != null) {
+					record.discard();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the registry of the metrics.
+	 * 
+	 * @return The registry of the metrics.
+	 */
+	public MetricsRegistry getRegistry() {
+		return this.registry;
+	}
+
+}
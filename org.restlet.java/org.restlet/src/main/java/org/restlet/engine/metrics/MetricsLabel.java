@@ -0,0 +1,69 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.metrics;
+
+/**
+ * Label of a virtual host or of a template route, resolved once by a
+ * {@link MetricsRegistry} and cached on the labeled object. The label stays
+ * valid as long as the two strings it was resolved from are the same
+ * instances, so that checking it doesn't require any allocation or hashing.
+ * For a virtual host, they are its host domain and host port patterns. For a
+ * template route, they are the label of the parent routes and the pattern of
+ * its URI template.<br>
+ * <br>
+ * Concurrency note: instances of this class are immutable.
+ * 
+ * @author Jerome Louvel
+ */
+public final class MetricsLabel {
+
+	/** The first string the label was resolved from. */
+	private final String first;
+
+	/** The second string the label was resolved from. */
+	private final String second;
+
+	/** The value of the label. */
+	private final String value;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param first  The first string the label was resolved from.
+	 * @param second The second string the label was resolved from.
+	 * @param value  The value of the label.
+	 */
+	public MetricsLabel(String first, String second, String value) {
+		this.first = first;
+		this.second = second;
+		this.value = value;
+	}
+
+	/**
+	 * Returns the value of the label.
+	 * 
+	 * @return The value of the label.
+	 */
+	public String getValue() {
+		return this.value;
+	}
+
+	/**
+	 * Indicates if the label was resolved from the given string instances.
+	 * 
+	 * @param first  The first string.
+	 * @param second The second string.
+	 * @return True if the label was resolved from the given string instances.
+	 */
+	public boolean isResolvedFrom(String first, String second) {
+		return (this.first == first) && (this.second == second);
+	}
+
+}
@@ -0,0 +1,450 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.metrics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.restlet.Server;
+import org.restlet.data.Protocol;
+import org.restlet.engine.RestletHelper;
+import org.restlet.engine.connector.NetServerHelper;
+import org.restlet.routing.TemplateRoute;
+import org.restlet.routing.VirtualHost;
+
+/**
+ * Registry of the call metrics, by virtual host and by route. The metrics are
+ * keyed by their exported labels, so that routes sharing the same labels are
+ * aggregated and that detached routes aren't retained. The route label is the
+ * full URI template of the call, made of the patterns of all the template
+ * routes that matched it, for example "/users/{id}".<br>
+ * <br>
+ * In order to record the calls without allocating any object, the labels are
+ * resolved once and cached on the virtual hosts and template routes as
+ * {@link MetricsLabel} instances, and the {@link CallRecord} instances are
+ * recycled in a small pool.<br>
+ * <br>
+ * The registry also tracks the number of calls in flight and exposes the
+ * worker threads usage of the internal server connectors. All the metrics can
+ * be written in the Prometheus text exposition format.<br>
+ * <br>
+ * Concurrency note: instances of this class are thread-safe.
+ * 
+ * @author Jerome Louvel
+ */
+public class MetricsRegistry {
+
+	/** The number of slots probed when acquiring or releasing a record. */
+	private static final int POOL_PROBES = 4;
+
+	/** The number of slots of the pool of records, a power of two. */
+	private static final int POOL_SIZE = 256;
+
+	/** The percentiles written as Prometheus summary quantiles. */
+	private static final double[] QUANTILES = { 0.5, 0.9, 0.99 };
+
+	/**
+	 * Appends a label value, escaped according to the Prometheus text format.
+	 * 
+	 * @param out   The appendable to update.
+	 * @param value The label value.
+	 * @throws IOException
+	 */
+	private static void appendLabelValue(Appendable out, String value) throws IOException {
+		out.append('"');
+
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+
+			if (c == '\\') {
+				out.append("\\\\");
+			} else if (c == '"') {
+				out.append("\\\"");
+			} else if (c == '\n') {
+				out.append("\\n");
+			} else {
+				out.append(c);
+			}
+		}
+
+		out.append('"');
+	}
+
+	/**
+	 * Appends a value in seconds, converted from nanoseconds.
+	 * 
+	 * @param out   The appendable to update.
+	 * @param value The value in nanoseconds.
+	 * @throws IOException
+	 */
+	private static void appendSeconds(Appendable out, long value) throws IOException {
+		out.append(Double.toString(value / 1e9));
+	}
+
+	/** The number of calls in flight. */
+	private final LongAdder inFlight;
+
+	/** The call metrics by virtual host label, then by route label. */
+	private final ConcurrentMap<String, ConcurrentMap<String, CallMetrics>> metrics;
+
+	/** The pool of the records available for reuse. */
+	private final AtomicReferenceArray<CallRecord> pool;
+
+	/** The servers whose worker threads usage is exposed. */
+	private volatile List<Server> servers;
+
+	/**
+	 * Constructor.
+	 */
+	public MetricsRegistry() {
+		this.inFlight = new LongAdder();
+		this.metrics = new ConcurrentHashMap<String, ConcurrentMap<String, CallMetrics>>();
+		this.pool = new AtomicReferenceArray<CallRecord>(POOL_SIZE);
+		this.servers = Collections.emptyList();
+	}
+
+	/**
+	 * Returns a record for a new call, reused from the pool if possible.
+	 * 
+	 * @return A record for a new call.
+	 */
+	public CallRecord acquire() {
+		int start = System.identityHashCode(Thread.currentThread());
+
+		for (int i = 0; i < POOL_PROBES; i++) {
+			int index = (start + i) & (POOL_SIZE - 1);
+			CallRecord result = this.pool.get(index);
+
+			if ((result != null) && this.pool.compareAndSet(index, result, null)) {
+				return result;
+			}
+		}
+
+		return new CallRecord(this);
+	}
+
+	/**
+	 * Indicates that a call left the server.
+	 */
+	public void decrementInFlight() {
+		this.inFlight.decrement();
+	}
+
+	/**
+	 * Returns a snapshot list of the call metrics.
+	 * 
+	 * @return A snapshot list of the call metrics.
+	 */
+	public List<CallMetrics> getCallMetrics() {
+		List<CallMetrics> result = new ArrayList<CallMetrics>();
+
+		for (Map<String, CallMetrics> routeMetrics : this.metrics.values()) {
+			result.addAll(routeMetrics.values());
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the call metrics of a route of a virtual host, creating them if
+	 * needed.
+	 * 
+	 * @param host  The label of the virtual host.
+	 * @param route The label of the route.
+	 * @return The call metrics.
+	 */
+	public CallMetrics getCallMetrics(String host, String route) {
+		ConcurrentMap<String, CallMetrics> routeMetrics = this.metrics.get(host);
+
+		if (routeMetrics == null) {
+			routeMetrics = this.metrics.computeIfAbsent(host, k -> new ConcurrentHashMap<String, CallMetrics>());
+		}
+
+		CallMetrics result = routeMetrics.get(route);
+
+		if (result == null) {
+			result = routeMetrics.computeIfAbsent(route, k -> new CallMetrics(host, route));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the label of a virtual host. Returns its host domain pattern,
+	 * followed by its host port pattern if it doesn't match every port. It is
+	 * only invoked when the label cached on the virtual host is missing or
+	 * outdated.
+	 * 
+	 * @param host The virtual host.
+	 * @return The label of the virtual host.
+	 */
+	protected String getHostLabel(VirtualHost host) {
+		String result = "";
+
+		if (host.getHostDomain() != null) {
+			result = host.getHostDomain();
+
+			if ((host.getHostPort() != null) && !".*".equals(host.getHostPort())) {
+				result += ":" + host.getHostPort();
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the number of calls in flight.
+	 * 
+	 * @return The number of calls in flight.
+	 */
+	public long getInFlight() {
+		return this.inFlight.sum();
+	}
+
+	/**
+	 * Returns the label of a template route that matched a call. Returns the
+	 * label of the parent routes followed by the URI template pattern of the
+	 * route. It is only invoked when the label cached on the template route is
+	 * missing or outdated.
+	 * 
+	 * @param parent The label of the parent routes that matched the call.
+	 * @param route  The template route.
+	 * @return The label of the route.
+	 */
+	protected String getRouteLabel(String parent, TemplateRoute route) {
+		return (route.getTemplate() == null) ? parent : parent.concat(route.getTemplate().getPattern());
+	}
+
+	/**
+	 * Returns the label of a server.
+	 * 
+	 * @param server The server.
+	 * @return The label of the server, for example "HTTP:8182".
+	 */
+	protected String getServerLabel(Server server) {
+		List<Protocol> protocols = server.getProtocols();
+		String protocol = protocols.isEmpty() ? "" : protocols.get(0).getName();
+		return protocol + ":" + server.getActualPort();
+	}
+
+	/**
+	 * Returns the servers whose worker threads usage is exposed.
+	 * 
+	 * @return The servers whose worker threads usage is exposed.
+	 */
+	public List<Server> getServers() {
+		return this.servers;
+	}
+
+	/**
+	 * Indicates that a call entered the server.
+	 */
+	public void incrementInFlight() {
+		this.inFlight.increment();
+	}
+
+	/**
+	 * Records a completed call.
+	 * 
+	 * @param record     The record of the call.
+	 * @param statusCode The status code of the response.
+	 * @param latency    The latency of the call, in nanoseconds.
+	 */
+	public void record(CallRecord record, int statusCode, long latency) {
+		getCallMetrics(resolveHostLabel(record.getHost()), record.getRoute()).record(statusCode, latency);
+	}
+
+	/**
+	 * Releases a record once its call is recorded, so that it can be reused. The
+	 * record is dropped if the probed slots of the pool are all taken.
+	 * 
+	 * @param record The record to release.
+	 */
+	void release(CallRecord record) {
+		record.reset();
+		int start = System.identityHashCode(Thread.currentThread());
+
+		for (int i = 0; i < POOL_PROBES; i++) {
+			if (this.pool.compareAndSet((start + i) & (POOL_SIZE - 1), null, record)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Returns the label of a virtual host, cached on the virtual host.
+	 * 
+	 * @param host The virtual host or null.
+	 * @return The label of the virtual host.
+	 * @see #getHostLabel(VirtualHost)
+	 */
+	String resolveHostLabel(VirtualHost host) {
+		if (host == null) {
+			return "";
+		}
+
+		String domain = host.getHostDomain();
+		String port = host.getHostPort();
+		MetricsLabel label = host.getMetricsLabel();
+
+		if ((label == null) || !label.isResolvedFrom(domain, port)) {
+			label = new MetricsLabel(domain, port, getHostLabel(host));
+			host.setMetricsLabel(label);
+		}
+
+		return label.getValue();
+	}
+
+	/**
+	 * Returns the label of a template route that matched a call, cached on the
+	 * template route.
+	 * 
+	 * @param parent The label of the parent routes that matched the call.
+	 * @param route  The template route.
+	 * @return The label of the route.
+	 * @see #getRouteLabel(String, TemplateRoute)
+	 */
+	String resolveRouteLabel(String parent, TemplateRoute route) {
+		String pattern = (route.getTemplate() == null) ? null : route.getTemplate().getPattern();
+		MetricsLabel label = route.getMetricsLabel();
+
+		if ((label == null) || !label.isResolvedFrom(parent, pattern)) {
+			label = new MetricsLabel(parent, pattern, getRouteLabel(parent, route));
+			route.setMetricsLabel(label);
+		}
+
+		return label.getValue();
+	}
+
+	/**
+	 * Sets the servers whose worker threads usage is exposed.
+	 * 
+	 * @param servers The servers whose worker threads usage is exposed.
+	 */
+	public void setServers(List<Server> servers) {
+		this.servers = (servers == null) ? Collections.<Server>emptyList() : servers;
+	}
+
+	/**
+	 * Writes all the metrics in the Prometheus text exposition format. The
+	 * latencies are written as summaries in seconds.
+	 * 
+	 * @param out The appendable to update.
+	 * @throws IOException
+	 */
+	public void writePrometheus(Appendable out) throws IOException {
+		List<CallMetrics> callMetrics = getCallMetrics();
+
+		out.append("# HELP restlet_requests_total Number of handled requests.\n");
+		out.append("# TYPE restlet_requests_total counter\n");
+
+		for (CallMetrics metrics : callMetrics) {
+			for (String statusClass : metrics.getStatusClasses()) {
+				long count = metrics.getCount(statusClass);
+
+				if (count > 0) {
+					out.append("restlet_requests_total{host=");
+					appendLabelValue(out, metrics.getHost());
+					out.append(",route=");
+					appendLabelValue(out, metrics.getRoute());
+					out.append(",status=");
+					appendLabelValue(out, statusClass);
+					out.append("} ").append(Long.toString(count)).append('\n');
+				}
+			}
+		}
+
+		out.append("# HELP restlet_request_duration_seconds Latency of the handled requests.\n");
+		out.append("# TYPE restlet_request_duration_seconds summary\n");
+
+		for (CallMetrics metrics : callMetrics) {
+			LatencyHistogram latencies = metrics.getLatencies();
+
+			for (double quantile : QUANTILES) {
+				out.append("restlet_request_duration_seconds{host=");
+				appendLabelValue(out, metrics.getHost());
+				out.append(",route=");
+				appendLabelValue(out, metrics.getRoute());
+				out.append(",quantile=");
+				appendLabelValue(out, Double.toString(quantile));
+				out.append("} ");
+				appendSeconds(out, latencies.getValueAtPercentile(quantile * 100));
+				out.append('\n');
+			}
+
+			out.append("restlet_request_duration_seconds_sum{host=");
+			appendLabelValue(out, metrics.getHost());
+			out.append(",route=");
+			appendLabelValue(out, metrics.getRoute());
+			out.append("} ");
+			appendSeconds(out, latencies.getSum());
+			out.append('\n');
+			out.append("restlet_request_duration_seconds_count{host=");
+			appendLabelValue(out, metrics.getHost());
+			out.append(",route=");
+			appendLabelValue(out, metrics.getRoute());
+			out.append("} ").append(Long.toString(latencies.getCount())).append('\n');
+		}
+
+		out.append("# HELP restlet_requests_in_flight Number of requests being handled.\n");
+		out.append("# TYPE restlet_requests_in_flight gauge\n");
+		out.append("restlet_requests_in_flight ").append(Long.toString(getInFlight())).append('\n');
+
+		List<NetServerHelper> helpers = new ArrayList<NetServerHelper>();
+		List<String> labels = new ArrayList<String>();
+
+		for (Server server : getServers()) {
+			Object helper = (server.getContext() == null) ? null
+					: server.getContext().getAttributes().get(RestletHelper.ATTRIBUTE_NAME);
+
+			if ((helper instanceof NetServerHelper) && (((NetServerHelper) helper).getThreadCount() >= 0)) {
+				helpers.add((NetServerHelper) helper);
+				labels.add(getServerLabel(server));
+			}
+		}
+
+		if (!helpers.isEmpty()) {
+			out.append("# HELP restlet_server_threads Number of worker threads of the server.\n");
+			out.append("# TYPE restlet_server_threads gauge\n");
+
+			for (int i = 0; i < helpers.size(); i++) {
+				out.append("restlet_server_threads{server=");
+				appendLabelValue(out, labels.get(i));
+				out.append("} ").append(Integer.toString(helpers.get(i).getThreadCount())).append('\n');
+			}
+
+			out.append("# HELP restlet_server_threads_active Number of worker threads handling calls.\n");
+			out.append("# TYPE restlet_server_threads_active gauge\n");
+
+			for (int i = 0; i < helpers.size(); i++) {
+				out.append("restlet_server_threads_active{server=");
+				appendLabelValue(out, labels.get(i));
+				out.append("} ").append(Integer.toString(helpers.get(i).getActiveThreadCount())).append('\n');
+			}
+
+			out.append("# HELP restlet_server_queued_calls Number of calls waiting for a worker thread.\n");
+			out.append("# TYPE restlet_server_queued_calls gauge\n");
+
+			for (int i = 0; i < helpers.size(); i++) {
+				out.append("restlet_server_queued_calls{server=");
+				appendLabelValue(out, labels.get(i));
+				out.append("} ").append(Integer.toString(helpers.get(i).getQueuedCallCount())).append('\n');
+			}
+		}
+	}
+
+}
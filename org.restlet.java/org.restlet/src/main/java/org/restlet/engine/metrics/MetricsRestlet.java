@@ -0,0 +1,80 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.metrics;
+
+import java.io.IOException;
+
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import org.restlet.representation.StringRepresentation;
+
+/**
+ * Restlet exposing the metrics of a {@link MetricsRegistry} in the Prometheus
+ * text exposition format, as a plain text representation. Only the GET and
+ * HEAD methods are allowed. It is typically attached to a virtual host or to
+ * the internal router, for example under the "/metrics" path.
+ * 
+ * @author Jerome Louvel
+ */
+public class MetricsRestlet extends Restlet {
+
+	/** The registry of the metrics. */
+	private final MetricsRegistry registry;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param context  The context.
+	 * @param registry The registry of the metrics.
+	 */
+	public MetricsRestlet(Context context, MetricsRegistry registry) {
+		super(context);
+		this.registry = registry;
+	}
+
+	/**
+	 * Returns the registry of the metrics.
+	 * 
+	 * @return The registry of the metrics.
+	 */
+	public MetricsRegistry getRegistry() {
+		return this.registry;
+	}
+
+	@Override
+	public void handle(Request request, Response response) {
+		super.handle(request, response);
+
+		if (Method.GET.equals(request.getMethod()) || Method.HEAD.equals(request.getMethod())) {
+			StringBuilder sb = new StringBuilder();
+
+			try {
+				getRegistry().writePrometheus(sb);
+			} catch (IOException e) {
+				// Not expected with a string builder
+				response.setStatus(Status.SERVER_ERROR_INTERNAL, e);
+				return;
+			}
+
+			response.setEntity(new StringRepresentation(sb, MediaType.TEXT_PLAIN));
+			response.setStatus(Status.SUCCESS_OK);
+		} else {
+			response.setStatus(Status.CLIENT_ERROR_METHOD_NOT_ALLOWED);
+			response.getAllowedMethods().add(Method.GET);
+			response.getAllowedMethods().add(Method.HEAD);
+		}
+	}
+
+}
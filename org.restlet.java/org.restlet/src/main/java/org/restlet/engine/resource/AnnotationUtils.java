@@ -11,6 +11,7 @@ package org.restlet.engine.resource;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -34,6 +35,15 @@ public class AnnotationUtils {
 	/** Annotation info cache. */
 	private static final ConcurrentMap<Class<?>, List<AnnotationInfo>> cache = new ConcurrentHashMap<Class<?>, List<AnnotationInfo>>();
 
+	/**
+	 * Maximum number of negotiation tables cached per resource class, one per
+	 * pair of metadata and converter services.
+	 */
+	private static final int MAX_NEGOTIATION_TABLES = 8;
+
+	/** Negotiation table cache, most recently built tables first. */
+	private static final ConcurrentMap<Class<?>, NegotiationTable[]> negotiationTables = new ConcurrentHashMap<Class<?>, NegotiationTable[]>();
+
 	/** Current instance. */
 	private static AnnotationUtils instance = new AnnotationUtils();
 
@@ -175,10 +185,11 @@ public class AnnotationUtils {
 	}
 
 	/**
-	 * Clears the annotation descriptors cache.
+	 * Clears the annotation descriptors and negotiation tables cache.
 	 */
 	public void clearCache() {
 		cache.clear();
+		negotiationTables.clear();
 	}
 
 	/**
@@ -267,6 +278,52 @@ public class AnnotationUtils {
 		return null;
 	}
 
+	/**
+	 * Returns the content negotiation table of the given resource class. A table
+	 * is cached for each pair of services, so that a resource class attached in
+	 * several applications keeps a table for each of them. It is rebuilt only if
+	 * the annotation descriptors differ from the ones it was built with. Up to
+	 * {@value #MAX_NEGOTIATION_TABLES} tables are cached per resource class, the
+	 * least recently built ones being dropped first.
+	 *
+	 * @param clazz            The resource class.
+	 * @param annotations      The annotation descriptors of the resource class.
+	 * @param metadataService  The metadata service to use.
+	 * @param converterService The converter service to use.
+	 * @return The content negotiation table.
+	 */
+	public NegotiationTable getNegotiationTable(Class<?> clazz, List<AnnotationInfo> annotations,
+			MetadataService metadataService, org.restlet.service.ConverterService converterService) {
+		NegotiationTable[] tables = negotiationTables.get(clazz);
+
+		if (tables != null) {
+			for (NegotiationTable table : tables) {
+				if (table.isBuiltWith(annotations, metadataService, converterService)) {
+					return table;
+				}
+			}
+		}
+
+		final NegotiationTable result = new NegotiationTable(annotations, metadataService, converterService);
+		negotiationTables.compute(clazz, (key, current) -> {
+			List<NegotiationTable> updated = new ArrayList<NegotiationTable>();
+			updated.add(result);
+
+			if (current != null) {
+				for (NegotiationTable table : current) {
+					// Drop the table previously built with the same services
+					if ((updated.size() < MAX_NEGOTIATION_TABLES)
+							&& !table.isBuiltWith(metadataService, converterService)) {
+						updated.add(table);
+					}
+				}
+			}
+
+			return updated.toArray(new NegotiationTable[updated.size()]);
+		});
+		return result;
+	}
+
 	/**
 	 * Returns an instance of {@link Method} according to the given annotations.
 	 *
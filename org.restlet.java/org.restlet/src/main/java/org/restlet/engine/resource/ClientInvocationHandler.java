@@ -14,6 +14,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 import java.util.logging.Level;
 
 import org.restlet.Context;
@@ -217,6 +218,22 @@ public class ClientInvocationHandler<T> implements InvocationHandler {
 					}
 				}
 
+				if (CompletionStage.class.isAssignableFrom(javaMethod.getReturnType())) {
+					// Asynchronous call completing the returned stage
+					final Class<?> outputType = annotationInfo.getJavaOutputType();
+
+					return getClientResource().handleOutboundAsync(request).thenApply(response -> {
+						if (response.getStatus().isError()) {
+							getClientResource().doError(response.getStatus());
+							return null;
+						} else if (Void.class.equals(outputType)) {
+							return null;
+						}
+
+						return getClientResource().toObject(response.getEntity(), outputType);
+					});
+				}
+
 				// Effectively handle the call
 				Response response = getClientResource().handleOutbound(request);
 
@@ -10,11 +10,14 @@
 package org.restlet.engine.resource;
 
 import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.StringTokenizer;
+import java.util.concurrent.CompletionStage;
 
 import org.restlet.Context;
 import org.restlet.data.CharacterSet;
@@ -148,12 +151,25 @@ public class MethodAnnotationInfo extends AnnotationInfo {
 	}
 
 	/**
-	 * Returns the output type of the Java method.
+	 * Returns the output type of the Java method. For methods returning a
+	 * {@link CompletionStage}, the type of the completion value is returned.
 	 *
 	 * @return The output type of the Java method.
 	 */
 	public Class<?> getJavaOutputType() {
-		return getJavaActualType(javaMethodImpl.getReturnType(), javaMethodImpl.getGenericReturnType());
+		Type genericType = javaMethodImpl.getGenericReturnType();
+
+		if (CompletionStage.class.isAssignableFrom(javaMethodImpl.getReturnType())) {
+			if (genericType instanceof ParameterizedType) {
+				Type valueType = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+				Class<?> result = getTypeClass(valueType);
+				return (result == null) ? getJavaActualType(Object.class, valueType) : result;
+			}
+
+			return Object.class;
+		}
+
+		return getJavaActualType(javaMethodImpl.getReturnType(), genericType);
 	}
 
 	/**
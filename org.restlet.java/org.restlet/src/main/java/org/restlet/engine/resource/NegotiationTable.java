@@ -0,0 +1,421 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.resource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.data.ClientInfo;
+import org.restlet.data.Form;
+import org.restlet.data.MediaType;
+import org.restlet.data.Metadata;
+import org.restlet.data.Method;
+import org.restlet.data.Preference;
+import org.restlet.representation.Representation;
+import org.restlet.representation.Variant;
+import org.restlet.service.ConnegService;
+import org.restlet.service.ConverterService;
+import org.restlet.service.MetadataService;
+
+/**
+ * Content negotiation table of an annotated resource class. The response
+ * variants and the accepted input media types of each annotated method are
+ * computed once when the table is built, instead of for each request.<br>
+ * <br>
+ * In addition, the variant preferred by the default content negotiation
+ * algorithm is memoized in a small LRU cache keyed on the annotated methods
+ * compatible with the request and on the client preferences, as clients
+ * typically send a small set of distinct "Accept*" headers.
+ * 
+ * @author Jerome Louvel
+ * @see AnnotationUtils#getNegotiationTable(Class, List, MetadataService,
+ *      ConverterService)
+ */
+public class NegotiationTable {
+
+	/**
+	 * List of candidate variants computed by a negotiation table for a given
+	 * request. It remembers the negotiation signature of the request in order to
+	 * memoize the preferred variant.
+	 */
+	private static final class Candidates extends ArrayList<Variant> {
+
+		private static final long serialVersionUID = 1L;
+
+		/** Indicates if a compatible annotated method has a query constraint. */
+		private boolean queryConstrained;
+
+		/** The negotiation signature. */
+		private final List<Object> signature;
+
+		/** The snapshot of the candidate variants, to detect later changes. */
+		private Variant[] snapshot;
+
+		/** The parent negotiation table. */
+		private final NegotiationTable table;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param table  The parent negotiation table.
+		 * @param method The negotiated method.
+		 */
+		private Candidates(NegotiationTable table, Method method) {
+			this.queryConstrained = false;
+			this.signature = new ArrayList<Object>();
+			this.signature.add(method);
+			this.snapshot = null;
+			this.table = table;
+		}
+
+		/**
+		 * Indicates if the candidates were computed by the given table and left
+		 * untouched since then.
+		 * 
+		 * @param table The negotiation table.
+		 * @return True if the candidates can be negotiated via the memo.
+		 */
+		private boolean isMemoizable(NegotiationTable table) {
+			if ((this.table != table) || (this.snapshot == null) || (size() != this.snapshot.length)) {
+				return false;
+			}
+
+			for (int i = 0; i < this.snapshot.length; i++) {
+				if (get(i) != this.snapshot[i]) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+	}
+
+	/**
+	 * Negotiation entry of an annotated method.
+	 */
+	private static final class Entry {
+
+		/** The annotation descriptor. */
+		private final MethodAnnotationInfo annotationInfo;
+
+		/** The input score used when no request entity is available. */
+		private final float defaultInputScore;
+
+		/** The media types accepted as input. */
+		private final List<MediaType> inputMediaTypes;
+
+		/** The response variants. */
+		private final List<Variant> responseVariants;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param annotationInfo   The annotation descriptor.
+		 * @param responseVariants The response variants.
+		 * @param metadataService  The metadata service to use.
+		 */
+		private Entry(MethodAnnotationInfo annotationInfo, List<Variant> responseVariants,
+				MetadataService metadataService) {
+			this.annotationInfo = annotationInfo;
+			this.responseVariants = responseVariants;
+			this.inputMediaTypes = metadataService.getAllMediaTypes(annotationInfo.getInput());
+
+			if ((annotationInfo.getInput() == null) || annotationInfo.getInput().isEmpty()) {
+				// The annotation does not declare input media type
+				this.defaultInputScore = 1.0f;
+			} else if ((annotationInfo.getJavaInputTypes() == null)
+					|| (annotationInfo.getJavaInputTypes().length == 0)) {
+				// The annotated method does not require an entity
+				this.defaultInputScore = 0.9f;
+			} else {
+				this.defaultInputScore = 0.5f;
+			}
+		}
+
+		/**
+		 * Computes an affinity score between this annotation and the input entity.
+		 * 
+		 * @param mediaType The media type of the available input entity.
+		 * @return The affinity score.
+		 */
+		private float scoreInput(MediaType mediaType) {
+			float result = 0.5f;
+
+			if (this.inputMediaTypes != null) {
+				for (MediaType amt : this.inputMediaTypes) {
+					if (amt.equals(mediaType)) {
+						result = 1.0f;
+					} else if (amt.includes(mediaType)) {
+						result = Math.max(0.8f, result);
+					} else if (amt.isCompatible(mediaType)) {
+						result = Math.max(0.6f, result);
+					}
+				}
+			}
+
+			return result;
+		}
+	}
+
+	/** The maximum number of preferred variants memoized. */
+	private static final int MEMO_SIZE = 64;
+
+	/**
+	 * Adds the given client preferences to a memo key.
+	 * 
+	 * @param key   The memo key to update.
+	 * @param prefs The client preferences.
+	 */
+	private static <T extends Metadata> void addPreferences(List<Object> key, List<Preference<T>> prefs) {
+		key.add(prefs.size());
+
+		for (Preference<T> pref : prefs) {
+			key.add(pref.getMetadata());
+			key.add(pref.getQuality());
+		}
+	}
+
+	/** The annotation descriptors. */
+	private final List<AnnotationInfo> annotations;
+
+	/** The converter service used to compute the variants. */
+	private final ConverterService converterService;
+
+	/** The negotiation entries of each method. */
+	private final Map<Method, Entry[]> entries;
+
+	/** The LRU memo of preferred variant indexes, -1 meaning none. */
+	private final Map<List<Object>, Integer> memo;
+
+	/** The metadata service used to compute the variants. */
+	private final MetadataService metadataService;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param annotations      The annotation descriptors of the resource class.
+	 * @param metadataService  The metadata service to use.
+	 * @param converterService The converter service to use.
+	 */
+	public NegotiationTable(List<AnnotationInfo> annotations, MetadataService metadataService,
+			ConverterService converterService) {
+		this.annotations = annotations;
+		this.converterService = converterService;
+		this.metadataService = metadataService;
+		this.memo = new LinkedHashMap<List<Object>, Integer>(MEMO_SIZE, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<List<Object>, Integer> eldest) {
+				return size() > MEMO_SIZE;
+			}
+		};
+
+		Map<Method, List<Entry>> methodEntries = new HashMap<Method, List<Entry>>();
+
+		if (annotations != null) {
+			for (AnnotationInfo annotationInfo : annotations) {
+				if (annotationInfo instanceof MethodAnnotationInfo) {
+					MethodAnnotationInfo methodAnnotationInfo = (MethodAnnotationInfo) annotationInfo;
+
+					try {
+						List<Variant> responseVariants = methodAnnotationInfo.getResponseVariants(metadataService,
+								converterService);
+
+						if (responseVariants != null) {
+							List<Entry> list = methodEntries.get(methodAnnotationInfo.getRestletMethod());
+
+							if (list == null) {
+								list = new ArrayList<Entry>();
+								methodEntries.put(methodAnnotationInfo.getRestletMethod(), list);
+							}
+
+							list.add(new Entry(methodAnnotationInfo, responseVariants, metadataService));
+						}
+					} catch (IOException e) {
+						Context.getCurrentLogger().log(Level.FINE, "Unable to get variants from annotation", e);
+					}
+				}
+			}
+		}
+
+		this.entries = new HashMap<Method, Entry[]>();
+
+		for (Map.Entry<Method, List<Entry>> methodEntry : methodEntries.entrySet()) {
+			this.entries.put(methodEntry.getKey(), methodEntry.getValue().toArray(new Entry[0]));
+		}
+	}
+
+	/**
+	 * Returns the preferred variant among a list of available variants. If the
+	 * variants were computed by {@link #getVariants(Method, Request, Form)} and
+	 * the default {@link ConnegService} is used, the result is memoized.
+	 * 
+	 * @param variants        The available variants.
+	 * @param request         The request including client preferences.
+	 * @param connegService   The content negotiation service.
+	 * @param metadataService The metadata service used to get default metadata
+	 *                        values.
+	 * @return The preferred variant.
+	 */
+	public Variant getPreferredVariant(List<? extends Variant> variants, Request request,
+			ConnegService connegService, MetadataService metadataService) {
+		if (!(variants instanceof Candidates) || !((Candidates) variants).isMemoizable(this)
+				|| (connegService.getClass() != ConnegService.class) || (request.getClientInfo() == null)) {
+			return connegService.getPreferredVariant(variants, request, metadataService);
+		}
+
+		List<Object> key = getMemoKey((Candidates) variants, request, connegService.isStrict(), metadataService);
+		Integer index;
+
+		synchronized (this.memo) {
+			index = this.memo.get(key);
+		}
+
+		Variant result;
+
+		if (index == null) {
+			result = connegService.getPreferredVariant(variants, request, metadataService);
+			int resultIndex = -1;
+
+			for (int i = 0; (result != null) && (i < variants.size()); i++) {
+				if (variants.get(i) == result) {
+					resultIndex = i;
+					break;
+				}
+			}
+
+			synchronized (this.memo) {
+				this.memo.put(key, resultIndex);
+			}
+		} else {
+			result = (index < 0) ? null : variants.get(index);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the memo key of a content negotiation.
+	 * 
+	 * @param candidates      The candidate variants.
+	 * @param request         The request including client preferences.
+	 * @param strict          Indicates if the negotiation is strict.
+	 * @param metadataService The metadata service used to get default metadata
+	 *                        values.
+	 * @return The memo key.
+	 */
+	private List<Object> getMemoKey(Candidates candidates, Request request, boolean strict,
+			MetadataService metadataService) {
+		ClientInfo clientInfo = request.getClientInfo();
+		String query = (request.getResourceRef() == null) ? null : request.getResourceRef().getQuery();
+		List<Object> result = new ArrayList<Object>(candidates.signature);
+		result.add(strict);
+
+		// Annotations are scored on the query
+		result.add(candidates.queryConstrained ? query : Boolean.valueOf(query != null));
+
+		addPreferences(result, clientInfo.getAcceptedMediaTypes());
+		addPreferences(result, clientInfo.getAcceptedLanguages());
+		addPreferences(result, clientInfo.getAcceptedCharacterSets());
+		addPreferences(result, clientInfo.getAcceptedEncodings());
+
+		if (metadataService != null) {
+			result.add(metadataService.getDefaultMediaType());
+			result.add(metadataService.getDefaultLanguage());
+			result.add(metadataService.getDefaultCharacterSet());
+			result.add(metadataService.getDefaultEncoding());
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns a modifiable list of candidate variants for the given method,
+	 * based on the annotated methods compatible with the request.
+	 * 
+	 * @param method  The method.
+	 * @param request The request.
+	 * @param query   The query parameters.
+	 * @return The modifiable list of variants.
+	 */
+	public List<Variant> getVariants(Method method, Request request, Form query) {
+		Candidates result = new Candidates(this, method);
+		Entry[] methodEntries = this.entries.get(method);
+
+		if (methodEntries != null) {
+			Representation requestEntity = request.getEntity();
+			boolean entityAvailable = (requestEntity != null) && requestEntity.isAvailable();
+
+			for (int i = 0; i < methodEntries.length; i++) {
+				Entry entry = methodEntries[i];
+
+				try {
+					if (!entry.annotationInfo.isCompatible(method, query, requestEntity, this.metadataService,
+							this.converterService)) {
+						continue;
+					}
+				} catch (IOException e) {
+					Context.getCurrentLogger().log(Level.FINE, "Unable to get variants from annotation", e);
+					continue;
+				}
+
+				// Compute an affinity score between this annotation and the
+				// input entity
+				float score = entityAvailable ? entry.scoreInput(requestEntity.getMediaType())
+						: entry.defaultInputScore;
+				result.queryConstrained |= (entry.annotationInfo.getQuery() != null);
+				result.signature.add(i);
+				result.signature.add(score);
+
+				for (Variant variant : entry.responseVariants) {
+					VariantInfo variantInfo = new VariantInfo(variant, entry.annotationInfo);
+					variantInfo.setInputScore(score);
+					result.add(variantInfo);
+				}
+			}
+		}
+
+		result.snapshot = result.toArray(new Variant[result.size()]);
+		return result;
+	}
+
+	/**
+	 * Indicates if this table was built with the given parameters.
+	 * 
+	 * @param annotations      The annotation descriptors of the resource class.
+	 * @param metadataService  The metadata service.
+	 * @param converterService The converter service.
+	 * @return True if this table was built with the given parameters.
+	 */
+	public boolean isBuiltWith(List<AnnotationInfo> annotations, MetadataService metadataService,
+			ConverterService converterService) {
+		return (this.annotations == annotations) && isBuiltWith(metadataService, converterService);
+	}
+
+	/**
+	 * Indicates if this table was built with the given services.
+	 * 
+	 * @param metadataService  The metadata service.
+	 * @param converterService The converter service.
+	 * @return True if this table was built with the given services.
+	 */
+	public boolean isBuiltWith(MetadataService metadataService, ConverterService converterService) {
+		return (this.metadataService == metadataService) && (this.converterService == converterService);
+	}
+
+}
@@ -0,0 +1,415 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.restlet.data.Reference;
+import org.restlet.routing.Template;
+import org.restlet.routing.Variable;
+
+/**
+ * Regex-free form of a URI {@link Template}. Only the common shape of URI
+ * templates can be compiled: literal parts, fixed variables and variables
+ * matching characters of a single path segment, where each of the latter is
+ * either the last element of the template or directly followed by a literal
+ * part starting with a slash. In this case, matching a variable is
+ * deterministic (it consumes the longest run of allowed characters) and gives
+ * exactly the same result as the regular expression built by the
+ * {@link Template} class, including the values of the fixed variables.<br>
+ * <br>
+ * Concurrency note: instances of this class are immutable and can be shared by
+ * several threads.
+ * 
+ * @author Jerome Louvel
+ */
+public final class CompiledTemplate {
+
+	/**
+	 * Compiles a template. Returns null if the template can't be compiled, in
+	 * which case the regular expression based matching of the {@link Template}
+	 * class must be used.
+	 * 
+	 * @param template The template to compile.
+	 * @return The compiled template or null.
+	 */
+	public static CompiledTemplate compile(Template template) {
+		if ((template == null) || (template.getPattern() == null)) {
+			return null;
+		}
+
+		String pattern = template.getPattern();
+		List<String> literals = new ArrayList<String>();
+		List<String> names = new ArrayList<String>();
+		List<Variable> variables = new ArrayList<Variable>();
+		List<Boolean> decodings = new ArrayList<Boolean>();
+		List<String> fixedValues = new ArrayList<String>();
+		StringBuilder literal = new StringBuilder();
+		StringBuilder varBuffer = null;
+		char next;
+
+		for (int i = 0; i < pattern.length(); i++) {
+			next = pattern.charAt(i);
+
+			if (varBuffer != null) {
+				if (Reference.isUnreserved(next)) {
+					varBuffer.append(next);
+				} else if ((next == '}') && (varBuffer.length() > 0)) {
+					String varName = varBuffer.toString();
+					Variable var = template.getVariables().get(varName);
+
+					// Like the Template class, only decode values of declared
+					// variables
+					boolean decoding = (var != null) && var.isDecodingOnParse();
+
+					if (var == null) {
+						var = template.getDefaultVariable();
+					}
+
+					if (names.contains(varName) || (var.isFixed() && (var.getDefaultValue() == null))
+							|| (!var.isFixed() && !isCompilable(var.getType()))) {
+						// Repeated variables and variables spanning several
+						// segments require the regex engine
+						return null;
+					}
+
+					// Fixed variables are still recorded with their value
+					literals.add(literal.toString());
+					names.add(varName);
+					variables.add(var);
+					decodings.add(decoding);
+					fixedValues.add(var.isFixed() ? var.getDefaultValue() : null);
+					literal = new StringBuilder();
+
+					varBuffer = null;
+				} else {
+					// Invalid patterns are handled by the Template class
+					return null;
+				}
+			} else if (next == '{') {
+				varBuffer = new StringBuilder();
+			} else if ((next == '}') || (next == '+')) {
+				// The plus sign isn't quoted by the Template class and acts as
+				// a regex quantifier
+				return null;
+			} else {
+				literal.append(next);
+			}
+		}
+
+		if (varBuffer != null) {
+			return null;
+		}
+
+		literals.add(literal.toString());
+
+		// Each variable that isn't fixed must be followed by the end of the
+		// template or by a slash that ends the segment it matches
+		for (int i = 1; i < literals.size(); i++) {
+			String following = literals.get(i);
+			boolean last = (i == literals.size() - 1);
+
+			if ((fixedValues.get(i - 1) == null) && !(last && following.isEmpty())
+					&& (following.isEmpty() || (following.charAt(0) != '/'))) {
+				return null;
+			}
+		}
+
+		boolean[] decodingArray = new boolean[decodings.size()];
+
+		for (int i = 0; i < decodingArray.length; i++) {
+			decodingArray[i] = decodings.get(i);
+		}
+
+		return new CompiledTemplate(template, literals.toArray(new String[literals.size()]),
+				names.toArray(new String[names.size()]), variables.toArray(new Variable[variables.size()]),
+				decodingArray, fixedValues.toArray(new String[fixedValues.size()]));
+	}
+
+	/**
+	 * Indicates if a character is an hexadecimal digit.
+	 * 
+	 * @param character The character to test.
+	 * @return True if the character is an hexadecimal digit.
+	 */
+	private static boolean isHexa(char character) {
+		return ((character >= '0') && (character <= '9')) || ((character >= 'a') && (character <= 'f'))
+				|| ((character >= 'A') && (character <= 'F'));
+	}
+
+	/**
+	 * Indicates if a variable type can be matched without the regex engine.
+	 * 
+	 * @param type The variable type.
+	 * @return True if the variable type can be compiled.
+	 */
+	private static boolean isCompilable(int type) {
+		switch (type) {
+		case Variable.TYPE_ALPHA:
+		case Variable.TYPE_ALPHA_DIGIT:
+		case Variable.TYPE_DIGIT:
+		case Variable.TYPE_URI_SEGMENT:
+		case Variable.TYPE_URI_UNRESERVED:
+		case Variable.TYPE_WORD:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Indicates if a single character is allowed in the value of a variable of
+	 * the given type. This mirrors the character classes generated by the
+	 * {@link Template} class.
+	 * 
+	 * @param type      The variable type.
+	 * @param character The character to test.
+	 * @return True if the character is allowed.
+	 */
+	private static boolean isValid(int type, char character) {
+		boolean alpha = ((character >= 'a') && (character <= 'z')) || ((character >= 'A') && (character <= 'Z'));
+		boolean digit = (character >= '0') && (character <= '9');
+
+		switch (type) {
+		case Variable.TYPE_ALPHA:
+			return alpha;
+		case Variable.TYPE_DIGIT:
+			return digit;
+		case Variable.TYPE_ALPHA_DIGIT:
+			return alpha || digit;
+		case Variable.TYPE_WORD:
+			return alpha || digit || (character == '_');
+		case Variable.TYPE_URI_UNRESERVED:
+			return alpha || digit || (character == '-') || (character == '.') || (character == '_')
+					|| (character == '~');
+		case Variable.TYPE_URI_SEGMENT:
+			return alpha || digit || (character == '-') || (character == '.') || (character == '_')
+					|| (character == '~') || (character == '!') || (character == '$') || (character == '&')
+					|| (character == '\'') || (character == '(') || (character == ')') || (character == '*')
+					|| (character == '+') || (character == ',') || (character == ';') || (character == '=')
+					|| (character == ':') || (character == '@');
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Scans the value of a variable starting at a given position. The longest
+	 * run of allowed characters is consumed, including percent-encoded octets
+	 * for segment variables.
+	 * 
+	 * @param type     The variable type.
+	 * @param required Indicates if the variable is required.
+	 * @param source   The source sequence to scan.
+	 * @param start    The start position.
+	 * @return The end position (exclusive) of the value or -1 if no value could
+	 *         be matched.
+	 */
+	public static int scan(int type, boolean required, CharSequence source, int start) {
+		int length = source.length();
+		int result = start;
+		char next;
+
+		while (result < length) {
+			next = source.charAt(result);
+
+			if (isValid(type, next)) {
+				result++;
+			} else if ((next == '%') && (type == Variable.TYPE_URI_SEGMENT) && (result + 2 < length)
+					&& isHexa(source.charAt(result + 1)) && isHexa(source.charAt(result + 2))) {
+				result += 3;
+			} else {
+				break;
+			}
+		}
+
+		return (required && (result == start)) ? -1 : result;
+	}
+
+	/** The decoding flags of the variables. */
+	private final boolean[] decodings;
+
+	/** The values of the fixed variables, null for the other variables. */
+	private final String[] fixedValues;
+
+	/**
+	 * The literal parts, one more than the number of variables. The literal at
+	 * index i precedes the variable at index i.
+	 */
+	private final String[] literals;
+
+	/** The variable names. */
+	private final String[] names;
+
+	/** The source template. */
+	private final Template template;
+
+	/** The variable descriptors. */
+	private final Variable[] variables;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param template    The source template.
+	 * @param literals    The literal parts.
+	 * @param names       The variable names.
+	 * @param variables   The variable descriptors.
+	 * @param decodings   The decoding flags of the variables.
+	 * @param fixedValues The values of the fixed variables, null for the other
+	 *                    variables.
+	 */
+	private CompiledTemplate(Template template, String[] literals, String[] names, Variable[] variables,
+			boolean[] decodings, String[] fixedValues) {
+		this.decodings = decodings;
+		this.fixedValues = fixedValues;
+		this.template = template;
+		this.literals = literals;
+		this.names = names;
+		this.variables = variables;
+	}
+
+	/**
+	 * Returns the value of the fixed variable at the given index.
+	 * 
+	 * @param index The variable index.
+	 * @return The value of the fixed variable, or null if the variable isn't
+	 *         fixed.
+	 */
+	public String getFixedValue(int index) {
+		return this.fixedValues[index];
+	}
+
+	/**
+	 * Returns the literal part preceding the variable at the given index, or the
+	 * trailing literal part if the index equals the number of variables.
+	 * 
+	 * @param index The literal index.
+	 * @return The literal part.
+	 */
+	public String getLiteral(int index) {
+		return this.literals[index];
+	}
+
+	/**
+	 * Returns the source template.
+	 * 
+	 * @return The source template.
+	 */
+	public Template getTemplate() {
+		return this.template;
+	}
+
+	/**
+	 * Returns the variable descriptor at the given index.
+	 * 
+	 * @param index The variable index.
+	 * @return The variable descriptor.
+	 */
+	public Variable getVariable(int index) {
+		return this.variables[index];
+	}
+
+	/**
+	 * Returns the number of variables.
+	 * 
+	 * @return The number of variables.
+	 */
+	public int getVariableCount() {
+		return this.variables.length;
+	}
+
+	/**
+	 * Returns the name of the variable at the given index.
+	 * 
+	 * @param index The variable index.
+	 * @return The variable name.
+	 */
+	public String getVariableName(int index) {
+		return this.names[index];
+	}
+
+	/**
+	 * Indicates if the compiled template matches the given formatted string.
+	 * 
+	 * @param formattedString The formatted string to match.
+	 * @param matchingMode    The matching mode, see {@link Template#MODE_EQUALS}
+	 *                        and {@link Template#MODE_STARTS_WITH}.
+	 * @return The number of matched characters or -1 if the match failed.
+	 */
+	public int match(String formattedString, int matchingMode) {
+		return parse(formattedString, matchingMode, null);
+	}
+
+	/**
+	 * Parses a formatted string, adding the start and end offsets of each
+	 * variable value to the given holder. The holder is left in an undefined
+	 * state if the match fails.
+	 * 
+	 * @param formattedString The formatted string to parse.
+	 * @param matchingMode    The matching mode, see {@link Template#MODE_EQUALS}
+	 *                        and {@link Template#MODE_STARTS_WITH}.
+	 * @param match           The holder of variable offsets to update or null.
+	 * @return The number of matched characters or -1 if the match failed.
+	 */
+	public int parse(String formattedString, int matchingMode, TemplateMatch match) {
+		if ((formattedString == null)
+				|| ((matchingMode != Template.MODE_EQUALS) && (matchingMode != Template.MODE_STARTS_WITH))) {
+			return -1;
+		}
+
+		int position = 0;
+		String literal;
+
+		for (int i = 0; i < this.variables.length; i++) {
+			literal = this.literals[i];
+
+			if (!formattedString.startsWith(literal, position)) {
+				return -1;
+			}
+
+			position += literal.length();
+			int end;
+
+			if (this.fixedValues[i] != null) {
+				end = formattedString.startsWith(this.fixedValues[i], position)
+						? position + this.fixedValues[i].length()
+						: -1;
+			} else {
+				end = scan(this.variables[i].getType(), this.variables[i].isRequired(), formattedString, position);
+			}
+
+			if (end == -1) {
+				return -1;
+			}
+
+			if (match != null) {
+				match.add(this.names[i], position, end, this.decodings[i]);
+			}
+
+			position = end;
+		}
+
+		literal = this.literals[this.variables.length];
+
+		if (!formattedString.startsWith(literal, position)) {
+			return -1;
+		}
+
+		position += literal.length();
+
+		if ((matchingMode == Template.MODE_EQUALS) && (position != formattedString.length())) {
+			return -1;
+		}
+
+		return position;
+	}
+
+}
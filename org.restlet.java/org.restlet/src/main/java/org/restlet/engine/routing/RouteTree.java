@@ -0,0 +1,367 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.routing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.routing.Route;
+import org.restlet.routing.Router;
+import org.restlet.routing.Template;
+import org.restlet.routing.TemplateRoute;
+import org.restlet.util.RouteList;
+
+/**
+ * Radix tree compiled from the routes of a {@link Router}. Literal parts of the
+ * URI templates are stored as compressed edges and template variables as typed
+ * child edges, so that selecting a route costs time proportional to the length
+ * of the remaining part of the resource URI instead of matching a regular
+ * expression for each attached route.<br>
+ * <br>
+ * Only the routes whose template can be compiled (see {@link CompiledTemplate})
+ * are stored in the tree. The other ones are kept aside and scored as usual, in
+ * their original order, so that the selected route is always the one that the
+ * {@link Router#MODE_FIRST_MATCH} mode would have selected.<br>
+ * <br>
+ * Concurrency note: instances of this class are immutable once built and can be
+ * shared by several threads.
+ * 
+ * @author Jerome Louvel
+ */
+public final class RouteTree {
+
+	/**
+	 * Route stored at the end of a path in the tree.
+	 */
+	private static final class Entry {
+		/** The position of the route in the route list. */
+		private final int index;
+
+		/** The route. */
+		private final Route route;
+
+		/** Indicates if the template only needs to match the beginning. */
+		private final boolean startsWith;
+
+		private Entry(int index, Route route, boolean startsWith) {
+			this.index = index;
+			this.route = route;
+			this.startsWith = startsWith;
+		}
+	}
+
+	/**
+	 * Node of the tree, reached through a literal or a variable edge.
+	 */
+	private static final class Node {
+		/** The literal children, sorted by the first character of their label. */
+		private Node[] children = new Node[0];
+
+		/** The routes ending at this node, sorted by index. */
+		private Entry[] entries = new Entry[0];
+
+		/** The first character of each literal child label. */
+		private char[] keys = new char[0];
+
+		/** The label of the literal edge leading to this node. */
+		private String label;
+
+		/** The lowest route index in the sub-tree. */
+		private int minIndex = Integer.MAX_VALUE;
+
+		/** Indicates if the variable edge leading to this node is required. */
+		private boolean required;
+
+		/** The variable type of the edge leading to this node. */
+		private int type;
+
+		/** The variable children. */
+		private Node[] variables = new Node[0];
+
+		private Node(String label) {
+			this.label = label;
+		}
+
+		private Node(int type, boolean required) {
+			this.type = type;
+			this.required = required;
+		}
+
+		private void addChild(Node child) {
+			char key = child.label.charAt(0);
+			int index = -(Arrays.binarySearch(this.keys, key) + 1);
+			char[] newKeys = new char[this.keys.length + 1];
+			Node[] newChildren = new Node[this.children.length + 1];
+			System.arraycopy(this.keys, 0, newKeys, 0, index);
+			System.arraycopy(this.children, 0, newChildren, 0, index);
+			newKeys[index] = key;
+			newChildren[index] = child;
+			System.arraycopy(this.keys, index, newKeys, index + 1, this.keys.length - index);
+			System.arraycopy(this.children, index, newChildren, index + 1, this.children.length - index);
+			this.keys = newKeys;
+			this.children = newChildren;
+		}
+	}
+
+	/**
+	 * Inserts a literal path below a node, splitting existing edges when needed.
+	 * 
+	 * @param node    The parent node.
+	 * @param literal The literal to insert.
+	 * @param index   The index of the route being inserted.
+	 * @return The node reached at the end of the literal.
+	 */
+	private static Node insertLiteral(Node node, String literal, int index) {
+		String remaining = literal;
+		Node current = node;
+
+		while (remaining.length() > 0) {
+			int position = Arrays.binarySearch(current.keys, remaining.charAt(0));
+			Node child;
+
+			if (position < 0) {
+				child = new Node(remaining);
+				current.addChild(child);
+			} else {
+				child = current.children[position];
+				String label = child.label;
+				int common = 0;
+
+				while ((common < label.length()) && (common < remaining.length())
+						&& (label.charAt(common) == remaining.charAt(common))) {
+					common++;
+				}
+
+				if (common < label.length()) {
+					// Split the existing edge
+					Node middle = new Node(label.substring(0, common));
+					middle.minIndex = child.minIndex;
+					child.label = label.substring(common);
+					middle.addChild(child);
+					current.children[position] = middle;
+					child = middle;
+				}
+			}
+
+			child.minIndex = Math.min(child.minIndex, index);
+			remaining = remaining.substring(child.label.length());
+			current = child;
+		}
+
+		return current;
+	}
+
+	/**
+	 * Inserts a variable edge below a node, reusing an existing edge of the same
+	 * type.
+	 * 
+	 * @param node     The parent node.
+	 * @param type     The variable type.
+	 * @param required Indicates if the variable is required.
+	 * @param index    The index of the route being inserted.
+	 * @return The node reached through the variable edge.
+	 */
+	private static Node insertVariable(Node node, int type, boolean required, int index) {
+		Node result = null;
+
+		for (Node variable : node.variables) {
+			if ((variable.type == type) && (variable.required == required)) {
+				result = variable;
+			}
+		}
+
+		if (result == null) {
+			result = new Node(type, required);
+			node.variables = Arrays.copyOf(node.variables, node.variables.length + 1);
+			node.variables[node.variables.length - 1] = result;
+		}
+
+		result.minIndex = Math.min(result.minIndex, index);
+		return result;
+	}
+
+	/** The routes that couldn't be compiled, sorted by index. */
+	private final Entry[] fallbacks;
+
+	/** The modification count of the route list when the tree was built. */
+	private final int modificationCount;
+
+	/** The root node. */
+	private final Node root;
+
+	/** The route list the tree was built from. */
+	private final RouteList routes;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param router The parent router.
+	 * @param routes The list of routes to compile.
+	 */
+	public RouteTree(Router router, RouteList routes) {
+		this.routes = routes;
+		this.modificationCount = routes.getModificationCount();
+		this.root = new Node("");
+		List<Entry> fallbackList = new ArrayList<Entry>();
+		int index = 0;
+
+		for (Route route : routes) {
+			CompiledTemplate compiled = null;
+
+			// Subclasses might compute a different score
+			if ((route.getClass() == TemplateRoute.class) && (route.getRouter() == router)
+					&& !((TemplateRoute) route).isMatchingQuery()) {
+				compiled = CompiledTemplate.compile(((TemplateRoute) route).getTemplate());
+			}
+
+			int matchingMode = (compiled == null) ? -1 : compiled.getTemplate().getMatchingMode();
+
+			if ((matchingMode == Template.MODE_EQUALS) || (matchingMode == Template.MODE_STARTS_WITH)) {
+				add(index, route, compiled, matchingMode == Template.MODE_STARTS_WITH);
+			} else {
+				fallbackList.add(new Entry(index, route, false));
+			}
+
+			index++;
+		}
+
+		this.fallbacks = fallbackList.toArray(new Entry[fallbackList.size()]);
+	}
+
+	/**
+	 * Adds a compiled route to the tree.
+	 * 
+	 * @param index      The position of the route in the route list.
+	 * @param route      The route.
+	 * @param compiled   The compiled template of the route.
+	 * @param startsWith Indicates if the template only needs to match the
+	 *                   beginning.
+	 */
+	private void add(int index, Route route, CompiledTemplate compiled, boolean startsWith) {
+		Node node = this.root;
+		node.minIndex = Math.min(node.minIndex, index);
+
+		for (int i = 0; i < compiled.getVariableCount(); i++) {
+			node = insertLiteral(node, compiled.getLiteral(i), index);
+
+			if (compiled.getFixedValue(i) != null) {
+				// Fixed variables only match their value
+				node = insertLiteral(node, compiled.getFixedValue(i), index);
+			} else {
+				node = insertVariable(node, compiled.getVariable(i).getType(), compiled.getVariable(i).isRequired(),
+						index);
+			}
+		}
+
+		node = insertLiteral(node, compiled.getLiteral(compiled.getVariableCount()), index);
+		node.entries = Arrays.copyOf(node.entries, node.entries.length + 1);
+		node.entries[node.entries.length - 1] = new Entry(index, route, startsWith);
+	}
+
+	/**
+	 * Returns the first route match for a given call. The result is the same as
+	 * the one of {@link RouteList#getFirst(Request, Response, float)} applied to
+	 * the compiled list of routes.
+	 * 
+	 * @param request       The request to score.
+	 * @param response      The response to score.
+	 * @param requiredScore The minimum score required to have a match.
+	 * @return The first route match or null.
+	 */
+	public Route getFirst(Request request, Response response, float requiredScore) {
+		Entry best = null;
+
+		// A matching template route always scores between the required score
+		// and 1.0
+		if ((requiredScore <= 1.0F) && (request.getResourceRef() != null)) {
+			String remainingPart = request.getResourceRef().getRemainingPart(false, false);
+
+			if (remainingPart != null) {
+				best = lookup(this.root, remainingPart, 0, null);
+			}
+		}
+
+		for (Entry fallback : this.fallbacks) {
+			if ((best != null) && (fallback.index > best.index)) {
+				break;
+			}
+
+			if (fallback.route.score(request, response) >= requiredScore) {
+				return fallback.route;
+			}
+		}
+
+		return (best == null) ? null : best.route;
+	}
+
+	/**
+	 * Indicates if the tree reflects the current state of a route list.
+	 * 
+	 * @param routes The route list to check.
+	 * @return True if the tree is up to date.
+	 */
+	public boolean isCurrent(RouteList routes) {
+		return (this.routes == routes) && (this.modificationCount == routes.getModificationCount());
+	}
+
+	/**
+	 * Recursively looks up the route with the lowest index matching a path.
+	 * 
+	 * @param node     The current node.
+	 * @param path     The path to match.
+	 * @param position The current position in the path.
+	 * @param best     The best entry found so far or null.
+	 * @return The best entry found or null.
+	 */
+	private Entry lookup(Node node, String path, int position, Entry best) {
+		Entry result = best;
+
+		if ((result != null) && (node.minIndex >= result.index)) {
+			return result;
+		}
+
+		for (Entry entry : node.entries) {
+			if ((result != null) && (entry.index >= result.index)) {
+				break;
+			}
+
+			if (entry.startsWith || (position == path.length())) {
+				result = entry;
+				break;
+			}
+		}
+
+		if ((position < path.length()) && (node.keys.length > 0)) {
+			int index = Arrays.binarySearch(node.keys, path.charAt(position));
+
+			if (index >= 0) {
+				Node child = node.children[index];
+
+				if (path.startsWith(child.label, position)) {
+					result = lookup(child, path, position + child.label.length(), result);
+				}
+			}
+		}
+
+		for (Node variable : node.variables) {
+			int end = CompiledTemplate.scan(variable.type, variable.required, path, position);
+
+			if (end != -1) {
+				result = lookup(variable, path, end, result);
+			}
+		}
+
+		return result;
+	}
+
+}
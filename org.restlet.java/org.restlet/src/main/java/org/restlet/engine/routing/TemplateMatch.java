@@ -0,0 +1,236 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.routing;
+
+import java.util.Arrays;
+
+import org.restlet.Request;
+import org.restlet.data.Reference;
+import org.restlet.routing.Template;
+
+/**
+ * Holder of the variables extracted by {@link Template#parse(String, TemplateMatch)}.
+ * Instead of copying each value, only the start and end offsets in the parsed
+ * string are recorded. The string values are materialized lazily, the first
+ * time they are requested.<br>
+ * <br>
+ * A reusable instance is available for each thread via {@link #getCurrent()},
+ * so that parsing doesn't create any garbage. As such an instance is reset by
+ * the next parsing done on the same thread, {@link #copy(TemplateMatch)} must
+ * be used to keep the variables beyond the current parsing, for example in the
+ * {@link #ATTRIBUTE_NAME} request attribute.<br>
+ * <br>
+ * Concurrency note: instances of this class are not thread-safe while being
+ * filled. Copies can be read by several threads as the lazy materialization of
+ * values is idempotent.
+ * 
+ * @author Jerome Louvel
+ */
+public final class TemplateMatch {
+
+	/**
+	 * The name of the request attribute holding the variables lazily extracted by
+	 * the template routes.
+	 */
+	public static final String ATTRIBUTE_NAME = "org.restlet.routing.variables";
+
+	/** The reusable instance of each thread. */
+	private static final ThreadLocal<TemplateMatch> CURRENT = new ThreadLocal<TemplateMatch>() {
+		@Override
+		protected TemplateMatch initialValue() {
+			return new TemplateMatch(null, 4);
+		}
+	};
+
+	/**
+	 * Returns the reusable instance of the current thread, after clearing it.
+	 * 
+	 * @return The reusable instance of the current thread.
+	 */
+	public static TemplateMatch getCurrent() {
+		TemplateMatch result = CURRENT.get();
+		result.clear(null);
+		return result;
+	}
+
+	/**
+	 * Returns the variable value with the given name by looking up the lazily
+	 * extracted variables of a request.
+	 * 
+	 * @param request The request.
+	 * @param name    The variable name.
+	 * @return The variable value or null.
+	 */
+	public static String getValue(Request request, String name) {
+		Object match = request.getAttributes().get(ATTRIBUTE_NAME);
+		return (match instanceof TemplateMatch) ? ((TemplateMatch) match).getValue(name) : null;
+	}
+
+	/** The number of variables. */
+	private int count;
+
+	/** The decoding flags of the variables. */
+	private boolean[] decodings;
+
+	/** The variable names. */
+	private String[] names;
+
+	/** The start and end offsets of the variable values. */
+	private int[] offsets;
+
+	/** The match of a previous parsing, for example done by a parent router. */
+	private final TemplateMatch previous;
+
+	/** The parsed string. */
+	private String source;
+
+	/** The materialized values. */
+	private String[] values;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param previous The match of a previous parsing or null.
+	 * @param capacity The initial capacity in variables.
+	 */
+	private TemplateMatch(TemplateMatch previous, int capacity) {
+		this.previous = previous;
+		this.count = 0;
+		this.decodings = new boolean[capacity];
+		this.names = new String[capacity];
+		this.offsets = new int[2 * capacity];
+		this.source = null;
+		this.values = new String[capacity];
+	}
+
+	/**
+	 * Adds a variable.
+	 * 
+	 * @param name     The variable name.
+	 * @param start    The start offset of the value or -1 if there is no value.
+	 * @param end      The end offset (exclusive) of the value.
+	 * @param decoding Indicates if the value must be percent-decoded.
+	 */
+	public void add(String name, int start, int end, boolean decoding) {
+		if (this.count == this.names.length) {
+			int capacity = 2 * this.count;
+			this.decodings = Arrays.copyOf(this.decodings, capacity);
+			this.names = Arrays.copyOf(this.names, capacity);
+			this.offsets = Arrays.copyOf(this.offsets, 2 * capacity);
+			this.values = Arrays.copyOf(this.values, capacity);
+		}
+
+		this.decodings[this.count] = decoding;
+		this.names[this.count] = name;
+		this.offsets[2 * this.count] = start;
+		this.offsets[2 * this.count + 1] = end;
+		this.count++;
+	}
+
+	/**
+	 * Clears the variables and sets the string to parse.
+	 * 
+	 * @param source The string to parse.
+	 */
+	public void clear(String source) {
+		Arrays.fill(this.names, 0, this.count, null);
+		Arrays.fill(this.values, 0, this.count, null);
+		this.count = 0;
+		this.source = source;
+	}
+
+	/**
+	 * Returns an independent copy of this match.
+	 * 
+	 * @param previous The match of a previous parsing to chain or null.
+	 * @return An independent copy of this match.
+	 */
+	public TemplateMatch copy(TemplateMatch previous) {
+		TemplateMatch result = new TemplateMatch(previous, Math.max(1, this.count));
+		System.arraycopy(this.decodings, 0, result.decodings, 0, this.count);
+		System.arraycopy(this.names, 0, result.names, 0, this.count);
+		System.arraycopy(this.offsets, 0, result.offsets, 0, 2 * this.count);
+		result.count = this.count;
+		result.source = this.source;
+		return result;
+	}
+
+	/**
+	 * Returns the number of variables.
+	 * 
+	 * @return The number of variables.
+	 */
+	public int getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Returns the name of the variable at the given index.
+	 * 
+	 * @param index The variable index.
+	 * @return The variable name.
+	 */
+	public String getName(int index) {
+		return this.names[index];
+	}
+
+	/**
+	 * Returns the match of a previous parsing, for example done by a parent
+	 * router.
+	 * 
+	 * @return The match of a previous parsing or null.
+	 */
+	public TemplateMatch getPrevious() {
+		return this.previous;
+	}
+
+	/**
+	 * Returns the value of the variable at the given index. The value is
+	 * materialized on the first call.
+	 * 
+	 * @param index The variable index.
+	 * @return The variable value.
+	 */
+	public String getValue(int index) {
+		String result = this.values[index];
+
+		if ((result == null) && (this.offsets[2 * index] != -1)) {
+			result = this.source.substring(this.offsets[2 * index], this.offsets[2 * index + 1]);
+
+			if (this.decodings[index]) {
+				result = Reference.decode(result);
+			}
+
+			this.values[index] = result;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the value of the variable with the given name. If several
+	 * variables share this name, the last one wins, like when they are copied
+	 * into the request attributes. The matches of previous parsings are looked
+	 * up if needed.
+	 * 
+	 * @param name The variable name.
+	 * @return The variable value or null.
+	 */
+	public String getValue(String name) {
+		for (int i = this.count - 1; i >= 0; i--) {
+			if (this.names[i].equals(name)) {
+				return getValue(i);
+			}
+		}
+
+		return (this.previous == null) ? null : this.previous.getValue(name);
+	}
+
+}
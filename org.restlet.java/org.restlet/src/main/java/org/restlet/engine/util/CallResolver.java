@@ -12,6 +12,7 @@ package org.restlet.engine.util;
 import static org.restlet.engine.util.DateUtils.FORMAT_RFC_1123;
 
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 import org.restlet.Request;
 import org.restlet.Response;
@@ -19,6 +20,8 @@ import org.restlet.data.ChallengeResponse;
 import org.restlet.data.Reference;
 import org.restlet.data.ServerInfo;
 import org.restlet.data.Status;
+import org.restlet.engine.log.CallTiming;
+import org.restlet.engine.log.CallTiming.Phase;
 import org.restlet.representation.Representation;
 import org.restlet.util.Resolver;
 
@@ -104,6 +107,24 @@ public class CallResolver extends Resolver<Object> {
 				return (this.request.getMethod() != null) ? this.request.getMethod().getName() : null;
 			case "p":
 				return (this.request.getProtocol() != null) ? this.request.getProtocol().getName() : null;
+			case "tac":
+				return getTimingAsString(Phase.ACCEPT);
+			case "tad":
+				return getTimingAsString(Phase.ADAPTATION);
+			case "tcm":
+				return getTimingAsString(Phase.COMMIT);
+			case "tco":
+				return getTimingAsString(Phase.CONVERSION);
+			case "tfi":
+				return getTimingAsString(Phase.FILTERING);
+			case "tha":
+				return getTimingAsString(Phase.HANDLING);
+			case "tro":
+				return getTimingAsString(Phase.ROUTING);
+			case "tt":
+				return (this.request.getTiming() != null)
+						? Long.toString(TimeUnit.NANOSECONDS.toMicros(this.request.getTiming().getElapsedTime()))
+						: null;
 			default:
 				if (variableName.startsWith("o")) {
 					return getReferenceContent(variableName.substring(1), this.request.getRootRef());
@@ -201,6 +222,18 @@ public class CallResolver extends Resolver<Object> {
 		return null;
 	}
 
+	/**
+	 * Returns the accumulated duration of a phase of the call.
+	 * 
+	 * @param phase The phase.
+	 * @return The accumulated duration in microseconds, or null if the call isn't
+	 *         timed.
+	 */
+	private String getTimingAsString(Phase phase) {
+		CallTiming timing = this.request.getTiming();
+		return (timing != null) ? Long.toString(TimeUnit.NANOSECONDS.toMicros(timing.getDuration(phase))) : null;
+	}
+
 	private Object getModificationDateAsString(Representation entity) {
 		return (entity != null && (entity.getModificationDate() != null))
 				? DateUtils.format(entity.getModificationDate(), FORMAT_RFC_1123.get(0))
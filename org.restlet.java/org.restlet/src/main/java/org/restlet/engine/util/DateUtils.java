@@ -139,6 +139,10 @@ public final class DateUtils {
 			throw new IllegalArgumentException("Date is null");
 		}
 
+		if (FORMAT_RFC_1123.get(0).equals(format)) {
+			return HttpDateCodec.format(date);
+		}
+
 		java.text.DateFormat formatter = null;
 
 		if (FORMAT_RFC_3339.get(0).equals(format)) {
@@ -176,6 +180,11 @@ public final class DateUtils {
 
 		Date result = null;
 
+		if (formats == FORMAT_RFC_1123) {
+			// Fast path for HTTP dates, the lenient parsing is tried otherwise
+			result = HttpDateCodec.parse(date);
+		}
+
 		String format = null;
 		int formatsSize = formats.size();
 
@@ -0,0 +1,375 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.util;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Codec of HTTP dates, as used by the "Date", "Expires", "Last-Modified" or
+ * "If-Modified-Since" headers. Dates are written in the preferred IMF-fixdate
+ * format (RFC 7231), such as "Sun, 06 Nov 1994 08:49:37 GMT", and this format is
+ * read directly from the characters without intermediate objects. The obsolete
+ * RFC 850 and ANSI C asctime() formats are also read, via {@link java.time}
+ * formatters.<br>
+ * <br>
+ * As most dates written by a server are the current date, and as the same dates
+ * are often read and written many times, small caches of the recently formatted
+ * and parsed dates are kept, with a one second precision. The caches hold
+ * immutable entries and are thread-safe without synchronization.
+ * 
+ * @author Jerome Louvel
+ */
+public final class HttpDateCodec {
+
+	/**
+	 * Immutable association of a number of seconds since the epoch and its
+	 * formatted value.
+	 */
+	private static final class Entry {
+
+		/** The number of seconds since the epoch. */
+		final long seconds;
+
+		/** The formatted value. */
+		final String text;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param seconds The number of seconds since the epoch.
+		 * @param text    The formatted value.
+		 */
+		Entry(long seconds, String text) {
+			this.seconds = seconds;
+			this.text = text;
+		}
+	}
+
+	/** The number of entries of each cache. Must be a power of two. */
+	private static final int CACHE_SIZE = 64;
+
+	/** The short names of the days, starting from Thursday, day of the epoch. */
+	private static final String[] DAYS = { "Thu", "Fri", "Sat", "Sun", "Mon", "Tue", "Wed" };
+
+	/** The cache of recently formatted dates, indexed by seconds. */
+	private static final Entry[] FORMAT_CACHE = new Entry[CACHE_SIZE];
+
+	/** The ANSI C asctime() format, such as "Sun Nov  6 08:49:37 1994". */
+	private static final DateTimeFormatter FORMAT_ASC_TIME = new DateTimeFormatterBuilder().parseCaseInsensitive()
+			.appendPattern("EEE MMM").appendLiteral(' ').padNext(2).appendValue(ChronoField.DAY_OF_MONTH)
+			.appendPattern(" HH:mm:ss yyyy").toFormatter(Locale.US).withZone(ZoneOffset.UTC);
+
+	/** The IMF-fixdate format, used for years that can't be written directly. */
+	private static final DateTimeFormatter FORMAT_IMF_FIXDATE = DateTimeFormatter
+			.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+
+	/**
+	 * The RFC 850 format, such as "Sunday, 06-Nov-94 08:49:37 GMT". Two digit
+	 * years are resolved within 80 years before and 20 years after now.
+	 */
+	private static final DateTimeFormatter FORMAT_RFC_850 = new DateTimeFormatterBuilder().parseCaseInsensitive()
+			.appendPattern("EEEE, dd-MMM-")
+			.appendValueReduced(ChronoField.YEAR, 2, 2, Year.now(ZoneOffset.UTC).getValue() - 80)
+			.appendPattern(" HH:mm:ss 'GMT'").toFormatter(Locale.US).withZone(ZoneOffset.UTC);
+
+	/** Value returned when a date can't be parsed directly. */
+	private static final long INVALID = Long.MIN_VALUE;
+
+	/** The short names of the months. */
+	private static final String[] MONTHS = { "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct",
+			"Nov", "Dec" };
+
+	/** The cache of recently parsed dates, indexed by hash code. */
+	private static final Entry[] PARSE_CACHE = new Entry[CACHE_SIZE];
+
+	/** The most recent date formatted, usually the current one. */
+	private static volatile Entry latest = new Entry(Long.MIN_VALUE, null);
+
+	/**
+	 * Appends a number with two digits.
+	 * 
+	 * @param chars The target characters.
+	 * @param index The index of the first digit.
+	 * @param value The value to append.
+	 */
+	private static void appendTwoDigits(char[] chars, int index, int value) {
+		chars[index] = (char) ('0' + (value / 10));
+		chars[index + 1] = (char) ('0' + (value % 10));
+	}
+
+	/**
+	 * Returns the current date formatted, computed at most once per second.
+	 * 
+	 * @return The current date formatted.
+	 */
+	public static String currentDate() {
+		return format(System.currentTimeMillis());
+	}
+
+	/**
+	 * Computes the number of days since the epoch of a date of the proleptic
+	 * Gregorian calendar.
+	 * 
+	 * @param year  The year.
+	 * @param month The month, from 1 to 12.
+	 * @param day   The day of the month.
+	 * @return The number of days since the epoch.
+	 */
+	private static long epochDay(int year, int month, int day) {
+		long y = (month <= 2) ? year - 1 : year;
+		long era = Math.floorDiv(y, 400);
+		long yearOfEra = y - (era * 400);
+		long dayOfYear = (((153 * (month + ((month > 2) ? -3 : 9))) + 2) / 5) + day - 1;
+		long dayOfEra = (yearOfEra * 365) + (yearOfEra / 4) - (yearOfEra / 100) + dayOfYear;
+		return (era * 146097) + dayOfEra - 719468;
+	}
+
+	/**
+	 * Formats a date in the IMF-fixdate format.
+	 * 
+	 * @param date The date to format.
+	 * @return The formatted date.
+	 */
+	public static String format(Date date) {
+		if (date == null) {
+			throw new IllegalArgumentException("Date is null");
+		}
+
+		return format(date.getTime());
+	}
+
+	/**
+	 * Formats a date in the IMF-fixdate format.
+	 * 
+	 * @param time The number of milliseconds since the epoch.
+	 * @return The formatted date.
+	 */
+	public static String format(long time) {
+		long seconds = Math.floorDiv(time, 1000L);
+		Entry entry = latest;
+
+		if (entry.seconds == seconds) {
+			return entry.text;
+		}
+
+		int index = (int) (seconds & (CACHE_SIZE - 1));
+		entry = FORMAT_CACHE[index];
+
+		if ((entry == null) || (entry.seconds != seconds)) {
+			entry = new Entry(seconds, write(seconds));
+			FORMAT_CACHE[index] = entry;
+		}
+
+		if (seconds > latest.seconds) {
+			latest = entry;
+		}
+
+		return entry.text;
+	}
+
+	/**
+	 * Returns the hash code of a sequence of characters, computed like
+	 * {@link String#hashCode()}.
+	 * 
+	 * @param text The characters.
+	 * @return The hash code.
+	 */
+	private static int hash(CharSequence text) {
+		int result = 0;
+
+		for (int i = 0; i < text.length(); i++) {
+			result = (31 * result) + text.charAt(i);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the index of a month from its short name, ignoring case.
+	 * 
+	 * @param text  The characters.
+	 * @param start The index of the first character.
+	 * @return The month from 1 to 12, or -1 if unknown.
+	 */
+	private static int month(CharSequence text, int start) {
+		for (int i = 0; i < MONTHS.length; i++) {
+			String month = MONTHS[i];
+
+			if ((Character.toLowerCase(text.charAt(start)) == Character.toLowerCase(month.charAt(0)))
+					&& (Character.toLowerCase(text.charAt(start + 1)) == month.charAt(1))
+					&& (Character.toLowerCase(text.charAt(start + 2)) == month.charAt(2))) {
+				return i + 1;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Parses a date in one of the formats allowed by HTTP.
+	 * 
+	 * @param text The date to parse.
+	 * @return The parsed date or null if the text isn't a valid HTTP date.
+	 */
+	public static Date parse(CharSequence text) {
+		if (text == null) {
+			return null;
+		}
+
+		int hash = hash(text);
+		int index = hash & (CACHE_SIZE - 1);
+		Entry entry = PARSE_CACHE[index];
+
+		if ((entry != null) && entry.text.contentEquals(text)) {
+			return new Date(entry.seconds * 1000L);
+		}
+
+		long seconds = parseImfFixdate(text);
+
+		if (seconds == INVALID) {
+			seconds = parseObsolete(text.toString().trim());
+		}
+
+		if (seconds == INVALID) {
+			return null;
+		}
+
+		PARSE_CACHE[index] = new Entry(seconds, text.toString());
+		return new Date(seconds * 1000L);
+	}
+
+	/**
+	 * Parses a date in the IMF-fixdate format, ignoring the surrounding
+	 * whitespace.
+	 * 
+	 * @param text The date to parse.
+	 * @return The number of seconds since the epoch or {@link #INVALID}.
+	 */
+	private static long parseImfFixdate(CharSequence text) {
+		int start = 0;
+		int end = text.length();
+
+		while ((start < end) && Character.isWhitespace(text.charAt(start))) {
+			start++;
+		}
+
+		while ((end > start) && Character.isWhitespace(text.charAt(end - 1))) {
+			end--;
+		}
+
+		// "Sun, 06 Nov 1994 08:49:37 GMT"
+		if (((end - start) != 29) || (text.charAt(start + 3) != ',') || (text.charAt(start + 4) != ' ')
+				|| (text.charAt(start + 7) != ' ') || (text.charAt(start + 11) != ' ')
+				|| (text.charAt(start + 16) != ' ') || (text.charAt(start + 19) != ':')
+				|| (text.charAt(start + 22) != ':') || (text.charAt(start + 25) != ' ')
+				|| (text.charAt(start + 26) != 'G') || (text.charAt(start + 27) != 'M')
+				|| (text.charAt(start + 28) != 'T')) {
+			return INVALID;
+		}
+
+		int day = readNumber(text, start + 5, 2);
+		int month = month(text, start + 8);
+		int year = readNumber(text, start + 12, 4);
+		int hour = readNumber(text, start + 17, 2);
+		int minute = readNumber(text, start + 20, 2);
+		int second = readNumber(text, start + 23, 2);
+
+		if ((day < 1) || (month < 1) || (year < 0) || (hour < 0) || (hour > 23) || (minute < 0) || (minute > 59)
+				|| (second < 0) || (second > 60) || (day > Month.of(month).length(Year.isLeap(year)))) {
+			return INVALID;
+		}
+
+		// Leap seconds are folded into the next second
+		return (epochDay(year, month, day) * 86400L) + (hour * 3600L) + (minute * 60L) + second;
+	}
+
+	/**
+	 * Parses a date in the obsolete RFC 850 or asctime() formats.
+	 * 
+	 * @param text The date to parse.
+	 * @return The number of seconds since the epoch or {@link #INVALID}.
+	 */
+	private static long parseObsolete(String text) {
+		DateTimeFormatter formatter = (text.indexOf(',') != -1) ? FORMAT_RFC_850 : FORMAT_ASC_TIME;
+
+		try {
+			return LocalDateTime.parse(text, formatter).toEpochSecond(ZoneOffset.UTC);
+		} catch (DateTimeParseException e) {
+			return INVALID;
+		}
+	}
+
+	/**
+	 * Reads a positive decimal number.
+	 * 
+	 * @param text   The characters.
+	 * @param start  The index of the first digit.
+	 * @param digits The number of digits.
+	 * @return The number read or -1 if a character isn't a digit.
+	 */
+	private static int readNumber(CharSequence text, int start, int digits) {
+		int result = 0;
+
+		for (int i = start; i < start + digits; i++) {
+			char c = text.charAt(i);
+
+			if ((c < '0') || (c > '9')) {
+				return -1;
+			}
+
+			result = (result * 10) + (c - '0');
+		}
+
+		return result;
+	}
+
+	/**
+	 * Writes a date in the IMF-fixdate format.
+	 * 
+	 * @param seconds The number of seconds since the epoch.
+	 * @return The formatted date.
+	 */
+	private static String write(long seconds) {
+		LocalDateTime dateTime = LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+		int year = dateTime.getYear();
+
+		if ((year < 0) || (year > 9999)) {
+			return FORMAT_IMF_FIXDATE.format(dateTime);
+		}
+
+		char[] chars = "Thu, 01 Jan 1970 00:00:00 GMT".toCharArray();
+		DAYS[(int) Math.floorMod(Math.floorDiv(seconds, 86400L), 7L)].getChars(0, 3, chars, 0);
+		appendTwoDigits(chars, 5, dateTime.getDayOfMonth());
+		MONTHS[dateTime.getMonthValue() - 1].getChars(0, 3, chars, 8);
+		appendTwoDigits(chars, 12, year / 100);
+		appendTwoDigits(chars, 14, year % 100);
+		appendTwoDigits(chars, 17, dateTime.getHour());
+		appendTwoDigits(chars, 20, dateTime.getMinute());
+		appendTwoDigits(chars, 23, dateTime.getSecond());
+		return new String(chars);
+	}
+
+	/**
+	 * Private constructor to ensure that the class acts as a true utility class
+	 * i.e. it isn't instantiable and extensible.
+	 */
+	private HttpDateCodec() {
+	}
+
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+
+import org.restlet.Context;
+
+/**
+ * Thread utilities. Provides access to the virtual threads of Java 21 and later
+ * without requiring them at compile time. When the running JVM doesn't support
+ * virtual threads, the factory methods return null and callers are expected to
+ * fall back to platform threads.<br>
+ * <br>
+ * The virtual threads mode can be enabled globally by setting the
+ * "org.restlet.engine.virtualThreads" system property to "true", or separately
+ * via the "virtualThreads" parameter of server connectors and application
+ * contexts.
+ * 
+ * @author Jerome Louvel
+ */
+public final class ThreadUtils {
+
+	/** The name of the system property enabling virtual threads by default. */
+	public static final String VIRTUAL_THREADS_PROPERTY = "org.restlet.engine.virtualThreads";
+
+	/** The Thread.Builder.factory() method. */
+	private static final Method BUILDER_FACTORY;
+
+	/** The Thread.Builder.name(String, long) method. */
+	private static final Method BUILDER_NAME;
+
+	/** The Executors.newThreadPerTaskExecutor(ThreadFactory) method. */
+	private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+	/** The Thread.ofVirtual() method. */
+	private static final Method OF_VIRTUAL;
+
+	static {
+		Method builderFactory = null;
+		Method builderName = null;
+		Method newThreadPerTaskExecutor = null;
+		Method ofVirtual = null;
+
+		try {
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			builderFactory = builderClass.getMethod("factory");
+			builderName = builderClass.getMethod("name", String.class, long.class);
+			newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+			ofVirtual = Thread.class.getMethod("ofVirtual");
+		} catch (Exception e) {
+			// Virtual threads aren't supported by this JVM
+			builderFactory = null;
+			builderName = null;
+			newThreadPerTaskExecutor = null;
+			ofVirtual = null;
+		}
+
+		BUILDER_FACTORY = builderFactory;
+		BUILDER_NAME = builderName;
+		NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+		OF_VIRTUAL = ofVirtual;
+	}
+
+	/**
+	 * Creates an executor service starting a new virtual thread for each task.
+	 * 
+	 * @param prefix The prefix of the thread names.
+	 * @return A new executor service or null if virtual threads aren't supported.
+	 */
+	public static ExecutorService createVirtualThreadExecutor(String prefix) {
+		ExecutorService result = null;
+		ThreadFactory factory = createVirtualThreadFactory(prefix);
+
+		if (factory != null) {
+			try {
+				result = (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, factory);
+			} catch (Exception e) {
+				Context.getCurrentLogger().log(Level.WARNING, "Unable to create a virtual thread executor", e);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Creates a factory of virtual threads. The threads are named with the given
+	 * prefix followed by a sequence number.
+	 * 
+	 * @param prefix The prefix of the thread names.
+	 * @return A new thread factory or null if virtual threads aren't supported.
+	 */
+	public static ThreadFactory createVirtualThreadFactory(String prefix) {
+		ThreadFactory result = null;
+
+		if (isVirtualThreadsSupported()) {
+			try {
+				Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), prefix, 0L);
+				result = (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+			} catch (Exception e) {
+				Context.getCurrentLogger().log(Level.WARNING, "Unable to create a virtual thread factory", e);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Indicates if virtual threads should be used when no specific setting is
+	 * given, based on the "org.restlet.engine.virtualThreads" system property.
+	 * 
+	 * @return True if virtual threads should be used by default.
+	 */
+	public static boolean isVirtualThreadsDefault() {
+		return Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY);
+	}
+
+	/**
+	 * Indicates if the running JVM supports virtual threads.
+	 * 
+	 * @return True if the running JVM supports virtual threads.
+	 */
+	public static boolean isVirtualThreadsSupported() {
+		return OF_VIRTUAL != null;
+	}
+
+	/**
+	 * Creates a new unstarted thread. A virtual thread is created if they are
+	 * enabled by default and supported, otherwise a platform thread.
+	 * 
+	 * @param runnable The runnable task to execute.
+	 * @param name     The thread name.
+	 * @return The new unstarted thread.
+	 */
+	public static Thread newThread(Runnable runnable, String name) {
+		Thread result = null;
+
+		if (isVirtualThreadsDefault()) {
+			ThreadFactory factory = createVirtualThreadFactory(name);
+
+			if (factory != null) {
+				result = factory.newThread(runnable);
+				result.setName(name);
+			}
+		}
+
+		return (result == null) ? new Thread(runnable, name) : result;
+	}
+
+	/**
+	 * Private constructor to ensure that the class acts as a true utility class
+	 * i.e. it isn't instantiable and extensible.
+	 */
+	private ThreadUtils() {
+	}
+
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.engine.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Scheduled executor service running each immediate task in a new virtual
+ * thread. Delayed and periodic tasks are handled by the wrapped scheduled
+ * executor service, typically backed by a few virtual threads as well.
+ * 
+ * @author Jerome Louvel
+ * @see ThreadUtils#createVirtualThreadExecutor(String)
+ */
+public class VirtualThreadExecutorService extends WrapperScheduledExecutorService {
+
+	/** The executor service starting a virtual thread per task. */
+	private final ExecutorService executor;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param scheduler The executor service handling delayed and periodic tasks.
+	 * @param executor  The executor service starting a virtual thread per task.
+	 */
+	public VirtualThreadExecutorService(ScheduledExecutorService scheduler, ExecutorService executor) {
+		super(scheduler);
+		this.executor = executor;
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		return getExecutor().awaitTermination(timeout, unit)
+				&& getWrapped().awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		getExecutor().execute(command);
+	}
+
+	/**
+	 * Returns the executor service starting a virtual thread per task.
+	 * 
+	 * @return The executor service starting a virtual thread per task.
+	 */
+	protected ExecutorService getExecutor() {
+		return executor;
+	}
+
+	@Override
+	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+		return getExecutor().invokeAll(tasks);
+	}
+
+	@Override
+	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+			throws InterruptedException {
+		return getExecutor().invokeAll(tasks, timeout, unit);
+	}
+
+	@Override
+	public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+		return getExecutor().invokeAny(tasks);
+	}
+
+	@Override
+	public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+			throws InterruptedException, ExecutionException, TimeoutException {
+		return getExecutor().invokeAny(tasks, timeout, unit);
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return getExecutor().isShutdown() && getWrapped().isShutdown();
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return getExecutor().isTerminated() && getWrapped().isTerminated();
+	}
+
+	@Override
+	public void shutdown() {
+		getExecutor().shutdown();
+		getWrapped().shutdown();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		List<Runnable> result = new ArrayList<Runnable>(getExecutor().shutdownNow());
+		result.addAll(getWrapped().shutdownNow());
+		return result;
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		return getExecutor().submit(task);
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		return getExecutor().submit(task);
+	}
+
+	@Override
+	public <T> Future<T> submit(Runnable task, T result) {
+		return getExecutor().submit(task, result);
+	}
+
+}
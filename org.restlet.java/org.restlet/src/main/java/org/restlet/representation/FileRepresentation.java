@@ -227,9 +227,42 @@ public class FileRepresentation extends Representation {
 		this.file = file;
 	}
 
+	/**
+	 * Transfers a region of the file to a byte channel, letting the kernel copy
+	 * the bytes when possible.
+	 * 
+	 * @param position        The position of the region in the file.
+	 * @param count           The size of the region, truncated to the end of the
+	 *                        file.
+	 * @param writableChannel A writable byte channel.
+	 * @return The number of bytes transferred.
+	 * @throws IOException
+	 * @see IoUtils#copy(FileChannel, long, long, WritableByteChannel)
+	 */
+	public long transferTo(long position, long count, WritableByteChannel writableChannel) throws IOException {
+		try (FileInputStream fis = getStream()) {
+			return IoUtils.copy(fis.getChannel(), position, count, writableChannel);
+		}
+	}
+
+	/**
+	 * Writes the representation to a byte stream. When the stream exposes a
+	 * writable byte channel, the file is transferred without copying its content
+	 * through user-space buffers.
+	 * 
+	 * @param outputStream The output stream.
+	 * @see IoUtils#getTransferChannel(OutputStream)
+	 */
 	@Override
 	public void write(OutputStream outputStream) throws IOException {
-		IoUtils.copy(getStream(), outputStream);
+		WritableByteChannel writableChannel = IoUtils.getTransferChannel(outputStream);
+
+		if (writableChannel == null) {
+			IoUtils.copy(getStream(), outputStream);
+		} else {
+			transferTo(0, Long.MAX_VALUE, writableChannel);
+			outputStream.flush();
+		}
 	}
 
 	/**
@@ -241,7 +274,7 @@ public class FileRepresentation extends Representation {
 	@Override
 	@Deprecated
 	public void write(WritableByteChannel writableChannel) throws IOException {
-		IoUtils.copy(getChannel(), writableChannel);
+		transferTo(0, Long.MAX_VALUE, writableChannel);
 	}
 
 	@Override
@@ -12,6 +12,7 @@ package org.restlet.resource;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 
 import org.restlet.Client;
@@ -33,6 +34,8 @@ import org.restlet.data.Protocol;
 import org.restlet.data.Range;
 import org.restlet.data.Reference;
 import org.restlet.data.Status;
+import org.restlet.engine.cache.CacheFilter;
+import org.restlet.engine.cache.CacheStore;
 import org.restlet.representation.Representation;
 import org.restlet.representation.StringRepresentation;
 import org.restlet.representation.Variant;
@@ -51,6 +54,9 @@ import org.restlet.util.Series;
  * once. Some others, such as {@link StringRepresentation} stored the entity in
  * memory which can be read several times but has the drawback to consume
  * memory.<br>
+ * A private HTTP cache can be attached with {@link #setCacheStore(CacheStore)}
+ * so that fresh responses are reused without invoking the next Restlet and
+ * stale ones are revalidated with conditional requests.<br>
  * Concurrency note: instances of the class are not designed to be shared among
  * several threads. If thread-safety is necessary, consider using the
  * lower-level {@link Client} class instead.
@@ -103,6 +109,9 @@ public class ClientResource extends Resource {
 		return create(null, new Reference(uri), resourceInterface);
 	}
 
+	/** The store of the private cache, if any. */
+	private volatile CacheStore cacheStore;
+
 	/** Indicates if redirections should be automatically followed. */
 	private volatile boolean followingRedirects;
 
@@ -154,6 +163,7 @@ public class ClientResource extends Resource {
 		Request request = new Request(resource.getRequest());
 		Response response = new Response(request);
 		this.next = resource.getNext();
+		this.cacheStore = resource.getCacheStore();
 		this.maxRedirects = resource.getMaxRedirects();
 		this.retryOnError = resource.isRetryOnError();
 		this.retryDelay = resource.getRetryDelay();
@@ -415,6 +425,26 @@ public class ClientResource extends Resource {
 		return getReference().addSegment(value);
 	}
 
+	/**
+	 * Creates a filter serving the calls from the private cache and invoking the
+	 * given next Uniform on cache misses and revalidations.
+	 * 
+	 * @param next The next Uniform.
+	 * @return The created cache filter.
+	 * @see #getCacheStore()
+	 */
+	protected CacheFilter createCacheFilter(final Uniform next) {
+		CacheFilter result = new CacheFilter(getContext(), getCacheStore(), false);
+		result.setNext(new Restlet(getContext()) {
+			@Override
+			public void handle(Request request, Response response) {
+				super.handle(request, response);
+				next.handle(request, response);
+			}
+		});
+		return result;
+	}
+
 	/**
 	 * Creates a next Restlet is no one is set. By default, it creates a new
 	 * {@link Client} based on the protocol of the resource's URI reference.
@@ -460,6 +490,46 @@ public class ClientResource extends Resource {
 		return new Request(getRequest());
 	}
 
+	/**
+	 * Creates a new request by cloning the prototype request, setting the method
+	 * and the object entity. The entity is serialized and the client preferences
+	 * are updated using the {@link org.restlet.service.ConverterService}.
+	 * 
+	 * @param method      The request method to use.
+	 * @param entity      The object entity to send.
+	 * @param resultClass The class of the response entity.
+	 * @return The new request.
+	 * @throws ResourceException
+	 */
+	private Request createRequest(Method method, Object entity, Class<?> resultClass) throws ResourceException {
+		org.restlet.service.ConverterService cs = getConverterService();
+		ClientInfo clientInfo = getClientInfo();
+
+		if (clientInfo.getAcceptedMediaTypes().isEmpty()) {
+			cs.updatePreferences(clientInfo.getAcceptedMediaTypes(), resultClass);
+		}
+
+		// Prepare the request by cloning the prototype request
+		Request result = createRequest();
+		result.setMethod(method);
+		result.setClientInfo(clientInfo);
+
+		if (entity != null) {
+			List<? extends Variant> entityVariants;
+			try {
+				entityVariants = cs.getVariants(entity.getClass(), null);
+				result.setEntity(toRepresentation(entity,
+						getConnegService().getPreferredVariant(entityVariants, result, getMetadataService())));
+			} catch (IOException e) {
+				throw new ResourceException(e);
+			}
+		} else {
+			result.setEntity(null);
+		}
+
+		return result;
+	}
+
 	/**
 	 * Creates a new response for the given request.
 	 * 
@@ -513,6 +583,18 @@ public class ClientResource extends Resource {
 		return handle(Method.DELETE, mediaType);
 	}
 
+	/**
+	 * Asynchronously deletes the target resource and all its representations. If
+	 * a success status is not returned, then the returned future completes
+	 * exceptionally with a resource exception.
+	 * 
+	 * @return The future optional response entity.
+	 * @see #handleOutboundAsync(Request)
+	 */
+	public CompletableFuture<Representation> deleteAsync() {
+		return handleAsync(Method.DELETE, (Representation) null);
+	}
+
 	/**
 	 * By default, it throws a new resource exception. Call
 	 * {@link #doError(org.restlet.data.Status, org.restlet.Request, org.restlet.Response)}.
@@ -632,6 +714,33 @@ public class ClientResource extends Resource {
 		return handle(Method.GET, mediaType);
 	}
 
+	/**
+	 * Asynchronously represents the resource. If a success status is not
+	 * returned, then the returned future completes exceptionally with a resource
+	 * exception.
+	 * 
+	 * @return The future best representation.
+	 * @see #handleOutboundAsync(Request)
+	 */
+	public CompletableFuture<Representation> getAsync() {
+		return handleAsync(Method.GET, (Representation) null);
+	}
+
+	/**
+	 * Asynchronously represents the resource in the given object class, using
+	 * the {@link org.restlet.service.ConverterService}. If a success status is
+	 * not returned, then the returned future completes exceptionally with a
+	 * resource exception.
+	 * 
+	 * @param <T>         The expected type for the response entity.
+	 * @param resultClass The expected class for the response entity object.
+	 * @return The future response entity object.
+	 * @see #handleOutboundAsync(Request)
+	 */
+	public <T> CompletableFuture<T> getAsync(Class<T> resultClass) {
+		return handleAsync(Method.GET, null, resultClass);
+	}
+
 	/**
 	 * Returns the attribute value by looking up the given name in the response
 	 * attributes maps. The toString() method is then invoked on the attribute
@@ -645,6 +754,15 @@ public class ClientResource extends Resource {
 		return (value == null) ? null : value.toString();
 	}
 
+	/**
+	 * Returns the store of the private cache, or null if no cache is attached.
+	 * 
+	 * @return The store of the private cache or null.
+	 */
+	public CacheStore getCacheStore() {
+		return this.cacheStore;
+	}
+
 	/**
 	 * Returns the child resource defined by its URI relatively to the current
 	 * resource. The child resource is defined in the sense of hierarchical URIs. If
@@ -902,33 +1020,8 @@ public class ClientResource extends Resource {
 	 * @throws ResourceException
 	 */
 	protected <T> T handle(Method method, Object entity, Class<T> resultClass) throws ResourceException {
-		org.restlet.service.ConverterService cs = getConverterService();
-		ClientInfo clientInfo = getClientInfo();
-
-		if (clientInfo.getAcceptedMediaTypes().isEmpty()) {
-			cs.updatePreferences(clientInfo.getAcceptedMediaTypes(), resultClass);
-		}
-
-		// Prepare the request by cloning the prototype request
-		Request request = createRequest();
-		request.setMethod(method);
-		request.setClientInfo(clientInfo);
-
-		if (entity != null) {
-			List<? extends Variant> entityVariants;
-			try {
-				entityVariants = cs.getVariants(entity.getClass(), null);
-				request.setEntity(toRepresentation(entity,
-						getConnegService().getPreferredVariant(entityVariants, request, getMetadataService())));
-			} catch (IOException e) {
-				throw new ResourceException(e);
-			}
-		} else {
-			request.setEntity(null);
-		}
-
 		// Actually handle the call
-		Response response = handleOutbound(request);
+		Response response = handleOutbound(createRequest(method, entity, resultClass));
 		Representation responseEntity = handleInbound(response);
 		return toObject(responseEntity, resultClass);
 	}
@@ -1037,6 +1130,41 @@ public class ClientResource extends Resource {
 		}
 	}
 
+	/**
+	 * Asynchronously handles the call by cloning the prototype request, setting
+	 * the method and entity.
+	 * 
+	 * @param <T>         The expected type for the response entity.
+	 * @param method      The request method to use.
+	 * @param entity      The object entity to send.
+	 * @param resultClass The class of the response entity.
+	 * @return The future response object entity.
+	 * @see #handleOutboundAsync(Request)
+	 */
+	protected <T> CompletableFuture<T> handleAsync(Method method, Object entity, Class<T> resultClass) {
+		return handleOutboundAsync(createRequest(method, entity, resultClass))
+				.thenApply(response -> toObject(toEntity(response), resultClass));
+	}
+
+	/**
+	 * Asynchronously handles the call by cloning the prototype request, setting
+	 * the method and entity.
+	 * 
+	 * @param method The request method to use.
+	 * @param entity The request entity to set.
+	 * @return The future optional response entity.
+	 * @see #handleOutboundAsync(Request)
+	 */
+	protected CompletableFuture<Representation> handleAsync(Method method, Representation entity) {
+		// Prepare the request by cloning the prototype request
+		Request request = createRequest();
+		request.setMethod(method);
+		request.setEntity(entity);
+		request.setClientInfo(getClientInfo());
+
+		return handleOutboundAsync(request).thenApply(response -> toEntity(response));
+	}
+
 	/**
 	 * Handles the inbound call. Note that only synchronous calls are processed.
 	 * 
@@ -1050,11 +1178,7 @@ public class ClientResource extends Resource {
 
 		// Verify that the request was synchronous
 		if (response.getRequest().isSynchronous()) {
-			if (response.getStatus().isError()) {
-				doError(response.getStatus());
-				return null;
-			}
-			return response.getEntity();
+			return toEntity(response);
 		}
 
 		return null;
@@ -1071,6 +1195,10 @@ public class ClientResource extends Resource {
 		Response response = createResponse(request);
 		Uniform next = getNext();
 
+		if ((next != null) && (getCacheStore() != null)) {
+			next = createCacheFilter(next);
+		}
+
 		if (next != null) {
 			// Effectively handle the call
 			handle(request, response, null, 0, next);
@@ -1084,6 +1212,77 @@ public class ClientResource extends Resource {
 		return response;
 	}
 
+	/**
+	 * Asynchronously handles the outbound call by invoking the next handler. The
+	 * request is given a {@link Request#getOnResponse()} callback completing the
+	 * returned future. When the next handler relies on a non-blocking client
+	 * connector, such as the Jetty one, the calling thread is released before the
+	 * response is received. Otherwise, the call is handled synchronously and the
+	 * returned future is already completed.<br>
+	 * <br>
+	 * Note that the caching, retry and redirection features aren't supported in
+	 * this mode, and that the response entity must be consumed or released by the
+	 * caller.<br>
+	 * <br>
+	 * Concurrency note: with a non-blocking client connector, the returned future
+	 * is completed by a thread of the connector, which also buffers the response
+	 * entity and updates the last received response of this resource. The
+	 * response returned by {@link #getResponse()} should therefore only be read
+	 * once the future is completed, and blocking work should be chained with an
+	 * executor of the caller, for example with
+	 * {@link CompletableFuture#thenApplyAsync(java.util.function.Function, java.util.concurrent.Executor)},
+	 * rather than on the connector thread.
+	 * 
+	 * @param request The request to handle.
+	 * @return The future response.
+	 * @see #getNext()
+	 */
+	public CompletableFuture<Response> handleOutboundAsync(Request request) {
+		final CompletableFuture<Response> result = new CompletableFuture<Response>();
+		Uniform next = getNext();
+
+		if (next != null) {
+			request.setOnResponse(new Uniform() {
+				public void handle(Request request, Response response) {
+					result.complete(response);
+				}
+			});
+
+			// Check if request entity buffering must be done
+			if (isRequestEntityBuffering()) {
+				request.bufferEntity();
+			}
+
+			Response response = createResponse(request);
+
+			try {
+				next.handle(request, response);
+
+				// Unless the response is provided later to the callback
+				if (response.isAutoCommitting()) {
+					result.complete(response);
+				}
+			} catch (Throwable t) {
+				result.completeExceptionally(t);
+			}
+		} else {
+			getLogger().warning("Unable to process the call for a client resource. No next Restlet has been provided.");
+			result.complete(createResponse(request));
+		}
+
+		return result.thenApply(response -> {
+			// Check if response entity buffering must be done
+			if (isResponseEntityBuffering()) {
+				response.bufferEntity();
+			}
+
+			// Update the last received response, possibly from a connector
+			// thread, before completing the returned future
+			setResponse(response);
+			return response;
+		});
+	}
+
 	/**
 	 * Indicates if there is a next Restlet.
 	 * 
@@ -1361,6 +1560,38 @@ public class ClientResource extends Resource {
 		return handle(Method.POST, entity);
 	}
 
+	/**
+	 * Asynchronously posts an object entity. Automatically serializes the object
+	 * using the {@link org.restlet.service.ConverterService}.
+	 * 
+	 * @param entity The object entity to post.
+	 * @return The future optional result entity.
+	 * @throws ResourceException
+	 * @see #handleOutboundAsync(Request)
+	 */
+	public CompletableFuture<Representation> postAsync(Object entity) throws ResourceException {
+		try {
+			return handleAsync(Method.POST, toRepresentation(entity));
+		} catch (IOException e) {
+			throw new ResourceException(e);
+		}
+	}
+
+	/**
+	 * Asynchronously posts an object entity. Automatically serializes the object
+	 * and deserializes the response entity using the
+	 * {@link org.restlet.service.ConverterService}.
+	 * 
+	 * @param <T>         The expected type for the response entity.
+	 * @param entity      The object entity to post.
+	 * @param resultClass The class of the response entity.
+	 * @return The future response object entity.
+	 * @see #handleOutboundAsync(Request)
+	 */
+	public <T> CompletableFuture<T> postAsync(Object entity, Class<T> resultClass) {
+		return handleAsync(Method.POST, entity, resultClass);
+	}
+
 	/**
 	 * Puts an object entity. Automatically serializes the object using the
 	 * {@link org.restlet.service.ConverterService}.
@@ -1433,6 +1664,38 @@ public class ClientResource extends Resource {
 		return handle(Method.PUT, entity);
 	}
 
+	/**
+	 * Asynchronously puts an object entity. Automatically serializes the object
+	 * using the {@link org.restlet.service.ConverterService}.
+	 * 
+	 * @param entity The object entity to put.
+	 * @return The future optional result entity.
+	 * @throws ResourceException
+	 * @see #handleOutboundAsync(Request)
+	 */
+	public CompletableFuture<Representation> putAsync(Object entity) throws ResourceException {
+		try {
+			return handleAsync(Method.PUT, toRepresentation(entity));
+		} catch (IOException e) {
+			throw new ResourceException(e);
+		}
+	}
+
+	/**
+	 * Asynchronously puts an object entity. Automatically serializes the object
+	 * and deserializes the response entity using the
+	 * {@link org.restlet.service.ConverterService}.
+	 * 
+	 * @param <T>         The expected type for the response entity.
+	 * @param entity      The object entity to put.
+	 * @param resultClass The class of the response entity.
+	 * @return The future response object entity.
+	 * @see #handleOutboundAsync(Request)
+	 */
+	public <T> CompletableFuture<T> putAsync(Object entity, Class<T> resultClass) {
+		return handleAsync(Method.PUT, entity, resultClass);
+	}
+
 	/**
 	 * Effectively redirects a client call. By default, it checks for infinite loops
 	 * and unavailable entities, the references list is updated and the
@@ -1512,6 +1775,17 @@ public class ClientResource extends Resource {
 		getRequestAttributes().put(name, value);
 	}
 
+	/**
+	 * Sets the store of the private cache, or detaches the cache when null. The
+	 * store can be shared with other client resources of the same user.
+	 * 
+	 * @param cacheStore The store of the private cache or null.
+	 * @see CacheFilter
+	 */
+	public void setCacheStore(CacheStore cacheStore) {
+		this.cacheStore = cacheStore;
+	}
+
 	/**
 	 * Sets the authentication response sent by a client to an origin server.
 	 * 
@@ -1828,6 +2102,22 @@ public class ClientResource extends Resource {
 		this.retryOnError = retryOnError;
 	}
 
+	/**
+	 * Returns the entity of a received response. If an error status was received,
+	 * {@link #doError(Status)} is invoked instead.
+	 * 
+	 * @param response The received response.
+	 * @return The response's entity, if any.
+	 */
+	private Representation toEntity(Response response) {
+		if (response.getStatus().isError()) {
+			doError(response.getStatus());
+			return null;
+		}
+
+		return response.getEntity();
+	}
+
 	/**
 	 * Wraps the client resource to proxy calls to the given Java interface into
 	 * Restlet method calls. Use the {@link org.restlet.engine.Engine} classloader
@@ -12,14 +12,17 @@ package org.restlet.resource;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.restlet.Context;
 import org.restlet.Request;
 import org.restlet.Response;
+import org.restlet.data.Encoding;
 import org.restlet.data.MediaType;
 import org.restlet.data.Reference;
 import org.restlet.data.ReferenceList;
 import org.restlet.engine.local.DirectoryServerResource;
+import org.restlet.engine.local.FileCache;
 import org.restlet.engine.util.AlphaNumericComparator;
 import org.restlet.engine.util.AlphabeticalComparator;
 import org.restlet.representation.Representation;
@@ -55,6 +58,16 @@ import org.restlet.representation.Variant;
  * idea</a>, using a different and faster implementation contributed by Rob
  * Heittman.<br>
  * <br>
+ * Pre-compressed files can be served directly, without encoding them again for
+ * each request, by adding the encodings of the sibling files to the list
+ * returned by {@link #getPrecompressedEncodings()}. For example, if the GZip
+ * encoding is added and the client accepts it, a request for "foo.js" is
+ * answered with the content of "foo.js.gz" when this file exists, and with the
+ * content of "foo.js" otherwise.<br>
+ * <br>
+ * Hot files can also be kept in memory by setting a {@link FileCache}, which
+ * revalidates each cached file against its modification date and length.<br>
+ * <br>
  * Concurrency note: instances of this class or its subclasses can be invoked by
  * several threads at the same time and therefore must be thread-safe. You
  * should be especially careful when storing state in member variables.
@@ -71,6 +84,9 @@ public class Directory extends Finder {
 	 */
 	private volatile boolean deeplyAccessible;
 
+	/** The optional in-memory cache of the files. */
+	private volatile FileCache fileCache;
+
 	/** The index name, without extensions (ex: "index" or "home"). */
 	private volatile String indexName;
 
@@ -88,6 +104,9 @@ public class Directory extends Finder {
 	/** Indicates if the best content is automatically negotiated. */
 	private volatile boolean negotiatingContent;
 
+	/** The encodings of the pre-compressed sibling files, by order of preference. */
+	private final List<Encoding> precompressedEncodings;
+
 	/** The absolute root reference (file, clap URI). */
 	private volatile Reference rootRef;
 
@@ -114,10 +133,12 @@ public class Directory extends Finder {
 
 		this.comparator = new AlphaNumericComparator();
 		this.deeplyAccessible = true;
+		this.fileCache = null;
 		this.indexName = "index";
 		this.listingAllowed = false;
 		this.modifiable = false;
 		this.negotiatingContent = true;
+		this.precompressedEncodings = new CopyOnWriteArrayList<Encoding>();
 		setTargetClass(DirectoryServerResource.class);
 		setName("Directory");
 	}
@@ -154,6 +175,15 @@ public class Directory extends Finder {
 		return this.comparator;
 	}
 
+	/**
+	 * Returns the optional in-memory cache of the files. Null by default.
+	 * 
+	 * @return The optional in-memory cache of the files.
+	 */
+	public FileCache getFileCache() {
+		return this.fileCache;
+	}
+
 	/**
 	 * Returns the index name, without extensions. Returns "index" by default.
 	 * 
@@ -197,6 +227,40 @@ public class Directory extends Finder {
 		return result;
 	}
 
+	/**
+	 * Returns the modifiable list of encodings of the pre-compressed sibling files
+	 * to look for, by order of preference when the client accepts several of
+	 * them. The list is empty by default, disabling the lookup.
+	 * 
+	 * @return The modifiable list of encodings of the pre-compressed files.
+	 * @see #getPrecompressedExtension(Encoding)
+	 */
+	public List<Encoding> getPrecompressedEncodings() {
+		return this.precompressedEncodings;
+	}
+
+	/**
+	 * Returns the file extension of the pre-compressed files with the given
+	 * encoding. By default, "gz" is returned for GZip, "br" for Brotli, "zst" for
+	 * Zstandard and the encoding name otherwise.
+	 * 
+	 * @param encoding The encoding of the pre-compressed files.
+	 * @return The file extension, without the leading dot.
+	 */
+	public String getPrecompressedExtension(Encoding encoding) {
+		String result = encoding.getName();
+
+		if (Encoding.GZIP.equals(encoding)) {
+			result = "gz";
+		} else if (Encoding.BROTLI.equals(encoding)) {
+			result = "br";
+		} else if (Encoding.ZSTD.equals(encoding)) {
+			result = "zst";
+		}
+
+		return result;
+	}
+
 	/**
 	 * Returns the root URI from which the relative resource URIs will be looked up.
 	 * 
@@ -270,6 +334,16 @@ public class Directory extends Finder {
 		this.deeplyAccessible = deeplyAccessible;
 	}
 
+	/**
+	 * Sets the optional in-memory cache of the files. Only the files of local
+	 * directories, using the "file" scheme, are cached.
+	 * 
+	 * @param fileCache The optional in-memory cache of the files.
+	 */
+	public void setFileCache(FileCache fileCache) {
+		this.fileCache = fileCache;
+	}
+
 	/**
 	 * Sets the index name, without extensions.
 	 * 
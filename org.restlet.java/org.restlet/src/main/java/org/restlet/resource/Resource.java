@@ -36,6 +36,8 @@ import org.restlet.data.Range;
 import org.restlet.data.Reference;
 import org.restlet.data.ServerInfo;
 import org.restlet.data.Status;
+import org.restlet.engine.log.CallTiming;
+import org.restlet.engine.log.CallTiming.Phase;
 import org.restlet.representation.Representation;
 import org.restlet.representation.Variant;
 import org.restlet.service.MetadataService;
@@ -831,6 +833,9 @@ public abstract class Resource {
 		T result = null;
 
 		if (source != null) {
+			CallTiming timing = (getRequest() == null) ? null : getRequest().getTiming();
+			long startTime = (timing == null) ? 0L : System.nanoTime();
+
 			try {
 				org.restlet.service.ConverterService cs = getConverterService();
 				result = cs.toObject(source, target, this);
@@ -838,6 +843,10 @@ public abstract class Resource {
 				throw e;
 			} catch (Exception e) {
 				throw new ResourceException(Status.CLIENT_ERROR_UNPROCESSABLE_ENTITY, e);
+			} finally {
+				if (timing != null) {
+					timing.record(Phase.CONVERSION, startTime);
+				}
 			}
 		}
 
@@ -880,8 +889,17 @@ public abstract class Resource {
 		Representation result = null;
 
 		if (source != null) {
-			org.restlet.service.ConverterService cs = getConverterService();
-			result = cs.toRepresentation(source, target, this);
+			CallTiming timing = (getRequest() == null) ? null : getRequest().getTiming();
+			long startTime = (timing == null) ? 0L : System.nanoTime();
+
+			try {
+				org.restlet.service.ConverterService cs = getConverterService();
+				result = cs.toRepresentation(source, target, this);
+			} finally {
+				if (timing != null) {
+					timing.record(Phase.CONVERSION, startTime);
+				}
+			}
 		}
 
 		return result;
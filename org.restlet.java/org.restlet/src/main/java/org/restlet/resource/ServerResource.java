@@ -14,8 +14,12 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 
 import org.restlet.Context;
@@ -27,20 +31,26 @@ import org.restlet.data.ChallengeRequest;
 import org.restlet.data.CookieSetting;
 import org.restlet.data.Dimension;
 import org.restlet.data.Form;
-import org.restlet.data.MediaType;
 import org.restlet.data.Method;
 import org.restlet.data.Reference;
 import org.restlet.data.ServerInfo;
 import org.restlet.data.Status;
+import org.restlet.data.Tag;
+import org.restlet.engine.log.CallTiming;
+import org.restlet.engine.log.CallTiming.Phase;
 import org.restlet.engine.resource.AnnotationInfo;
 import org.restlet.engine.resource.AnnotationUtils;
 import org.restlet.engine.resource.MethodAnnotationInfo;
+import org.restlet.engine.resource.NegotiationTable;
 import org.restlet.engine.resource.VariantInfo;
+import org.restlet.engine.routing.TemplateMatch;
+import org.restlet.representation.EmptyRepresentation;
 import org.restlet.representation.Representation;
 import org.restlet.representation.RepresentationInfo;
 import org.restlet.representation.Variant;
 import org.restlet.routing.Filter;
 import org.restlet.routing.Router;
+import org.restlet.routing.TemplateRoute;
 import org.restlet.security.Role;
 import org.restlet.service.ConverterService;
 import org.restlet.util.Series;
@@ -252,6 +262,75 @@ public abstract class ServerResource extends Resource {
 		}
 	}
 
+	/**
+	 * Handles the stage returned by an annotated method. When the call can be
+	 * suspended, see {@link Request#isSuspendable()}, the response isn't
+	 * automatically committed so that the server connector can release its
+	 * thread, and it is completed and committed when the stage completes. Note
+	 * that the filters preceding the resource have already processed the
+	 * response by then, so the cache and tag filters leave it untouched.
+	 * Otherwise, or if the stage is already completed, the calling thread waits
+	 * for its result which is returned like a synchronous one.
+	 * 
+	 * @param stage   The stage returned by the annotated method.
+	 * @param variant The response variant expected (can be null).
+	 * @return The response entity or null if it is provided later.
+	 * @throws IOException
+	 * @throws ResourceException
+	 */
+	protected Representation doAsynchronousHandle(CompletionStage<?> stage, final Variant variant)
+			throws IOException, ResourceException {
+		final CompletableFuture<Object> future = new CompletableFuture<Object>();
+		stage.whenComplete((resultObject, throwable) -> {
+			if (throwable != null) {
+				future.completeExceptionally(throwable);
+			} else {
+				future.complete(resultObject);
+			}
+		});
+
+		if (future.isDone() || !getRequest().isSuspendable()) {
+			Object resultObject;
+
+			try {
+				resultObject = future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new ResourceException(e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof ResourceException) {
+					throw (ResourceException) e.getCause();
+				}
+
+				throw new ResourceException(e.getCause());
+			}
+
+			return (resultObject == null) ? null : toRepresentation(resultObject, variant);
+		}
+
+		setAutoCommitting(false);
+		future.whenComplete((resultObject, throwable) -> {
+			// Hand the completion of the response over to the thread committing
+			// it, once released by the thread handling the call
+			getRequest().commit(getResponse(), () -> {
+				try {
+					if (throwable != null) {
+						doCatch(((throwable instanceof CompletionException) && (throwable.getCause() != null))
+								? throwable.getCause()
+								: throwable);
+					} else if (resultObject != null) {
+						getResponse().setEntity(toRepresentation(resultObject, variant));
+					} else if (Status.SUCCESS_OK.equals(getStatus())) {
+						setStatus(Status.SUCCESS_NO_CONTENT);
+					}
+				} catch (Throwable t) {
+					doCatch(t);
+				}
+			});
+		});
+		return null;
+	}
+
 	/**
 	 * Handles a call by first verifying the optional request conditions and
 	 * continue the processing if possible. Note that in order to evaluate those
@@ -263,8 +342,17 @@ public abstract class ServerResource extends Resource {
 	 */
 	protected Representation doConditionalHandle() throws ResourceException {
 		Representation result = null;
-
-		if (getConditions().hasSome()) {
+		Tag versionTag = (existing && (Method.GET.equals(getMethod()) || Method.HEAD.equals(getMethod())))
+				? getVersionTag()
+				: null;
+
+		if ((versionTag != null) && Status.REDIRECTION_NOT_MODIFIED
+				.equals(getConditions().getStatus(getMethod(), true, versionTag, null))) {
+			// Answer without invoking the handler
+			setStatus(Status.REDIRECTION_NOT_MODIFIED);
+			result = new EmptyRepresentation();
+			result.setTag(versionTag);
+		} else if (getConditions().hasSome()) {
 			RepresentationInfo resultInfo = null;
 
 			if (existing) {
@@ -333,6 +421,11 @@ public abstract class ServerResource extends Resource {
 			}
 		}
 
+		if ((versionTag != null) && (result != null) && (result.getTag() == null) && (getStatus() != null)
+				&& getStatus().isSuccess()) {
+			result.setTag(versionTag);
+		}
+
 		return result;
 	}
 
@@ -486,7 +579,9 @@ public abstract class ServerResource extends Resource {
 				resultObject = annotationInfo.getJavaMethod().invoke(this);
 			}
 
-			if (resultObject != null) {
+			if (resultObject instanceof CompletionStage) {
+				result = doAsynchronousHandle((CompletionStage<?>) resultObject, variant);
+			} else if (resultObject != null) {
 				result = toRepresentation(resultObject, variant);
 			}
 
@@ -743,13 +838,20 @@ public abstract class ServerResource extends Resource {
 	 * Returns the attribute value by looking up the given name in the request
 	 * attributes maps. The toString() method is then invoked on the attribute
 	 * value. This is typically used for variables that are declared in the URI
-	 * template used to route the call to this resource.
+	 * template used to route the call to this resource. If the attribute isn't
+	 * found, the variables lazily extracted by the template routes are looked up.
 	 * 
 	 * @param name The attribute name.
 	 * @return The request attribute value.
+	 * @see TemplateRoute#isLazyVariables()
 	 */
 	public String getAttribute(String name) {
 		Object value = getRequestAttributes().get(name);
+
+		if ((value == null) && (getRequest() != null)) {
+			value = TemplateMatch.getValue(getRequest(), name);
+		}
+
 		return (value == null) ? null : value.toString();
 	}
 
@@ -809,6 +911,17 @@ public abstract class ServerResource extends Resource {
 		return this.name;
 	}
 
+	/**
+	 * Returns the content negotiation table of this resource class, computed once
+	 * from the annotation descriptors.
+	 * 
+	 * @return The content negotiation table.
+	 */
+	private NegotiationTable getNegotiationTable() {
+		return AnnotationUtils.getInstance().getNegotiationTable(getClass(), getAnnotations(), getMetadataService(),
+				getConverterService());
+	}
+
 	/**
 	 * Returns the callback invoked after sending the response.
 	 * 
@@ -832,7 +945,12 @@ public abstract class ServerResource extends Resource {
 
 		// If variants were found, select the best matching one
 		if ((variants != null) && (!variants.isEmpty())) {
-			result = getConnegService().getPreferredVariant(variants, getRequest(), getMetadataService());
+			if (isAnnotated() && hasAnnotations()) {
+				result = getNegotiationTable().getPreferredVariant(variants, getRequest(), getConnegService(),
+						getMetadataService());
+			} else {
+				result = getConnegService().getPreferredVariant(variants, getRequest(), getMetadataService());
+			}
 		}
 
 		return result;
@@ -881,63 +999,33 @@ public abstract class ServerResource extends Resource {
 		return this.variants;
 	}
 
+	/**
+	 * Returns the variants exposed by the annotated methods compatible with the
+	 * current request, based on the negotiation table of the resource class.
+	 * 
+	 * @param method The method.
+	 * @return The modifiable list of variants.
+	 */
 	private List<Variant> getVariantsFromAnnotations(Method method) {
-		final List<Variant> result = new ArrayList<>();
-
-		for (AnnotationInfo annotationInfo : getAnnotations()) {
-			if (!(annotationInfo instanceof MethodAnnotationInfo)) {
-				continue;
-			}
-
-			final MethodAnnotationInfo methodAnnotationInfo = (MethodAnnotationInfo) annotationInfo;
-			try {
-				final boolean methodAnnotationIsCompatible = methodAnnotationInfo.isCompatible(method, getQuery(), getRequestEntity(),
-						getMetadataService(), getConverterService());
-
-				if (!methodAnnotationIsCompatible) {
-					continue;
-				}
-
-				final List<Variant> responseVariants = methodAnnotationInfo.getResponseVariants(getMetadataService(), getConverterService());
-
-				if (responseVariants == null) {
-					continue;
-				}
-
-				// Compute an affinity score between this annotation and the input entity.
-				float score = 0.5f;
-				if ((getRequest().getEntity() != null) && getRequest().getEntity().isAvailable()) {
-					final MediaType requestEntityMediaType = getRequest().getEntity().getMediaType();
-					final List<MediaType> amts = getMetadataService().getAllMediaTypes(methodAnnotationInfo.getInput());
-					if (amts != null) {
-						for (MediaType amt : amts) {
-							if (amt.equals(requestEntityMediaType)) {
-								score = 1.0f;
-							} else if (amt.includes(requestEntityMediaType)) {
-								score = Math.max(0.8f, score);
-							} else if (amt.isCompatible(requestEntityMediaType)) {
-								score = Math.max(0.6f, score);
-							}
-						}
-					}
-				} else if (methodAnnotationInfo.getInput() == null || methodAnnotationInfo.getInput().isEmpty()) { // the annotation does not declare input media type
-					score = 1.0f;
-				} else if (methodAnnotationInfo.getJavaInputTypes() == null || methodAnnotationInfo.getJavaInputTypes().length == 0) { // the annotated method does not require an entity
-					score = 0.9f;
-				}
-
-				for (Variant variant : responseVariants) {
-					final VariantInfo variantInfo = new VariantInfo(variant, methodAnnotationInfo);
-					variantInfo.setInputScore(score);
-					result.add(variantInfo);
-				}
-
-			} catch (IOException e) {
-				getLogger().log(Level.FINE, "Unable to get variants from annotation", e);
-			}
-		}
+		return getNegotiationTable().getVariants(method, getRequest(), getQuery());
+	}
 
-		return result;
+	/**
+	 * Returns a tag identifying the current version of the resource state, or
+	 * null if it isn't known. It is invoked before handling GET and HEAD requests
+	 * so that conditional requests matching the tag are answered with a "304 Not
+	 * Modified" status without invoking the handler nor producing the entity.
+	 * The tag is also set on the returned entities that are not tagged yet.<br>
+	 * <br>
+	 * Override this method when the version can be obtained much more cheaply
+	 * than the representation, for example from a revision number or a
+	 * modification counter. When several variants are exposed, the tag should
+	 * either vary with them or be weak. The default implementation returns null.
+	 * 
+	 * @return The version tag or null.
+	 */
+	protected Tag getVersionTag() {
+		return null;
 	}
 
 	/**
@@ -960,6 +1048,8 @@ public abstract class ServerResource extends Resource {
 	@Override
 	public Representation handle() {
 		Representation result = null;
+		CallTiming timing = (getRequest() == null) ? null : getRequest().getTiming();
+		long startTime = (timing == null) ? 0L : System.nanoTime();
 
 		// If the resource is not available after initialization and if this a
 		// retrieval method, then return a "not found" response.
@@ -985,7 +1075,7 @@ public abstract class ServerResource extends Resource {
 			} finally {
 				if (Status.CLIENT_ERROR_METHOD_NOT_ALLOWED.equals(getStatus())) {
 					updateAllowedMethods();
-				} else if (Status.SUCCESS_OK.equals(getStatus())
+				} else if (Status.SUCCESS_OK.equals(getStatus()) && isAutoCommitting()
 						&& (getResponseEntity() == null || !getResponseEntity().isAvailable())) {
 					getLogger().fine("A response with a 200 (Ok) status should have an entity. "
 							+ "Changing the status to 204 (No content).");
@@ -994,6 +1084,10 @@ public abstract class ServerResource extends Resource {
 			}
 		}
 
+		if (timing != null) {
+			timing.record(Phase.HANDLING, startTime);
+		}
+
 		return result;
 	}
 
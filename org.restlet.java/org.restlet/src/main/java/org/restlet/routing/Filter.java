@@ -14,6 +14,8 @@ import org.restlet.Request;
 import org.restlet.Response;
 import org.restlet.Restlet;
 import org.restlet.data.Status;
+import org.restlet.engine.log.CallTiming;
+import org.restlet.engine.log.CallTiming.Phase;
 import org.restlet.resource.Finder;
 import org.restlet.resource.ServerResource;
 
@@ -159,12 +161,17 @@ public abstract class Filter extends Restlet {
 	@Override
 	public final void handle(Request request, Response response) {
 		super.handle(request, response);
+		long startTime = System.nanoTime();
+		int beforeResult = beforeHandle(request, response);
+		recordFiltering(request, startTime);
 
-		switch (beforeHandle(request, response)) {
+		switch (beforeResult) {
 		case CONTINUE:
 			switch (doHandle(request, response)) {
 			case CONTINUE:
+				startTime = System.nanoTime();
 				afterHandle(request, response);
+				recordFiltering(request, startTime);
 				break;
 
 			default:
@@ -174,7 +181,9 @@ public abstract class Filter extends Restlet {
 			break;
 
 		case SKIP:
+			startTime = System.nanoTime();
 			afterHandle(request, response);
+			recordFiltering(request, startTime);
 			break;
 
 		default:
@@ -193,6 +202,21 @@ public abstract class Filter extends Restlet {
 		return getNext() != null;
 	}
 
+	/**
+	 * Adds the time spent by the filter itself to the latency breakdown of the
+	 * call, if any.
+	 * 
+	 * @param request   The request handled.
+	 * @param startTime The start time of the filtering.
+	 */
+	private void recordFiltering(Request request, long startTime) {
+		CallTiming timing = request.getTiming();
+
+		if (timing != null) {
+			timing.record(Phase.FILTERING, startTime);
+		}
+	}
+
 	/**
 	 * Sets the next {@link Restlet} as a {@link Finder} for a given
 	 * {@link ServerResource} class. When the call is delegated to the
@@ -16,6 +16,9 @@ import org.restlet.Request;
 import org.restlet.Response;
 import org.restlet.Restlet;
 import org.restlet.data.Status;
+import org.restlet.engine.log.CallTiming;
+import org.restlet.engine.log.CallTiming.Phase;
+import org.restlet.engine.routing.RouteTree;
 import org.restlet.resource.Directory;
 import org.restlet.resource.Finder;
 import org.restlet.resource.ServerResource;
@@ -35,6 +38,7 @@ import org.restlet.util.RouteList;
  * <li>Last match</li>
  * <li>Random match</li>
  * <li>Round robin</li>
+ * <li>Compiled tree</li>
  * <li>Custom</li>
  * </ul>
  * <br>
@@ -59,6 +63,18 @@ public class Router extends Restlet {
 	 */
 	public static final int MODE_BEST_MATCH = 1;
 
+	/**
+	 * Each call is routed like in the {@link #MODE_FIRST_MATCH} mode, but the
+	 * templates of the attached routes are first compiled into a radix tree keyed
+	 * on their literal parts, with variables as typed child edges. This makes the
+	 * selection cost proportional to the length of the URI instead of the number
+	 * of routes and avoids regular expressions in the common cases. Routes whose
+	 * template can't be compiled are scored as usual. The tree is rebuilt each
+	 * time the list of routes is modified. See {@link RouteTree} for
+	 * implementation details.
+	 */
+	public static final int MODE_COMPILED_TREE = 7;
+
 	/**
 	 * Each call will be routed according to a custom mode. Override the
 	 * {@link #getCustom(Request, Response)} method to provide your own logic.
@@ -104,6 +120,12 @@ public class Router extends Restlet {
 	 */
 	public static final int MODE_RANDOM_MATCH = 5;
 
+	/**
+	 * The default setting for whether the template variables should be lazily
+	 * extracted by the routes.
+	 */
+	private volatile boolean defaultLazyVariables;
+
 	/** The default matching mode to use when selecting routes based on URIs. */
 	private volatile int defaultMatchingMode;
 
@@ -128,6 +150,9 @@ public class Router extends Restlet {
 	/** The delay (in milliseconds) before a new attempt. */
 	private volatile long retryDelay;
 
+	/** The tree compiled from the list of routes. */
+	private volatile RouteTree routeTree;
+
 	/** The modifiable list of routes. */
 	private volatile RouteList routes;
 
@@ -152,6 +177,7 @@ public class Router extends Restlet {
 	public Router(Context context) {
 		super(context);
 		this.routes = new RouteList();
+		this.defaultLazyVariables = false;
 		this.defaultMatchingMode = Template.MODE_EQUALS;
 		this.defaultMatchingQuery = false;
 		this.defaultRoute = null;
@@ -379,6 +405,19 @@ public class Router extends Restlet {
 		return null;
 	}
 
+	/**
+	 * Returns the default setting for whether the template variables should be
+	 * lazily extracted by the routes, instead of being copied as request
+	 * attributes. By default, it returns false.
+	 * 
+	 * @return The default setting for whether the template variables should be
+	 *         lazily extracted.
+	 * @see TemplateRoute#isLazyVariables()
+	 */
+	public boolean getDefaultLazyVariables() {
+		return this.defaultLazyVariables;
+	}
+
 	/**
 	 * Returns the default matching mode to use when selecting routes based on URIs.
 	 * By default it returns {@link Template#MODE_EQUALS}.
@@ -491,6 +530,10 @@ public class Router extends Restlet {
 					result = getRoutes().getRandom(request, response, getRequiredScore());
 					break;
 
+				case MODE_COMPILED_TREE:
+					result = getRouteTree().getFirst(request, response, getRequiredScore());
+					break;
+
 				case MODE_CUSTOM:
 					result = getCustom(request, response);
 					break;
@@ -536,6 +579,25 @@ public class Router extends Restlet {
 		return this.retryDelay;
 	}
 
+	/**
+	 * Returns the tree compiled from the list of routes, used by the
+	 * {@link #MODE_COMPILED_TREE} routing mode. The tree is lazily rebuilt when the
+	 * list of routes has been modified or replaced. Note that changes made to the
+	 * templates of already attached routes are only taken into account after the
+	 * next modification of the list of routes.
+	 * 
+	 * @return The tree compiled from the list of routes.
+	 */
+	protected RouteTree getRouteTree() {
+		RouteTree result = this.routeTree;
+
+		if ((result == null) || !result.isCurrent(getRoutes())) {
+			this.routeTree = result = new RouteTree(this, getRoutes());
+		}
+
+		return result;
+	}
+
 	/**
 	 * Returns the modifiable list of routes. Creates a new instance if no one has
 	 * been set.
@@ -565,8 +627,14 @@ public class Router extends Restlet {
 	@Override
 	public void handle(Request request, Response response) {
 		super.handle(request, response);
+		CallTiming timing = request.getTiming();
+		long startTime = (timing == null) ? 0L : System.nanoTime();
 		Restlet next = getNext(request, response);
 
+		if (timing != null) {
+			timing.record(Phase.ROUTING, startTime);
+		}
+
 		if (next != null) {
 			doHandle(next, request, response);
 		} else {
@@ -634,6 +702,18 @@ public class Router extends Restlet {
 		return attach(pathTemplate, new Redirector(getContext(), targetUri, Redirector.MODE_CLIENT_TEMPORARY));
 	}
 
+	/**
+	 * Sets the default setting for whether the template variables should be lazily
+	 * extracted by the routes. By default, it is set to false.
+	 * 
+	 * @param defaultLazyVariables The default setting for whether the template
+	 *                             variables should be lazily extracted.
+	 * @see TemplateRoute#setLazyVariables(boolean)
+	 */
+	public void setDefaultLazyVariables(boolean defaultLazyVariables) {
+		this.defaultLazyVariables = defaultLazyVariables;
+	}
+
 	/**
 	 * Sets the default matching mode to use when selecting routes based on URIs. By
 	 * default it is set to {@link Template#MODE_EQUALS}.
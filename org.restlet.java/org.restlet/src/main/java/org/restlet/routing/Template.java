@@ -14,6 +14,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -22,6 +23,8 @@ import org.restlet.Context;
 import org.restlet.Request;
 import org.restlet.Response;
 import org.restlet.data.Reference;
+import org.restlet.engine.routing.CompiledTemplate;
+import org.restlet.engine.routing.TemplateMatch;
 import org.restlet.util.Resolver;
 
 /**
@@ -206,6 +209,12 @@ public class Template {
 		return result;
 	}
 
+	/**
+	 * The regex-free form of the template, if it could be compiled. Set at the
+	 * same time as the regex pattern.
+	 */
+	private volatile CompiledTemplate compiledTemplate;
+
 	/** The default variable to use when no matching variable descriptor exists. */
 	private volatile Variable defaultVariable;
 
@@ -506,6 +515,7 @@ public class Template {
 						}
 					}
 
+					this.compiledTemplate = CompiledTemplate.compile(this);
 					this.regexPattern = Pattern.compile(patternBuffer.toString());
 				}
 			}
@@ -615,12 +625,19 @@ public class Template {
 
 		try {
 			if (formattedString != null) {
-				final Matcher matcher = getRegexPattern().matcher(formattedString);
+				Pattern regexPattern = getRegexPattern();
+				CompiledTemplate compiled = this.compiledTemplate;
 
-				if ((getMatchingMode() == MODE_EQUALS) && matcher.matches()) {
-					result = matcher.end();
-				} else if ((getMatchingMode() == MODE_STARTS_WITH) && matcher.lookingAt()) {
-					result = matcher.end();
+				if (compiled != null) {
+					result = compiled.match(formattedString, getMatchingMode());
+				} else {
+					final Matcher matcher = regexPattern.matcher(formattedString);
+
+					if ((getMatchingMode() == MODE_EQUALS) && matcher.matches()) {
+						result = matcher.end();
+					} else if ((getMatchingMode() == MODE_STARTS_WITH) && matcher.lookingAt()) {
+						result = matcher.end();
+					}
 				}
 			}
 		} catch (StackOverflowError soe) {
@@ -661,42 +678,24 @@ public class Template {
 	 * @return The number of matched characters or -1 if no character matched.
 	 */
 	public int parse(String formattedString, Map<String, Object> variables, boolean loggable) {
-		int result = -1;
-
-		if (formattedString != null) {
-			try {
-				Matcher matcher = getRegexPattern().matcher(formattedString);
-				boolean matched = ((getMatchingMode() == MODE_EQUALS) && matcher.matches())
-						|| ((getMatchingMode() == MODE_STARTS_WITH) && matcher.lookingAt());
-
-				if (matched) {
-					// Update the number of matched characters
-					result = matcher.end();
+		TemplateMatch match = TemplateMatch.getCurrent();
+		int result = parse(formattedString, match);
 
-					// Update the attributes with the variables value
-					String attributeName = null;
-					String attributeValue = null;
+		if (result != -1) {
+			// Update the attributes with the variables value
+			String attributeName = null;
+			String attributeValue = null;
 
-					for (int i = 0; i < getRegexVariables().size(); i++) {
-						attributeName = getRegexVariables().get(i);
-						attributeValue = matcher.group(i + 1);
-						Variable var = getVariables().get(attributeName);
+			for (int i = 0; i < match.getCount(); i++) {
+				attributeName = match.getName(i);
+				attributeValue = match.getValue(i);
 
-						if ((var != null) && var.isDecodingOnParse()) {
-							attributeValue = Reference.decode(attributeValue);
-						}
-
-						if (loggable) {
-							getLogger().fine("Template variable \"" + attributeName + "\" matched with value \""
-									+ attributeValue + "\"");
-						}
-
-						variables.put(attributeName, attributeValue);
-					}
+				if (loggable && getLogger().isLoggable(Level.FINE)) {
+					getLogger().fine(
+							"Template variable \"" + attributeName + "\" matched with value \"" + attributeValue + "\"");
 				}
-			} catch (StackOverflowError soe) {
-				getLogger().warning(
-						"StackOverflowError exception encountered while matching this string : " + formattedString);
+
+				variables.put(attributeName, attributeValue);
 			}
 		}
 
@@ -719,6 +718,58 @@ public class Template {
 		return parse(formattedString, request.getAttributes(), request.isLoggable());
 	}
 
+	/**
+	 * Attempts to parse a formatted reference. If the parsing succeeds, the given
+	 * holder is filled with the start and end offsets of the variable values,
+	 * without materializing them. When the template has a simple structure (see
+	 * {@link CompiledTemplate}), no regular expression is involved, making this
+	 * method garbage-free when used with {@link TemplateMatch#getCurrent()}.
+	 * 
+	 * @param formattedString The string to parse.
+	 * @param match           The holder of variables to fill.
+	 * @return The number of matched characters or -1 if no character matched.
+	 */
+	public int parse(String formattedString, TemplateMatch match) {
+		int result = -1;
+		match.clear(formattedString);
+
+		if (formattedString != null) {
+			try {
+				Pattern regexPattern = getRegexPattern();
+				CompiledTemplate compiled = this.compiledTemplate;
+
+				if (compiled != null) {
+					result = compiled.parse(formattedString, getMatchingMode(), match);
+				} else {
+					Matcher matcher = regexPattern.matcher(formattedString);
+					boolean matched = ((getMatchingMode() == MODE_EQUALS) && matcher.matches())
+							|| ((getMatchingMode() == MODE_STARTS_WITH) && matcher.lookingAt());
+
+					if (matched) {
+						// Update the number of matched characters
+						result = matcher.end();
+
+						for (int i = 0; i < getRegexVariables().size(); i++) {
+							String name = getRegexVariables().get(i);
+							Variable var = getVariables().get(name);
+							match.add(name, matcher.start(i + 1), matcher.end(i + 1),
+									(var != null) && var.isDecodingOnParse());
+						}
+					}
+				}
+			} catch (StackOverflowError soe) {
+				getLogger().warning(
+						"StackOverflowError exception encountered while matching this string : " + formattedString);
+			}
+		}
+
+		if (result == -1) {
+			match.clear(formattedString);
+		}
+
+		return result;
+	}
+
 	/**
 	 * Quotes special characters that could be taken for special Regex characters.
 	 * 
@@ -810,6 +861,7 @@ public class Template {
 	public void setPattern(String pattern) {
 		this.pattern = pattern;
 		this.regexPattern = null;
+		this.compiledTemplate = null;
 	}
 
 	/**
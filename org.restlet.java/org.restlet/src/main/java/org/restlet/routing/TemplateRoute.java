@@ -16,6 +16,9 @@ import org.restlet.Response;
 import org.restlet.Restlet;
 import org.restlet.data.Reference;
 import org.restlet.data.Status;
+import org.restlet.engine.metrics.CallRecord;
+import org.restlet.engine.metrics.MetricsLabel;
+import org.restlet.engine.routing.TemplateMatch;
 
 /**
  * Filter scoring the affinity of calls with the attached Restlet. The score is
@@ -30,12 +33,21 @@ import org.restlet.data.Status;
  * @author Jerome Louvel
  */
 public class TemplateRoute extends Route {
+	/**
+	 * Indicates whether the template variables should be lazily extracted instead
+	 * of being copied as request attributes.
+	 */
+	private volatile boolean lazyVariables;
+
 	/**
 	 * Indicates whether the query part should be taken into account when matching a
 	 * reference with the template.
 	 */
 	private volatile boolean matchingQuery;
 
+	/** The label of the route in the metrics. */
+	private volatile MetricsLabel metricsLabel;
+
 	/** The reference template to match. */
 	private volatile Template template;
 
@@ -73,6 +85,7 @@ public class TemplateRoute extends Route {
 	public TemplateRoute(Router router, Template template, Restlet next) {
 		super(router, next);
 		this.matchingQuery = (router == null) ? true : router.getDefaultMatchingQuery();
+		this.lazyVariables = (router == null) ? false : router.getDefaultLazyVariables();
 		this.template = template;
 	}
 
@@ -90,7 +103,20 @@ public class TemplateRoute extends Route {
 		// 1 - Parse the template variables and adjust the base reference
 		if (getTemplate() != null) {
 			String remainingPart = request.getResourceRef().getRemainingPart(false, isMatchingQuery());
-			int matchedLength = getTemplate().parse(remainingPart, request);
+			int matchedLength;
+
+			if (isLazyVariables()) {
+				TemplateMatch match = TemplateMatch.getCurrent();
+				matchedLength = getTemplate().parse(remainingPart, match);
+
+				if (match.getCount() > 0) {
+					Object previous = request.getAttributes().get(TemplateMatch.ATTRIBUTE_NAME);
+					request.getAttributes().put(TemplateMatch.ATTRIBUTE_NAME,
+							match.copy((previous instanceof TemplateMatch) ? (TemplateMatch) previous : null));
+				}
+			} else {
+				matchedLength = getTemplate().parse(remainingPart, request);
+			}
 
 			if (matchedLength == 0) {
 				if (request.isLoggable() && getLogger().isLoggable(Level.FINER)) {
@@ -101,6 +127,13 @@ public class TemplateRoute extends Route {
 					getLogger().finer("" + matchedLength + " characters were matched");
 				}
 
+				// Traces the route if metrics are recorded
+				CallRecord record = CallRecord.get(request);
+
+				if (record != null) {
+					record.addRoute(this);
+				}
+
 				// Updates the context
 				String matchedPart = remainingPart.substring(0, matchedLength);
 				Reference baseRef = request.getResourceRef().getBaseRef();
@@ -152,6 +185,16 @@ public class TemplateRoute extends Route {
 		return getTemplate().getMatchingMode();
 	}
 
+	/**
+	 * Returns the label of the route in the metrics, cached by the
+	 * {@link org.restlet.engine.metrics.MetricsRegistry}.
+	 * 
+	 * @return The label of the route in the metrics or null.
+	 */
+	public MetricsLabel getMetricsLabel() {
+		return this.metricsLabel;
+	}
+
 	/**
 	 * Returns the reference template to match.
 	 * 
@@ -161,6 +204,21 @@ public class TemplateRoute extends Route {
 		return this.template;
 	}
 
+	/**
+	 * Indicates whether the template variables should be lazily extracted instead
+	 * of being copied as request attributes. In this case, only the offsets of the
+	 * variable values are stored in the request, in a {@link TemplateMatch}
+	 * instance available via the {@link TemplateMatch#ATTRIBUTE_NAME} attribute,
+	 * and values are only materialized when requested, for example via
+	 * {@link org.restlet.resource.Resource#getAttribute(String)}. By default, it
+	 * returns the default value of the parent router or false.
+	 * 
+	 * @return True if the template variables should be lazily extracted.
+	 */
+	public boolean isLazyVariables() {
+		return this.lazyVariables;
+	}
+
 	/**
 	 * Indicates whether the query part should be taken into account when matching a
 	 * reference with the template.
@@ -207,6 +265,18 @@ public class TemplateRoute extends Route {
 		return result;
 	}
 
+	/**
+	 * Indicates whether the template variables should be lazily extracted instead
+	 * of being copied as request attributes.
+	 * 
+	 * @param lazyVariables True if the template variables should be lazily
+	 *                      extracted.
+	 * @see #isLazyVariables()
+	 */
+	public void setLazyVariables(boolean lazyVariables) {
+		this.lazyVariables = lazyVariables;
+	}
+
 	/**
 	 * Sets the matching mode to use on the template when parsing a formatted
 	 * reference.
@@ -228,6 +298,16 @@ public class TemplateRoute extends Route {
 		this.matchingQuery = matchingQuery;
 	}
 
+	/**
+	 * Sets the label of the route in the metrics, cached by the
+	 * {@link org.restlet.engine.metrics.MetricsRegistry}.
+	 * 
+	 * @param metricsLabel The label of the route in the metrics.
+	 */
+	public void setMetricsLabel(MetricsLabel metricsLabel) {
+		this.metricsLabel = metricsLabel;
+	}
+
 	/**
 	 * Sets the reference template to match.
 	 * 
@@ -16,6 +16,8 @@ import org.restlet.Context;
 import org.restlet.Request;
 import org.restlet.Response;
 import org.restlet.Restlet;
+import org.restlet.engine.metrics.CallRecord;
+import org.restlet.engine.metrics.MetricsLabel;
 import org.restlet.resource.Finder;
 import org.restlet.resource.ServerResource;
 
@@ -135,6 +137,9 @@ public class VirtualHost extends Router {
 	/** The hostRef scheme pattern to match. */
 	private volatile String hostScheme;
 
+	/** The label of the virtual host in the metrics. */
+	private volatile MetricsLabel metricsLabel;
+
 	/** The parent component's context. */
 	private volatile Context parentContext;
 
@@ -304,6 +309,13 @@ public class VirtualHost extends Router {
 				// Save the hash code of the current host
 				setCurrent(VirtualHost.this.hashCode());
 
+				// Trace the current host if metrics are recorded
+				CallRecord record = CallRecord.get(request);
+
+				if (record != null) {
+					record.setHost(VirtualHost.this);
+				}
+
 				return result;
 			}
 		};
@@ -343,6 +355,16 @@ public class VirtualHost extends Router {
 		return this.hostScheme;
 	}
 
+	/**
+	 * Returns the label of the virtual host in the metrics, cached by the
+	 * {@link org.restlet.engine.metrics.MetricsRegistry}.
+	 * 
+	 * @return The label of the virtual host in the metrics or null.
+	 */
+	public MetricsLabel getMetricsLabel() {
+		return this.metricsLabel;
+	}
+
 	/**
 	 * Returns the resourceRef host domain to match. See the
 	 * {@link java.util.regex.Pattern} class for details on the syntax.
@@ -429,6 +451,16 @@ public class VirtualHost extends Router {
 		this.hostScheme = hostScheme;
 	}
 
+	/**
+	 * Sets the label of the virtual host in the metrics, cached by the
+	 * {@link org.restlet.engine.metrics.MetricsRegistry}.
+	 * 
+	 * @param metricsLabel The label of the virtual host in the metrics.
+	 */
+	public void setMetricsLabel(MetricsLabel metricsLabel) {
+		this.metricsLabel = metricsLabel;
+	}
+
 	/**
 	 * Sets the resourceRef host domain to match. See the
 	 * {@link java.util.regex.Pattern} class for details on the syntax.
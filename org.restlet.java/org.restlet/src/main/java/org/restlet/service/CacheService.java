@@ -0,0 +1,101 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.service;
+
+import org.restlet.Context;
+import org.restlet.engine.cache.CacheFilter;
+import org.restlet.engine.cache.CacheStore;
+import org.restlet.engine.cache.MemoryCacheStore;
+import org.restlet.routing.Filter;
+
+/**
+ * Application service caching the responses of the application, as a shared
+ * HTTP cache would do. Fresh responses are served from the cache without
+ * invoking the resources, stale responses are revalidated with conditional
+ * requests, and unsafe requests invalidate the cached responses of their
+ * target. The service is disabled by default.<br>
+ * <br>
+ * Responses are only cached when their cache directives or expiration date
+ * allow it, so resources need to set them explicitly, for example with
+ * {@link org.restlet.data.CacheDirective#maxAge(int)}.
+ * 
+ * @author Jerome Louvel
+ * @see CacheFilter
+ */
+public class CacheService extends Service {
+
+	/** The maximum size of a cached entity. */
+	private volatile long maxEntrySize;
+
+	/** The store of the cached responses. */
+	private volatile CacheStore store;
+
+	/**
+	 * Constructor. The service is disabled by default.
+	 */
+	public CacheService() {
+		this(false);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param enabled True if the service has been enabled.
+	 */
+	public CacheService(boolean enabled) {
+		super(enabled);
+		this.maxEntrySize = CacheFilter.DEFAULT_MAX_ENTRY_SIZE;
+		this.store = new MemoryCacheStore();
+	}
+
+	@Override
+	public Filter createInboundFilter(Context context) {
+		return new CacheFilter(context, getStore(), true, getMaxEntrySize());
+	}
+
+	/**
+	 * Returns the maximum size of a cached entity. Larger entities are never
+	 * buffered. Defaults to 1 MB.
+	 * 
+	 * @return The maximum size of a cached entity.
+	 */
+	public long getMaxEntrySize() {
+		return this.maxEntrySize;
+	}
+
+	/**
+	 * Returns the store of the cached responses. Defaults to a
+	 * {@link MemoryCacheStore} instance.
+	 * 
+	 * @return The store of the cached responses.
+	 */
+	public CacheStore getStore() {
+		return this.store;
+	}
+
+	/**
+	 * Sets the maximum size of a cached entity.
+	 * 
+	 * @param maxEntrySize The maximum size of a cached entity.
+	 */
+	public void setMaxEntrySize(long maxEntrySize) {
+		this.maxEntrySize = maxEntrySize;
+	}
+
+	/**
+	 * Sets the store of the cached responses.
+	 * 
+	 * @param store The store of the cached responses.
+	 */
+	public void setStore(CacheStore store) {
+		this.store = store;
+	}
+
+}
@@ -12,17 +12,25 @@ package org.restlet.service;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.restlet.Context;
 import org.restlet.data.Encoding;
 import org.restlet.data.MediaType;
 import org.restlet.engine.application.Encoder;
+import org.restlet.engine.application.EncoderHelper;
 import org.restlet.representation.Representation;
 import org.restlet.routing.Filter;
 
 /**
  * Application service automatically encoding or compressing request entities.
+ * The supported encodings are provided by the encoder helpers registered with
+ * the engine, GZip, Deflate and Zip by default, and Zstandard or Brotli when an
+ * extension providing them is available on the classpath. Small entities and
+ * already compressed media types are not encoded, and the compression level can
+ * be tuned per media type, for all encodings or for a given encoding.
  * 
  * @author Jerome Louvel
  */
@@ -34,6 +42,9 @@ public class EncoderService extends Service {
 	/** Indicates if the default minimum size for encoding to occur. */
 	public static final int DEFAULT_MINIMUM_SIZE = 1000;
 
+	/** The maximum number of media types whose lookup keys are cached. */
+	private static final int MAX_CACHED_MEDIA_TYPES = 256;
+
 	/**
 	 * Returns the list of default encoded media types. This can be overridden by
 	 * subclasses. By default, all media types are encoded (except those explicitly
@@ -55,7 +66,7 @@ public class EncoderService extends Service {
 	 */
 	public static List<MediaType> getDefaultIgnoredMediaTypes() {
 		final List<MediaType> result = Arrays.<MediaType>asList(MediaType.APPLICATION_CAB,
-				MediaType.APPLICATION_GNU_ZIP, MediaType.APPLICATION_ZIP, MediaType.APPLICATION_GNU_TAR,
+				MediaType.APPLICATION_COMPRESS, MediaType.APPLICATION_GNU_ZIP, MediaType.APPLICATION_ZIP, MediaType.APPLICATION_GNU_TAR,
 				MediaType.APPLICATION_JAVA_ARCHIVE, MediaType.APPLICATION_STUFFIT, MediaType.APPLICATION_TAR,
 				MediaType.AUDIO_ALL, MediaType.IMAGE_ALL, MediaType.VIDEO_ALL);
 		return result;
@@ -71,6 +82,27 @@ public class EncoderService extends Service {
 	 */
 	private final List<MediaType> ignoredMediaTypes;
 
+	/**
+	 * The compression levels of specific media types, by encoding.
+	 */
+	private final Map<Encoding, Map<MediaType, Integer>> encodingLevels;
+
+	/**
+	 * The default compression level.
+	 */
+	private volatile int level;
+
+	/**
+	 * The compression levels of specific media types.
+	 */
+	private final Map<MediaType, Integer> levels;
+
+	/**
+	 * The cached keys used to look up the level of a media type: the media type
+	 * without parameters and its main type range.
+	 */
+	private final Map<MediaType, MediaType[]> levelKeys;
+
 	/**
 	 * The minimal size necessary for encoding.
 	 */
@@ -93,6 +125,10 @@ public class EncoderService extends Service {
 		this.mininumSize = DEFAULT_MINIMUM_SIZE;
 		this.acceptedMediaTypes = new CopyOnWriteArrayList<MediaType>(getDefaultAcceptedMediaTypes());
 		this.ignoredMediaTypes = new CopyOnWriteArrayList<MediaType>(getDefaultIgnoredMediaTypes());
+		this.encodingLevels = new ConcurrentHashMap<Encoding, Map<MediaType, Integer>>();
+		this.level = EncoderHelper.DEFAULT_LEVEL;
+		this.levels = new ConcurrentHashMap<MediaType, Integer>();
+		this.levelKeys = new ConcurrentHashMap<MediaType, MediaType[]>();
 	}
 
 	/**
@@ -178,6 +214,138 @@ public class EncoderService extends Service {
 		return this.ignoredMediaTypes;
 	}
 
+	/**
+	 * Returns the default compression level, specific to the encodings, or
+	 * {@link EncoderHelper#DEFAULT_LEVEL} to use the default level of each
+	 * encoding.
+	 * 
+	 * @return The default compression level.
+	 */
+	public int getLevel() {
+		return this.level;
+	}
+
+	/**
+	 * Returns the compression level to apply to a given media type with a given
+	 * encoding. The levels registered for the encoding are looked up first, then
+	 * the levels registered for all encodings, and finally the default level.
+	 * 
+	 * @param encoding  The negotiated encoding or null.
+	 * @param mediaType The media type to compress.
+	 * @return The compression level.
+	 * @see #getLevels(Encoding)
+	 * @see #getLevels()
+	 */
+	public int getLevel(Encoding encoding, MediaType mediaType) {
+		Integer result = null;
+
+		if (mediaType != null) {
+			Map<MediaType, Integer> levels = (encoding == null) ? null : this.encodingLevels.get(encoding);
+
+			if ((levels != null) && !levels.isEmpty()) {
+				result = lookupLevel(levels, mediaType);
+			}
+
+			if ((result == null) && !getLevels().isEmpty()) {
+				result = lookupLevel(getLevels(), mediaType);
+			}
+		}
+
+		return (result == null) ? getLevel() : result;
+	}
+
+	/**
+	 * Returns the compression level to apply to a given media type, for all
+	 * encodings.
+	 * 
+	 * @param mediaType The media type to compress.
+	 * @return The compression level.
+	 * @see #getLevel(Encoding, MediaType)
+	 */
+	public int getLevel(MediaType mediaType) {
+		return getLevel(null, mediaType);
+	}
+
+	/**
+	 * Looks up the level registered for a media type, ignoring parameters, then
+	 * the level registered for its main type (e.g. "text/*").
+	 * 
+	 * @param levels    The levels by media type.
+	 * @param mediaType The media type to compress.
+	 * @return The compression level or null.
+	 */
+	private Integer lookupLevel(Map<MediaType, Integer> levels, MediaType mediaType) {
+		Integer result = levels.get(mediaType);
+
+		if (result == null) {
+			MediaType[] keys = getLevelKeys(mediaType);
+
+			for (int i = 0; (result == null) && (i < keys.length); i++) {
+				result = levels.get(keys[i]);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the keys used to look up the level of a media type, after the
+	 * media type itself. They are cached as the same media types are usually
+	 * compressed again and again.
+	 * 
+	 * @param mediaType The media type to compress.
+	 * @return The media type without parameters, if any, and its main type
+	 *         range.
+	 */
+	private MediaType[] getLevelKeys(MediaType mediaType) {
+		MediaType[] result = this.levelKeys.get(mediaType);
+
+		if (result == null) {
+			MediaType range = MediaType.valueOf(mediaType.getMainType() + "/*");
+
+			if (mediaType.getParameters().isEmpty()) {
+				result = new MediaType[] { range };
+			} else {
+				result = new MediaType[] {
+						MediaType.valueOf(mediaType.getMainType() + "/" + mediaType.getSubType()), range };
+			}
+
+			if (this.levelKeys.size() < MAX_CACHED_MEDIA_TYPES) {
+				this.levelKeys.put(mediaType, result);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the modifiable map of compression levels of specific media types,
+	 * such as a lower level for large JSON documents or a higher one for
+	 * cacheable text documents. These levels apply to all encodings and are
+	 * bounded to the range of the negotiated one, for example from 0 to 9 for
+	 * GZip. See {@link #getLevels(Encoding)} for levels specific to an
+	 * encoding.
+	 * 
+	 * @return The modifiable map of compression levels of specific media types.
+	 */
+	public Map<MediaType, Integer> getLevels() {
+		return this.levels;
+	}
+
+	/**
+	 * Returns the modifiable map of compression levels of specific media types
+	 * for a given encoding. They take precedence over the levels registered for
+	 * all encodings, as levels aren't comparable across encodings, for example
+	 * from 0 to 9 for GZip and from 1 to 22 for Zstandard.
+	 * 
+	 * @param encoding The encoding.
+	 * @return The modifiable map of compression levels of specific media types
+	 *         for the given encoding.
+	 */
+	public Map<MediaType, Integer> getLevels(Encoding encoding) {
+		return this.encodingLevels.computeIfAbsent(encoding, k -> new ConcurrentHashMap<MediaType, Integer>());
+	}
+
 	/**
 	 * Returns the minimum size a representation must have before compression is
 	 * done.
@@ -189,6 +357,17 @@ public class EncoderService extends Service {
 		return this.mininumSize;
 	}
 
+	/**
+	 * Sets the default compression level, specific to the encodings, or
+	 * {@link EncoderHelper#DEFAULT_LEVEL} to use the default level of each
+	 * encoding.
+	 * 
+	 * @param level The default compression level.
+	 */
+	public void setLevel(int level) {
+		this.level = level;
+	}
+
 	/**
 	 * Sets the minimum size a representation must have before compression is done.
 	 * 
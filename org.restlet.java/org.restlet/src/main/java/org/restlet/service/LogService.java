@@ -18,6 +18,7 @@ import org.restlet.data.Method;
 import org.restlet.data.Reference;
 import org.restlet.data.Status;
 import org.restlet.engine.Engine;
+import org.restlet.engine.log.AccessLogWriter;
 import org.restlet.engine.log.LogFilter;
 import org.restlet.representation.Representation;
 import org.restlet.resource.ClientResource;
@@ -56,7 +57,16 @@ import org.restlet.routing.Template;
  * (%Y-%m-%d\t%h:%n:%j\t%S\t%u\t%j\t%j\t%j\t%r\t%q\t%c\t%b\t%j\t%T\t%v\t%B\t%f)<br>
  * <br>
  * For custom access log format, see the syntax to use and the list of available
- * variable names in {@link org.restlet.routing.Template}. <br>
+ * variable names in {@link org.restlet.routing.Template}. The latency breakdown
+ * of the call, see {@link org.restlet.engine.log.CallTiming}, is available via
+ * the "tt", "tac", "tad", "tro", "tfi", "tha", "tco" and "tcm" variables, in
+ * microseconds. <br>
+ * <br>
+ * When an {@link AccessLogWriter} is set, the entries are written
+ * asynchronously to its file instead of being logged with java.util.logging,
+ * so that the calls aren't slowed down by the disk. In both cases, the entries
+ * are formatted by {@link #appendResponseLogMessage(StringBuilder, Response, int)},
+ * directly into the reusable entries of the writer when one is set.<br>
  * 
  * @see <a href=
  *      "https://docs.oracle.com/javase/8/docs/api/java/util/logging/package-summary.html">java.util.logging</a>
@@ -64,6 +74,35 @@ import org.restlet.routing.Template;
  */
 public class LogService extends Service {
 
+	/**
+	 * Date and time formatted for a given second.
+	 */
+	private static final class DateTime {
+
+		/** The second since the epoch. */
+		private final long second;
+
+		/** The formatted date and time. */
+		private final String text;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param second The second since the epoch.
+		 * @param text   The formatted date and time.
+		 */
+		private DateTime(long second, String text) {
+			this.second = second;
+			this.text = text;
+		}
+	}
+
+	/** The asynchronous writer of access log entries. */
+	private volatile AccessLogWriter accessLogWriter;
+
+	/** The date and time formatted for the last logged second. */
+	private volatile DateTime dateTime;
+
 	/** Indicates if the debugging mode is enabled. */
 	private volatile boolean debugging;
 
@@ -104,6 +143,7 @@ public class LogService extends Service {
 		this.responseLogFormat = null;
 		this.logPropertiesRef = null;
 		this.identityCheck = false;
+		this.accessLogWriter = null;
 	}
 
 	@Override
@@ -112,23 +152,17 @@ public class LogService extends Service {
 	}
 
 	/**
-	 * Format a log entry using the default IIS log format.
+	 * Appends a log entry using the default IIS log format.
 	 * 
+	 * @param sb       The builder to append to.
 	 * @param response The response to log.
 	 * @param duration The call duration (in milliseconds).
-	 * @return The formatted log entry.
 	 */
-	protected String getDefaultResponseLogMessage(Response response, int duration) {
-		StringBuilder sb = new StringBuilder();
+	protected void appendDefaultResponseLogMessage(StringBuilder sb, Response response, int duration) {
 		Request request = response.getRequest();
-		long currentTime = System.currentTimeMillis();
-
-		// Append the date of the request
-		sb.append(String.format("%tF", currentTime));
-		sb.append('\t');
 
-		// Append the time of the request
-		sb.append(String.format("%tT", currentTime));
+		// Append the date and time of the request
+		sb.append(getDateTime(System.currentTimeMillis()));
 		sb.append('\t');
 
 		// Append the client IP address
@@ -158,7 +192,12 @@ public class LogService extends Service {
 
 		// Append the server port
 		Integer serverport = response.getServerInfo().getPort();
-		sb.append((serverport == null) ? "-" : serverport.toString());
+		if (serverport == null) {
+			sb.append('-');
+		} else {
+			sb.append(serverport.intValue());
+		}
+
 		sb.append('\t');
 
 		// Append the method name
@@ -177,7 +216,11 @@ public class LogService extends Service {
 
 		// Append the status code
 		sb.append('\t');
-		sb.append((response.getStatus() == null) ? "-" : Integer.toString(response.getStatus().getCode()));
+		if (response.getStatus() == null) {
+			sb.append('-');
+		} else {
+			sb.append(response.getStatus().getCode());
+		}
 
 		// Append the returned size
 		sb.append('\t');
@@ -186,7 +229,7 @@ public class LogService extends Service {
 				|| Status.SUCCESS_NO_CONTENT.equals(response.getStatus()) || Method.HEAD.equals(request.getMethod())) {
 			sb.append('0');
 		} else {
-			sb.append((response.getEntity().getSize() == -1) ? "-" : Long.toString(response.getEntity().getSize()));
+			appendSize(sb, response.getEntity().getSize());
 		}
 
 		// Append the received size
@@ -196,7 +239,7 @@ public class LogService extends Service {
 			if (request.getEntity() == null) {
 				sb.append('0');
 			} else {
-				sb.append((request.getEntity().getSize() == -1) ? "-" : Long.toString(request.getEntity().getSize()));
+				appendSize(sb, request.getEntity().getSize());
 			}
 		} catch (Throwable t) {
 			// Error while getting the request's entity, cf issue #931
@@ -220,10 +263,86 @@ public class LogService extends Service {
 		// Append the referrer
 		sb.append('\t');
 		sb.append((request.getReferrerRef() == null) ? "-" : request.getReferrerRef().getIdentifier());
+	}
+
+	/**
+	 * Appends an access log entry. If the log template property isn't provided,
+	 * then a default IIS like format is used. This is the method to override in
+	 * order to customize the entries, as they are appended directly to the
+	 * reusable entries of the {@link AccessLogWriter} when one is set.
+	 * 
+	 * @param sb       The builder to append to.
+	 * @param response The response to log.
+	 * @param duration The call duration (in milliseconds).
+	 */
+	public void appendResponseLogMessage(StringBuilder sb, Response response, int duration) {
+		Template template = this.responseLogTemplate;
+
+		// Format the call into a log entry
+		if (template != null) {
+			sb.append(template.format(response.getRequest(), response));
+		} else {
+			appendDefaultResponseLogMessage(sb, response, duration);
+		}
+	}
+
+	/**
+	 * Appends the size of an entity, or "-" if it is unknown.
+	 * 
+	 * @param sb   The builder to append to.
+	 * @param size The size of the entity.
+	 */
+	private void appendSize(StringBuilder sb, long size) {
+		if (size == Representation.UNKNOWN_SIZE) {
+			sb.append('-');
+		} else {
+			sb.append(size);
+		}
+	}
+
+	/**
+	 * Returns the date and time of an instant, separated by a tab, formatted
+	 * once per second.
+	 * 
+	 * @param time The instant in milliseconds.
+	 * @return The formatted date and time.
+	 */
+	private String getDateTime(long time) {
+		DateTime result = this.dateTime;
+		long second = Math.floorDiv(time, 1000L);
 
+		if ((result == null) || (result.second != second)) {
+			result = new DateTime(second, String.format("%1$tF\t%1$tT", time));
+			this.dateTime = result;
+		}
+
+		return result.text;
+	}
+
+	/**
+	 * Format a log entry using the default IIS log format.
+	 * 
+	 * @param response The response to log.
+	 * @param duration The call duration (in milliseconds).
+	 * @return The formatted log entry.
+	 * @see #appendDefaultResponseLogMessage(StringBuilder, Response, int)
+	 */
+	protected String getDefaultResponseLogMessage(Response response, int duration) {
+		StringBuilder sb = new StringBuilder();
+		appendDefaultResponseLogMessage(sb, response, duration);
 		return sb.toString();
 	}
 
+	/**
+	 * Returns the asynchronous writer of access log entries. Returns null by
+	 * default, meaning that the entries are logged with java.util.logging.
+	 * 
+	 * @return The asynchronous writer of access log entries.
+	 */
+	public AccessLogWriter getAccessLogWriter() {
+		return this.accessLogWriter;
+	}
+
 	/**
 	 * Returns the URI template of loggable resource references. Returns null by
 	 * default, meaning the all requests are loggable, independant of their target
@@ -274,18 +393,12 @@ public class LogService extends Service {
 	 * @param response The response to log.
 	 * @param duration The call duration.
 	 * @return The formatted log entry.
+	 * @see #appendResponseLogMessage(StringBuilder, Response, int)
 	 */
 	public String getResponseLogMessage(Response response, int duration) {
-		String result = null;
-
-		// Format the call into a log entry
-		if (this.responseLogTemplate != null) {
-			result = this.responseLogTemplate.format(response.getRequest(), response);
-		} else {
-			result = getDefaultResponseLogMessage(response, duration);
-		}
-
-		return result;
+		StringBuilder sb = new StringBuilder();
+		appendResponseLogMessage(sb, response, duration);
+		return sb.toString();
 	}
 
 	/**
@@ -311,6 +424,16 @@ public class LogService extends Service {
 				: getLoggableTemplate().match(request.getResourceRef().getTargetRef().toString()) > 0;
 	}
 
+	/**
+	 * Sets the asynchronous writer of access log entries. It is started and
+	 * stopped with the service.
+	 * 
+	 * @param accessLogWriter The asynchronous writer of access log entries.
+	 */
+	public void setAccessLogWriter(AccessLogWriter accessLogWriter) {
+		this.accessLogWriter = accessLogWriter;
+	}
+
 	/**
 	 * Indicates if the identity check (as specified by RFC1413) is enabled.
 	 * 
@@ -398,5 +521,22 @@ public class LogService extends Service {
 				java.util.logging.LogManager.getLogManager().readConfiguration(logProperties.getStream());
 			}
 		}
+
+		if (getAccessLogWriter() != null) {
+			getAccessLogWriter().start();
+		}
+	}
+
+	/**
+	 * Stops the log service, writing the pending entries of the asynchronous
+	 * writer if any.
+	 */
+	@Override
+	public synchronized void stop() throws Exception {
+		if (getAccessLogWriter() != null) {
+			getAccessLogWriter().stop();
+		}
+
+		super.stop();
 	}
 }
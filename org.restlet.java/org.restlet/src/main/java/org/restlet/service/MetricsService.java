@@ -0,0 +1,124 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.service;
+
+import java.util.List;
+
+import org.restlet.Context;
+import org.restlet.Restlet;
+import org.restlet.Server;
+import org.restlet.engine.metrics.CallMetrics;
+import org.restlet.engine.metrics.MetricsFilter;
+import org.restlet.engine.metrics.MetricsRegistry;
+import org.restlet.engine.metrics.MetricsRestlet;
+import org.restlet.routing.Filter;
+
+/**
+ * Component service recording the metrics of the calls: request counts by
+ * status class and latency histograms for each route of each virtual host,
+ * plus the number of calls in flight and the worker threads usage of the
+ * internal server connectors. The service is disabled by default.<br>
+ * <br>
+ * The metrics are available through the {@link #getCallMetrics()} method, or
+ * in the Prometheus text exposition format by attaching the Restlet returned
+ * by {@link #createPrometheusRestlet(Context)}, for example:
+ * 
+ * <pre>
+ * component.getMetricsService().setEnabled(true);
+ * component.getDefaultHost().attach(&quot;/metrics&quot;,
+ * 		component.getMetricsService().createPrometheusRestlet(null));
+ * </pre>
+ * 
+ * The route of each call is its full URI template, made of the patterns of all
+ * the {@link org.restlet.routing.TemplateRoute} that matched it, for example
+ * "/users/{id}" for a "/{id}" route of an application attached to "/users".
+ * Calls whose response isn't automatically committed, for example by
+ * asynchronous resources, are recorded once committed by the server connector.
+ * Nothing is traced on the requests when the service is disabled.
+ * 
+ * @author Jerome Louvel
+ * @see MetricsRegistry
+ */
+public class MetricsService extends Service {
+
+	/** The registry of the metrics. */
+	private final MetricsRegistry registry;
+
+	/**
+	 * Constructor. The service is disabled by default.
+	 */
+	public MetricsService() {
+		this(false);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param enabled True if the service has been enabled.
+	 */
+	public MetricsService(boolean enabled) {
+		super(enabled);
+		this.registry = new MetricsRegistry();
+	}
+
+	@Override
+	public Filter createInboundFilter(Context context) {
+		return new MetricsFilter(context, getRegistry());
+	}
+
+	/**
+	 * Creates a Restlet exposing the metrics in the Prometheus text exposition
+	 * format.
+	 * 
+	 * @param context The context of the Restlet.
+	 * @return The new Restlet.
+	 */
+	public Restlet createPrometheusRestlet(Context context) {
+		return new MetricsRestlet(context, getRegistry());
+	}
+
+	/**
+	 * Returns a snapshot list of the call metrics, by virtual host and route.
+	 * 
+	 * @return A snapshot list of the call metrics.
+	 */
+	public List<CallMetrics> getCallMetrics() {
+		return getRegistry().getCallMetrics();
+	}
+
+	/**
+	 * Returns the number of calls in flight.
+	 * 
+	 * @return The number of calls in flight.
+	 */
+	public long getInFlight() {
+		return getRegistry().getInFlight();
+	}
+
+	/**
+	 * Returns the registry of the metrics.
+	 * 
+	 * @return The registry of the metrics.
+	 */
+	public MetricsRegistry getRegistry() {
+		return this.registry;
+	}
+
+	/**
+	 * Sets the servers whose worker threads usage is exposed. Set by the parent
+	 * component to its list of servers.
+	 * 
+	 * @param servers The servers whose worker threads usage is exposed.
+	 */
+	public void setServers(List<Server> servers) {
+		getRegistry().setServers(servers);
+	}
+
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.service;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.engine.limit.RateLimitFilter;
+import org.restlet.engine.limit.TokenBucket;
+import org.restlet.routing.Filter;
+
+/**
+ * Application service limiting the rate of the requests of each client with
+ * token buckets. Requests exceeding the limit are rejected with a 429 (Too
+ * Many Requests) status and a "Retry-After" header. The service is disabled by
+ * default.<br>
+ * <br>
+ * The requests are keyed by client address by default. As the service filters
+ * the requests before any authentication, limits per user or per route are
+ * achieved by attaching a {@link RateLimitFilter} in the application's routing
+ * instead.
+ * 
+ * @author Jerome Louvel
+ * @see RateLimitFilter
+ */
+public class RateLimitService extends Service {
+
+	/** The maximum number of tokens of each bucket. */
+	private volatile int capacity;
+
+	/** The last filter created. */
+	private volatile RateLimitFilter filter;
+
+	/** The function computing the key of a request. */
+	private volatile Function<Request, String> keyFunction;
+
+	/** The maximum number of buckets. */
+	private volatile int maxKeys;
+
+	/** The number of tokens added to each bucket per second. */
+	private volatile double refillRate;
+
+	/**
+	 * Constructor. The service is disabled by default.
+	 */
+	public RateLimitService() {
+		this(false);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param enabled True if the service has been enabled.
+	 */
+	public RateLimitService(boolean enabled) {
+		super(enabled);
+		this.capacity = 100;
+		this.keyFunction = RateLimitFilter.KEY_CLIENT_ADDRESS;
+		this.maxKeys = RateLimitFilter.DEFAULT_MAX_KEYS;
+		this.refillRate = 10;
+	}
+
+	@Override
+	public Filter createInboundFilter(Context context) {
+		RateLimitFilter result = new RateLimitFilter(context, getCapacity(), getRefillRate());
+		result.setKeyFunction(getKeyFunction());
+		result.setMaxKeys(getMaxKeys());
+		this.filter = result;
+		return result;
+	}
+
+	/**
+	 * Returns an unmodifiable view of the current token buckets by key.
+	 * 
+	 * @return The current token buckets by key.
+	 */
+	public Map<String, TokenBucket> getBuckets() {
+		RateLimitFilter filter = this.filter;
+		return (filter == null) ? Collections.<String, TokenBucket>emptyMap() : filter.getBuckets();
+	}
+
+	/**
+	 * Returns the maximum number of tokens of each bucket, i.e. the maximum
+	 * burst of requests. Defaults to 100.
+	 * 
+	 * @return The maximum number of tokens of each bucket.
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Returns the function computing the key of a request. Defaults to
+	 * {@link RateLimitFilter#KEY_CLIENT_ADDRESS}.
+	 * 
+	 * @return The function computing the key of a request.
+	 */
+	public Function<Request, String> getKeyFunction() {
+		return this.keyFunction;
+	}
+
+	/**
+	 * Returns the maximum number of buckets. Defaults to
+	 * {@link RateLimitFilter#DEFAULT_MAX_KEYS}.
+	 * 
+	 * @return The maximum number of buckets.
+	 */
+	public int getMaxKeys() {
+		return this.maxKeys;
+	}
+
+	/**
+	 * Returns the number of tokens added to each bucket per second, i.e. the
+	 * sustained rate of requests. Defaults to 10.
+	 * 
+	 * @return The number of tokens added to each bucket per second.
+	 */
+	public double getRefillRate() {
+		return this.refillRate;
+	}
+
+	/**
+	 * Sets the maximum number of tokens of each bucket.
+	 * 
+	 * @param capacity The maximum number of tokens of each bucket.
+	 */
+	public void setCapacity(int capacity) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Sets the function computing the key of a request.
+	 * 
+	 * @param keyFunction The function computing the key of a request.
+	 */
+	public void setKeyFunction(Function<Request, String> keyFunction) {
+		this.keyFunction = keyFunction;
+	}
+
+	/**
+	 * Sets the maximum number of buckets.
+	 * 
+	 * @param maxKeys The maximum number of buckets.
+	 */
+	public void setMaxKeys(int maxKeys) {
+		this.maxKeys = maxKeys;
+	}
+
+	/**
+	 * Sets the number of tokens added to each bucket per second.
+	 * 
+	 * @param refillRate The number of tokens added to each bucket per second.
+	 */
+	public void setRefillRate(double refillRate) {
+		this.refillRate = refillRate;
+	}
+
+}
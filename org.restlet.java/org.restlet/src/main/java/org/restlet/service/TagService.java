@@ -0,0 +1,101 @@
+/**
+ * Copyright 2005-2024 Qlik
+ * 
+ * The contents of this file is subject to the terms of the Apache 2.0 open
+ * source license available at http://www.opensource.org/licenses/apache-2.0
+ * 
+ * Restlet is a registered trademark of QlikTech International AB.
+ */
+
+package org.restlet.service;
+
+import org.restlet.Context;
+import org.restlet.data.Digest;
+import org.restlet.engine.application.TagFilter;
+import org.restlet.routing.Filter;
+
+/**
+ * Application service automatically tagging response entities. The untagged
+ * entities of successful GET and HEAD responses receive a weak entity tag
+ * computed from a digest of their content, and conditional requests matching
+ * it receive a "304 Not Modified" response without the content. The service
+ * is disabled by default.<br>
+ * <br>
+ * The content still has to be produced to compute its digest. Resources able
+ * to cheaply compute a version of their state should rather override the
+ * {@link org.restlet.resource.ServerResource#getVersionTag()} method, which
+ * allows conditional requests to be answered without invoking the handler.
+ * 
+ * @author Jerome Louvel
+ * @see TagFilter
+ */
+public class TagService extends Service {
+
+	/** The digest algorithm. */
+	private volatile String algorithm;
+
+	/** The maximum size of a tagged entity. */
+	private volatile long maxEntitySize;
+
+	/**
+	 * Constructor. The service is disabled by default.
+	 */
+	public TagService() {
+		this(false);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param enabled True if the service has been enabled.
+	 */
+	public TagService(boolean enabled) {
+		super(enabled);
+		this.algorithm = Digest.ALGORITHM_MD5;
+		this.maxEntitySize = 1024L * 1024;
+	}
+
+	@Override
+	public Filter createInboundFilter(Context context) {
+		return new TagFilter(context, getAlgorithm(), getMaxEntitySize());
+	}
+
+	/**
+	 * Returns the digest algorithm. Defaults to {@link Digest#ALGORITHM_MD5}.
+	 * 
+	 * @return The digest algorithm.
+	 */
+	public String getAlgorithm() {
+		return this.algorithm;
+	}
+
+	/**
+	 * Returns the maximum size of a tagged entity. Larger entities are left
+	 * untagged. Defaults to 1 MB.
+	 * 
+	 * @return The maximum size of a tagged entity.
+	 */
+	public long getMaxEntitySize() {
+		return this.maxEntitySize;
+	}
+
+	/**
+	 * Sets the digest algorithm.
+	 * 
+	 * @param algorithm The digest algorithm. See constant values in
+	 *                  {@link Digest}.
+	 */
+	public void setAlgorithm(String algorithm) {
+		this.algorithm = algorithm;
+	}
+
+	/**
+	 * Sets the maximum size of a tagged entity.
+	 * 
+	 * @param maxEntitySize The maximum size of a tagged entity.
+	 */
+	public void setMaxEntitySize(long maxEntitySize) {
+		this.maxEntitySize = maxEntitySize;
+	}
+
+}
@@ -30,6 +30,8 @@ import org.restlet.Context;
 import org.restlet.Response;
 import org.restlet.engine.Engine;
 import org.restlet.engine.util.ContextualRunnable;
+import org.restlet.engine.util.ThreadUtils;
+import org.restlet.engine.util.VirtualThreadExecutorService;
 import org.restlet.routing.VirtualHost;
 
 /**
@@ -46,7 +48,13 @@ import org.restlet.routing.VirtualHost;
  * Resources that are part of your context. In general this context corresponds
  * to a parent Application's context. If you want to have your own service
  * instance, you can use the {@link TaskService#wrap(ScheduledExecutorService)}
- * method to ensure that thread local variables are correctly set.
+ * method to ensure that thread local variables are correctly set.<br>
+ * <br>
+ * When the JVM supports them (Java 21 or later), the tasks can be executed by
+ * virtual threads instead of a bounded pool of platform threads, see
+ * {@link #setVirtualThreads(boolean)}. Unless explicitly set, this mode can
+ * also be enabled via the "virtualThreads" parameter of the parent context or
+ * the "org.restlet.engine.virtualThreads" system property.
  * 
  * @author Jerome Louvel
  * @author Doug Lea (docs of ExecutorService in public domain)
@@ -221,6 +229,12 @@ public class TaskService extends Service implements ScheduledExecutorService {
 	 */
 	private volatile boolean shutdownAllowed;
 
+	/**
+	 * Indicates if the tasks are executed by virtual threads when supported by
+	 * the JVM, or null if not explicitly set.
+	 */
+	private volatile Boolean virtualThreads;
+
 	/** The wrapped JDK executor service. */
 	private volatile ScheduledExecutorService wrapped;
 
@@ -262,6 +276,7 @@ public class TaskService extends Service implements ScheduledExecutorService {
 		super(enabled);
 		this.corePoolSize = corePoolSize;
 		this.shutdownAllowed = false;
+		this.virtualThreads = null;
 	}
 
 	/**
@@ -292,13 +307,27 @@ public class TaskService extends Service implements ScheduledExecutorService {
 	/**
 	 * Creates a new JDK executor service that will be wrapped. By default it calls
 	 * {@link Executors#newCachedThreadPool(ThreadFactory)}, passing the result of
-	 * {@link #createThreadFactory()} as a parameter.
+	 * {@link #createThreadFactory()} as a parameter. In the virtual threads mode,
+	 * a new virtual thread is started for each task and the delayed or periodic
+	 * tasks are handled by a pool of virtual threads.
 	 * 
 	 * @param corePoolSize The core pool size defining the maximum number of
 	 *                     threads.
 	 * @return A new JDK executor service.
 	 */
 	protected ScheduledExecutorService createExecutorService(int corePoolSize) {
+		if (isVirtualThreads()) {
+			ExecutorService executor = ThreadUtils.createVirtualThreadExecutor("restlet-virtual-");
+			ThreadFactory factory = ThreadUtils.createVirtualThreadFactory("restlet-virtual-scheduler-");
+
+			if ((executor != null) && (factory != null)) {
+				return new VirtualThreadExecutorService(Executors.newScheduledThreadPool(corePoolSize, factory),
+						executor);
+			}
+
+			Context.getCurrentLogger().warning("Virtual threads aren't supported by the JVM, using platform threads");
+		}
+
 		return Executors.newScheduledThreadPool(corePoolSize, createThreadFactory());
 	}
 
@@ -468,6 +497,27 @@ public class TaskService extends Service implements ScheduledExecutorService {
 		return (getWrapped() == null) || getWrapped().isTerminated();
 	}
 
+	/**
+	 * Indicates if the tasks are executed by virtual threads when supported by
+	 * the JVM. When not explicitly set with {@link #setVirtualThreads(boolean)},
+	 * the "virtualThreads" parameter of the parent context is used if present.
+	 * Otherwise, false by default, unless the "org.restlet.engine.virtualThreads"
+	 * system property is set to "true".
+	 * 
+	 * @return True if the tasks are executed by virtual threads when supported.
+	 */
+	public boolean isVirtualThreads() {
+		Boolean result = this.virtualThreads;
+
+		if (result == null) {
+			String value = (getContext() == null) ? null
+					: getContext().getParameters().getFirstValue("virtualThreads");
+			result = (value == null) ? ThreadUtils.isVirtualThreadsDefault() : Boolean.parseBoolean(value);
+		}
+
+		return result;
+	}
+
 	/**
 	 * Creates and executes a ScheduledFuture that becomes enabled after the given
 	 * delay.
@@ -577,6 +627,18 @@ public class TaskService extends Service implements ScheduledExecutorService {
 		this.shutdownAllowed = allowShutdown;
 	}
 
+	/**
+	 * Indicates if the tasks should be executed by virtual threads when supported
+	 * by the JVM. Takes precedence over the "virtualThreads" parameter of the
+	 * parent context and takes effect the next time the service is started.
+	 * 
+	 * @param virtualThreads True if the tasks should be executed by virtual
+	 *                       threads when supported.
+	 */
+	public void setVirtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+
 	/**
 	 * Sets the wrapped JDK executor service.
 	 * 
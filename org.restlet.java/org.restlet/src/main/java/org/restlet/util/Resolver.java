@@ -199,6 +199,46 @@ import org.restlet.engine.util.MapResolver;
  * <td>SIP</td>
  * <td>Integer</td>
  * </tr>
+ * <tr>
+ * <td>request.timing.elapsedTime</td>
+ * <td>tt</td>
+ * <td>Long (microseconds)</td>
+ * </tr>
+ * <tr>
+ * <td>request.timing.accept</td>
+ * <td>tac</td>
+ * <td>Long (microseconds)</td>
+ * </tr>
+ * <tr>
+ * <td>request.timing.adaptation</td>
+ * <td>tad</td>
+ * <td>Long (microseconds)</td>
+ * </tr>
+ * <tr>
+ * <td>request.timing.routing</td>
+ * <td>tro</td>
+ * <td>Long (microseconds)</td>
+ * </tr>
+ * <tr>
+ * <td>request.timing.filtering</td>
+ * <td>tfi</td>
+ * <td>Long (microseconds)</td>
+ * </tr>
+ * <tr>
+ * <td>request.timing.handling</td>
+ * <td>tha</td>
+ * <td>Long (microseconds)</td>
+ * </tr>
+ * <tr>
+ * <td>request.timing.conversion</td>
+ * <td>tco</td>
+ * <td>Long (microseconds)</td>
+ * </tr>
+ * <tr>
+ * <td>request.timing.commit</td>
+ * <td>tcm</td>
+ * <td>Long (microseconds)</td>
+ * </tr>
  * </table>
  * <br>
  * 
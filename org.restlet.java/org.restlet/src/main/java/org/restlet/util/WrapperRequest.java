@@ -25,6 +25,7 @@ import org.restlet.data.Method;
 import org.restlet.data.Protocol;
 import org.restlet.data.Range;
 import org.restlet.data.Reference;
+import org.restlet.engine.log.CallTiming;
 import org.restlet.representation.Representation;
 
 /**
@@ -58,6 +59,11 @@ public class WrapperRequest extends Request {
 		wrappedRequest.commit(response);
 	}
 
+	@Override
+	public void commit(Response response, Runnable completion) {
+		wrappedRequest.commit(response, completion);
+	}
+
 	/**
 	 * Returns a modifiable attributes map that can be used by developers to save
 	 * information relative to the message. This is an easier alternative to the
@@ -240,6 +246,16 @@ public class WrapperRequest extends Request {
 		return getWrappedRequest().getRootRef();
 	}
 
+	/**
+	 * Returns the latency breakdown of the call.
+	 * 
+	 * @return The latency breakdown of the call.
+	 */
+	@Override
+	public CallTiming getTiming() {
+		return getWrappedRequest().getTiming();
+	}
+
 	/**
 	 * Returns the wrapped request.
 	 * 
@@ -302,6 +318,11 @@ public class WrapperRequest extends Request {
 		return wrappedRequest.isExpectingResponse();
 	}
 
+	@Override
+	public boolean isSuspendable() {
+		return wrappedRequest.isSuspendable();
+	}
+
 	@Override
 	public boolean isSynchronous() {
 		return wrappedRequest.isSynchronous();
@@ -473,6 +494,16 @@ public class WrapperRequest extends Request {
 		getWrappedRequest().setRootRef(rootRef);
 	}
 
+	/**
+	 * Sets the latency breakdown of the call.
+	 * 
+	 * @param timing The latency breakdown of the call.
+	 */
+	@Override
+	public void setTiming(CallTiming timing) {
+		getWrappedRequest().setTiming(timing);
+	}
+
 	/**
 	 * Sets the access control request headers of the target resource.
 	 * 